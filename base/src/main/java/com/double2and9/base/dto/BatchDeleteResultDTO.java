@@ -0,0 +1,18 @@
+package com.double2and9.base.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "批量删除结果")
+public class BatchDeleteResultDTO {
+
+    @Schema(description = "已删除（或本就不存在）的文件URL")
+    private List<String> deletedUrls = new ArrayList<>();
+
+    @Schema(description = "删除失败的文件URL，可重试")
+    private List<String> failedUrls = new ArrayList<>();
+}
@@ -12,6 +12,12 @@ public enum ContentErrorCode {
     COURSE_STATUS_ERROR(100105, "课程状态错误"),
     COURSE_PUBLISH_ERROR(100106, "课程发布失败"),
     COURSE_ORG_NOT_MATCH(100106, "课程与机构不匹配"),
+    COURSE_BULK_JOB_NOT_EXISTS(100107, "批量任务不存在"),
+    COURSE_BULK_JOB_BUSY(100108, "批量任务过多，请稍后重试"),
+    COURSE_SCHEDULE_NOT_EXISTS(100109, "定时任务不存在"),
+    COURSE_SCHEDULE_STATUS_ERROR(100110, "定时任务正在执行或已结束"),
+    COURSE_SCHEDULE_TIME_INVALID(100111, "定时时间必须晚于当前时间"),
+    COURSE_CATALOG_CURSOR_INVALID(100112, "课程目录游标无效"),
 
     // 课程计划相关错误 1002xx
     TEACHPLAN_NOT_EXISTS(100201, "课程计划不存在"),
@@ -22,6 +28,7 @@ public enum ContentErrorCode {
     // 教师相关错误 1003xx
     TEACHER_NOT_EXISTS(100301, "教师不存在"),
     TEACHER_COURSE_NOT_MATCH(100302, "教师与课程不匹配"),
+    TEACHER_DUPLICATED(100303, "同一批次中教师重复"),
 
     // 媒资相关错误 1004xx
     MEDIA_NOT_EXISTS(100401, "媒资文件不存在"),
@@ -38,7 +45,18 @@ public enum ContentErrorCode {
     // 课程封面相关错误 1005xx
     UPLOAD_LOGO_FAILED(100501, "上传课程封面失败"),
     DELETE_LOGO_FAILED(100502, "删除课程封面失败"),
-    LOGO_NOT_EXISTS(100503, "课程封面不存在");
+    LOGO_NOT_EXISTS(100503, "课程封面不存在"),
+
+    // 机构分片相关错误 1006xx
+    TENANT_MOVING(100601, "机构数据迁移中，暂不能修改"),
+    CROSS_SHARD_TRANSACTION(100602, "一个事务不能访问多个分片的数据"),
+    SHARD_NOT_EXISTS(100603, "分片不存在"),
+    TENANT_ALREADY_PLACED(100604, "机构已分配分片或已有数据，请使用迁移"),
+    TENANT_MOVE_FAILED(100605, "机构数据迁移失败"),
+
+    // 审核队列相关错误 1007xx
+    AUDIT_TASK_NOT_EXISTS(100701, "审核任务不存在"),
+    AUDIT_CURSOR_INVALID(100702, "审核队列游标无效");
 
     private final int code;
     private final String message;
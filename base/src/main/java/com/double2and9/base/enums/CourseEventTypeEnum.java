@@ -0,0 +1,33 @@
+package com.double2and9.base.enums;
+
+import lombok.Getter;
+
+/**
+ * 课程生命周期事件类型
+ */
+@Getter
+public enum CourseEventTypeEnum {
+
+    SUBMITTED_FOR_AUDIT("COURSE_SUBMITTED", "提交审核"),
+    AUDITED("COURSE_AUDITED", "审核完成"),
+    PUBLISHED("COURSE_PUBLISHED", "课程发布"),
+    OFFLINE("COURSE_OFFLINE", "课程下架"),
+    DELETED("COURSE_DELETED", "课程删除");
+
+    private final String code;
+    private final String desc;
+
+    CourseEventTypeEnum(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+
+    public static CourseEventTypeEnum getByCode(String code) {
+        for (CourseEventTypeEnum value : values()) {
+            if (value.getCode().equals(code)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
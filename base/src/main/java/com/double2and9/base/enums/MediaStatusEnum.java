@@ -13,7 +13,8 @@ public enum MediaStatusEnum {
     UPLOAD_FAILED("3", "上传失败"),
     PROCESSING("4", "处理中"),
     PROCESS_SUCCESS("5", "处理成功"),
-    PROCESS_FAILED("6", "处理失败");
+    PROCESS_FAILED("6", "处理失败"),
+    MISSING("7", "存储文件缺失");
 
     private final String code;
     private final String desc;
@@ -0,0 +1,49 @@
+package com.double2and9.base.log;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 日志限流
+ * 高频接口的INFO日志在每个时间窗口内只放行一条，其余计入被省略的条数，
+ * 放行时通过 takeSuppressed() 取出并清零，写进日志便于估算真实流量。
+ * 判断只有一次CAS，没有锁，可以放在请求线程的热点路径上。
+ *
+ * <pre>
+ * if (log.isInfoEnabled() &amp;&amp; LIMITER.tryAcquire()) {
+ *     log.info("...，期间省略{}条", ..., LIMITER.takeSuppressed());
+ * }
+ * </pre>
+ */
+public class LogRateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedNanos;
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowedNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 当前窗口是否还能输出一条日志，不能时计入被省略的条数
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long next = nextAllowedNanos.get();
+        if (now - next >= 0 && nextAllowedNanos.compareAndSet(next, now + intervalNanos)) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * 取出上次放行以来被省略的条数并清零
+     */
+    public long takeSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,23 @@
+package com.double2and9.base.metrics;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 记录命令指标的RedisTemplate
+ *
+ * @see RedisCommandMetrics
+ */
+public class MeteredRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    private final RedisCommandMetrics metrics;
+
+    public MeteredRedisTemplate(RedisCommandMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected RedisConnection preProcessConnection(RedisConnection connection, boolean existingConnection) {
+        return metrics.instrument(super.preProcessConnection(connection, existingConnection));
+    }
+}
@@ -0,0 +1,26 @@
+package com.double2and9.base.metrics;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 记录命令指标的StringRedisTemplate
+ * 父类会把连接包装成StringRedisConnection，代理套在最外层，String参数的键同样能取到前缀。
+ *
+ * @see RedisCommandMetrics
+ */
+public class MeteredStringRedisTemplate extends StringRedisTemplate {
+
+    private final RedisCommandMetrics metrics;
+
+    public MeteredStringRedisTemplate(RedisConnectionFactory connectionFactory, RedisCommandMetrics metrics) {
+        super(connectionFactory);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected RedisConnection preProcessConnection(RedisConnection connection, boolean existingConnection) {
+        return metrics.instrument(super.preProcessConnection(connection, existingConnection));
+    }
+}
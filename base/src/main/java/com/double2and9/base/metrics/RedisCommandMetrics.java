@@ -0,0 +1,171 @@
+package com.double2and9.base.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Record;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis命令指标
+ * 给RedisTemplate取到的连接套一层代理，每条命令记录一次 redis.commands 计时，
+ * 标签为 command（方法名）、prefix（键前缀）、outcome（success/error）。
+ * 键前缀取最后一个冒号之前的部分，例如 media:temp:image:{uuid} 记为 media:temp:image，
+ * 不含冒号的键记为 none，避免把完整的键当标签导致时间序列爆炸。
+ * 当前线程处于某条链路中时，每条命令另外生成一个"redis 命令名"的客户端span；
+ * 定时任务等链路之外的命令只计时，不单独开启链路。
+ */
+public class RedisCommandMetrics {
+
+    public static final String METRIC_NAME = "redis.commands";
+
+    private static final String NO_PREFIX = "none";
+
+    /**
+     * 连接的生命周期方法和状态查询，不是Redis命令，不计时
+     */
+    private static final Set<String> IGNORED_METHODS = Set.of(
+            "close", "isClosed", "getNativeConnection", "isQueueing", "isPipelined", "openPipeline",
+            "closePipeline", "getSentinelConnection", "getDelegate", "getConversionStrategy",
+            "toString", "hashCode", "equals");
+
+    private final MeterRegistry registry;
+    private final Tracer tracer;
+
+    public RedisCommandMetrics(MeterRegistry registry) {
+        this(registry, Tracer.NOOP);
+    }
+
+    public RedisCommandMetrics(MeterRegistry registry, Tracer tracer) {
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * 包装连接，返回的代理实现原连接的全部接口（包括StringRedisConnection）
+     */
+    public RedisConnection instrument(RedisConnection connection) {
+        return (RedisConnection) wrap(connection);
+    }
+
+    private Object wrap(Object target) {
+        // 非public接口不能与其他包的接口放进同一个代理
+        Class<?>[] interfaces = Arrays.stream(ClassUtils.getAllInterfaces(target))
+                .filter(type -> Modifier.isPublic(type.getModifiers()))
+                .toArray(Class<?>[]::new);
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces, new MeteredInvocation(target));
+    }
+
+    /**
+     * 计算键前缀，取第一个参数中的键：键本身（String或byte[]）、多键命令的键数组、Stream记录的流名称，
+     * 其他情况返回none
+     */
+    static String keyPrefix(Object[] args) {
+        if (args == null || args.length == 0) {
+            return NO_PREFIX;
+        }
+        String key = keyOf(args[0]);
+        if (key == null) {
+            return NO_PREFIX;
+        }
+        int index = key.lastIndexOf(':');
+        return index > 0 ? key.substring(0, index) : NO_PREFIX;
+    }
+
+    private static String keyOf(Object arg) {
+        if (arg instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (arg instanceof String text) {
+            return text;
+        }
+        if (arg instanceof Object[] keys && keys.length > 0) {
+            return keyOf(keys[0]);
+        }
+        if (arg instanceof Record<?, ?> record) {
+            return keyOf(record.getStream());
+        }
+        return null;
+    }
+
+    private class MeteredInvocation implements InvocationHandler {
+
+        private final Object target;
+
+        MeteredInvocation(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // connection.stringCommands() 等返回的命令接口同样需要计时
+            if (method.getParameterCount() == 0 && name.endsWith("Commands") && method.getReturnType().isInterface()) {
+                Object commands = invokeTarget(method, args);
+                return commands == null ? null : wrap(commands);
+            }
+            if (IGNORED_METHODS.contains(name) || method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+
+            String prefix = keyPrefix(args);
+            Span span = startSpan(name, prefix);
+            long start = System.nanoTime();
+            String outcome = "success";
+            try {
+                return invokeTarget(method, args);
+            } catch (Throwable e) {
+                outcome = "error";
+                if (span != null) {
+                    span.error(e);
+                }
+                throw e;
+            } finally {
+                Timer.builder(METRIC_NAME)
+                        .description("Redis命令耗时")
+                        .tag("command", name)
+                        .tag("prefix", prefix)
+                        .tag("outcome", outcome)
+                        .register(registry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (span != null) {
+                    span.end();
+                }
+            }
+        }
+
+        private Span startSpan(String command, String prefix) {
+            if (tracer.currentSpan() == null) {
+                return null;
+            }
+            return tracer.spanBuilder()
+                    .name("redis " + command)
+                    .kind(Span.Kind.CLIENT)
+                    .remoteServiceName("redis")
+                    .tag("db.system", "redis")
+                    .tag("db.operation", command)
+                    .tag("redis.key.prefix", prefix)
+                    .start();
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
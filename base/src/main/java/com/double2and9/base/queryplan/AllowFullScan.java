@@ -0,0 +1,22 @@
+package com.double2and9.base.queryplan;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 允许仓库查询方法全表扫描，value 写明原因
+ * 例如 LIKE '%关键字%' 这类无法使用索引的条件，{@link QueryPlanChecker} 不把标注的方法计为违规
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AllowFullScan {
+
+    /**
+     * 允许全表扫描的原因
+     */
+    String value();
+}
@@ -0,0 +1,262 @@
+package com.double2and9.base.queryplan;
+
+import com.double2and9.base.queryplan.StatementCapture.CapturedStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 仓库查询的执行计划检查
+ * 应用启动完成后逐个调用所有仓库的查询方法（方法名派生的查询和 @Query），参数使用示例值，
+ * 在回滚的事务中执行并记录实际发出的SQL和绑定参数（数据源需经 {@link StatementCapture} 包装），
+ * 再对每条语句执行EXPLAIN。某张表的访问类型为ALL且没有任何可用索引（possible_keys为空）即视为全表扫描。
+ * 判断的是"有没有可用的索引"而不是优化器最终的选择，与表中数据量无关，空的测试库上结果也稳定。
+ * 本身就需要扫描全表的查询用 {@link AllowFullScan} 标注。只支持MySQL，其他数据库跳过检查。
+ */
+@Slf4j
+public class QueryPlanChecker implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Object UNSUPPORTED = new Object();
+
+    private final ListableBeanFactory beanFactory;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean failOnFullScan;
+
+    public QueryPlanChecker(ListableBeanFactory beanFactory, DataSource dataSource,
+                            PlatformTransactionManager transactionManager, boolean failOnFullScan) {
+        this.beanFactory = beanFactory;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.failOnFullScan = failOnFullScan;
+    }
+
+    /**
+     * 一次全表扫描
+     *
+     * @param repository 仓库接口名
+     * @param method     方法名
+     * @param table      被扫描的表
+     * @param sql        发出的SQL
+     */
+    public record Violation(String repository, String method, String table, String sql) {
+
+        @Override
+        public String toString() {
+            return repository + "." + method + " 全表扫描 " + table + "：" + sql;
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        List<Violation> violations = check();
+        if (violations.isEmpty()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("仓库查询存在全表扫描，请补充索引或用 @AllowFullScan 标注原因：");
+        violations.forEach(violation -> report.append("\n  ").append(violation));
+        if (failOnFullScan) {
+            throw new IllegalStateException(report.toString());
+        }
+        log.warn(report.toString());
+    }
+
+    /**
+     * 检查所有仓库的查询方法，返回发现的全表扫描
+     */
+    public List<Violation> check() {
+        if (!isMySql()) {
+            log.info("执行计划检查只支持MySQL，跳过");
+            return List.of();
+        }
+        List<Violation> violations = new ArrayList<>();
+        Repositories repositories = new Repositories(beanFactory);
+        int checked = 0;
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            String repositoryName = information.getRepositoryInterface().getSimpleName();
+            List<Method> methods = information.getQueryMethods().stream()
+                    .sorted(Comparator.comparing(Method::getName))
+                    .toList();
+            for (Method method : methods) {
+                Object[] args = sampleArguments(method);
+                if (args == null) {
+                    log.info("跳过 {}.{}：参数无法构造示例值", repositoryName, method.getName());
+                    continue;
+                }
+                List<CapturedStatement> statements;
+                try {
+                    statements = invokeAndRollback(repository, method, args);
+                } catch (RuntimeException e) {
+                    log.warn("跳过 {}.{}：使用示例参数调用失败：{}", repositoryName, method.getName(), e.getMessage());
+                    continue;
+                }
+                AllowFullScan allowed = AnnotatedElementUtils.findMergedAnnotation(method, AllowFullScan.class);
+                for (CapturedStatement statement : statements) {
+                    for (String table : fullScanTables(statement)) {
+                        if (allowed != null) {
+                            log.debug("{}.{} 全表扫描 {}，已允许：{}", repositoryName, method.getName(), table,
+                                    allowed.value());
+                        } else {
+                            violations.add(new Violation(repositoryName, method.getName(), table, statement.sql()));
+                        }
+                    }
+                }
+                checked++;
+            }
+        }
+        log.info("执行计划检查完成，检查查询方法{}个，全表扫描{}处", checked, violations.size());
+        return violations;
+    }
+
+    private List<CapturedStatement> invokeAndRollback(Object repository, Method method, Object[] args) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return StatementCapture.capture(() -> ReflectionUtils.invokeMethod(method, repository, args));
+        });
+    }
+
+    private List<String> fullScanTables(CapturedStatement statement) {
+        String sql = statement.sql().stripLeading().toLowerCase(Locale.ROOT);
+        if (!(sql.startsWith("select") || sql.startsWith("update") || sql.startsWith("delete")
+                || sql.startsWith("with"))) {
+            return List.of();
+        }
+        List<String> tables = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            List<Object> parameters = statement.parameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                explain.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    String table = rows.getString("table");
+                    if (isFullScan(table, rows.getString("type"), rows.getString("possible_keys"))) {
+                        tables.add(table);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("EXPLAIN执行失败：{}，SQL：{}", e.getMessage(), statement.sql());
+        }
+        return tables;
+    }
+
+    /**
+     * EXPLAIN的一行是否为全表扫描：访问类型ALL且没有可用索引；派生表、UNION结果等临时表（<derived2>）不计
+     */
+    static boolean isFullScan(String table, String type, String possibleKeys) {
+        return table != null && !table.startsWith("<")
+                && "ALL".equalsIgnoreCase(type)
+                && !StringUtils.hasText(possibleKeys);
+    }
+
+    /**
+     * 为查询方法构造示例参数，有无法构造的参数类型（如Specification）时返回null
+     */
+    static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object value = sampleValue(ResolvableType.forMethodParameter(method, i));
+            if (value == UNSUPPORTED) {
+                return null;
+            }
+            args[i] = value;
+        }
+        return args;
+    }
+
+    private static Object sampleValue(ResolvableType type) {
+        Class<?> raw = type.toClass();
+        if (raw == Long.class || raw == long.class) {
+            return 1L;
+        }
+        if (raw == Integer.class || raw == int.class) {
+            return 1;
+        }
+        if (raw == Short.class || raw == short.class) {
+            return (short) 1;
+        }
+        if (raw == Boolean.class || raw == boolean.class) {
+            return true;
+        }
+        if (raw == String.class) {
+            return "sample";
+        }
+        if (raw == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (raw == Date.class) {
+            return new Date();
+        }
+        if (raw == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (raw == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (raw == Instant.class) {
+            return Instant.now();
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        if (raw == Pageable.class) {
+            // 第一页结果不满一页时Spring Data不执行count查询，取第二页让count查询也被检查
+            return PageRequest.of(1, 10);
+        }
+        if (raw == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(raw) || raw == Iterable.class) {
+            Object element = sampleValue(type.as(Iterable.class).getGeneric(0));
+            if (element == UNSUPPORTED) {
+                return UNSUPPORTED;
+            }
+            return Set.class.isAssignableFrom(raw) ? Set.of(element) : List.of(element);
+        }
+        return UNSUPPORTED;
+    }
+
+    private boolean isMySql() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        } catch (SQLException e) {
+            log.warn("无法获取数据库类型，跳过执行计划检查：{}", e.getMessage());
+            return false;
+        }
+    }
+}
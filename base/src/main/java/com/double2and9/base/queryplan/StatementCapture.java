@@ -0,0 +1,149 @@
+package com.double2and9.base.queryplan;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 记录JDBC语句及其绑定参数
+ * 包装后的数据源只在 {@link #capture(Runnable)} 范围内记录当前线程执行的语句，其余时候只是多一层转发。
+ * 批量语句在 addBatch 时逐条记录。
+ */
+public final class StatementCapture {
+
+    private static final ThreadLocal<List<CapturedStatement>> CAPTURED = new ThreadLocal<>();
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private StatementCapture() {
+    }
+
+    /**
+     * 一条执行过的语句
+     *
+     * @param sql        带占位符的SQL
+     * @param parameters 按占位符顺序排列的参数值
+     */
+    public record CapturedStatement(String sql, List<Object> parameters) {
+    }
+
+    /**
+     * 执行 action 并返回期间当前线程通过包装数据源执行的语句
+     */
+    public static List<CapturedStatement> capture(Runnable action) {
+        List<CapturedStatement> previous = CAPTURED.get();
+        List<CapturedStatement> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                CAPTURED.remove();
+            } else {
+                CAPTURED.set(previous);
+            }
+        }
+        return statements;
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        if (Proxy.isProxyClass(dataSource.getClass())
+                && Proxy.getInvocationHandler(dataSource) instanceof CapturingInvocation) {
+            return dataSource;
+        }
+        return proxy(DataSource.class, new CapturingInvocation(dataSource, null));
+    }
+
+    /**
+     * 把容器中的DataSource替换为包装后的数据源，在属性绑定（初始化）之后执行
+     */
+    public static BeanPostProcessor dataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static class CapturingInvocation implements InvocationHandler {
+
+        private final Object target;
+        /**
+         * PreparedStatement的SQL，其他对象为null
+         */
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        CapturingInvocation(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (sql != null) {
+                recordParameter(name, args);
+            }
+            if (EXECUTE_METHODS.contains(name)) {
+                record(name, args);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+
+            Class<?> returnType = method.getReturnType();
+            if (result != null && returnType.isInterface()
+                    && (Connection.class.isAssignableFrom(returnType) || Statement.class.isAssignableFrom(returnType))) {
+                String statementSql = PreparedStatement.class.isAssignableFrom(returnType) && args != null
+                        && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(returnType, new CapturingInvocation(result, statementSql));
+            }
+            return result;
+        }
+
+        private void recordParameter(String name, Object[] args) {
+            if ("clearParameters".equals(name)) {
+                parameters.clear();
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                // setNull 的第二个参数是SQL类型，不是值
+                parameters.put(index, "setNull".equals(name) ? null : args[1]);
+            }
+        }
+
+        private void record(String name, Object[] args) {
+            List<CapturedStatement> statements = CAPTURED.get();
+            if (statements == null) {
+                return;
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                // Statement.execute(String) 等直接带SQL的调用，没有绑定参数
+                statements.add(new CapturedStatement(text, List.of()));
+            } else if (sql != null) {
+                statements.add(new CapturedStatement(sql, new ArrayList<>(parameters.values())));
+            }
+        }
+    }
+}
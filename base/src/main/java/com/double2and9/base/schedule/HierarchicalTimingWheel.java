@@ -0,0 +1,140 @@
+package com.double2and9.base.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮
+ * 第一层每格 tickMs，共 wheelSize 格；超出本层范围的条目放到上一层，上一层每格等于下一层一整圈，按需创建。
+ * 时钟推进到上层某格时，把格中的条目重新放入下层，逐层下沉，最终在到期的那一格取出。
+ * 添加和取出都是 O(1)（不计下沉），大量同一时刻到期的条目落在同一格，一次全部取出。
+ * <p>
+ * 到期时间向上取整到 tickMs，条目不会早于到期时间取出，最多晚一个 tickMs（加上调用 advance 的间隔）。
+ * 非线程安全的内部状态由方法上的锁保护，添加线程与推进线程可以不同。
+ *
+ * @param <T> 条目类型
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private record Entry<T>(T item, long deadlineMs) {
+    }
+
+    private final Level<T> root;
+    private int size;
+
+    /**
+     * @param tickMs    第一层每格的时长（毫秒）
+     * @param wheelSize 每层的格数
+     * @param startMs   起始时间（毫秒）
+     */
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs必须大于0，wheelSize必须大于1");
+        }
+        this.root = new Level<>(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * 添加条目
+     *
+     * @return false 表示已经到期，没有加入时间轮，由调用方立即处理
+     */
+    public synchronized boolean add(T item, long deadlineMs) {
+        long tickMs = root.tickMs;
+        long aligned = -Math.floorDiv(-deadlineMs, tickMs) * tickMs;
+        if (!root.add(new Entry<>(item, aligned))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * 把时钟推进到 nowMs，返回期间到期的条目，按到期时间先后排列
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        List<Entry<T>> drained = new ArrayList<>();
+        while (root.currentTime + root.tickMs <= nowMs) {
+            root.step(drained);
+            for (Entry<T> entry : drained) {
+                if (!root.add(entry)) {
+                    expired.add(entry.item());
+                    size--;
+                }
+            }
+            drained.clear();
+        }
+        return expired;
+    }
+
+    /**
+     * 时间轮中尚未到期的条目数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 时间轮的当前时间（毫秒），按 tickMs 对齐
+     */
+    public synchronized long currentTime() {
+        return root.currentTime;
+    }
+
+    private static final class Level<T> {
+
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final List<List<Entry<T>>> buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        private Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * 放入本层或上层；已到期时返回false
+         */
+        private boolean add(Entry<T> entry) {
+            long deadline = entry.deadlineMs();
+            if (deadline <= currentTime) {
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                buckets.get(index(deadline)).add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        /**
+         * 前进一格，取出该格的条目；本层转过上层一格时上层同步前进
+         */
+        private void step(List<Entry<T>> drained) {
+            currentTime += tickMs;
+            List<Entry<T>> bucket = buckets.get(index(currentTime));
+            drained.addAll(bucket);
+            bucket.clear();
+            if (overflow != null && currentTime >= overflow.currentTime + overflow.tickMs) {
+                overflow.step(drained);
+            }
+        }
+
+        private int index(long time) {
+            return (int) Math.floorMod(Math.floorDiv(time, tickMs), (long) wheelSize);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.double2and9.base.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按时间衰减的近似 Top-K
+ * 每个键的分数是历次权重按半衰期衰减后之和，越近的权重越大。采用前向衰减：权重写入时乘以 2^((t - 基准时间) / 半衰期)，
+ * 查询时再统一除以 2^((now - 基准时间) / 半衰期)，不需要逐条衰减；指数过大时把全部分数折算到新的基准时间。
+ * <p>
+ * 最多保留约 1.25 × capacity 个键，超出时淘汰分数最低的键直到剩下 capacity 个，被淘汰的键再次出现时从零开始累计，
+ * 因此结果是近似的：capacity 应明显大于查询的条数。方法上的锁保护内部状态。
+ *
+ * @param <K> 键类型
+ */
+public class DecayingTopK<K> {
+
+    /**
+     * 键和衰减到查询时刻的分数
+     */
+    public record Scored<K>(K key, double score) {
+    }
+
+    /**
+     * 2^64 之内折算一次，double 不会溢出也不会丢失精度到不可比较
+     */
+    private static final double MAX_EXPONENT = 64;
+
+    private final int capacity;
+    private final int trimThreshold;
+    private final double halfLifeMs;
+    private final Map<K, Double> scores = new HashMap<>();
+    private long landmarkMs;
+
+    /**
+     * @param capacity   保留的键数
+     * @param halfLifeMs 半衰期（毫秒）
+     * @param startMs    起始时间（毫秒）
+     */
+    public DecayingTopK(int capacity, long halfLifeMs, long startMs) {
+        if (capacity <= 0 || halfLifeMs <= 0) {
+            throw new IllegalArgumentException("capacity和halfLifeMs必须大于0");
+        }
+        this.capacity = capacity;
+        this.trimThreshold = capacity + Math.max(1, capacity / 4);
+        this.halfLifeMs = halfLifeMs;
+        this.landmarkMs = startMs;
+    }
+
+    /**
+     * 给键累加权重，权重不大于0时忽略
+     */
+    public synchronized void add(K key, double weight, long nowMs) {
+        if (weight <= 0) {
+            return;
+        }
+        if (exponent(nowMs) > MAX_EXPONENT) {
+            rescale(nowMs);
+        }
+        scores.merge(key, weight * Math.pow(2, exponent(nowMs)), Double::sum);
+        if (scores.size() > trimThreshold) {
+            trim();
+        }
+    }
+
+    /**
+     * 分数最高的 n 个键，按分数从高到低
+     */
+    public synchronized List<Scored<K>> top(int n, long nowMs) {
+        double scale = Math.pow(2, -exponent(nowMs));
+        List<Scored<K>> result = new ArrayList<>(scores.size());
+        scores.forEach((key, score) -> result.add(new Scored<>(key, score * scale)));
+        result.sort(Comparator.comparingDouble((Scored<K> s) -> s.score()).reversed());
+        return n < result.size() ? new ArrayList<>(result.subList(0, Math.max(0, n))) : result;
+    }
+
+    public synchronized void remove(K key) {
+        scores.remove(key);
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    private double exponent(long nowMs) {
+        return (nowMs - landmarkMs) / halfLifeMs;
+    }
+
+    private void rescale(long nowMs) {
+        double scale = Math.pow(2, -exponent(nowMs));
+        scores.replaceAll((key, score) -> score * scale);
+        landmarkMs = nowMs;
+    }
+
+    private void trim() {
+        List<Map.Entry<K, Double>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        for (int i = 0; i < entries.size() - capacity; i++) {
+            scores.remove(entries.get(i).getKey());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.double2and9.base.thread;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 虚拟线程模式装配，content、media共用
+ * 通过 spring.threads.virtual.enabled=true（base模块的 application-vthreads.yml）开启，需要Java 21运行时，
+ * Java 17上 @ConditionalOnThreading 不成立，整个配置不生效。
+ * Tomcat请求处理、@Async、@Scheduled 由Spring Boot自动切换到虚拟线程，这里补充：
+ * 1. 钉住监控
+ * 2. 连接池配置检查：虚拟线程不再由Tomcat线程数限流，并发上限落在连接池上
+ */
+@AutoConfiguration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadAutoConfiguration.class);
+
+    /**
+     * 等待连接超过该值时告警，虚拟线程模式下排队的请求不会被线程池挡住，应尽快失败
+     */
+    private static final long MAX_RECOMMENDED_CONNECTION_TIMEOUT_MS = 5000;
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-threshold-ms:20}") long thresholdMs,
+            @Value("${virtual-threads.pinning-stack-depth:8}") int stackDepth) {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs), stackDepth);
+        monitor.start();
+        return monitor;
+    }
+
+    /**
+     * HikariCP是可选依赖，单独放在内部类中按需装配
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    static class PoolSizingCheckConfiguration {
+
+        @Bean
+        public ApplicationRunner virtualThreadPoolSizingCheck(ObjectProvider<DataSource> dataSource) {
+            return args -> {
+                if (!(dataSource.getIfAvailable() instanceof HikariDataSource hikari)) {
+                    return;
+                }
+                log.info("虚拟线程模式已开启，数据库连接池：maximumPoolSize={}，connectionTimeout={}ms",
+                        hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                if (hikari.getConnectionTimeout() > MAX_RECOMMENDED_CONNECTION_TIMEOUT_MS) {
+                    log.warn("连接池等待超时 {}ms 过长，虚拟线程模式下请求会在连接池上大量堆积，建议不超过 {}ms",
+                            hikari.getConnectionTimeout(), MAX_RECOMMENDED_CONNECTION_TIMEOUT_MS);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.double2and9.base.tracing;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 进程内的span导出器
+ * 作为SpanProcessor在span结束时同步保存，不经过批量导出线程，也不需要网络，
+ * 用于测试断言和离线压测时查看各阶段耗时。只保留最近 capacity 个span。
+ */
+public class InMemorySpanRecorder implements SpanProcessor {
+
+    private final int capacity;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    public InMemorySpanRecorder(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData data = span.toSpanData();
+        synchronized (spans) {
+            if (spans.size() >= capacity) {
+                spans.removeFirst();
+            }
+            spans.addLast(data);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * 已结束的span，按结束顺序排列
+     */
+    public List<SpanData> getFinishedSpans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * 一条链路的全部span，按开始时间排列
+     */
+    public List<SpanData> getTrace(String traceId) {
+        List<SpanData> trace = new ArrayList<>();
+        for (SpanData span : getFinishedSpans()) {
+            if (span.getTraceId().equals(traceId)) {
+                trace.add(span);
+            }
+        }
+        trace.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+        return trace;
+    }
+
+    public void reset() {
+        synchronized (spans) {
+            spans.clear();
+        }
+    }
+}
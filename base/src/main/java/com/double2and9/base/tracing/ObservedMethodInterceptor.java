@@ -0,0 +1,46 @@
+package com.double2and9.base.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * 把方法调用包装成一次Observation
+ * 接入链路追踪后每次调用生成一个span，名称为"类名.方法名"，下游的Feign、仓库调用挂在它下面；
+ * 同时按 name 记录计时，标签为 type（类名）和 method，取值都是有限的。
+ */
+public class ObservedMethodInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+    private final String name;
+    private final String typeName;
+
+    /**
+     * @param name     Observation名称，例如 service.method
+     * @param typeName 固定的类型名，为null时取被调用对象的类名
+     */
+    public ObservedMethodInterceptor(ObjectProvider<ObservationRegistry> registryProvider, String name,
+                                     String typeName) {
+        this.registryProvider = registryProvider;
+        this.name = name;
+        this.typeName = typeName;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ObservationRegistry registry = registryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+        if (registry.isNoop()) {
+            return invocation.proceed();
+        }
+        String type = typeName != null ? typeName : AopUtils.getTargetClass(invocation.getThis()).getSimpleName();
+        String method = invocation.getMethod().getName();
+        return Observation.createNotStarted(name, registry)
+                .contextualName(type + "." + method)
+                .lowCardinalityKeyValue("type", type)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked(invocation::proceed);
+    }
+}
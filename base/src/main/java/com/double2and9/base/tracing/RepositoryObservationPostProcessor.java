@@ -0,0 +1,34 @@
+package com.double2and9.base.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * 给Spring Data仓库代理加上 {@link ObservedMethodInterceptor}
+ * 仓库是接口代理，切面匹配不到，这里与Spring Boot记录 spring.data.repository.invocations 的方式相同，
+ * 在仓库工厂创建代理之前注册拦截器，span名称为"仓库接口名.方法名"。
+ */
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+
+    public static final String OBSERVATION_NAME = "repository.method";
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(new ObservedMethodInterceptor(
+                            registryProvider, OBSERVATION_NAME,
+                            information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+}
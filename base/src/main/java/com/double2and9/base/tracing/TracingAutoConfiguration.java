@@ -0,0 +1,57 @@
+package com.double2and9.base.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+
+/**
+ * 链路追踪装配，content、media共用
+ * 控制器、Feign、Redis、MinIO的span由Spring Boot、Spring Cloud和各服务自己的配置生成，这里补充：
+ * 1. @Service 类的公开方法，span名称为"实现类名.方法名"
+ * 2. Spring Data仓库方法，span名称为"仓库接口名.方法名"
+ * 3. tracing.in-memory.enabled=true 时在进程内保存span，用于测试和离线排查
+ */
+@AutoConfiguration
+@ConditionalOnClass(ObservationRegistry.class)
+public class TracingAutoConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceObservationAdvisor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new ObservedMethodInterceptor(observationRegistry, "service.method", null));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.in-memory.enabled", havingValue = "true")
+    public InMemorySpanRecorder inMemorySpanRecorder(@Value("${tracing.in-memory.capacity:10000}") int capacity) {
+        return new InMemorySpanRecorder(capacity);
+    }
+
+    /**
+     * Spring Data是可选依赖，单独放在内部类中按需装配
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RepositoryFactoryBeanSupport.class)
+    static class RepositoryTracingConfiguration {
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        public static RepositoryObservationPostProcessor repositoryObservationPostProcessor(
+                ObjectProvider<ObservationRegistry> observationRegistry) {
+            return new RepositoryObservationPostProcessor(observationRegistry);
+        }
+    }
+}
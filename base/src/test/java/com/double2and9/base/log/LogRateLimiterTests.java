@@ -0,0 +1,24 @@
+package com.double2and9.base.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRateLimiterTests {
+
+    @Test
+    void testTryAcquire_OnePerWindow() throws InterruptedException {
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofMillis(200));
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.takeSuppressed());
+        assertEquals(0, limiter.takeSuppressed());
+
+        Thread.sleep(250);
+        assertTrue(limiter.tryAcquire());
+    }
+}
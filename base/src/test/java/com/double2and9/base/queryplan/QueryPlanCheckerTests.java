@@ -0,0 +1,96 @@
+package com.double2and9.base.queryplan;
+
+import com.double2and9.base.queryplan.StatementCapture.CapturedStatement;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryPlanCheckerTests {
+
+    interface SampleRepository {
+        List<Object> findByOrganizationIdAndStatus(Long organizationId, String status, Pageable pageable);
+
+        List<Object> findByUrlIn(Collection<String> urls);
+
+        List<Object> findAll(Predicate<Object> filter);
+    }
+
+    @Test
+    void testIsFullScan_OnlyWithoutUsableIndex() {
+        assertTrue(QueryPlanChecker.isFullScan("teachplan", "ALL", null));
+        assertTrue(QueryPlanChecker.isFullScan("teachplan", "ALL", ""));
+        // 有可用索引但优化器因数据量小选择了全表扫描，不算
+        assertFalse(QueryPlanChecker.isFullScan("teachplan", "ALL", "idx_teachplan_parent_order"));
+        assertFalse(QueryPlanChecker.isFullScan("teachplan", "ref", "idx_teachplan_parent_order"));
+        assertFalse(QueryPlanChecker.isFullScan("<derived2>", "ALL", null));
+        assertFalse(QueryPlanChecker.isFullScan(null, null, null));
+    }
+
+    @Test
+    void testSampleArguments() throws NoSuchMethodException {
+        Method paged = SampleRepository.class.getMethod("findByOrganizationIdAndStatus",
+                Long.class, String.class, Pageable.class);
+        Object[] args = QueryPlanChecker.sampleArguments(paged);
+        assertNotNull(args);
+        assertEquals(1L, args[0]);
+        assertInstanceOf(String.class, args[1]);
+        // 取第二页，count查询才会执行
+        assertEquals(1, ((Pageable) args[2]).getPageNumber());
+
+        Method in = SampleRepository.class.getMethod("findByUrlIn", Collection.class);
+        Object[] inArgs = QueryPlanChecker.sampleArguments(in);
+        assertNotNull(inArgs);
+        assertEquals(List.of("sample"), inArgs[0]);
+
+        Method unsupported = SampleRepository.class.getMethod("findAll", Predicate.class);
+        assertNull(QueryPlanChecker.sampleArguments(unsupported));
+    }
+
+    @Test
+    void testCapture_RecordsSqlAndParametersOnlyInsideCapture() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        DataSource dataSource = StatementCapture.wrap(target);
+        assertSame(dataSource, StatementCapture.wrap(dataSource));
+
+        String sql = "select * from teachplan where parent_id = ? and level = ?";
+        List<CapturedStatement> captured = StatementCapture.capture(() -> {
+            try (Connection c = dataSource.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setLong(1, 5L);
+                ps.setNull(2, Types.INTEGER);
+                ps.executeQuery();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals(1, captured.size());
+        assertEquals(sql, captured.get(0).sql());
+        assertEquals(Arrays.asList(5L, null), captured.get(0).parameters());
+
+        // capture 之外执行的语句不记录
+        List<CapturedStatement> outside = StatementCapture.capture(() -> {
+        });
+        try (Connection c = dataSource.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.executeQuery();
+        }
+        assertTrue(outside.isEmpty());
+    }
+}
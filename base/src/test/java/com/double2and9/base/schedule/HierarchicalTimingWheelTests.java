@@ -0,0 +1,57 @@
+package com.double2and9.base.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTests {
+
+    @Test
+    void testEntriesExpireAtTheirTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, 1000);
+
+        assertTrue(wheel.add("a", 1015));
+        assertTrue(wheel.add("b", 1020));
+        assertFalse(wheel.add("late", 1000));
+        assertEquals(2, wheel.size());
+
+        // 1015 向上取整到 1020，不会提前取出
+        assertTrue(wheel.advance(1019).isEmpty());
+        assertEquals(List.of("a", "b"), wheel.advance(1020));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testOverflowLevelsCascadeDown() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        // 第一层只覆盖 40ms，其余落在上层
+        long[] deadlines = {30, 50, 170, 640, 2555};
+        for (long deadline : deadlines) {
+            assertTrue(wheel.add(deadline, deadline));
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 3000; now += 10) {
+            for (Long deadline : wheel.advance(now)) {
+                long aligned = (deadline + 9) / 10 * 10;
+                assertEquals(aligned, now, "条目应在到期的那一格取出：" + deadline);
+                fired.add(deadline);
+            }
+        }
+        assertEquals(List.of(30L, 50L, 170L, 640L, 2555L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testSameInstantEntriesComeOutTogether() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(100, 16, 0);
+        for (int i = 0; i < 5000; i++) {
+            wheel.add(i, 86_400_000);
+        }
+        assertTrue(wheel.advance(86_399_999).isEmpty());
+        assertEquals(5000, wheel.advance(86_400_050).size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.double2and9.base.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecayingTopKTests {
+
+    @Test
+    void testScoresDecayByHalfLife() {
+        DecayingTopK<String> topK = new DecayingTopK<>(10, 1000, 0);
+        topK.add("old", 4, 0);
+        topK.add("new", 3, 1000);
+
+        // 一个半衰期后 old 只剩 2
+        List<DecayingTopK.Scored<String>> top = topK.top(10, 1000);
+        assertEquals(List.of("new", "old"), keys(top));
+        assertEquals(3, top.get(0).score(), 1e-9);
+        assertEquals(2, top.get(1).score(), 1e-9);
+        assertEquals(List.of("new"), keys(topK.top(1, 1000)));
+
+        topK.remove("new");
+        assertEquals(List.of("old"), keys(topK.top(10, 1000)));
+    }
+
+    @Test
+    void testLowestScoresAreEvicted() {
+        DecayingTopK<Integer> topK = new DecayingTopK<>(4, 60_000, 0);
+        for (int key = 1; key <= 20; key++) {
+            topK.add(key, key, 0);
+        }
+        assertTrue(topK.size() <= 5);
+        assertEquals(List.of(20, 19, 18, 17), keys(topK.top(4, 0)));
+    }
+
+    @Test
+    void testLongRunningScoresStayFinite() {
+        DecayingTopK<String> topK = new DecayingTopK<>(10, 10, 0);
+        topK.add("a", 1, 0);
+        // 远超 64 个半衰期，写入时折算到新的基准时间
+        long later = 10_000;
+        topK.add("b", 1, later);
+        topK.add("a", 2, later);
+
+        List<DecayingTopK.Scored<String>> top = topK.top(10, later);
+        assertEquals(List.of("a", "b"), keys(top));
+        assertEquals(2, top.get(0).score(), 1e-9);
+        assertTrue(Double.isFinite(top.get(1).score()));
+        assertEquals(0.5, topK.top(10, later + 10).get(1).score(), 1e-9);
+    }
+
+    private static <K> List<K> keys(List<DecayingTopK.Scored<K>> scored) {
+        return scored.stream().map(DecayingTopK.Scored::key).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,41 @@
+package com.double2and9.base.thread;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadAutoConfigurationTests {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(VirtualThreadAutoConfiguration.class));
+
+    @Test
+    void testDisabledByDefault() {
+        runner.run(context -> assertTrue(context.getBeansOfType(VirtualThreadPinningMonitor.class).isEmpty()));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void testVthreadsProfileIgnoredBeforeJava21() {
+        // 开启了 vthreads profile 的配置在Java 17上运行时不生效，不会启动JFR监控
+        runner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(VirtualThreadPinningMonitor.class).isEmpty());
+                    assertFalse(context.containsBean("virtualThreadPoolSizingCheck"));
+                });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testEnabledOnJava21() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true", "virtual-threads.pinning-threshold-ms=50")
+                .run(context -> {
+                    assertNotNull(context.getBean(VirtualThreadPinningMonitor.class));
+                    assertTrue(context.containsBean("virtualThreadPoolSizingCheck"));
+                });
+    }
+}
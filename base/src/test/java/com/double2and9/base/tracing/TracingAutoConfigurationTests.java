@@ -0,0 +1,78 @@
+package com.double2and9.base.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingAutoConfigurationTests {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class, TracingAutoConfiguration.class))
+            .withUserConfiguration(ObservedConfig.class);
+
+    @Test
+    void testServiceMethodObserved() {
+        runner.run(context -> {
+            context.getBean(GreetingService.class).greet();
+
+            List<String> names = context.getBean(ObservedConfig.class).names;
+            assertEquals(List.of("service.method"), names);
+            assertTrue(context.containsBean("repositoryObservationPostProcessor"));
+        });
+    }
+
+    @Test
+    void testInMemoryRecorderOnlyWhenEnabled() {
+        runner.run(context -> assertTrue(context.getBeansOfType(InMemorySpanRecorder.class).isEmpty()));
+        runner.withPropertyValues("tracing.in-memory.enabled=true")
+                .run(context -> assertNotNull(context.getBean(InMemorySpanRecorder.class)));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ObservedConfig {
+
+        final List<String> names = new CopyOnWriteArrayList<>();
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            ObservationRegistry registry = ObservationRegistry.create();
+            registry.observationConfig().observationHandler(new ObservationHandler<>() {
+                @Override
+                public void onStart(Observation.Context context) {
+                    names.add(context.getName());
+                }
+
+                @Override
+                public boolean supportsContext(Observation.Context context) {
+                    return true;
+                }
+            });
+            return registry;
+        }
+
+        @Bean
+        GreetingService greetingService() {
+            return new GreetingService();
+        }
+    }
+
+    @Service
+    static class GreetingService {
+
+        public String greet() {
+            return "hello";
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.double2and9.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 基准测试入口
+ * 支持JMH的全部命令行参数；未指定结果文件时默认输出JSON到 benchmarks/results/，
+ * 文件名包含版本号和时间，便于比较不同版本之间的性能回归。
+ *
+ * 用法：java -jar benchmarks/target/benchmarks.jar [JMH参数，例如 TeachplanTree -f 1]
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_DIR = "benchmarks/results";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getResult().hasValue() || commandLine.getResultFormat().hasValue()) {
+            new Runner(builder.build()).run();
+            return;
+        }
+
+        File dir = new File(RESULT_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IllegalStateException("无法创建结果目录：" + dir.getAbsolutePath());
+        }
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File result = new File(dir, String.format("jmh-%s-%s.json", version == null ? "dev" : version, timestamp));
+
+        builder.resultFormat(ResultFormatType.JSON).result(result.getPath());
+        new Runner(builder.build()).run();
+        System.out.println("基准测试结果：" + result.getAbsolutePath());
+    }
+}
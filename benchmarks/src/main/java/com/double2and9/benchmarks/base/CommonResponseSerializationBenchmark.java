@@ -0,0 +1,73 @@
+package com.double2and9.benchmarks.base;
+
+import com.double2and9.base.dto.CommonResponse;
+import com.double2and9.base.dto.MediaFileDTO;
+import com.double2and9.base.model.PageResult;
+import com.double2and9.benchmarks.support.BenchmarkData;
+import com.double2and9.content_service.config.ModelMapperConfig;
+import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommonResponse 的JSON序列化
+ * ObjectMapper 与Spring MVC默认配置一致；分别覆盖单个媒资响应和一页课程列表响应
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommonResponseSerializationBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CommonResponse<MediaFileDTO> mediaResponse;
+    private CommonResponse<PageResult<CourseBaseDTO>> pageResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        MediaFileDTO mediaFile = new MediaFileDTO();
+        mediaFile.setMediaFileId("course_1234_1_5d41402abc4b2a76b9719d911017c592");
+        mediaFile.setOrganizationId(1234L);
+        mediaFile.setFileName("course-cover.jpg");
+        mediaFile.setMediaType("IMAGE");
+        mediaFile.setPurpose("COVER");
+        mediaFile.setUrl("http://minio/media/course/logo/course_1234_1_5d41402abc4b2a76b9719d911017c592");
+        mediaFile.setFileSize(204800L);
+        mediaFile.setMimeType("image/jpeg");
+        mediaFile.setStatus("1");
+        mediaResponse = CommonResponse.success(mediaFile);
+
+        ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+        List<CourseBaseDTO> items = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            CourseBaseDTO dto = modelMapper.map(BenchmarkData.course(i + 1L, 1L, 21L), CourseBaseDTO.class);
+            dto.setMtName("后端开发");
+            dto.setStName("Java");
+            items.add(dto);
+        }
+        pageResponse = CommonResponse.success(new PageResult<>(items, 1000, 1, pageSize));
+    }
+
+    @Benchmark
+    public byte[] mediaFileResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(mediaResponse);
+    }
+
+    @Benchmark
+    public byte[] coursePageResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+}
@@ -0,0 +1,157 @@
+package com.double2and9.benchmarks.content;
+
+import com.double2and9.benchmarks.support.RoundTripDelayDataSource;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseCategory;
+import com.double2and9.content_service.entity.CourseEventOutbox;
+import com.double2and9.content_service.entity.CourseMarket;
+import com.double2and9.content_service.entity.CoursePublish;
+import com.double2and9.content_service.entity.CoursePublishPre;
+import com.double2and9.content_service.entity.CourseTeacher;
+import com.double2and9.content_service.entity.MediaCleanupTask;
+import com.double2and9.content_service.entity.MediaFile;
+import com.double2and9.content_service.entity.Teachplan;
+import com.double2and9.content_service.entity.TeachplanMedia;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程计划和教师的批量写入
+ * 一个事务内新建课程、10章共60节课程计划和5位教师，或者重命名一门课程的全部课程计划。
+ * batchSize=1 相当于关闭JDBC批量，每行一次往返（与原来IDENTITY主键的逐条插入相同）；
+ * batchSize=50 为 application.yml 中的配置，主键由序列按号段预分配，同类语句合并成批。
+ * 数据库为H2内存库，roundTripMicros 模拟应用到MySQL的网络往返，0表示只看Hibernate自身的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkWriteBenchmark {
+
+    private static final int CHAPTERS = 10;
+    private static final int SECTIONS_PER_CHAPTER = 5;
+    private static final int TEACHERS = 5;
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            CourseBase.class, CourseCategory.class, CourseEventOutbox.class, CourseMarket.class,
+            CoursePublish.class, CoursePublishPre.class, CourseTeacher.class, MediaCleanupTask.class,
+            MediaFile.class, Teachplan.class, TeachplanMedia.class);
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"0", "200"})
+    public long roundTripMicros;
+
+    private JdbcDataSource database;
+    private SessionFactory sessionFactory;
+    private Long outlineCourseId;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:bulk-write-" + batchSize + "-" + roundTripMicros
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        database.setUser("sa");
+
+        Configuration configuration = new Configuration();
+        ENTITIES.forEach(configuration::addAnnotatedClass);
+        configuration.getProperties().put(AvailableSettings.DATASOURCE,
+                RoundTripDelayDataSource.wrap(database, roundTripMicros));
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create");
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        // 只比较写入路径，二级缓存单独关闭
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    /**
+     * 每轮清空数据，避免表越来越大影响后面的轮次；再准备一门带完整大纲的课程供重命名使用
+     */
+    @Setup(Level.Iteration)
+    public void resetData() throws SQLException {
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            for (String table : List.of("teachplan", "course_teacher_relation", "course_teacher", "course_base")) {
+                statement.execute("TRUNCATE TABLE " + table);
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+        outlineCourseId = createCourseWithOutline();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Long createCourseWithOutline() {
+        return sessionFactory.fromTransaction(session -> {
+            long n = ++sequence;
+            CourseBase course = new CourseBase();
+            course.setName("批量写入课程" + n);
+            course.setOrganizationId(1L);
+            course.setMt(1L);
+            course.setSt(2L);
+            course.setStatus("202001");
+            session.persist(course);
+
+            for (int c = 1; c <= CHAPTERS; c++) {
+                Teachplan chapter = teachplan(course, "第" + c + "章", 0L, 1, c);
+                session.persist(chapter);
+                for (int s = 1; s <= SECTIONS_PER_CHAPTER; s++) {
+                    session.persist(teachplan(course, c + "." + s + " 小节", chapter.getId(), 2, s));
+                }
+            }
+
+            for (int t = 1; t <= TEACHERS; t++) {
+                CourseTeacher teacher = new CourseTeacher();
+                teacher.setOrganizationId(1L);
+                teacher.setName("教师" + n + "-" + t);
+                teacher.setPosition("讲师");
+                teacher.getCourses().add(course);
+                session.persist(teacher);
+            }
+            return course.getId();
+        });
+    }
+
+    @Benchmark
+    public int renameOutline() {
+        return sessionFactory.fromTransaction(session -> {
+            List<Teachplan> teachplans = session
+                    .createSelectionQuery("from Teachplan where courseBase.id = :courseId", Teachplan.class)
+                    .setParameter("courseId", outlineCourseId)
+                    .getResultList();
+            long n = ++sequence;
+            teachplans.forEach(teachplan -> teachplan.setName("课程计划" + teachplan.getId() + " 第" + n + "次修改"));
+            return teachplans.size();
+        });
+    }
+
+    private static Teachplan teachplan(CourseBase course, String name, Long parentId, int level, int orderBy) {
+        Teachplan teachplan = new Teachplan();
+        teachplan.setCourseBase(course);
+        teachplan.setName(name);
+        teachplan.setParentId(parentId);
+        teachplan.setLevel(level);
+        teachplan.setOrderBy(orderBy);
+        return teachplan;
+    }
+}
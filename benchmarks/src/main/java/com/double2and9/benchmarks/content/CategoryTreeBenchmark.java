@@ -0,0 +1,51 @@
+package com.double2and9.benchmarks.content;
+
+import com.double2and9.benchmarks.support.BenchmarkData;
+import com.double2and9.benchmarks.support.RepositoryStubs;
+import com.double2and9.content_service.config.ModelMapperConfig;
+import com.double2and9.content_service.dto.CourseCategoryTreeDTO;
+import com.double2and9.content_service.entity.CourseCategory;
+import com.double2and9.content_service.repository.CourseCategoryRepository;
+import com.double2and9.content_service.service.impl.CourseBaseAssembler;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程分类树组装（CourseBaseAssembler.categoryTree，queryCourseCategoryTree的实现）
+ * 仓库返回内存数据，测量的是实体到DTO的映射和建树开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryTreeBenchmark {
+
+    /**
+     * 一级分类数，每个下挂10~30个二级分类
+     */
+    @Param({"5", "20"})
+    public int rootCategories;
+
+    private CourseBaseAssembler assembler;
+
+    @Setup
+    public void setUp() {
+        ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+        List<CourseCategory> categories = BenchmarkData.categories(rootCategories);
+        CourseCategoryRepository categoryRepository = RepositoryStubs.stub(CourseCategoryRepository.class,
+                Map.of("findAll", args -> categories));
+        assembler = new CourseBaseAssembler(categoryRepository, modelMapper);
+    }
+
+    @Benchmark
+    public List<CourseCategoryTreeDTO> categoryTree() {
+        return assembler.categoryTree();
+    }
+}
@@ -0,0 +1,64 @@
+package com.double2and9.benchmarks.content;
+
+import com.double2and9.benchmarks.support.BenchmarkData;
+import com.double2and9.benchmarks.support.RepositoryStubs;
+import com.double2and9.content_service.config.ModelMapperConfig;
+import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseCategory;
+import com.double2and9.content_service.repository.CourseCategoryRepository;
+import com.double2and9.content_service.service.impl.CourseBaseAssembler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 课程实体转DTO（CourseBaseAssembler.toCourseBaseDTO）
+ * 分页列表每页会对每条记录调用一次，包含两次分类名称查询
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseDtoConversionBenchmark {
+
+    /**
+     * 一页的课程数量
+     */
+    @Param({"1", "20"})
+    public int pageSize;
+
+    private CourseBaseAssembler assembler;
+    private List<CourseBase> courses;
+
+    @Setup
+    public void setUp() {
+        Map<Long, CourseCategory> categories = BenchmarkData.categories(20).stream()
+                .collect(Collectors.toMap(CourseCategory::getId, Function.identity()));
+        CourseCategoryRepository categoryRepository = RepositoryStubs.stub(CourseCategoryRepository.class,
+                Map.of("findById", args -> Optional.ofNullable(categories.get((Long) args[0]))));
+        assembler = new CourseBaseAssembler(categoryRepository, new ModelMapperConfig().modelMapper());
+
+        courses = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            courses.add(BenchmarkData.course(i + 1L, 1L, 21L + i));
+        }
+    }
+
+    @Benchmark
+    public Object convertPage() {
+        CourseBaseDTO last = null;
+        for (CourseBase course : courses) {
+            last = assembler.toCourseBaseDTO(course);
+        }
+        return last;
+    }
+}
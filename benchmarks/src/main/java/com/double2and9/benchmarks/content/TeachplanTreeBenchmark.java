@@ -0,0 +1,53 @@
+package com.double2and9.benchmarks.content;
+
+import com.double2and9.benchmarks.support.BenchmarkData;
+import com.double2and9.benchmarks.support.RepositoryStubs;
+import com.double2and9.content_service.config.ModelMapperConfig;
+import com.double2and9.content_service.dto.TeachplanDTO;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.Teachplan;
+import com.double2and9.content_service.repository.TeachplanRepository;
+import com.double2and9.content_service.service.impl.TeachplanServiceImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程计划树组装（findTeachplanTree）
+ * 仓库返回内存数据，测量的是实体到DTO的映射和建树开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeachplanTreeBenchmark {
+
+    /**
+     * 章数，每章5~15节
+     */
+    @Param({"10", "40"})
+    public int chapters;
+
+    private TeachplanServiceImpl teachplanService;
+
+    @Setup
+    public void setUp() {
+        ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+        CourseBase courseBase = BenchmarkData.course(1L, 1L, 2L);
+        List<Teachplan> teachplans = BenchmarkData.teachplans(courseBase, chapters);
+        TeachplanRepository teachplanRepository = RepositoryStubs.stub(TeachplanRepository.class,
+                Map.of("findByCourseBaseIdOrderByOrderBy", args -> teachplans));
+        teachplanService = new TeachplanServiceImpl(teachplanRepository, null, modelMapper, null);
+    }
+
+    @Benchmark
+    public List<TeachplanDTO> teachplanTree() {
+        return teachplanService.findTeachplanTree(1L);
+    }
+}
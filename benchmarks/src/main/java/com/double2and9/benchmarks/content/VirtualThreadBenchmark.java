@@ -0,0 +1,91 @@
+package com.double2and9.benchmarks.content;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程与平台线程在慢依赖下的吞吐对比（vthreads profile）
+ * 每个请求少量计算 + 一次慢依赖等待（数据库/Feign），一次调用并发提交一批请求并等待全部完成，结果按请求数折算。
+ * platform 为Tomcat默认的200线程池，virtual 与 VirtualThreadConfig 中断路器使用的执行器相同。
+ * 虚拟线程需要Java 21运行时：用JDK 21启动 benchmarks.jar，Java 17上 virtual 参数组在准备阶段失败，platform 照常运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(VirtualThreadBenchmark.REQUESTS)
+public class VirtualThreadBenchmark {
+
+    static final int REQUESTS = 4000;
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    /**
+     * 慢依赖的耗时（毫秒）
+     */
+    @Param({"50"})
+    public long dependencyLatencyMs;
+
+    private ExecutorService executor;
+    private ThreadPoolTaskExecutor platform;
+
+    @Setup
+    public void setUp() {
+        if ("virtual".equals(threads)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("虚拟线程需要Java 21运行时，当前为Java " + Runtime.version().feature());
+            }
+            executor = new ExecutorServiceAdapter(new VirtualThreadTaskExecutor("benchmark-vt-"));
+            return;
+        }
+        platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(TOMCAT_DEFAULT_MAX_THREADS);
+        platform.setMaxPoolSize(TOMCAT_DEFAULT_MAX_THREADS);
+        platform.setQueueCapacity(REQUESTS);
+        platform.setThreadNamePrefix("benchmark-platform-");
+        platform.initialize();
+        executor = platform.getThreadPoolExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platform != null) {
+            platform.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long handleRequests() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int input = i;
+            futures.add(executor.submit(() -> handle(input)));
+        }
+        long sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get(60, TimeUnit.SECONDS);
+        }
+        return sum;
+    }
+
+    /**
+     * 模拟一次请求处理
+     */
+    private int handle(int input) throws InterruptedException {
+        int hash = Integer.hashCode(input) * 31 + 17;
+        TimeUnit.MILLISECONDS.sleep(dependencyLatencyMs);
+        return hash;
+    }
+}
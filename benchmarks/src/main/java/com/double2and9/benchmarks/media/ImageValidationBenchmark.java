@@ -0,0 +1,48 @@
+package com.double2and9.benchmarks.media;
+
+import com.double2and9.benchmarks.support.BenchmarkData;
+import com.double2and9.media.utils.FileTypeUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片校验：FileTypeUtils.isAllowedImage 与 validateImage
+ * 文件大小覆盖常见封面图（50KB）到上限附近（1.5MB）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageValidationBenchmark {
+
+    @Param({"51200", "1572864"})
+    public int fileSize;
+
+    private FileTypeUtils fileTypeUtils;
+    private MockMultipartFile jpeg;
+    private MockMultipartFile upperCasePng;
+
+    @Setup
+    public void setUp() {
+        fileTypeUtils = new FileTypeUtils();
+        byte[] data = BenchmarkData.bytes(fileSize);
+        jpeg = new MockMultipartFile("file", "course-cover.jpg", "image/jpeg", data);
+        upperCasePng = new MockMultipartFile("file", "COURSE-COVER.PNG", "image/png", data);
+    }
+
+    @Benchmark
+    public void isAllowedImage(Blackhole blackhole) {
+        blackhole.consume(FileTypeUtils.isAllowedImage(jpeg));
+        blackhole.consume(FileTypeUtils.isAllowedImage(upperCasePng));
+    }
+
+    @Benchmark
+    public void validateImage() {
+        fileTypeUtils.validateImage(jpeg);
+    }
+}
@@ -0,0 +1,40 @@
+package com.double2and9.benchmarks.media;
+
+import com.double2and9.media.service.impl.ImageServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程封面文件ID生成（generateMediaFileId，私有方法通过MethodHandle调用）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MediaFileIdBenchmark {
+
+    @Param({"cover.jpg", "/tmp/upload/2024/10/课程封面-高清版-final-v2.png"})
+    public String fileName;
+
+    private MethodHandle generate;
+    private long courseId;
+
+    @Setup
+    public void setUp() throws Exception {
+        ImageServiceImpl service = new ImageServiceImpl(null, null, null, null, null, null);
+        Method method = ImageServiceImpl.class.getDeclaredMethod("generateMediaFileId", Long.class, Long.class, String.class);
+        method.setAccessible(true);
+        generate = MethodHandles.lookup().unreflect(method).bindTo(service);
+    }
+
+    @Benchmark
+    public Object generateMediaFileId() throws Throwable {
+        return generate.invoke(Long.valueOf(1234L), Long.valueOf(++courseId), fileName);
+    }
+}
@@ -0,0 +1,51 @@
+package com.double2and9.benchmarks.media;
+
+import com.double2and9.benchmarks.support.BenchmarkData;
+import com.double2and9.media.dto.TempFileDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 临时文件在Redis中的序列化往返（serialize + deserialize）
+ * json 为 RedisConfig 当前使用的 GenericJackson2JsonRedisSerializer，jdk 作为对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TempFileSerializerBenchmark {
+
+    @Param({"102400", "2097152"})
+    public int fileSize;
+
+    @Param({"json", "jdk"})
+    public String serializer;
+
+    private RedisSerializer<Object> redisSerializer;
+    private TempFileDTO tempFile;
+
+    @Setup
+    public void setUp() {
+        redisSerializer = "json".equals(serializer)
+                ? new GenericJackson2JsonRedisSerializer()
+                : new JdkSerializationRedisSerializer();
+        tempFile = new TempFileDTO();
+        tempFile.setFileName("course-cover.jpg");
+        tempFile.setContentType("image/jpeg");
+        tempFile.setFileData(BenchmarkData.bytes(fileSize));
+        tempFile.setFileSize((long) fileSize);
+        tempFile.setUploadUser("teacher-1234");
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        byte[] bytes = redisSerializer.serialize(tempFile);
+        return redisSerializer.deserialize(bytes);
+    }
+}
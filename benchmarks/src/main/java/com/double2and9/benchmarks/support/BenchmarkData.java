@@ -0,0 +1,127 @@
+package com.double2and9.benchmarks.support;
+
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseCategory;
+import com.double2and9.content_service.entity.CourseMarket;
+import com.double2and9.content_service.entity.Teachplan;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试数据生成
+ * 数据规模参考线上：课程计划每章5~15节，分类树一级分类约20个、每个下挂10~30个二级分类
+ */
+public final class BenchmarkData {
+
+    private static final long SEED = 20241019L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 生成课程计划，按 orderBy 排序后与仓库查询结果顺序一致（章在前、节紧随其后）
+     */
+    public static List<Teachplan> teachplans(CourseBase courseBase, int chapters) {
+        Random random = new Random(SEED);
+        List<Teachplan> teachplans = new ArrayList<>();
+        long id = 1;
+        for (int c = 1; c <= chapters; c++) {
+            Teachplan chapter = teachplan(id++, "第" + c + "章 " + words(random, 6), 0L, 1, c, courseBase);
+            teachplans.add(chapter);
+            int sections = 5 + random.nextInt(11);
+            for (int s = 1; s <= sections; s++) {
+                teachplans.add(teachplan(id++, c + "." + s + " " + words(random, 10), chapter.getId(), 2, s, courseBase));
+            }
+        }
+        return teachplans;
+    }
+
+    private static Teachplan teachplan(long id, String name, Long parentId, int level, int orderBy, CourseBase courseBase) {
+        Teachplan teachplan = new Teachplan();
+        teachplan.setId(id);
+        teachplan.setName(name);
+        teachplan.setParentId(parentId);
+        teachplan.setLevel(level);
+        teachplan.setOrderBy(orderBy);
+        teachplan.setCourseBase(courseBase);
+        teachplan.setCreateTime(new Date());
+        teachplan.setUpdateTime(new Date());
+        return teachplan;
+    }
+
+    /**
+     * 生成分类，父节点总在子节点之前（与按ID查询的结果顺序一致）
+     */
+    public static List<CourseCategory> categories(int roots) {
+        Random random = new Random(SEED);
+        List<CourseCategory> categories = new ArrayList<>();
+        long id = 1;
+        List<Long> rootIds = new ArrayList<>();
+        for (int r = 0; r < roots; r++) {
+            rootIds.add(id);
+            categories.add(category(id++, words(random, 4), 0L, 1));
+        }
+        for (Long rootId : rootIds) {
+            int children = 10 + random.nextInt(21);
+            for (int c = 0; c < children; c++) {
+                categories.add(category(id++, words(random, 5), rootId, 2));
+            }
+        }
+        return categories;
+    }
+
+    private static CourseCategory category(long id, String name, Long parentId, int level) {
+        CourseCategory category = new CourseCategory();
+        category.setId(id);
+        category.setName(name);
+        category.setParentId(parentId);
+        category.setLevel(level);
+        return category;
+    }
+
+    public static CourseBase course(long id, Long mt, Long st) {
+        Random random = new Random(SEED + id);
+        CourseBase courseBase = new CourseBase();
+        courseBase.setId(id);
+        courseBase.setName("Java高并发实战 " + words(random, 4));
+        courseBase.setBrief(words(random, 120));
+        courseBase.setLogo("http://minio/media/course/logo/course_1_" + id + "_5d41402abc4b2a76b9719d911017c592");
+        courseBase.setMt(mt);
+        courseBase.setSt(st);
+        courseBase.setCharge("201001");
+        courseBase.setStatus("202002");
+        courseBase.setValid(true);
+        courseBase.setOrganizationId(1234L);
+        courseBase.setCreateTime(new Date());
+        courseBase.setUpdateTime(new Date());
+
+        CourseMarket market = new CourseMarket();
+        market.setId(id);
+        market.setCharge("201001");
+        market.setPrice(new BigDecimal("199.00"));
+        market.setPriceOld(new BigDecimal("299.00"));
+        market.setDiscounts("限时优惠");
+        market.setValid(true);
+        market.setCourseBase(courseBase);
+        courseBase.setCourseMarket(market);
+        return courseBase;
+    }
+
+    public static byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        new Random(SEED).nextBytes(data);
+        return data;
+    }
+
+    private static String words(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('一' + random.nextInt(2000)));
+        }
+        return builder.toString();
+    }
+}
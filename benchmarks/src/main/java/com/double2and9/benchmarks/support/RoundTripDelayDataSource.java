@@ -0,0 +1,62 @@
+package com.double2and9.benchmarks.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * 给内存数据库加上网络往返延迟的数据源
+ * 每次语句执行、提交、回滚都等待一个往返时间；executeBatch 只算一次往返，
+ * 对应MySQL驱动开启 rewriteBatchedStatements 后把一批插入改写成一条多值语句的行为。
+ * 等待用自旋而不是sleep，微秒级的延迟才准确。
+ */
+public final class RoundTripDelayDataSource {
+
+    private static final Set<String> ROUND_TRIP_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch", "commit", "rollback");
+
+    private RoundTripDelayDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource, long roundTripMicros) {
+        return proxy(DataSource.class, dataSource, roundTripMicros * 1000);
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, long delayNanos) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(target, method, args, delayNanos);
+        return type.cast(Proxy.newProxyInstance(RoundTripDelayDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args, long delayNanos) throws Throwable {
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+        if (delayNanos > 0 && ROUND_TRIP_METHODS.contains(method.getName())) {
+            spin(delayNanos);
+        }
+        // 连接和语句也要包装，按方法声明的返回类型代理（PreparedStatement、CallableStatement等）
+        Class<?> returnType = method.getReturnType();
+        if (result != null && returnType.isInterface()
+                && (Connection.class.isAssignableFrom(returnType) || Statement.class.isAssignableFrom(returnType))) {
+            return proxy(returnType, result, delayNanos);
+        }
+        return result;
+    }
+
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.double2and9.content_service.cache;
+
+import com.double2and9.base.log.LogRateLimiter;
+import com.double2and9.content_service.common.datasource.ReadWriteRoutingDataSource;
+import com.double2and9.content_service.config.CourseCacheProperties;
+import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CoursePreviewDTO;
+import com.double2and9.content_service.dto.CourseTeacherDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 课程详情、课程预览和机构教师目录的旁路缓存
+ * 读取时先查缓存，未命中再回源并写回；课程、课程计划、教师变更时删除相关课程和机构的缓存。
+ * 缓存保存编码后的字节，各节点共享，每次读取都解码出新对象，调用方修改返回值不影响缓存。防止缓存击穿：
+ * <ul>
+ *     <li>过期时间在 ttl-ms 上下随机抖动，同一时刻写入的缓存不会同时过期</li>
+ *     <li>每条缓存记录过期时间和回源耗时，临近过期时按概率提前刷新（回源越慢越早开始），
+ *     热点课程在过期前由个别请求刷新，不会在过期那一刻所有请求同时回源</li>
+ *     <li>同一节点同一门课程同时只有一个请求回源，其他请求等待它的结果；正在提前刷新时其他请求直接使用未过期的缓存</li>
+ * </ul>
+ * 回源在主库上读取（{@link ReadWriteRoutingDataSource#callOnPrimary}）：副本允许落后 max-lag-ms 加一个健康检查间隔，
+ * 与 delayed-evict-ms 相当，从副本回源可能在延迟删除之后仍读到提交前的数据并写回，留到过期。
+ * 删除缓存时立即删除一次，事务结束后再删除一次，再过 delayed-evict-ms 延迟删除一次：
+ * 本节点删除期间开始的回源结果不写回；其他节点在提交前读到旧数据的回源，耗时不超过 delayed-evict-ms 时
+ * 写回的旧数据会被延迟删除清掉，超过时不写回，旧数据不会留到过期。
+ * 存储不可用时按未命中处理，直接回源。
+ */
+@Slf4j
+@Component
+public class CourseCache {
+
+    private static final String COURSE = "course";
+    private static final String PREVIEW = "preview";
+    private static final String ORG_TEACHERS = "org-teachers";
+    private static final int EVICTION_STRIPES = 1024;
+    private static final LogRateLimiter STORE_ERROR_LOG_LIMITER = new LogRateLimiter(Duration.ofSeconds(10));
+
+    /**
+     * 缓存条目：逻辑过期时间、回源耗时和编码后的数据
+     */
+    private record Entry(long expiresAt, int computeMs, byte[] payload) {
+
+        byte[] encode() {
+            return ByteBuffer.allocate(12 + payload.length)
+                    .putLong(expiresAt).putInt(computeMs).put(payload).array();
+        }
+
+        static Entry decode(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long expiresAt = buffer.getLong();
+            int computeMs = buffer.getInt();
+            byte[] payload = new byte[buffer.remaining()];
+            buffer.get(payload);
+            return new Entry(expiresAt, computeMs, payload);
+        }
+    }
+
+    private final CourseCacheStore store;
+    private final CourseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+    /**
+     * 按ID分段的删除次数，回源前后不一致说明期间该课程、机构（或同一分段的ID）的缓存被删除过，结果不写回
+     */
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+    private final ScheduledExecutorService delayedEvictions = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "course-cache-evict");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CourseCache(CourseCacheStore store, CourseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 容器关闭时立即执行尚未到期的延迟删除：关闭事件在Redis连接停止之前发布，之后再删除会失败
+     */
+    @EventListener(ContextClosedEvent.class)
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable pending : delayedEvictions.shutdownNow()) {
+            pending.run();
+        }
+    }
+
+    public CourseBaseDTO getCourse(Long courseId, Supplier<CourseBaseDTO> loader) {
+        return get(COURSE, courseId, loader, CourseCacheCodec::encodeCourse, CourseCacheCodec::decodeCourse);
+    }
+
+    public CoursePreviewDTO getPreview(Long courseId, Supplier<CoursePreviewDTO> loader) {
+        return get(PREVIEW, courseId, loader, CourseCacheCodec::encodePreview, CourseCacheCodec::decodePreview);
+    }
+
+    public List<CourseTeacherDTO> getOrganizationTeachers(Long organizationId, Supplier<List<CourseTeacherDTO>> loader) {
+        return get(ORG_TEACHERS, organizationId, loader,
+                CourseCacheCodec::encodeTeachers, CourseCacheCodec::decodeTeachers);
+    }
+
+    /**
+     * 删除课程的详情和预览缓存；在事务中调用时事务结束后再删除一次，之后再延迟删除一次
+     */
+    public void evict(Long courseId) {
+        evict(List.of(courseId));
+    }
+
+    public void evict(Collection<Long> courseIds) {
+        evict(List.of(COURSE, PREVIEW), courseIds);
+    }
+
+    /**
+     * 删除机构教师目录缓存，时机与 {@link #evict(Long)} 相同
+     */
+    public void evictOrganizationTeachers(Long organizationId) {
+        if (organizationId != null) {
+            evict(List.of(ORG_TEACHERS), List.of(organizationId));
+        }
+    }
+
+    private void evict(List<String> types, Collection<Long> ids) {
+        if (!properties.isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        delete(types, copy);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    delete(types, copy);
+                    deleteLater(types, copy);
+                }
+            });
+        } else {
+            deleteLater(types, copy);
+        }
+    }
+
+    private void deleteLater(List<String> types, List<Long> ids) {
+        long delayMs = properties.getDelayedEvictMs();
+        if (delayMs <= 0) {
+            return;
+        }
+        try {
+            delayedEvictions.schedule(() -> delete(types, ids), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 正在关闭
+            log.debug("节点关闭中，跳过延迟删除课程缓存，ID：{}", ids);
+        }
+    }
+
+    private <T> T get(String type, Long id, Supplier<T> loader,
+                      Function<T, byte[]> encoder, Function<byte[], T> decoder) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        String key = key(type, id);
+        Entry cached = read(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && !refreshEarly(cached, now)) {
+            T value = decode(cached.payload(), decoder);
+            if (value != null) {
+                count(type, "hit");
+                return value;
+            }
+            cached = null;
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            T value = cached != null ? decode(cached.payload(), decoder) : null;
+            if (value != null) {
+                // 其他请求正在提前刷新，缓存还未过期
+                count(type, "hit");
+                return value;
+            }
+            count(type, "wait");
+            return decoder.apply(await(inFlight));
+        }
+        count(type, cached == null ? "miss" : "refresh");
+        try {
+            long generation = evictions.get(stripe(id));
+            long start = System.nanoTime();
+            T value = ReadWriteRoutingDataSource.callOnPrimary(loader);
+            int computeMs = (int) Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            byte[] payload = encoder.apply(value);
+            if (evictions.get(stripe(id)) == generation && withinDelayedEviction(start)) {
+                write(key, payload, computeMs);
+            }
+            mine.complete(payload);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * 回源（从开始到写回）不超过 delayed-evict-ms 时才写回：
+     * 写回时间晚于其他节点的延迟删除，说明回源开始于对方提交之前，可能读到了旧数据
+     */
+    private boolean withinDelayedEviction(long startNanos) {
+        long delayMs = properties.getDelayedEvictMs();
+        return delayMs <= 0 || System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(delayMs);
+    }
+
+    /**
+     * 概率提前刷新：now - 回源耗时 × beta × ln(随机数) 超过过期时间时刷新，越接近过期、回源越慢，刷新概率越大
+     */
+    private boolean refreshEarly(Entry entry, long now) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - entry.computeMs() * properties.getEarlyRefreshBeta() * Math.log(random) >= entry.expiresAt();
+    }
+
+    private Entry read(String key) {
+        try {
+            byte[] bytes = store.get(key);
+            return bytes == null || bytes.length < 12 ? null : Entry.decode(bytes);
+        } catch (RuntimeException e) {
+            logStoreError("读取", e);
+            return null;
+        }
+    }
+
+    private void write(String key, byte[] payload, int computeMs) {
+        double jitter = properties.getTtlJitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        long ttlMs = Math.max(1, (long) (properties.getTtlMs() * (1 + jitter)));
+        try {
+            store.set(key, new Entry(System.currentTimeMillis() + ttlMs, computeMs, payload).encode(), ttlMs);
+        } catch (RuntimeException e) {
+            logStoreError("写入", e);
+        }
+    }
+
+    private void delete(List<String> types, List<Long> ids) {
+        List<String> keys = new ArrayList<>(ids.size() * types.size());
+        for (Long id : ids) {
+            evictions.incrementAndGet(stripe(id));
+            types.forEach(type -> keys.add(key(type, id)));
+        }
+        try {
+            store.delete(keys);
+        } catch (RuntimeException e) {
+            // 删除失败时旧数据最多保留一个过期时间
+            log.error("删除课程缓存失败，类型：{}，ID：{}", types, ids, e);
+        }
+    }
+
+    private static int stripe(Long id) {
+        return (int) Math.floorMod(id, (long) EVICTION_STRIPES);
+    }
+
+    private <T> T decode(byte[] payload, Function<byte[], T> decoder) {
+        try {
+            return decoder.apply(payload);
+        } catch (RuntimeException e) {
+            log.warn("课程缓存解码失败，按未命中处理：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void logStoreError(String operation, RuntimeException e) {
+        if (STORE_ERROR_LOG_LIMITER.tryAcquire()) {
+            log.warn("{}课程缓存失败，直接查询数据库，期间省略{}条：{}", operation,
+                    STORE_ERROR_LOG_LIMITER.takeSuppressed(), e.getMessage());
+        }
+    }
+
+    private void count(String type, String result) {
+        meterRegistry.counter("course.cache.requests", "cache", type, "result", result).increment();
+    }
+
+    private String key(String type, Long id) {
+        return properties.getKeyPrefix() + ":" + type + ":" + id;
+    }
+}
@@ -0,0 +1,354 @@
+package com.double2and9.content_service.cache;
+
+import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CoursePreviewDTO;
+import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.dto.TeachplanDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 课程缓存的二进制编码
+ * 每个对象先写一个变长整数的位图标记哪些字段不为空，再按字段顺序只写不为空的值：
+ * 整数用ZigZag变长编码，字符串为长度加UTF-8字节，不写字段名和类型信息，一门课程的预览通常只有同样内容JSON的一半左右。
+ * 第一个字节是格式版本，字段增减时升级版本，旧版本的数据解码失败后按未命中处理。
+ */
+public final class CourseCacheCodec {
+
+    static final byte VERSION = 1;
+
+    private CourseCacheCodec() {
+    }
+
+    public static byte[] encodeCourse(CourseBaseDTO course) {
+        Writer writer = new Writer();
+        writer.writeByte(VERSION);
+        writeCourse(writer, course);
+        return writer.toByteArray();
+    }
+
+    public static CourseBaseDTO decodeCourse(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        reader.checkVersion();
+        CourseBaseDTO course = readCourse(reader);
+        reader.checkEnd();
+        return course;
+    }
+
+    public static byte[] encodePreview(CoursePreviewDTO preview) {
+        Writer writer = new Writer();
+        writer.writeByte(VERSION);
+        writer.writeMask(preview.getCourseBase(), preview.getTeachplans(), preview.getTeachers());
+        if (preview.getCourseBase() != null) {
+            writeCourse(writer, preview.getCourseBase());
+        }
+        if (preview.getTeachplans() != null) {
+            writeTeachplans(writer, preview.getTeachplans());
+        }
+        if (preview.getTeachers() != null) {
+            writer.writeVarLong(preview.getTeachers().size());
+            preview.getTeachers().forEach(teacher -> writeTeacher(writer, teacher));
+        }
+        return writer.toByteArray();
+    }
+
+    public static CoursePreviewDTO decodePreview(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        reader.checkVersion();
+        long mask = reader.readVarLong();
+        CoursePreviewDTO preview = new CoursePreviewDTO();
+        if (present(mask, 0)) {
+            preview.setCourseBase(readCourse(reader));
+        }
+        if (present(mask, 1)) {
+            preview.setTeachplans(readTeachplans(reader));
+        }
+        if (present(mask, 2)) {
+            int size = reader.readSize();
+            List<CourseTeacherDTO> teachers = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                teachers.add(readTeacher(reader));
+            }
+            preview.setTeachers(teachers);
+        }
+        reader.checkEnd();
+        return preview;
+    }
+
+    public static byte[] encodeTeachers(List<CourseTeacherDTO> teachers) {
+        Writer writer = new Writer();
+        writer.writeByte(VERSION);
+        writer.writeVarLong(teachers.size());
+        teachers.forEach(teacher -> writeTeacher(writer, teacher));
+        return writer.toByteArray();
+    }
+
+    public static List<CourseTeacherDTO> decodeTeachers(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        reader.checkVersion();
+        int size = reader.readSize();
+        List<CourseTeacherDTO> teachers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            teachers.add(readTeacher(reader));
+        }
+        reader.checkEnd();
+        return teachers;
+    }
+
+    private static void writeCourse(Writer writer, CourseBaseDTO course) {
+        writer.writeMask(course.getId(), course.getName(), course.getBrief(), course.getLogo(), course.getCharge(),
+                course.getStatus(), course.getPrice(), course.getMtName(), course.getStName(), course.getDiscounts(),
+                course.getTeachmode(), course.getOrganizationId());
+        writer.writeLong(course.getId());
+        writer.writeString(course.getName());
+        writer.writeString(course.getBrief());
+        writer.writeString(course.getLogo());
+        writer.writeString(course.getCharge());
+        writer.writeString(course.getStatus());
+        writer.writeDecimal(course.getPrice());
+        writer.writeString(course.getMtName());
+        writer.writeString(course.getStName());
+        writer.writeString(course.getDiscounts());
+        writer.writeString(course.getTeachmode());
+        writer.writeLong(course.getOrganizationId());
+    }
+
+    private static CourseBaseDTO readCourse(Reader reader) {
+        long mask = reader.readVarLong();
+        CourseBaseDTO course = new CourseBaseDTO();
+        course.setId(present(mask, 0) ? reader.readLong() : null);
+        course.setName(present(mask, 1) ? reader.readString() : null);
+        course.setBrief(present(mask, 2) ? reader.readString() : null);
+        course.setLogo(present(mask, 3) ? reader.readString() : null);
+        course.setCharge(present(mask, 4) ? reader.readString() : null);
+        course.setStatus(present(mask, 5) ? reader.readString() : null);
+        course.setPrice(present(mask, 6) ? reader.readDecimal() : null);
+        course.setMtName(present(mask, 7) ? reader.readString() : null);
+        course.setStName(present(mask, 8) ? reader.readString() : null);
+        course.setDiscounts(present(mask, 9) ? reader.readString() : null);
+        course.setTeachmode(present(mask, 10) ? reader.readString() : null);
+        course.setOrganizationId(present(mask, 11) ? reader.readLong() : null);
+        return course;
+    }
+
+    private static void writeTeachplans(Writer writer, List<TeachplanDTO> teachplans) {
+        writer.writeVarLong(teachplans.size());
+        for (TeachplanDTO teachplan : teachplans) {
+            writer.writeMask(teachplan.getId(), teachplan.getName(), teachplan.getCourseId(), teachplan.getParentId(),
+                    teachplan.getLevel(), teachplan.getOrderBy(), teachplan.getTeachPlanTreeNodes());
+            writer.writeLong(teachplan.getId());
+            writer.writeString(teachplan.getName());
+            writer.writeLong(teachplan.getCourseId());
+            writer.writeLong(teachplan.getParentId());
+            writer.writeInt(teachplan.getLevel());
+            writer.writeInt(teachplan.getOrderBy());
+            if (teachplan.getTeachPlanTreeNodes() != null) {
+                writeTeachplans(writer, teachplan.getTeachPlanTreeNodes());
+            }
+        }
+    }
+
+    private static List<TeachplanDTO> readTeachplans(Reader reader) {
+        int size = reader.readSize();
+        List<TeachplanDTO> teachplans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long mask = reader.readVarLong();
+            TeachplanDTO teachplan = new TeachplanDTO();
+            teachplan.setId(present(mask, 0) ? reader.readLong() : null);
+            teachplan.setName(present(mask, 1) ? reader.readString() : null);
+            teachplan.setCourseId(present(mask, 2) ? reader.readLong() : null);
+            teachplan.setParentId(present(mask, 3) ? reader.readLong() : null);
+            teachplan.setLevel(present(mask, 4) ? reader.readInt() : null);
+            teachplan.setOrderBy(present(mask, 5) ? reader.readInt() : null);
+            teachplan.setTeachPlanTreeNodes(present(mask, 6) ? readTeachplans(reader) : null);
+            teachplans.add(teachplan);
+        }
+        return teachplans;
+    }
+
+    private static void writeTeacher(Writer writer, CourseTeacherDTO teacher) {
+        writer.writeMask(teacher.getId(), teacher.getOrganizationId(), teacher.getName(), teacher.getPosition(),
+                teacher.getDescription(), teacher.getCourseIds());
+        writer.writeLong(teacher.getId());
+        writer.writeLong(teacher.getOrganizationId());
+        writer.writeString(teacher.getName());
+        writer.writeString(teacher.getPosition());
+        writer.writeString(teacher.getDescription());
+        if (teacher.getCourseIds() != null) {
+            writer.writeVarLong(teacher.getCourseIds().size());
+            teacher.getCourseIds().forEach(writer::writeLong);
+        }
+    }
+
+    private static CourseTeacherDTO readTeacher(Reader reader) {
+        long mask = reader.readVarLong();
+        CourseTeacherDTO teacher = new CourseTeacherDTO();
+        teacher.setId(present(mask, 0) ? reader.readLong() : null);
+        teacher.setOrganizationId(present(mask, 1) ? reader.readLong() : null);
+        teacher.setName(present(mask, 2) ? reader.readString() : null);
+        teacher.setPosition(present(mask, 3) ? reader.readString() : null);
+        teacher.setDescription(present(mask, 4) ? reader.readString() : null);
+        if (present(mask, 5)) {
+            int size = reader.readSize();
+            Set<Long> courseIds = new LinkedHashSet<>();
+            for (int i = 0; i < size; i++) {
+                courseIds.add(reader.readLong());
+            }
+            teacher.setCourseIds(courseIds);
+        }
+        return teacher;
+    }
+
+    private static boolean present(long mask, int index) {
+        return (mask & (1L << index)) != 0;
+    }
+
+    /**
+     * 写入端；值为空时不写，由位图标记
+     */
+    private static final class Writer {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        void writeByte(int value) {
+            out.write(value);
+        }
+
+        void writeMask(Object... fields) {
+            long mask = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    mask |= 1L << i;
+                }
+            }
+            writeVarLong(mask);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeLong(Long value) {
+            if (value != null) {
+                writeVarLong((value << 1) ^ (value >> 63));
+            }
+        }
+
+        void writeInt(Integer value) {
+            if (value != null) {
+                writeLong(value.longValue());
+            }
+        }
+
+        void writeString(String value) {
+            if (value != null) {
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        void writeDecimal(BigDecimal value) {
+            if (value != null) {
+                writeLong((long) value.scale());
+                writeBytes(value.unscaledValue().toByteArray());
+            }
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 读取端；数据截断或格式不符时抛出 IllegalArgumentException
+     */
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void checkVersion() {
+            if (bytes.length == 0 || bytes[position++] != VERSION) {
+                throw new IllegalArgumentException("课程缓存格式版本不符");
+            }
+        }
+
+        void checkEnd() {
+            if (position != bytes.length) {
+                throw new IllegalArgumentException("课程缓存数据有多余字节");
+            }
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("课程缓存数据损坏");
+        }
+
+        int readSize() {
+            long size = readVarLong();
+            if (size < 0 || size > bytes.length - position) {
+                throw new IllegalArgumentException("课程缓存数据损坏");
+            }
+            return (int) size;
+        }
+
+        long readLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        int readInt() {
+            return Math.toIntExact(readLong());
+        }
+
+        String readString() {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        BigDecimal readDecimal() {
+            int scale = readInt();
+            return new BigDecimal(new BigInteger(readBytes()), scale);
+        }
+
+        private byte[] readBytes() {
+            int length = readSize();
+            byte[] value = new byte[length];
+            System.arraycopy(bytes, position, value, 0, length);
+            position += length;
+            return value;
+        }
+
+        private byte next() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("课程缓存数据截断");
+            }
+            return bytes[position++];
+        }
+    }
+}
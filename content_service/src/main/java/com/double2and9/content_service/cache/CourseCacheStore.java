@@ -0,0 +1,19 @@
+package com.double2and9.content_service.cache;
+
+import java.util.Collection;
+
+/**
+ * 课程缓存的存储，值为 {@link CourseCache} 编码后的字节
+ * 各方法失败时直接抛出异常，由 {@link CourseCache} 决定按未命中处理还是记录日志
+ */
+public interface CourseCacheStore {
+
+    /**
+     * @return 不存在或已过期时返回null
+     */
+    byte[] get(String key);
+
+    void set(String key, byte[] value, long ttlMs);
+
+    void delete(Collection<String> keys);
+}
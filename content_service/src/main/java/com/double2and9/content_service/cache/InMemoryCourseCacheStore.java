@@ -0,0 +1,52 @@
+package com.double2and9.content_service.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本进程内存存储，用于测试和单节点开发环境；多节点部署时各节点的删除互相看不到，不能使用
+ */
+public class InMemoryCourseCacheStore implements CourseCacheStore {
+
+    /**
+     * 条目数超过该值时写入前清理已过期的条目
+     */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private record Entry(byte[] value, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void set(String key, byte[] value, long ttlMs) {
+        long now = System.currentTimeMillis();
+        if (entries.size() > PURGE_THRESHOLD) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        entries.put(key, new Entry(value, now + ttlMs));
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        keys.forEach(entries::remove);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
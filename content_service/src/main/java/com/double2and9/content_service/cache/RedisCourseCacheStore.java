@@ -0,0 +1,42 @@
+package com.double2and9.content_service.cache;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collection;
+
+/**
+ * Redis存储，各节点共享；值直接以字节写入，不经过模板的值序列化
+ */
+public class RedisCourseCacheStore implements CourseCacheStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisSerializer<String> serializer;
+
+    public RedisCourseCacheStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.serializer = redisTemplate.getStringSerializer();
+    }
+
+    @Override
+    public byte[] get(String key) {
+        byte[] rawKey = serializer.serialize(key);
+        return redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+    }
+
+    @Override
+    public void set(String key, byte[] value, long ttlMs) {
+        byte[] rawKey = serializer.serialize(key);
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(rawKey, value, Expiration.milliseconds(ttlMs), RedisStringCommands.SetOption.upsert()));
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        byte[][] rawKeys = keys.stream().map(serializer::serialize).toArray(byte[][]::new);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(rawKeys));
+    }
+}
@@ -0,0 +1,49 @@
+package com.double2and9.content_service.client;
+
+import java.util.Arrays;
+
+/**
+ * 调用延迟采样器
+ * 固定大小的环形缓冲区保存最近的延迟样本，按需计算分位数
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public synchronized void record(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * 计算分位数延迟
+     *
+     * @param percentile 分位数，取值(0, 1]
+     * @return 延迟（毫秒），没有样本时返回0
+     */
+    public long percentile(double percentile) {
+        long[] copy;
+        synchronized (this) {
+            if (count == 0) {
+                return 0;
+            }
+            copy = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile * copy.length) - 1;
+        return copy[Math.max(0, Math.min(index, copy.length - 1))];
+    }
+}
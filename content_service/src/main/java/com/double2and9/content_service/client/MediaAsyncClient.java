@@ -0,0 +1,313 @@
+package com.double2and9.content_service.client;
+
+import com.double2and9.base.dto.BatchDeleteResultDTO;
+import com.double2and9.base.dto.CommonResponse;
+import com.double2and9.base.dto.MediaFileDTO;
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.config.MediaClientProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 媒体服务异步客户端
+ * 在 MediaFeignClient 之上提供 CompletableFuture 接口：
+ * 1. 上传、删除分别使用独立的舱壁（有界线程池 + 有界队列），满了直接拒绝，慢节点不会占满请求线程
+ * 2. 超时按最近调用延迟的分位数自适应调整，批量删除单独采样、单独配置超时
+ * 3. 单个删除是幂等的，首个请求超过P95延迟仍未返回时发起一次对冲请求，先成功者为准；
+ *    批量删除不对冲，慢批次再发一次只会让media把整批对象再删一遍
+ * 每次调用记录 media.client.requests 计时，标签为 operation、outcome（success/error/timeout/rejected）
+ * 和调用结束时断路器的状态，对冲次数、舱壁占用同时作为指标暴露。
+ * 提交到舱壁时捕获调用线程的上下文（Observation、MDC等），Feign调用的span挂在调用方的span下面。
+ * 超时后排队中的调用被移除，执行中的调用由HTTP超时在同一截止时间结束，不会在后台继续占用舱壁。
+ */
+@Slf4j
+@Component
+public class MediaAsyncClient {
+
+    /**
+     * MediaFeignClient 上 @CircuitBreaker 使用的断路器名称
+     */
+    static final String CIRCUIT_BREAKER_NAME = "backendA";
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final MediaFeignClient mediaFeignClient;
+    private final MediaClientProperties properties;
+    private final ThreadPoolExecutor uploadExecutor;
+    private final ThreadPoolExecutor deleteExecutor;
+    private final LatencyTracker uploadLatency;
+    private final LatencyTracker deleteLatency;
+    private final LatencyTracker batchDeleteLatency;
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public MediaAsyncClient(MediaFeignClient mediaFeignClient, MediaClientProperties properties,
+                            MeterRegistry meterRegistry, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.mediaFeignClient = mediaFeignClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.uploadExecutor = bulkhead("media-upload-", properties.getUpload());
+        this.deleteExecutor = bulkhead("media-delete-", properties.getDelete());
+        this.uploadLatency = new LatencyTracker(properties.getTimeout().getWindowSize());
+        this.deleteLatency = new LatencyTracker(properties.getTimeout().getWindowSize());
+        this.batchDeleteLatency = new LatencyTracker(properties.getBatchTimeout().getWindowSize());
+        registerMeters();
+    }
+
+    /**
+     * 上传课程封面
+     */
+    public CompletableFuture<CommonResponse<MediaFileDTO>> uploadCourseLogo(Long courseId, Long organizationId,
+                                                                          MultipartFile file) {
+        return submit("upload", uploadExecutor, uploadLatency, properties.getTimeout(),
+                () -> mediaFeignClient.uploadCourseLogo(courseId, organizationId, file));
+    }
+
+    /**
+     * 删除单个媒体文件，可对冲
+     */
+    public CompletableFuture<CommonResponse<?>> deleteMediaFile(String url) {
+        return hedged("delete", () -> mediaFeignClient.deleteMediaFile(url));
+    }
+
+    /**
+     * 批量删除媒体文件，使用批量删除的超时，不对冲
+     */
+    public CompletableFuture<CommonResponse<BatchDeleteResultDTO>> deleteMediaFiles(List<String> urls) {
+        return submit("batch-delete", deleteExecutor, batchDeleteLatency, properties.getBatchTimeout(),
+                () -> mediaFeignClient.deleteMediaFiles(urls));
+    }
+
+    /**
+     * 等待异步调用结果，拆出原始异常
+     * 只用于后台任务线程（如媒资清理），请求线程上应直接组合返回的 CompletableFuture；
+     * 等待时间受调用超时限制
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * 把异步调用的异常转换为调用方抛出的异常：拆出原始异常，超时转换为 MEDIA_SERVICE_ERROR
+     */
+    public static RuntimeException failure(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof CancellationException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TimeoutException) {
+            return new ContentException(ContentErrorCode.MEDIA_SERVICE_ERROR, "媒体服务响应超时", cause);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ContentException(ContentErrorCode.MEDIA_SERVICE_ERROR, cause.getMessage(), cause);
+    }
+
+    /**
+     * 当前上传超时（毫秒）
+     */
+    public long currentUploadTimeoutMs() {
+        return adaptiveTimeout(uploadLatency, properties.getTimeout());
+    }
+
+    /**
+     * 当前删除超时（毫秒）
+     */
+    public long currentDeleteTimeoutMs() {
+        return adaptiveTimeout(deleteLatency, properties.getTimeout());
+    }
+
+    /**
+     * 当前批量删除超时（毫秒）
+     */
+    public long currentBatchDeleteTimeoutMs() {
+        return adaptiveTimeout(batchDeleteLatency, properties.getBatchTimeout());
+    }
+
+    public long getHedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+        deleteExecutor.shutdown();
+    }
+
+    /**
+     * 提交到舱壁执行，超时后：
+     * 1. 还在排队的调用从队列中移除，不再执行
+     * 2. 已经开始的调用由 {@link MediaCallDeadline} 把HTTP超时收紧到同一截止时间，随后结束并释放舱壁线程
+     */
+    private <T> CompletableFuture<T> submit(String operation, ThreadPoolExecutor executor, LatencyTracker tracker,
+                                            MediaClientProperties.Timeout timeout, Supplier<T> call) {
+        long timeoutMs = adaptiveTimeout(tracker, timeout);
+        long submitted = System.nanoTime();
+        long deadline = submitted + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        ContextSnapshot context = CONTEXT_SNAPSHOTS.captureAll();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (future.isDone()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try (ContextSnapshot.Scope ignored = context.setThreadLocals()) {
+                future.complete(MediaCallDeadline.call(deadline, call));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                tracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejectedRequests.increment();
+            record(operation, "rejected", submitted);
+            log.warn("媒体服务调用被舱壁拒绝，活跃：{}，排队：{}", executor.getActiveCount(), executor.getQueue().size());
+            return CompletableFuture.failedFuture(
+                    new ContentException(ContentErrorCode.MEDIA_SERVICE_ERROR, "媒体服务繁忙，请稍后重试", e));
+        }
+        return future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        executor.remove(task);
+                    }
+                    record(operation, error == null ? "success"
+                            : error instanceof TimeoutException ? "timeout" : "error", submitted);
+                });
+    }
+
+    /**
+     * 记录一次调用，耗时包含舱壁排队时间
+     */
+    private void record(String operation, String outcome, long submittedNanos) {
+        Timer.builder("media.client.requests")
+                .description("content调用media服务的耗时")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("circuit", circuitState())
+                .register(meterRegistry)
+                .record(System.nanoTime() - submittedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String circuitState() {
+        return circuitBreakerRegistry.find(CIRCUIT_BREAKER_NAME)
+                .map(circuitBreaker -> circuitBreaker.getState().name().toLowerCase(Locale.ROOT))
+                .orElse("none");
+    }
+
+    private void registerMeters() {
+        FunctionCounter.builder("media.client.hedged", hedgedRequests, LongAdder::sum)
+                .description("发起的对冲请求数")
+                .register(meterRegistry);
+        registerBulkhead("upload", uploadExecutor);
+        registerBulkhead("delete", deleteExecutor);
+    }
+
+    private void registerBulkhead(String name, ThreadPoolExecutor executor) {
+        Gauge.builder("media.client.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("舱壁中正在执行的调用数")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("media.client.bulkhead.queued", executor, e -> e.getQueue().size())
+                .description("舱壁中排队的调用数")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 对冲请求：首个请求超过对冲延迟仍未完成时再发一次，先成功的结果生效；
+     * 两次都失败才算失败。首个请求在对冲发起前失败则直接失败，不做重试
+     */
+    private <T> CompletableFuture<T> hedged(String operation, Supplier<T> call) {
+        CompletableFuture<T> primary = submit(operation, deleteExecutor, deleteLatency, properties.getTimeout(), call);
+        MediaClientProperties.Hedge hedge = properties.getHedge();
+        if (!hedge.isEnabled() || deleteLatency.getCount() < properties.getTimeout().getMinSamples()) {
+            return primary;
+        }
+
+        long delayMs = Math.max(deleteLatency.percentile(hedge.getPercentile()), hedge.getMinDelayMs());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean hedgeDecided = new AtomicBoolean(false);
+        AtomicInteger remaining = new AtomicInteger(2);
+
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (hedgeDecided.compareAndSet(false, true) || remaining.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (primary.isDone() || !hedgeDecided.compareAndSet(false, true)) {
+                return;
+            }
+            hedgedRequests.increment();
+            submit(operation, deleteExecutor, deleteLatency, properties.getTimeout(), call)
+                    .whenComplete((value, error) -> {
+                        if (error == null) {
+                            result.complete(value);
+                        } else if (remaining.decrementAndGet() == 0) {
+                            result.completeExceptionally(error);
+                        }
+                    });
+        });
+        return result;
+    }
+
+    /**
+     * 自适应超时：分位数延迟 * 倍数，限制在[min, max]之间；样本不足时使用初始值
+     */
+    private long adaptiveTimeout(LatencyTracker tracker, MediaClientProperties.Timeout timeout) {
+        if (tracker.getCount() < timeout.getMinSamples()) {
+            return timeout.getInitialMs();
+        }
+        long candidate = (long) (tracker.percentile(timeout.getPercentile()) * timeout.getMultiplier());
+        return Math.max(timeout.getMinMs(), Math.min(candidate, timeout.getMaxMs()));
+    }
+
+    private static ThreadPoolExecutor bulkhead(String prefix, MediaClientProperties.Bulkhead config) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(
+                config.getMaxConcurrent(), config.getMaxConcurrent(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
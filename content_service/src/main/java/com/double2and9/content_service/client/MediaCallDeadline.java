@@ -0,0 +1,58 @@
+package com.double2and9.content_service.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 媒体服务调用的截止时间
+ * {@link MediaAsyncClient} 在舱壁线程上设置本次调用的截止时间，Feign发请求时把连接、读取超时收紧到剩余时间，
+ * 异步超时之后底层HTTP调用也随之结束，不会继续占用舱壁线程直到 readTimeout。
+ * 未设置截止时间的调用（其他线程直接使用Feign客户端）按原配置执行。
+ * 作为Feign的Capability注册，包装负载均衡之后的HTTP客户端。
+ */
+@Component
+public class MediaCallDeadline implements Capability {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    /**
+     * 在截止时间内执行调用
+     *
+     * @param deadlineNanos 截止时间，System.nanoTime() 的取值
+     */
+    static <T> T call(long deadlineNanos, Supplier<T> call) {
+        DEADLINE.set(deadlineNanos);
+        try {
+            return call.get();
+        } finally {
+            DEADLINE.remove();
+        }
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> client.execute(request, bound(options));
+    }
+
+    private static Request.Options bound(Request.Options options) throws IOException {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return options;
+        }
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new SocketTimeoutException("媒体服务调用已超过截止时间");
+        }
+        return new Request.Options(
+                Math.min(options.connectTimeoutMillis(), remainingMs), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remainingMs), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+    }
+}
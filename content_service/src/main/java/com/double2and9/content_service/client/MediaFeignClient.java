@@ -1,13 +1,17 @@
 package com.double2and9.content_service.client;
 
+import com.double2and9.base.dto.BatchDeleteResultDTO;
 import com.double2and9.base.dto.CommonResponse;
 import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.base.enums.ContentErrorCode;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * 媒体服务Feign客户端
  * 用于content服务调用media服务的接口
@@ -25,6 +29,17 @@ public interface MediaFeignClient {
     @CircuitBreaker(name = "backendA", fallbackMethod = "deleteMediaFileFallback")
     CommonResponse<?> deleteMediaFile(@PathVariable("url") String url);
 
+    /**
+     * 批量删除媒体文件
+     * 幂等操作，文件不存在视为删除成功
+     *
+     * @param urls 文件URL列表
+     * @return 删除结果，包含失败的URL
+     */
+    @PostMapping("/media/files/batch-delete")
+    @CircuitBreaker(name = "backendA", fallbackMethod = "deleteMediaFilesFallback")
+    CommonResponse<BatchDeleteResultDTO> deleteMediaFiles(@RequestBody List<String> urls);
+
     /**
      * 上传课程封面图片
      * 
@@ -33,7 +48,7 @@ public interface MediaFeignClient {
      * @param file           封面图片文件
      * @return 包含媒体文件信息的响应对象
      */
-    @PostMapping("/media/files/course/{courseId}/logo")
+    @PostMapping(value = "/media/files/course/{courseId}/logo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @CircuitBreaker(name = "backendA", fallbackMethod = "uploadCourseLogoFallback")
     CommonResponse<MediaFileDTO> uploadCourseLogo(
             @PathVariable("courseId") Long courseId,
@@ -56,4 +71,12 @@ public interface MediaFeignClient {
         return CommonResponse.error(String.valueOf(ContentErrorCode.DELETE_LOGO_FAILED.getCode()),
                 ContentErrorCode.DELETE_LOGO_FAILED.getMessage());
     }
+
+    /**
+     * 批量删除媒体文件的降级方法
+     */
+    default CommonResponse<BatchDeleteResultDTO> deleteMediaFilesFallback(List<String> urls, Throwable throwable) {
+        return CommonResponse.error(String.valueOf(ContentErrorCode.MEDIA_SERVICE_ERROR.getCode()),
+                ContentErrorCode.MEDIA_SERVICE_ERROR.getMessage());
+    }
 }
\ No newline at end of file
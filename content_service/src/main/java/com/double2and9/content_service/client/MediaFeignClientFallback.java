@@ -1,10 +1,13 @@
 package com.double2and9.content_service.client;
 
+import com.double2and9.base.dto.BatchDeleteResultDTO;
 import com.double2and9.base.dto.CommonResponse;
 import com.double2and9.base.dto.MediaFileDTO;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * 媒体服务Feign客户端降级处理
  * 当media服务不可用时的降级处理
@@ -24,6 +27,17 @@ public class MediaFeignClientFallback implements MediaFeignClient {
         return CommonResponse.error("500", "媒体服务不可用");
     }
 
+    /**
+     * 批量删除媒体文件的降级处理
+     *
+     * @param urls 文件URL列表
+     * @return 错误响应对象
+     */
+    @Override
+    public CommonResponse<BatchDeleteResultDTO> deleteMediaFiles(List<String> urls) {
+        return CommonResponse.error("500", "媒体服务不可用");
+    }
+
     /**
      * 上传课程封面的降级处理
      * 返回服务不可用的错误响应
@@ -0,0 +1,147 @@
+package com.double2and9.content_service.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离路由数据源
+ * 读写事务使用主库；只读事务（@Transactional(readOnly = true)）和事务之外的读取使用只读副本，以下情况回到主库：
+ * <ul>
+ *     <li>在 {@link #callOnPrimary} 中执行，如回源后写入缓存、需要读到最新提交的读取</li>
+ *     <li>当前会话在 stickiness 时间内提交过写入（读己之写，见 {@link ReadYourWritesContext}）</li>
+ *     <li>副本被 {@link ReplicaHealthMonitor} 标记为不可用，或获取副本连接失败</li>
+ * </ul>
+ * 路由在真正获取连接时决定，事务开始时还不知道是否只读，需要外面再套一层 LazyConnectionDataSourceProxy。
+ * 每次路由记录 content.datasource.routing 计数，标签为 target 和 reason。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String METRIC_NAME = "content.datasource.routing";
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final long stickinessMs;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor healthMonitor,
+                                      long stickinessMs, Clock clock, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.healthMonitor = healthMonitor;
+        this.stickinessMs = stickinessMs;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * 在主库上读取：期间获取的连接都来自主库，不会读到副本上尚未同步的数据，也不影响读己之写的时间。
+     * 调用前已经取得连接的事务仍使用原来的连接
+     */
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return route(Target.PRIMARY, "write");
+        }
+        if (FORCE_PRIMARY.get() != null) {
+            return route(Target.PRIMARY, "forced");
+        }
+        if (clock.millis() - ReadYourWritesContext.lastWrite() < stickinessMs) {
+            return route(Target.PRIMARY, "read-your-writes");
+        }
+        if (!healthMonitor.isAvailable()) {
+            return route(Target.PRIMARY, "replica-unavailable");
+        }
+        return route(Target.REPLICA, "read");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            healthMonitor.markUnavailable(e.getMessage());
+            route(Target.PRIMARY, "replica-unavailable");
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            healthMonitor.markUnavailable(e.getMessage());
+            route(Target.PRIMARY, "replica-unavailable");
+            return primary.getConnection(username, password);
+        }
+    }
+
+    /**
+     * 读写事务提交后记录写入时间，之后 stickiness 时间内该会话的读取走主库
+     */
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadYourWritesContext.recordWrite(clock.millis());
+            }
+        });
+    }
+
+    private Target route(Target target, String reason) {
+        Counter.builder(METRIC_NAME)
+                .description("读写分离路由次数")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return target;
+    }
+}
@@ -0,0 +1,52 @@
+package com.double2and9.content_service.common.datasource;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 读己之写：记录当前会话最近一次写入提交的时间
+ * HTTP请求中由 ReadYourWritesInterceptor 在请求开始时从Cookie恢复、请求结束时清除，
+ * 写入提交时通过回调把新的时间写回Cookie；定时任务等请求之外的线程按线程记录。
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+    private static final ThreadLocal<LongConsumer> WRITE_LISTENER = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    /**
+     * 开始一个会话
+     *
+     * @param lastWriteMillis 会话中上次写入的时间，没有时为0
+     * @param writeListener   写入提交后的回调，参数为提交时间
+     */
+    public static void begin(long lastWriteMillis, LongConsumer writeListener) {
+        LAST_WRITE.set(lastWriteMillis);
+        WRITE_LISTENER.set(writeListener);
+    }
+
+    public static void end() {
+        LAST_WRITE.remove();
+        WRITE_LISTENER.remove();
+    }
+
+    /**
+     * 记录一次写入提交
+     */
+    public static void recordWrite(long nowMillis) {
+        LAST_WRITE.set(nowMillis);
+        LongConsumer listener = WRITE_LISTENER.get();
+        if (listener != null) {
+            listener.accept(nowMillis);
+        }
+    }
+
+    /**
+     * 当前会话上次写入的时间，没有写入过时返回0
+     */
+    public static long lastWrite() {
+        Long lastWrite = LAST_WRITE.get();
+        return lastWrite != null ? lastWrite : 0L;
+    }
+}
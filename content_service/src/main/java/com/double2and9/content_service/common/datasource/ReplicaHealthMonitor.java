@@ -0,0 +1,103 @@
+package com.double2and9.content_service.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * 只读副本健康检查
+ * 定时校验副本连接，MySQL副本另外通过 SHOW REPLICA STATUS 读取复制延迟（Seconds_Behind_Source）：
+ * 连接失败、复制线程未运行（延迟为NULL）或延迟超过上限时标记为不可用，读取全部回到主库，
+ * 下一次检查通过后自动恢复。不是复制从库的数据库（如本地开发、测试用的H2）延迟按0处理。
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final DataSource replica;
+    private final long maxLagMs;
+    private final int validationTimeoutSeconds;
+
+    private volatile boolean available = true;
+    private volatile long lagMs;
+
+    public ReplicaHealthMonitor(DataSource replica, long maxLagMs, int validationTimeoutSeconds) {
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * 最近一次检查得到的复制延迟（毫秒）
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${content.datasource.replica.health-check-interval-ms:1000}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(validationTimeoutSeconds)) {
+                markUnavailable("连接校验失败");
+                return;
+            }
+            Long lagSeconds = replicationLagSeconds(connection);
+            if (lagSeconds == null) {
+                markUnavailable("复制线程未运行");
+                return;
+            }
+            lagMs = lagSeconds * 1000;
+            if (lagMs > maxLagMs) {
+                markUnavailable("复制延迟" + lagMs + "ms，超过上限" + maxLagMs + "ms");
+                return;
+            }
+            markAvailable();
+        } catch (SQLException e) {
+            markUnavailable(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取副本连接失败时由路由数据源调用，不等下一次定时检查
+     */
+    public void markUnavailable(String reason) {
+        if (available) {
+            log.warn("只读副本不可用，读取切换到主库：{}", reason);
+        }
+        available = false;
+    }
+
+    private void markAvailable() {
+        if (!available) {
+            log.info("只读副本恢复，复制延迟{}ms", lagMs);
+        }
+        available = true;
+    }
+
+    /**
+     * 复制延迟（秒），复制线程未运行时返回null
+     */
+    protected Long replicationLagSeconds(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (!product.contains("mysql")) {
+            return 0L;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rows.next()) {
+                return 0L;
+            }
+            long lag = rows.getLong("Seconds_Behind_Source");
+            return rows.wasNull() ? null : lag;
+        }
+    }
+}
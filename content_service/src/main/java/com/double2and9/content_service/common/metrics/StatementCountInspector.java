@@ -0,0 +1,38 @@
+package com.double2and9.content_service.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate语句计数器
+ * Hibernate每准备一条SQL调用一次inspect，只计数不修改SQL；
+ * 计数按线程隔离，只在 begin() 与 end() 之间的请求线程上生效。
+ */
+public class StatementCountInspector implements StatementInspector {
+
+    private final ThreadLocal<int[]> counter = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * 开始统计当前线程的语句数
+     */
+    public void begin() {
+        counter.set(new int[1]);
+    }
+
+    /**
+     * 结束统计并返回语句数，未调用begin时返回0
+     */
+    public int end() {
+        int[] count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,52 @@
+package com.double2and9.content_service.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 每个HTTP请求执行的SQL语句数
+ * 记录到 hibernate.statements.per.request 分布，标签为 method 和 uri（路由模板，不含路径参数），
+ * 超过阈值时打印告警，便于发现N+1查询。
+ */
+@Slf4j
+public class StatementCountInterceptor implements HandlerInterceptor {
+
+    private final StatementCountInspector inspector;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public StatementCountInterceptor(StatementCountInspector inspector, MeterRegistry meterRegistry,
+                                     int warnThreshold) {
+        this.inspector = inspector;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        inspector.begin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int count = inspector.end();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("hibernate.statements.per.request")
+                .description("每个HTTP请求执行的SQL语句数")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count);
+        if (count > warnThreshold) {
+            log.warn("请求执行的SQL语句过多：{} {}，语句数：{}，阈值：{}", request.getMethod(), uri, count, warnThreshold);
+        }
+    }
+}
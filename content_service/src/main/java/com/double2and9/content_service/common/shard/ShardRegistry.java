@@ -0,0 +1,199 @@
+package com.double2and9.content_service.common.shard;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 物理分片
+ * 每个分片是一套完整的content表结构。默认分片即 spring.datasource 指向的库，同时存放机构目录；
+ * 其余分片的连接池由本类持有，应用关闭时一并关闭。
+ */
+@Slf4j
+public class ShardRegistry implements Closeable {
+
+    /**
+     * 主键来自自增列或序列表的表，机构迁移时连同主键一起复制，各分片的主键必须不重叠
+     */
+    private static final List<String> AUTO_INCREMENT_TABLES = List.of("course_base", "audit_task");
+    private static final List<String> SEQUENCE_TABLES = List.of("teachplan_seq", "course_teacher_seq",
+            "teachplan_media_seq");
+    /**
+     * 所有机构共用的参考数据，只在默认分片维护，复制到其余分片，课程查询在所在分片的事务内就能关联到
+     */
+    private static final List<String> REFERENCE_TABLES = List.of("course_category");
+
+    private final String defaultShard;
+    private final Map<String, DataSource> dataSources;
+    private final Map<String, Integer> idRangeIndexes;
+
+    /**
+     * @param dataSources    分片名到数据源，按遍历顺序即为定时任务执行顺序
+     * @param idRangeIndexes 分片名到主键区间序号，默认分片为0
+     */
+    public ShardRegistry(String defaultShard, Map<String, DataSource> dataSources,
+                         Map<String, Integer> idRangeIndexes) {
+        if (!dataSources.containsKey(defaultShard)) {
+            throw new IllegalArgumentException("默认分片不存在：" + defaultShard);
+        }
+        if (idRangeIndexes.values().stream().distinct().count() != idRangeIndexes.size()) {
+            throw new IllegalArgumentException("分片的主键区间序号不能重复：" + idRangeIndexes);
+        }
+        this.defaultShard = defaultShard;
+        this.dataSources = Collections.unmodifiableMap(new LinkedHashMap<>(dataSources));
+        this.idRangeIndexes = Map.copyOf(idRangeIndexes);
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    public List<String> shardNames() {
+        return List.copyOf(dataSources.keySet());
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return dataSources;
+    }
+
+    public boolean contains(String shard) {
+        return dataSources.containsKey(shard);
+    }
+
+    public DataSource dataSource(String shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new ContentException(ContentErrorCode.SHARD_NOT_EXISTS, "分片不存在：" + shard);
+        }
+        return dataSource;
+    }
+
+    /**
+     * 在每个分片上各执行一次，用于发件箱中继、媒资清理等按分片处理的定时任务；
+     * 某个分片失败不影响其他分片
+     */
+    public void forEachShard(Runnable action) {
+        for (String shard : dataSources.keySet()) {
+            try {
+                TenantContext.runOnShard(shard, action);
+            } catch (RuntimeException e) {
+                log.error("分片任务执行失败，分片：{}", shard, e);
+            }
+        }
+    }
+
+    /**
+     * 把每个分片的主键起点推到 序号 × rangeSize 之后，机构迁移后主键不会与目标分片新生成的主键冲突。
+     * 只处理MySQL，已超过起点的分片不变
+     */
+    public void reserveIdRanges(long rangeSize) {
+        for (Map.Entry<String, DataSource> entry : dataSources.entrySet()) {
+            int index = idRangeIndexes.getOrDefault(entry.getKey(), 0);
+            if (index == 0 || !isMySql(entry.getValue())) {
+                continue;
+            }
+            long start = index * rangeSize;
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(entry.getValue());
+            for (String table : AUTO_INCREMENT_TABLES) {
+                Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                if (max != null && max < start) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + (start + 1));
+                }
+            }
+            // pooled优化器取到值v后使用 (v-49, v]
+            for (String table : SEQUENCE_TABLES) {
+                jdbcTemplate.update("UPDATE " + table + " SET next_val = ? WHERE next_val < ?", start + 50, start + 50);
+            }
+            log.info("分片主键区间：{}，起点：{}", entry.getKey(), start);
+        }
+    }
+
+    /**
+     * 把参考数据从默认分片整表复制到其余分片，每个分片一个事务（先清空再插入）；某个分片失败不影响其他分片
+     *
+     * @return 复制成功的分片数
+     */
+    public int replicateReferenceTables() {
+        JdbcTemplate source = new JdbcTemplate(dataSource(defaultShard));
+        Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+        REFERENCE_TABLES.forEach(table -> tables.put(table, source.queryForList("SELECT * FROM " + table)));
+        int replicated = 0;
+        for (Map.Entry<String, DataSource> entry : dataSources.entrySet()) {
+            if (entry.getKey().equals(defaultShard)) {
+                continue;
+            }
+            try (Connection connection = entry.getValue().getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    for (Map.Entry<String, List<Map<String, Object>>> table : tables.entrySet()) {
+                        replaceRows(connection, table.getKey(), table.getValue());
+                    }
+                    connection.commit();
+                    replicated++;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.error("复制参考数据失败，分片：{}", entry.getKey(), e);
+            }
+        }
+        return replicated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Map.Entry<String, DataSource> entry : dataSources.entrySet()) {
+            if (!entry.getKey().equals(defaultShard) && entry.getValue() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static void replaceRows(Connection connection, String table, List<Map<String, Object>> rows)
+            throws SQLException {
+        try (Statement delete = connection.createStatement()) {
+            delete.executeUpdate("DELETE FROM " + table);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = List.copyOf(rows.get(0).keySet());
+        String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (Map<String, Object> row : rows) {
+                for (int i = 0; i < columns.size(); i++) {
+                    statement.setObject(i + 1, row.get(columns.get(i)));
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static boolean isMySql(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        } catch (SQLException e) {
+            throw new IllegalStateException("无法连接分片", e);
+        }
+    }
+}
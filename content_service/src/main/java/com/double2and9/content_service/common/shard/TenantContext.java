@@ -0,0 +1,135 @@
+package com.double2and9.content_service.common.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前操作所属的机构（租户）
+ * 分片路由按以下顺序决定连接落在哪个分片：
+ * <ol>
+ *     <li>{@link #runOnShard} 显式指定的分片，用于逐个分片执行的定时任务</li>
+ *     <li>绑定到当前事务的机构：事务中第一次访问课程数据时由 {@link TenantRoutingAspect} 绑定，
+ *     事务结束前不变，保证整个事务落在同一个分片</li>
+ *     <li>{@link #callAs} 设置的线程机构</li>
+ * </ol>
+ * 都没有时使用默认分片。
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> ORGANIZATION = new ThreadLocal<>();
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+    private static final Object TRANSACTION_KEY = new Object();
+    private static final Object CONNECTION_SHARD_KEY = new Object();
+
+    private TenantContext() {
+    }
+
+    /**
+     * 当前机构：优先取绑定到事务的机构
+     */
+    public static Long currentOrganizationId() {
+        Long transactionOrganization = transactionOrganizationId();
+        return transactionOrganization != null ? transactionOrganization : ORGANIZATION.get();
+    }
+
+    public static String currentShard() {
+        return SHARD.get();
+    }
+
+    /**
+     * 以指定机构的身份执行，结束后恢复原来的机构
+     */
+    public static <T> T callAs(Long organizationId, Supplier<T> action) {
+        Long previous = replaceOrganization(organizationId);
+        try {
+            return action.get();
+        } finally {
+            restoreOrganization(previous);
+        }
+    }
+
+    /**
+     * 在指定分片上执行，不经过机构目录，也不检查机构是否迁移中；
+     * 机构数据的写入应按机构分组后用 {@link #callAs} 执行，否则迁移复制之后写到原分片的数据会丢失
+     */
+    public static void runOnShard(String shard, Runnable action) {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            action.run();
+        } finally {
+            restore(SHARD, previous);
+        }
+    }
+
+    /**
+     * 设置线程机构，返回原来的机构，配合 {@link #restoreOrganization} 使用
+     */
+    static Long replaceOrganization(Long organizationId) {
+        Long previous = ORGANIZATION.get();
+        ORGANIZATION.set(organizationId);
+        return previous;
+    }
+
+    static void restoreOrganization(Long previous) {
+        restore(ORGANIZATION, previous);
+    }
+
+    static Long transactionOrganizationId() {
+        return (Long) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+    }
+
+    /**
+     * 把机构绑定到当前事务，事务结束时解绑；REQUIRES_NEW挂起外层事务时一并挂起
+     */
+    static void bindToTransaction(Long organizationId) {
+        bindUntilCompletion(TRANSACTION_KEY, organizationId);
+    }
+
+    /**
+     * 当前事务的连接已经落在的分片，还没有获取连接时为null
+     */
+    static String connectionShard() {
+        return (String) TransactionSynchronizationManager.getResource(CONNECTION_SHARD_KEY);
+    }
+
+    /**
+     * 记录当前事务获取连接时路由到的分片，同一事务之后的SQL都使用这个连接，不会再路由
+     */
+    static void recordConnectionShard(String shard) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getResource(CONNECTION_SHARD_KEY) == null) {
+            bindUntilCompletion(CONNECTION_SHARD_KEY, shard);
+        }
+    }
+
+    private static void bindUntilCompletion(Object key, Object value) {
+        TransactionSynchronizationManager.bindResource(key, value);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(key);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(key, value);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+    }
+
+    private static <T> void restore(ThreadLocal<T> holder, T previous) {
+        if (previous == null) {
+            holder.remove();
+        } else {
+            holder.set(previous);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.double2and9.content_service.common.shard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 机构分片目录
+ * tenant_shard 表（位于默认分片）记录每个机构所在的分片，没有记录的机构在默认分片。
+ * 查询结果在本节点缓存 cacheTtlMs，迁移流程在修改目录后等待同样的时间，保证所有节点都看到了新的状态。
+ * 迁移中的记录由执行节点定期续约（update_time），结束和回滚都按版本号检查，失联节点的迁移被回滚后不会再切换目录。
+ * 使用JDBC直接访问默认分片的连接池，不经过分片路由。
+ */
+public class TenantDirectory {
+
+    public enum Status {
+        /**
+         * 正常读写
+         */
+        ACTIVE,
+        /**
+         * 迁移中：读取仍在原分片，写入被拒绝
+         */
+        MOVING
+    }
+
+    /**
+     * 机构的分片位置
+     *
+     * @param shard       当前所在分片，读写都在这里
+     * @param targetShard 迁移中的目标分片，不在迁移时为null
+     * @param version     每次修改加1，用于并发修改检查；没有记录时为0
+     */
+    public record Placement(Long organizationId, String shard, Status status, String targetShard, long version) {
+    }
+
+    private static final RowMapper<Placement> PLACEMENT_MAPPER = (rs, rowNum) -> new Placement(
+            rs.getLong("organization_id"), rs.getString("shard"), Status.valueOf(rs.getString("status")),
+            rs.getString("target_shard"), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String defaultShard;
+    private final long cacheTtlMs;
+    private final Cache<Long, Placement> cache;
+
+    public TenantDirectory(DataSource directoryDataSource, String defaultShard, long cacheTtlMs) {
+        this.jdbcTemplate = new JdbcTemplate(directoryDataSource);
+        this.defaultShard = defaultShard;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public long getCacheTtlMs() {
+        return cacheTtlMs;
+    }
+
+    /**
+     * 查询机构位置（带缓存）
+     */
+    public Placement placement(Long organizationId) {
+        if (cacheTtlMs <= 0) {
+            return load(organizationId);
+        }
+        return cache.get(organizationId, this::load);
+    }
+
+    /**
+     * 查询机构位置（不使用缓存）
+     */
+    public Placement load(Long organizationId) {
+        List<Placement> rows = jdbcTemplate.query(
+                "SELECT organization_id, shard, status, target_shard, version FROM tenant_shard WHERE organization_id = ?",
+                PLACEMENT_MAPPER,
+                organizationId);
+        return rows.isEmpty() ? new Placement(organizationId, defaultShard, Status.ACTIVE, null, 0) : rows.get(0);
+    }
+
+    /**
+     * 为还没有记录的机构指定分片
+     *
+     * @return 机构已有记录时返回false
+     */
+    public boolean assign(Long organizationId, String shard) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO tenant_shard (organization_id, shard, status, version, update_time) " +
+                    "VALUES (?, ?, ?, 1, ?)",
+                    organizationId, shard, Status.ACTIVE.name(), new Date());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        } finally {
+            cache.invalidate(organizationId);
+        }
+    }
+
+    /**
+     * 开始迁移，只有版本号与 expected 一致时才修改
+     *
+     * @return 并发修改或状态不是ACTIVE时返回false
+     */
+    public boolean markMoving(Placement expected, String targetShard) {
+        int updated;
+        if (expected.version() == 0) {
+            try {
+                updated = jdbcTemplate.update(
+                        "INSERT INTO tenant_shard (organization_id, shard, status, target_shard, version, update_time) " +
+                        "VALUES (?, ?, ?, ?, 1, ?)",
+                        expected.organizationId(), expected.shard(), Status.MOVING.name(), targetShard, new Date());
+            } catch (DuplicateKeyException e) {
+                updated = 0;
+            }
+        } else {
+            updated = jdbcTemplate.update(
+                    "UPDATE tenant_shard SET status = ?, target_shard = ?, version = version + 1, update_time = ? " +
+                    "WHERE organization_id = ? AND version = ? AND status = ?",
+                    Status.MOVING.name(), targetShard, new Date(), expected.organizationId(), expected.version(),
+                    Status.ACTIVE.name());
+        }
+        cache.invalidate(expected.organizationId());
+        return updated == 1;
+    }
+
+    /**
+     * 迁移续约：执行迁移的节点定期更新时间，超过租约没有续约的迁移由 {@link #findStaleMoves} 找出并回滚
+     *
+     * @param moving 标记迁移后读到的位置
+     * @return 迁移已被回滚或结束时返回false
+     */
+    public boolean renewMove(Placement moving) {
+        return jdbcTemplate.update(
+                "UPDATE tenant_shard SET update_time = ? WHERE organization_id = ? AND version = ? AND status = ?",
+                new Date(), moving.organizationId(), moving.version(), Status.MOVING.name()) == 1;
+    }
+
+    /**
+     * 迁移完成，切换到目标分片
+     *
+     * @return 迁移已被回滚时返回false
+     */
+    public boolean completeMove(Placement moving) {
+        int updated = jdbcTemplate.update(
+                "UPDATE tenant_shard SET shard = target_shard, status = ?, target_shard = NULL, " +
+                "version = version + 1, update_time = ? WHERE organization_id = ? AND version = ? AND status = ?",
+                Status.ACTIVE.name(), new Date(), moving.organizationId(), moving.version(), Status.MOVING.name());
+        cache.invalidate(moving.organizationId());
+        return updated == 1;
+    }
+
+    /**
+     * 迁移失败，留在原分片并恢复写入
+     *
+     * @return 迁移已被其他节点回滚或已结束时返回false
+     */
+    public boolean abortMove(Placement moving) {
+        int updated = jdbcTemplate.update(
+                "UPDATE tenant_shard SET status = ?, target_shard = NULL, version = version + 1, update_time = ? " +
+                "WHERE organization_id = ? AND version = ? AND status = ?",
+                Status.ACTIVE.name(), new Date(), moving.organizationId(), moving.version(), Status.MOVING.name());
+        cache.invalidate(moving.organizationId());
+        return updated == 1;
+    }
+
+    /**
+     * 在 updatedBefore 之前最后一次续约的迁移，执行节点可能已经失联
+     */
+    public List<Placement> findStaleMoves(Date updatedBefore) {
+        return jdbcTemplate.query(
+                "SELECT organization_id, shard, status, target_shard, version FROM tenant_shard " +
+                "WHERE status = ? AND update_time < ?",
+                PLACEMENT_MAPPER,
+                Status.MOVING.name(), updatedBefore);
+    }
+}
@@ -0,0 +1,64 @@
+package com.double2and9.content_service.common.shard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 按主键查找记录所属的机构
+ * 只有课程ID、课程计划ID等主键、没有机构ID的操作，需要先确定机构才能路由。
+ * 依次在各分片上按主键查询，结果缓存：记录所属的机构不会变化，机构迁移也不影响缓存。
+ * 查不到（记录不存在或还没提交）时返回null，由调用方按默认规则路由。
+ */
+public class TenantLocator {
+
+    public enum Kind {
+        COURSE("SELECT organization_id FROM course_base WHERE id = ?"),
+        TEACHPLAN("SELECT c.organization_id FROM teachplan t JOIN course_base c ON c.id = t.course_id WHERE t.id = ?"),
+        TEACHPLAN_MEDIA("SELECT c.organization_id FROM teachplan_media tm JOIN teachplan t ON t.id = tm.teachplan_id " +
+                "JOIN course_base c ON c.id = t.course_id WHERE tm.id = ?"),
+        TEACHER("SELECT organization_id FROM course_teacher WHERE id = ?"),
+        MEDIA_FILE("SELECT organization_id FROM media_files WHERE media_file_id = ?"),
+        AUDIT_TASK("SELECT organization_id FROM audit_task WHERE id = ?");
+
+        private final String sql;
+
+        Kind(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private record Key(Kind kind, Object id) {
+    }
+
+    private final ShardRegistry shardRegistry;
+    private final Cache<Key, Long> cache = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+
+    public TenantLocator(ShardRegistry shardRegistry) {
+        this.shardRegistry = shardRegistry;
+    }
+
+    public Long organizationOf(Kind kind, Object id) {
+        if (id == null) {
+            return null;
+        }
+        Key key = new Key(kind, id);
+        Long cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        for (DataSource dataSource : shardRegistry.dataSources().values()) {
+            List<Long> rows = new JdbcTemplate(dataSource).queryForList(kind.sql, Long.class, id);
+            if (!rows.isEmpty()) {
+                cache.put(key, rows.get(0));
+                return rows.get(0);
+            }
+        }
+        return null;
+    }
+}
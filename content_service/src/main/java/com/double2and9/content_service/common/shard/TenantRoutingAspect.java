@@ -0,0 +1,251 @@
+package com.double2and9.content_service.common.shard;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.TenantLocator.Kind;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseMarket;
+import com.double2and9.content_service.entity.CoursePublish;
+import com.double2and9.content_service.entity.CoursePublishPre;
+import com.double2and9.content_service.entity.CourseTeacher;
+import com.double2and9.content_service.entity.MediaFile;
+import com.double2and9.content_service.entity.Teachplan;
+import com.double2and9.content_service.entity.TeachplanMedia;
+import com.double2and9.content_service.repository.AuditTaskRepository;
+import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.CourseMarketRepository;
+import com.double2and9.content_service.repository.CoursePublishPreRepository;
+import com.double2and9.content_service.repository.CoursePublishRepository;
+import com.double2and9.content_service.repository.CourseTeacherRepository;
+import com.double2and9.content_service.repository.MediaFileRepository;
+import com.double2and9.content_service.repository.TeachplanMediaRepository;
+import com.double2and9.content_service.repository.TeachplanRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Hibernate;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 课程数据仓库的机构路由
+ * 在调用课程、课程计划、教师、媒资、课程计数、审核队列等仓库方法前从参数中确定机构：
+ * <ol>
+ *     <li>名为 organizationId 的参数，或带机构ID的实体（课程、教师、媒资）</li>
+ *     <li>课程ID、课程计划ID、教师ID、媒资ID、审核任务ID等参数，以及 findById 等按主键的操作，由 {@link TenantLocator} 查出机构</li>
+ * </ol>
+ * 在事务中时把机构绑定到事务，之后同一事务的所有SQL（包括提交时的flush）都落在该机构的分片；
+ * 同一事务再访问其他分片的机构，或绑定前连接已经落在其他分片时抛出异常。不在事务中时只对本次调用生效。
+ * 事务已经绑定机构时不再按主键查找，只核对能直接得到的机构ID。
+ */
+@Aspect
+public class TenantRoutingAspect {
+
+    private static final Map<Class<?>, Kind> REPOSITORY_KINDS = new LinkedHashMap<>();
+    private static final Map<String, Kind> PARAMETER_KINDS = Map.of(
+            "courseId", Kind.COURSE,
+            "courseBaseId", Kind.COURSE,
+            "teachplanId", Kind.TEACHPLAN,
+            "parentId", Kind.TEACHPLAN,
+            "teacherId", Kind.TEACHER,
+            "mediaFileId", Kind.MEDIA_FILE,
+            "mediaId", Kind.MEDIA_FILE,
+            "taskId", Kind.AUDIT_TASK);
+
+    static {
+        REPOSITORY_KINDS.put(CourseBaseRepository.class, Kind.COURSE);
+        REPOSITORY_KINDS.put(CourseMarketRepository.class, Kind.COURSE);
+        REPOSITORY_KINDS.put(CoursePublishPreRepository.class, Kind.COURSE);
+        REPOSITORY_KINDS.put(CoursePublishRepository.class, Kind.COURSE);
+        REPOSITORY_KINDS.put(TeachplanRepository.class, Kind.TEACHPLAN);
+        REPOSITORY_KINDS.put(TeachplanMediaRepository.class, Kind.TEACHPLAN_MEDIA);
+        REPOSITORY_KINDS.put(CourseTeacherRepository.class, Kind.TEACHER);
+        REPOSITORY_KINDS.put(MediaFileRepository.class, Kind.MEDIA_FILE);
+        REPOSITORY_KINDS.put(AuditTaskRepository.class, Kind.AUDIT_TASK);
+    }
+
+    private final TenantLocator tenantLocator;
+    private final TenantDirectory tenantDirectory;
+
+    public TenantRoutingAspect(TenantLocator tenantLocator, TenantDirectory tenantDirectory) {
+        this.tenantLocator = tenantLocator;
+        this.tenantDirectory = tenantDirectory;
+    }
+
+    @Around("execution(* com.double2and9.content_service.repository.CourseBaseRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.CourseMarketRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.CoursePublishPreRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.CoursePublishRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.TeachplanRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.TeachplanMediaRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.CourseTeacherRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.MediaFileRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.CourseStatusCounterRepository+.*(..))"
+            + " || execution(* com.double2and9.content_service.repository.AuditTaskRepository+.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TenantContext.currentShard() != null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        boolean lookup = TenantContext.currentOrganizationId() == null;
+        Long organizationId = resolve(kindOf(joinPoint.getThis()), method, joinPoint.getArgs(), lookup);
+        if (organizationId == null) {
+            return joinPoint.proceed();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long bound = TenantContext.transactionOrganizationId();
+            if (bound == null) {
+                checkConnectionShard(organizationId);
+                TenantContext.bindToTransaction(organizationId);
+            } else if (!bound.equals(organizationId) && !sameShard(bound, organizationId)) {
+                throw new ContentException(ContentErrorCode.CROSS_SHARD_TRANSACTION,
+                        "一个事务不能访问多个分片的数据，机构：" + bound + "、" + organizationId);
+            }
+            return joinPoint.proceed();
+        }
+        Long previous = TenantContext.replaceOrganization(organizationId);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            TenantContext.restoreOrganization(previous);
+        }
+    }
+
+    /**
+     * 从参数中确定机构，确定不了时返回null
+     *
+     * @param lookup 是否允许按主键查找
+     */
+    Long resolve(Kind kind, Method method, Object[] args, boolean lookup) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < args.length; i++) {
+            if ("organizationId".equals(parameterName(parameters[i])) && args[i] instanceof Long organizationId) {
+                return organizationId;
+            }
+            Long organizationId = organizationOfEntity(args[i], lookup);
+            if (organizationId != null) {
+                return organizationId;
+            }
+        }
+        if (!lookup) {
+            return null;
+        }
+        for (int i = 0; i < args.length; i++) {
+            Kind parameterKind = PARAMETER_KINDS.get(parameterName(parameters[i]));
+            if (parameterKind != null && isId(args[i])) {
+                Long organizationId = tenantLocator.organizationOf(parameterKind, args[i]);
+                if (organizationId != null) {
+                    return organizationId;
+                }
+            }
+        }
+        // findById、deleteById、findAllById 等Spring Data内置的按主键操作
+        if (kind != null && args.length == 1 && method.getDeclaringClass().getName().startsWith("org.springframework.data.")) {
+            Object id = first(args[0]);
+            if (isId(id)) {
+                return tenantLocator.organizationOf(kind, id);
+            }
+        }
+        return null;
+    }
+
+    private Long organizationOfEntity(Object arg, boolean lookup) {
+        Object entity = first(arg);
+        if (entity instanceof CourseBase courseBase) {
+            return organizationOfCourse(courseBase, lookup);
+        }
+        if (entity instanceof CourseTeacher teacher) {
+            return teacher.getOrganizationId();
+        }
+        if (entity instanceof MediaFile mediaFile) {
+            return mediaFile.getOrganizationId();
+        }
+        if (entity instanceof Teachplan teachplan) {
+            return organizationOfCourse(teachplan.getCourseBase(), lookup);
+        }
+        if (entity instanceof TeachplanMedia teachplanMedia) {
+            return teachplanMedia.getTeachplan() != null
+                    ? organizationOfCourse(teachplanMedia.getTeachplan().getCourseBase(), lookup) : null;
+        }
+        if (entity instanceof CourseMarket courseMarket) {
+            return organizationOfCourse(courseMarket.getCourseBase(), lookup);
+        }
+        if (entity instanceof CoursePublishPre coursePublishPre) {
+            return organizationOfCourse(coursePublishPre.getCourseBase(), lookup);
+        }
+        if (entity instanceof CoursePublish coursePublish) {
+            return organizationOfCourse(coursePublish.getCourseBase(), lookup);
+        }
+        return null;
+    }
+
+    /**
+     * 未初始化的课程代理读取机构ID会触发加载，此时还没有确定分片，改为按主键查找
+     */
+    private Long organizationOfCourse(CourseBase courseBase, boolean lookup) {
+        if (courseBase == null) {
+            return null;
+        }
+        if (Hibernate.isInitialized(courseBase)) {
+            return courseBase.getOrganizationId();
+        }
+        return lookup ? tenantLocator.organizationOf(Kind.COURSE, courseBase.getId()) : null;
+    }
+
+    /**
+     * 事务在绑定机构前已经执行过SQL（如先访问了发件箱、分类等不带机构的表），连接已经落在某个分片上，
+     * 之后的SQL不会再路由；机构不在这个分片时直接失败，不能把写入落到错误的分片
+     */
+    private void checkConnectionShard(Long organizationId) {
+        String connectionShard = TenantContext.connectionShard();
+        if (connectionShard == null) {
+            return;
+        }
+        String shard = tenantDirectory.placement(organizationId).shard();
+        if (!connectionShard.equals(shard)) {
+            throw new ContentException(ContentErrorCode.CROSS_SHARD_TRANSACTION,
+                    "事务已在分片" + connectionShard + "上执行过SQL，不能再访问机构" + organizationId + "（分片" + shard + "）");
+        }
+    }
+
+    private boolean sameShard(Long organizationId, Long otherOrganizationId) {
+        return tenantDirectory.placement(organizationId).shard()
+                .equals(tenantDirectory.placement(otherOrganizationId).shard());
+    }
+
+    private static Kind kindOf(Object repository) {
+        for (Map.Entry<Class<?>, Kind> entry : REPOSITORY_KINDS.entrySet()) {
+            if (entry.getKey().isInstance(repository)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String parameterName(Parameter parameter) {
+        Param param = parameter.getAnnotation(Param.class);
+        if (param != null) {
+            return param.value();
+        }
+        return parameter.isNamePresent() ? parameter.getName() : null;
+    }
+
+    private static Object first(Object arg) {
+        if (arg instanceof Iterable<?> iterable) {
+            Iterator<?> iterator = iterable.iterator();
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+        return arg;
+    }
+
+    private static boolean isId(Object value) {
+        return value instanceof Long || value instanceof String;
+    }
+}
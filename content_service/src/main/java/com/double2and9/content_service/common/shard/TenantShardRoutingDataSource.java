@@ -0,0 +1,55 @@
+package com.double2and9.content_service.common.shard;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+
+/**
+ * 按机构路由到分片的数据源
+ * 分片由 {@link TenantContext} 和 {@link TenantDirectory} 决定，没有机构信息时使用默认分片。
+ * 机构迁移中时拒绝读写事务，读取仍落在原分片。
+ * 路由在真正获取连接时决定，需要外面再套一层 LazyConnectionDataSourceProxy，
+ * 事务开始后、第一条SQL之前绑定的机构才能生效；事务中获取连接时记下所在分片，供 {@link TenantRoutingAspect} 检查。
+ */
+public class TenantShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardRegistry shardRegistry;
+    private final TenantDirectory tenantDirectory;
+
+    public TenantShardRoutingDataSource(ShardRegistry shardRegistry, TenantDirectory tenantDirectory) {
+        this.shardRegistry = shardRegistry;
+        this.tenantDirectory = tenantDirectory;
+        setTargetDataSources(new HashMap<>(shardRegistry.dataSources()));
+        setDefaultTargetDataSource(shardRegistry.dataSource(shardRegistry.getDefaultShard()));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = resolveShard();
+        TenantContext.recordConnectionShard(shard);
+        return shard;
+    }
+
+    private String resolveShard() {
+        String shard = TenantContext.currentShard();
+        if (shard != null) {
+            return shard;
+        }
+        Long organizationId = TenantContext.currentOrganizationId();
+        if (organizationId == null) {
+            return shardRegistry.getDefaultShard();
+        }
+        TenantDirectory.Placement placement = tenantDirectory.placement(organizationId);
+        if (placement.status() == TenantDirectory.Status.MOVING
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new ContentException(ContentErrorCode.TENANT_MOVING);
+        }
+        return placement.shard();
+    }
+}
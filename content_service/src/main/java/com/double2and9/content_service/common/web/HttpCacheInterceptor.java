@@ -0,0 +1,69 @@
+package com.double2and9.content_service.common.web;
+
+import com.double2and9.content_service.config.HttpCacheProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP缓存拦截器
+ * 只处理GET/HEAD请求，按配置的规则输出 Cache-Control；
+ * ETag和304由控制器通过 WebRequest.checkNotModified 处理
+ */
+public class HttpCacheInterceptor implements HandlerInterceptor {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final List<CompiledRule> rules = new ArrayList<>();
+
+    public HttpCacheInterceptor(HttpCacheProperties properties) {
+        for (HttpCacheProperties.Rule rule : properties.getRules()) {
+            rules.add(new CompiledRule(rule.getPath(), toCacheControl(rule)));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        String path = urlPathHelper.getLookupPathForRequest(request);
+        for (CompiledRule rule : rules) {
+            if (pathMatcher.match(rule.path(), path)) {
+                String headerValue = rule.cacheControl().getHeaderValue();
+                if (headerValue != null) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, headerValue);
+                }
+                break;
+            }
+        }
+        return true;
+    }
+
+    static CacheControl toCacheControl(HttpCacheProperties.Rule rule) {
+        if (rule.isNoStore()) {
+            return CacheControl.noStore();
+        }
+        CacheControl cacheControl = rule.getMaxAge() > 0
+                ? CacheControl.maxAge(rule.getMaxAge(), TimeUnit.SECONDS)
+                : CacheControl.noCache();
+        cacheControl = rule.isSharedCache() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+        if (rule.getStaleWhileRevalidate() > 0) {
+            cacheControl = cacheControl.staleWhileRevalidate(rule.getStaleWhileRevalidate(), TimeUnit.SECONDS);
+        }
+        return cacheControl;
+    }
+
+    private record CompiledRule(String path, CacheControl cacheControl) {
+    }
+}
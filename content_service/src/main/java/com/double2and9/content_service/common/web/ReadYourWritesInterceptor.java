@@ -0,0 +1,59 @@
+package com.double2and9.content_service.common.web;
+
+import com.double2and9.content_service.common.datasource.ReadYourWritesContext;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 读己之写的会话标记
+ * 写入提交后在响应中设置Cookie记录提交时间，同一客户端之后的请求带回该Cookie，
+ * 在 stickiness 时间内的读取走主库，避免读到复制延迟中的旧数据。
+ * 不保存Cookie的客户端（如服务间调用）只在同一个请求内保证读己之写。
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String COOKIE_NAME = "content_last_write";
+
+    private final long stickinessMs;
+
+    public ReadYourWritesInterceptor(long stickinessMs) {
+        this.stickinessMs = stickinessMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesContext.begin(lastWrite(request), writeMillis -> {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(writeMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (stickinessMs + 999) / 1000));
+            response.addCookie(cookie);
+        });
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadYourWritesContext.end();
+    }
+
+    private long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+}
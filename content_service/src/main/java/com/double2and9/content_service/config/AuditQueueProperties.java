@@ -0,0 +1,29 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审核队列配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.audit-queue")
+public class AuditQueueProperties {
+
+    /**
+     * 领取后的租约时长（秒），到期未审核的任务可被其他审核人领取
+     */
+    private long leaseSeconds = 900;
+
+    /**
+     * 一次最多领取的任务数
+     */
+    private int maxClaimSize = 50;
+
+    /**
+     * 队列查询每页最多的任务数
+     */
+    private int maxPageSize = 100;
+}
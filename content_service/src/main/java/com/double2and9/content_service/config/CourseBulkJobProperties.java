@@ -0,0 +1,51 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 课程批量操作配置
+ * 任务在独立的有界线程池中执行，与请求线程、媒体服务舱壁互不占用；
+ * 同时执行的任务数即最多占用的数据库连接数，块之间停顿，让交互请求优先拿到连接和行锁
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.bulk-job")
+public class CourseBulkJobProperties {
+
+    /**
+     * 同时执行的任务数
+     */
+    private int workers = 2;
+
+    /**
+     * 排队的任务数上限，超过后拒绝提交
+     */
+    private int queueCapacity = 20;
+
+    /**
+     * 每块的课程数，一块一个事务
+     */
+    private int chunkSize = 50;
+
+    /**
+     * 块之间的停顿（毫秒）
+     */
+    private long chunkPauseMs = 50;
+
+    /**
+     * 查询任务时最多返回的失败明细数
+     */
+    private int maxReportedErrors = 200;
+
+    /**
+     * 执行中的任务超过该时间（毫秒）没有进度、排队中的任务超过该时间没有心跳时视为所在节点已失联，标记为FAILED
+     */
+    private long staleAfterMs = 600_000;
+
+    /**
+     * 已结束任务保留天数
+     */
+    private int retentionDays = 7;
+}
@@ -0,0 +1,28 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.content_service.cache.CourseCacheStore;
+import com.double2and9.content_service.cache.InMemoryCourseCacheStore;
+import com.double2and9.content_service.cache.RedisCourseCacheStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 课程缓存存储装配，通过content.course-cache.store切换
+ */
+@Configuration
+public class CourseCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "content.course-cache.store", havingValue = "redis", matchIfMissing = true)
+    public CourseCacheStore redisCourseCacheStore(StringRedisTemplate redisTemplate) {
+        return new RedisCourseCacheStore(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "content.course-cache.store", havingValue = "memory")
+    public CourseCacheStore inMemoryCourseCacheStore() {
+        return new InMemoryCourseCacheStore();
+    }
+}
@@ -0,0 +1,51 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 课程详情和课程预览缓存配置
+ * 过期时间加随机抖动，临近过期时按概率提前刷新，同一节点同一门课程同时只有一个请求回源
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.course-cache")
+public class CourseCacheProperties {
+
+    /**
+     * 是否启用，关闭后直接查询数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 存储：redis / memory（只用于测试和单节点）
+     */
+    private String store = "redis";
+
+    /**
+     * 键前缀
+     */
+    private String keyPrefix = "content:course-cache";
+
+    /**
+     * 过期时间（毫秒）
+     */
+    private long ttlMs = 600_000;
+
+    /**
+     * 过期时间的随机抖动比例，0.1 表示在 ±10% 内随机，同一时刻写入的大量缓存不会同时过期
+     */
+    private double ttlJitter = 0.1;
+
+    /**
+     * 提前刷新系数，越大越早刷新，0 表示不提前刷新；回源越慢的缓存越早开始按概率刷新
+     */
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * 删除缓存、事务结束后再延迟删除一次的延迟（毫秒），清掉其他节点在提交前开始回源后写回的旧数据；
+     * 回源超过该时长的结果不写回。0 表示不延迟删除，也不限制写回
+     */
+    private long delayedEvictMs = 2000;
+}
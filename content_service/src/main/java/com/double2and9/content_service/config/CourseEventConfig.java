@@ -0,0 +1,42 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.content_service.event.CourseEventSink;
+import com.double2and9.content_service.event.InMemoryCourseEventSink;
+import com.double2and9.content_service.event.LocalFileCourseEventSink;
+import com.double2and9.content_service.event.RedisStreamCourseEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.file.Paths;
+
+/**
+ * 课程事件投递目标装配，通过content.event.sink切换
+ */
+@Configuration
+@EnableConfigurationProperties(CourseEventProperties.class)
+public class CourseEventConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "content.event.sink", havingValue = "redis", matchIfMissing = true)
+    public CourseEventSink redisStreamCourseEventSink(StringRedisTemplate redisTemplate,
+                                                      CourseEventProperties properties) {
+        return new RedisStreamCourseEventSink(redisTemplate, properties.getStreamKeyPrefix(),
+                properties.getStreamPartitions(), properties.getStreamMaxLength());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "content.event.sink", havingValue = "memory")
+    public CourseEventSink inMemoryCourseEventSink() {
+        return new InMemoryCourseEventSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "content.event.sink", havingValue = "file")
+    public CourseEventSink localFileCourseEventSink(CourseEventProperties properties, ObjectMapper objectMapper) {
+        return new LocalFileCourseEventSink(Paths.get(properties.getFilePath()), objectMapper);
+    }
+}
@@ -0,0 +1,72 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 课程事件发件箱与中继配置
+ */
+@Data
+@ConfigurationProperties(prefix = "content.event")
+public class CourseEventProperties {
+
+    /**
+     * 投递目标：redis / memory / file
+     */
+    private String sink = "redis";
+
+    /**
+     * 是否启用中继任务
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * 每批投递的事件数量
+     */
+    private int batchSize = 200;
+
+    /**
+     * 中继轮询间隔（毫秒）
+     */
+    private long relayIntervalMs = 1000;
+
+    /**
+     * 单个事件最多投递失败的次数，达到后停放；投递目标不可用（连接失败、超时）的失败不计入
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * 首次重试退避时间（毫秒），之后按2倍递增；投递目标不可用时整批推迟同样的时间
+     */
+    private long initialBackoffMs = 1000;
+
+    /**
+     * 最大退避时间（毫秒）
+     */
+    private long maxBackoffMs = 300000;
+
+    /**
+     * 已投递事件保留天数
+     */
+    private int retentionDays = 7;
+
+    /**
+     * Redis Stream键前缀
+     */
+    private String streamKeyPrefix = "content:course-events";
+
+    /**
+     * Redis Stream分区数
+     */
+    private int streamPartitions = 4;
+
+    /**
+     * 每个Stream保留的近似最大长度，0表示不裁剪
+     */
+    private long streamMaxLength = 100000;
+
+    /**
+     * file模式下的输出文件
+     */
+    private String filePath = "content_service/events/course-events.jsonl";
+}
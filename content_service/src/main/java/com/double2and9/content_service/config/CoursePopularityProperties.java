@@ -0,0 +1,66 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 课程热度配置
+ * 浏览、报名在本节点内存中累加，每 flush-interval-ms 把增量按课程合并后分批写入MySQL和Redis；
+ * 热门课程由本节点内存中按时间衰减的 Top-K 给出
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.popularity")
+public class CoursePopularityProperties {
+
+    /**
+     * 是否统计，关闭后记录浏览、报名直接忽略
+     */
+    private boolean enabled = true;
+
+    /**
+     * 写入增量的间隔（毫秒），也是节点崩溃时最多丢失的统计时长
+     */
+    private long flushIntervalMs = 5000;
+
+    /**
+     * 每批写入的课程数，一批一个事务
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * 两次写入之间最多统计的课程数，超出的课程本轮不计数，防止大量不存在的课程ID占满内存
+     */
+    private int maxTrackedCourses = 100_000;
+
+    /**
+     * 是否同时把增量累加到Redis，供其他服务直接读取累计值
+     */
+    private boolean redisEnabled = true;
+
+    /**
+     * Redis键前缀，浏览数和报名数分别存在 {prefix}:views、{prefix}:enrollments 两个哈希中
+     */
+    private String redisKeyPrefix = "content:course-popularity";
+
+    /**
+     * 热门课程候选数，应明显大于单次查询的条数
+     */
+    private int trendingCapacity = 1000;
+
+    /**
+     * 热度半衰期（毫秒）
+     */
+    private long trendingHalfLifeMs = 3_600_000;
+
+    /**
+     * 一次报名折算的浏览数
+     */
+    private double enrollmentWeight = 10;
+
+    /**
+     * 单次查询热门课程的最大条数
+     */
+    private int maxTrendingSize = 50;
+}
@@ -0,0 +1,61 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 课程定时发布/下架配置
+ * 各节点定期按租约领取 horizon 内到期的记录放入本节点的时间轮，时间轮每 tick 推进一次，
+ * 到期的记录按机构和操作分批执行，一批一个事务
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.course-schedule")
+public class CourseScheduleProperties {
+
+    /**
+     * 是否在本节点执行定时任务，关闭后仍可设置和取消
+     */
+    private boolean enabled = true;
+
+    /**
+     * 节点标识，写入租约；为空时使用进程名加随机后缀
+     */
+    private String nodeId;
+
+    /**
+     * 时间轮每格时长（毫秒），即执行时间的精度
+     */
+    private long tickMs = 100;
+
+    /**
+     * 时间轮每层格数
+     */
+    private int wheelSize = 64;
+
+    /**
+     * 提前领取的时间范围（毫秒）
+     */
+    private long horizonMs = 60_000;
+
+    /**
+     * 租约在执行时间之后的保留时长（毫秒），节点失联超过该时间后其他节点才能重新领取
+     */
+    private long leaseMs = 60_000;
+
+    /**
+     * 每轮领取的记录数
+     */
+    private int claimBatchSize = 1000;
+
+    /**
+     * 每次轮询最多领取的轮数
+     */
+    private int maxClaimRounds = 10;
+
+    /**
+     * 每批执行的课程数，一批一个事务
+     */
+    private int fireBatchSize = 100;
+}
@@ -0,0 +1,56 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTTP缓存配置
+ * 按接口路径配置 Cache-Control，规则按顺序匹配，第一条命中的生效
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.http-cache")
+public class HttpCacheProperties {
+
+    /**
+     * 是否输出缓存头
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缓存规则
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        /**
+         * 路径（Ant风格）
+         */
+        private String path;
+
+        /**
+         * 最大缓存时间（秒），0表示每次都需要用ETag重新验证
+         */
+        private long maxAge = 0;
+
+        /**
+         * 是否允许网关、CDN等共享缓存存储
+         */
+        private boolean sharedCache = false;
+
+        /**
+         * 过期后允许先返回旧内容再后台验证的时间（秒）
+         */
+        private long staleWhileRevalidate = 0;
+
+        /**
+         * 禁止缓存
+         */
+        private boolean noStore = false;
+    }
+}
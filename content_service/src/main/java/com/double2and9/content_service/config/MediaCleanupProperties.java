@@ -0,0 +1,49 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 媒资异步清理配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.media-cleanup")
+public class MediaCleanupProperties {
+
+    /**
+     * 是否启用后台清理任务
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每批删除的文件数量
+     */
+    private int batchSize = 100;
+
+    /**
+     * 领取任务的租约时长（毫秒），应大于批量删除的超时上限；节点失联时租约到期后由其他节点重新领取
+     */
+    private long leaseMs = 60000;
+
+    /**
+     * 最大尝试次数，超过后标记为FAILED等待人工处理
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * 首次重试退避时间（毫秒），之后按2倍递增
+     */
+    private long initialBackoffMs = 5000;
+
+    /**
+     * 最大退避时间（毫秒）
+     */
+    private long maxBackoffMs = 3600000;
+
+    /**
+     * 已完成任务保留天数
+     */
+    private int retentionDays = 3;
+}
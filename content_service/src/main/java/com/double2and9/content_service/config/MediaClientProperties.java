@@ -0,0 +1,125 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 媒体服务异步客户端配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.media-client")
+public class MediaClientProperties {
+
+    /**
+     * 上传舱壁
+     */
+    private Bulkhead upload = new Bulkhead(8, 16);
+
+    /**
+     * 删除舱壁
+     */
+    private Bulkhead delete = new Bulkhead(4, 64);
+
+    /**
+     * 自适应超时
+     */
+    private Timeout timeout = new Timeout();
+
+    /**
+     * 批量删除的自适应超时，单独采样，一次删除一批对象，比单个请求慢得多
+     */
+    private Timeout batchTimeout = new Timeout(10000, 2000, 10000);
+
+    /**
+     * 删除请求对冲
+     */
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Bulkhead {
+        /**
+         * 最大并发调用数
+         */
+        private int maxConcurrent;
+
+        /**
+         * 排队上限，超过后直接拒绝
+         */
+        private int queueCapacity;
+
+        public Bulkhead() {
+        }
+
+        public Bulkhead(int maxConcurrent, int queueCapacity) {
+            this.maxConcurrent = maxConcurrent;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    @Data
+    public static class Timeout {
+        /**
+         * 样本不足时使用的超时（毫秒）
+         */
+        private long initialMs = 5000;
+
+        /**
+         * 超时下限（毫秒）
+         */
+        private long minMs = 500;
+
+        /**
+         * 超时上限（毫秒），应不大于Feign的readTimeout
+         */
+        private long maxMs = 10000;
+
+        /**
+         * 参考的延迟分位数
+         */
+        private double percentile = 0.99;
+
+        /**
+         * 超时 = 分位数延迟 * 倍数
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * 延迟采样窗口大小
+         */
+        private int windowSize = 256;
+
+        /**
+         * 启用自适应超时所需的最少样本数
+         */
+        private int minSamples = 20;
+
+        public Timeout() {
+        }
+
+        public Timeout(long initialMs, long minMs, long maxMs) {
+            this.initialMs = initialMs;
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+        }
+    }
+
+    @Data
+    public static class Hedge {
+        /**
+         * 是否对幂等的单个删除请求发起对冲，批量删除不对冲
+         */
+        private boolean enabled = true;
+
+        /**
+         * 首个请求超过该分位数延迟仍未返回时发起对冲请求
+         */
+        private double percentile = 0.95;
+
+        /**
+         * 对冲等待下限（毫秒）
+         */
+        private long minDelayMs = 50;
+    }
+}
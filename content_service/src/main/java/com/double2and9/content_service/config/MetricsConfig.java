@@ -0,0 +1,43 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.base.metrics.MeteredStringRedisTemplate;
+import com.double2and9.base.metrics.RedisCommandMetrics;
+import com.double2and9.content_service.common.metrics.StatementCountInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 指标装配
+ * 仓库方法耗时使用Spring Boot自带的 spring.data.repository.invocations，Feign调用由feign-micrometer记录，
+ * 这里补充Redis命令耗时和每个请求的SQL语句数。
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 替换自动配置的StringRedisTemplate，每条命令记录 redis.commands 指标，链路中的命令另外生成span
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                   MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer) {
+        return new MeteredStringRedisTemplate(connectionFactory,
+                new RedisCommandMetrics(meterRegistry, tracer.getIfAvailable(() -> Tracer.NOOP)));
+    }
+
+    @Bean
+    public StatementCountInspector statementCountInspector() {
+        return new StatementCountInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountCustomizer(StatementCountInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
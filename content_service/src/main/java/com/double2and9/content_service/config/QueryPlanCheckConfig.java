@@ -0,0 +1,38 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.base.queryplan.QueryPlanChecker;
+import com.double2and9.base.queryplan.StatementCapture;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * 仓库查询执行计划检查，content.query-plan-check.enabled=true 时启用
+ * 测试类路径下的 config/application.yml 打开了该检查：出现未标注的全表扫描时应用启动失败，
+ * 所有 @SpringBootTest 随之失败
+ */
+@Configuration
+@ConditionalOnProperty(name = "content.query-plan-check.enabled", havingValue = "true")
+public class QueryPlanCheckConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static BeanPostProcessor statementCapturePostProcessor() {
+        return StatementCapture.dataSourcePostProcessor();
+    }
+
+    @Bean
+    public QueryPlanChecker queryPlanChecker(
+            ListableBeanFactory beanFactory, DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${content.query-plan-check.fail-on-full-scan:true}") boolean failOnFullScan) {
+        return new QueryPlanChecker(beanFactory, dataSource, transactionManager, failOnFullScan);
+    }
+}
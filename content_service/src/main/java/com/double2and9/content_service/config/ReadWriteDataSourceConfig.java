@@ -0,0 +1,104 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.content_service.common.datasource.ReadWriteRoutingDataSource;
+import com.double2and9.content_service.common.datasource.ReplicaHealthMonitor;
+import com.double2and9.content_service.common.web.ReadYourWritesInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * 读写分离，content.datasource.replica.enabled=true 时启用
+ * 主库仍按 spring.datasource.* 配置，副本按 content.datasource.replica.* 配置；
+ * 应用使用的数据源是 LazyConnectionDataSourceProxy → ReadWriteRoutingDataSource，
+ * Flyway迁移固定使用主库连接池。启用按机构分库（content.sharding.enabled）时不生效。
+ */
+@Configuration
+@ConditionalOnExpression("${content.datasource.replica.enabled:false} and !${content.sharding.enabled:false}")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        if (StringUtils.hasText(properties.getDriverClassName())) {
+            dataSource.setDriverClassName(properties.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(properties.getConnectionTimeoutMs());
+        dataSource.setReadOnly(true);
+        // 副本不可用时不阻塞启动，由健康检查和路由回退到主库
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                     ReplicaDataSourceProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replicaDataSource, properties.getMaxLagMs(),
+                properties.getValidationTimeoutSeconds());
+        Gauge.builder("content.datasource.replica.available", monitor, m -> m.isAvailable() ? 1 : 0)
+                .description("只读副本是否可用")
+                .register(meterRegistry);
+        Gauge.builder("content.datasource.replica.lag", monitor, ReplicaHealthMonitor::getLagMs)
+                .description("只读副本复制延迟")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaHealthMonitor replicaHealthMonitor,
+                                 ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaHealthMonitor, properties.getStickinessMs(), Clock.systemUTC(), meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Hibernate默认在整个Session期间持有连接（open-in-view时即整个请求），
+     * 改为事务结束就释放，同一请求里的只读事务和读写事务才能分别路由
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReadYourWritesInterceptor readYourWritesInterceptor(ReplicaDataSourceProperties properties) {
+        return new ReadYourWritesInterceptor(properties.getStickinessMs());
+    }
+}
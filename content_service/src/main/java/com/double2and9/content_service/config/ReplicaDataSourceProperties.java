@@ -0,0 +1,62 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 只读副本配置，enabled=true 时启用读写分离
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * 是否启用读写分离
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * 为空时按url推断
+     */
+    private String driverClassName;
+
+    /**
+     * 副本连接池大小
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * 获取副本连接的超时时间（毫秒），超时后回到主库，不宜过长
+     */
+    private long connectionTimeoutMs = 1000;
+
+    /**
+     * 允许的最大复制延迟（毫秒），超过后副本标记为不可用
+     */
+    private long maxLagMs = 2000;
+
+    /**
+     * 健康检查间隔（毫秒）
+     */
+    private long healthCheckIntervalMs = 1000;
+
+    /**
+     * 连接校验超时（秒）
+     */
+    private int validationTimeoutSeconds = 1;
+
+    /**
+     * 写入后读取走主库的时长：副本延迟不超过 maxLagMs，检查结果最多过时一个检查间隔
+     */
+    public long getStickinessMs() {
+        return maxLagMs + healthCheckIntervalMs;
+    }
+}
@@ -0,0 +1,139 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantDirectory;
+import com.double2and9.content_service.common.shard.TenantLocator;
+import com.double2and9.content_service.common.shard.TenantRoutingAspect;
+import com.double2and9.content_service.common.shard.TenantShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按机构分库，content.sharding.enabled=true 时启用
+ * 默认分片按 spring.datasource.* 配置并存放机构目录，其余分片按 content.sharding.shards.* 配置；
+ * 应用使用的数据源是 LazyConnectionDataSourceProxy → TenantShardRoutingDataSource。
+ * 启动时用与默认分片相同的Flyway配置迁移其余分片，为各分片预留不重叠的主键区间，并把课程分类等参考数据复制过去。
+ * 与读写分离互斥，启用分库时不再路由到只读副本。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "content.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * 连接池参数与单库时一样取 spring.datasource.hikari.*（该前缀已由读写分离的主库声明，这里手动绑定）
+     */
+    @Bean
+    @FlywayDataSource
+    public HikariDataSource defaultShardDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("shard-default");
+        return dataSource;
+    }
+
+    @Bean
+    public ShardRegistry shardRegistry(@Qualifier("defaultShardDataSource") DataSource defaultShardDataSource,
+                                       ShardingProperties properties,
+                                       ObjectProvider<FlywayProperties> flywayProperties) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        Map<String, Integer> idRangeIndexes = new LinkedHashMap<>();
+        dataSources.put(properties.getDefaultShard(), defaultShardDataSource);
+        idRangeIndexes.put(properties.getDefaultShard(), 0);
+        properties.getShards().forEach((name, shard) -> {
+            if (shard.getIdRangeIndex() <= 0) {
+                throw new IllegalArgumentException("分片的主键区间序号必须大于0：" + name);
+            }
+            dataSources.put(name, shardDataSource(name, shard));
+            idRangeIndexes.put(name, shard.getIdRangeIndex());
+        });
+        ShardRegistry registry = new ShardRegistry(properties.getDefaultShard(), dataSources, idRangeIndexes);
+
+        FlywayProperties flyway = flywayProperties.getIfAvailable();
+        if (flyway != null) {
+            properties.getShards().keySet().forEach(name -> migrate(name, registry.dataSource(name), flyway));
+        }
+        registry.reserveIdRanges(properties.getIdRangeSize());
+        registry.replicateReferenceTables();
+        return registry;
+    }
+
+    @Bean
+    public TenantDirectory tenantDirectory(@Qualifier("defaultShardDataSource") DataSource defaultShardDataSource,
+                                           ShardingProperties properties) {
+        return new TenantDirectory(defaultShardDataSource, properties.getDefaultShard(),
+                properties.getDirectoryCacheTtlMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRegistry shardRegistry, TenantDirectory tenantDirectory) {
+        return new LazyConnectionDataSourceProxy(new TenantShardRoutingDataSource(shardRegistry, tenantDirectory));
+    }
+
+    @Bean
+    public TenantLocator tenantLocator(ShardRegistry shardRegistry) {
+        return new TenantLocator(shardRegistry);
+    }
+
+    @Bean
+    public TenantRoutingAspect tenantRoutingAspect(TenantLocator tenantLocator, TenantDirectory tenantDirectory) {
+        return new TenantRoutingAspect(tenantLocator, tenantDirectory);
+    }
+
+    /**
+     * 事务结束就释放连接，同一请求里访问不同机构的事务才能分别路由
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionReleaseCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private static HikariDataSource shardDataSource(String name, ShardingProperties.Shard shard) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("shard-" + name);
+        dataSource.setJdbcUrl(shard.getUrl());
+        dataSource.setUsername(shard.getUsername());
+        dataSource.setPassword(shard.getPassword());
+        if (StringUtils.hasText(shard.getDriverClassName())) {
+            dataSource.setDriverClassName(shard.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    private static void migrate(String name, DataSource dataSource, FlywayProperties flyway) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(flyway.getLocations().toArray(String[]::new))
+                .table(flyway.getTable())
+                .baselineOnMigrate(flyway.isBaselineOnMigrate())
+                .baselineVersion(flyway.getBaselineVersion())
+                .load()
+                .migrate();
+        log.info("分片表结构已迁移：{}", name);
+    }
+}
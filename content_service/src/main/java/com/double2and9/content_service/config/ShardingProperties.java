@@ -0,0 +1,80 @@
+package com.double2and9.content_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按机构分库配置，enabled=true 时启用
+ * 默认分片使用 spring.datasource.*，其余分片在 shards 下配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content.sharding")
+public class ShardingProperties {
+
+    /**
+     * 是否启用分库
+     */
+    private boolean enabled = false;
+
+    /**
+     * 默认分片名称，机构目录中没有记录的机构都在默认分片
+     */
+    private String defaultShard = "default";
+
+    /**
+     * 机构目录缓存时间（毫秒），也是迁移时等待各节点看到状态变化的时间
+     */
+    private long directoryCacheTtlMs = 5000;
+
+    /**
+     * 迁移的租约（毫秒）：执行节点每复制一批续约一次，超过该时间没有续约的迁移视为节点失联并回滚；应大于目录缓存时间
+     */
+    private long moveLeaseMs = 60_000;
+
+    /**
+     * 切换分片前等待机构未投递的课程事件、未完成的媒资清理任务在原分片处理完的最长时间（毫秒），超时则迁移失败并回滚
+     */
+    private long moveDrainTimeoutMs = 120_000;
+
+    /**
+     * 迁移时每批插入的记录数
+     */
+    private int moveBatchSize = 500;
+
+    /**
+     * 每个分片的主键区间大小
+     */
+    private long idRangeSize = 1_000_000_000_000L;
+
+    /**
+     * 默认分片以外的分片
+     */
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * 为空时按url推断
+         */
+        private String driverClassName;
+
+        private int maximumPoolSize = 10;
+
+        /**
+         * 主键区间序号，从1开始，不能重复；默认分片为0
+         */
+        private int idRangeIndex;
+    }
+}
@@ -0,0 +1,26 @@
+package com.double2and9.content_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+/**
+ * 虚拟线程模式配置
+ * 钉住监控和连接池检查由base模块的 VirtualThreadAutoConfiguration 提供，这里只补充content独有的：
+ * Feign调用经过断路器时使用的执行器切换为虚拟线程
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> virtualThreadCircuitBreakerCustomizer() {
+        return factory -> factory.configureExecutorService(
+                new ExecutorServiceAdapter(new VirtualThreadTaskExecutor("feign-vt-")));
+    }
+}
@@ -0,0 +1,44 @@
+package com.double2and9.content_service.config;
+
+import com.double2and9.content_service.common.metrics.StatementCountInspector;
+import com.double2and9.content_service.common.metrics.StatementCountInterceptor;
+import com.double2and9.content_service.common.web.HttpCacheInterceptor;
+import com.double2and9.content_service.common.web.ReadYourWritesInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final HttpCacheProperties httpCacheProperties;
+    private final StatementCountInspector statementCountInspector;
+    private final MeterRegistry meterRegistry;
+    private final int statementWarnThreshold;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    public WebMvcConfig(HttpCacheProperties httpCacheProperties, StatementCountInspector statementCountInspector,
+                        MeterRegistry meterRegistry,
+                        @Value("${content.metrics.statement-warn-threshold:30}") int statementWarnThreshold,
+                        ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor) {
+        this.httpCacheProperties = httpCacheProperties;
+        this.statementCountInspector = statementCountInspector;
+        this.meterRegistry = meterRegistry;
+        this.statementWarnThreshold = statementWarnThreshold;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 读写分离时最先恢复会话的写入时间，后面拦截器里的查询（如ETag版本查询）也按读己之写路由
+        readYourWritesInterceptor.ifAvailable(registry::addInterceptor);
+        registry.addInterceptor(new StatementCountInterceptor(statementCountInspector, meterRegistry,
+                statementWarnThreshold));
+        if (httpCacheProperties.isEnabled()) {
+            registry.addInterceptor(new HttpCacheInterceptor(httpCacheProperties));
+        }
+    }
+}
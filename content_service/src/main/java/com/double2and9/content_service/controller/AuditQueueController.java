@@ -0,0 +1,84 @@
+package com.double2and9.content_service.controller;
+
+import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.dto.AuditClaimDTO;
+import com.double2and9.content_service.dto.AuditDecisionDTO;
+import com.double2and9.content_service.dto.AuditDecisionResultDTO;
+import com.double2and9.content_service.dto.AuditQueuePageDTO;
+import com.double2and9.content_service.dto.AuditReleaseDTO;
+import com.double2and9.content_service.dto.AuditTaskDTO;
+import com.double2and9.content_service.service.AuditQueueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/audit-queue")
+@Tag(name = "审核队列", description = "课程和媒资的待审核任务：游标分页、领取、归还、批量审核")
+public class AuditQueueController {
+
+    private final AuditQueueService auditQueueService;
+
+    public AuditQueueController(AuditQueueService auditQueueService) {
+        this.auditQueueService = auditQueueService;
+    }
+
+    @Operation(summary = "查看审核队列", description = "按游标分页，下一页传入上一页返回的nextCursor")
+    @GetMapping
+    public ContentResponse<AuditQueuePageDTO> list(
+            @Parameter(description = "审核目标类型：COURSE 课程，MEDIA 媒资", required = true)
+            @RequestParam String targetType,
+            @Parameter(description = "机构ID，为空时查看全部机构")
+            @RequestParam(required = false) Long organizationId,
+            @Parameter(description = "排序方式：SUBMIT_TIME 提交时间，PRIORITY 优先级")
+            @RequestParam(defaultValue = "SUBMIT_TIME") String order,
+            @Parameter(description = "游标，第一页为空")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量")
+            @RequestParam(defaultValue = "20") int size) {
+        return ContentResponse.success(auditQueueService.list(targetType, organizationId, order, cursor, size));
+    }
+
+    @Operation(summary = "领取审核任务", description = "领取未被领取或租约已到期的任务，租约内其他审核人领取不到")
+    @PostMapping("/claim")
+    public ContentResponse<List<AuditTaskDTO>> claim(
+            @Parameter(description = "领取条件", required = true)
+            @RequestBody @Validated AuditClaimDTO claimDTO) {
+        return ContentResponse.success(auditQueueService.claim(claimDTO));
+    }
+
+    @Operation(summary = "归还审核任务", description = "归还后任务可被其他审核人领取")
+    @PostMapping("/release")
+    public ContentResponse<Integer> release(
+            @Parameter(description = "审核人和任务ID", required = true)
+            @RequestBody @Validated AuditReleaseDTO releaseDTO) {
+        return ContentResponse.success(auditQueueService.release(releaseDTO));
+    }
+
+    @Operation(summary = "批量审核", description = "审核本人持有且租约未到期的任务，审核结果一条语句写入")
+    @PostMapping("/decide")
+    public ContentResponse<AuditDecisionResultDTO> decide(
+            @Parameter(description = "任务和审核结果", required = true)
+            @RequestBody @Validated AuditDecisionDTO decisionDTO) {
+        log.info("批量审核，审核人：{}，类型：{}，任务数：{}", decisionDTO.getReviewer(),
+                decisionDTO.getTargetType(), decisionDTO.getTaskIds().size());
+        return ContentResponse.success(auditQueueService.decide(decisionDTO));
+    }
+
+    @Operation(summary = "调整任务优先级", description = "优先级越大越先审核")
+    @PutMapping("/{taskId}/priority")
+    public ContentResponse<Void> updatePriority(
+            @Parameter(description = "任务ID", required = true)
+            @PathVariable Long taskId,
+            @Parameter(description = "优先级", required = true)
+            @RequestParam Integer priority) {
+        auditQueueService.updatePriority(taskId, priority);
+        return ContentResponse.success(null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.double2and9.content_service.controller;
+
+import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.dto.CourseBulkJobDTO;
+import com.double2and9.content_service.dto.CourseBulkJobRequestDTO;
+import com.double2and9.content_service.service.CourseBulkJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/course/bulk-jobs")
+@Tag(name = "课程批量操作", description = "批量发布、下架课程，后台执行，按任务ID查询进度")
+public class CourseBulkJobController {
+
+    private final CourseBulkJobService courseBulkJobService;
+
+    public CourseBulkJobController(CourseBulkJobService courseBulkJobService) {
+        this.courseBulkJobService = courseBulkJobService;
+    }
+
+    @Operation(summary = "提交批量任务", description = "立即返回任务ID，课程在后台按块处理；执行器已满时返回错误")
+    @PostMapping
+    public ContentResponse<CourseBulkJobDTO> submit(
+            @Parameter(description = "机构、操作和课程ID", required = true)
+            @RequestBody @Validated CourseBulkJobRequestDTO request) {
+        log.info("提交课程批量任务，机构ID：{}，操作：{}，课程数：{}",
+                request.getOrganizationId(), request.getOperation(), request.getCourseIds().size());
+        return ContentResponse.success(courseBulkJobService.submit(request));
+    }
+
+    @Operation(summary = "查询批量任务", description = "返回进度和失败的课程")
+    @GetMapping("/{jobId}")
+    public ContentResponse<CourseBulkJobDTO> getJob(
+            @Parameter(description = "任务ID", required = true)
+            @PathVariable Long jobId) {
+        return ContentResponse.success(courseBulkJobService.getJob(jobId));
+    }
+
+    @Operation(summary = "取消批量任务", description = "排队中的任务不再执行，执行中的任务在当前块提交后停止，已处理的课程不回滚")
+    @PostMapping("/{jobId}/cancel")
+    public ContentResponse<CourseBulkJobDTO> cancel(
+            @Parameter(description = "任务ID", required = true)
+            @PathVariable Long jobId) {
+        return ContentResponse.success(courseBulkJobService.cancel(jobId));
+    }
+}
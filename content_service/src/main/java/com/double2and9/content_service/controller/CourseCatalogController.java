@@ -0,0 +1,71 @@
+package com.double2and9.content_service.controller;
+
+import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.dto.CourseCatalogPageDTO;
+import com.double2and9.content_service.dto.CourseCatalogQueryDTO;
+import com.double2and9.content_service.dto.CoursePopularityDTO;
+import com.double2and9.content_service.dto.CourseTrendingDTO;
+import com.double2and9.content_service.service.CourseCatalogService;
+import com.double2and9.content_service.service.CoursePopularityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/catalog")
+@Tag(name = "课程目录", description = "学员浏览已发布的课程")
+public class CourseCatalogController {
+
+    private final CourseCatalogService courseCatalogService;
+    private final CoursePopularityService coursePopularityService;
+
+    public CourseCatalogController(CourseCatalogService courseCatalogService,
+                                   CoursePopularityService coursePopularityService) {
+        this.courseCatalogService = courseCatalogService;
+        this.coursePopularityService = coursePopularityService;
+    }
+
+    @Operation(summary = "浏览课程", description = "按分类、收费规则、价格过滤，按发布时间倒序；下一页传入上一页返回的nextCursor")
+    @GetMapping("/courses")
+    public ContentResponse<CourseCatalogPageDTO> browse(
+            @Parameter(description = "查询条件") CourseCatalogQueryDTO query) {
+        return ContentResponse.success(courseCatalogService.browse(query));
+    }
+
+    @Operation(summary = "热门课程", description = "按浏览数和报名数计算、随时间衰减的热度从高到低")
+    @GetMapping("/courses/trending")
+    public ContentResponse<List<CourseTrendingDTO>> trending(
+            @Parameter(description = "条数，默认10")
+            @RequestParam(required = false) Integer size) {
+        return ContentResponse.success(coursePopularityService.trending(size));
+    }
+
+    @Operation(summary = "课程热度", description = "课程的累计浏览数和报名数")
+    @GetMapping("/courses/{courseId}/popularity")
+    public ContentResponse<CoursePopularityDTO> popularity(
+            @Parameter(description = "课程ID", required = true)
+            @PathVariable Long courseId) {
+        return ContentResponse.success(coursePopularityService.getPopularity(courseId));
+    }
+
+    @Operation(summary = "记录浏览", description = "只在内存中累加，定期批量写入；未发布的课程不计数")
+    @PostMapping("/courses/{courseId}/views")
+    public ContentResponse<Void> recordView(
+            @Parameter(description = "课程ID", required = true)
+            @PathVariable Long courseId) {
+        coursePopularityService.recordView(courseId);
+        return ContentResponse.success(null);
+    }
+
+    @Operation(summary = "记录报名", description = "只在内存中累加，定期批量写入；未发布的课程不计数")
+    @PostMapping("/courses/{courseId}/enrollments")
+    public ContentResponse<Void> recordEnrollment(
+            @Parameter(description = "课程ID", required = true)
+            @PathVariable Long courseId) {
+        coursePopularityService.recordEnrollment(courseId);
+        return ContentResponse.success(null);
+    }
+}
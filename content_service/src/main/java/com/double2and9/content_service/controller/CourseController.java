@@ -10,16 +10,24 @@ import com.double2and9.content_service.dto.AddCourseDTO;
 import com.double2and9.content_service.dto.EditCourseDTO;
 import com.double2and9.content_service.dto.CoursePreviewDTO;
 import com.double2and9.content_service.dto.CourseAuditDTO;
+import com.double2and9.content_service.dto.CourseDashboardDTO;
+import com.double2and9.content_service.dto.CourseScheduleDTO;
+import com.double2and9.content_service.service.ContentVersionService;
 import com.double2and9.content_service.service.CourseBaseService;
+import com.double2and9.content_service.service.CourseCounterService;
 import com.double2and9.content_service.common.model.ContentResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Tag(name = "课程管理", description = "提供课程的增删改查接口")
 @Slf4j
@@ -28,9 +36,14 @@ import java.util.List;
 public class CourseController {
 
     private final CourseBaseService courseBaseService;
+    private final ContentVersionService contentVersionService;
+    private final CourseCounterService courseCounterService;
 
-    public CourseController(CourseBaseService courseBaseService) {
+    public CourseController(CourseBaseService courseBaseService, ContentVersionService contentVersionService,
+                            CourseCounterService courseCounterService) {
         this.courseBaseService = courseBaseService;
+        this.contentVersionService = contentVersionService;
+        this.courseCounterService = courseCounterService;
     }
 
     @Operation(summary = "分页查询课程列表")
@@ -41,6 +54,19 @@ public class CourseController {
         return ContentResponse.success(courseBaseService.queryCourseList(pageParams, queryParams));
     }
 
+    @Operation(summary = "机构课程看板", description = "各课程状态、审核状态的课程数，读取机构课程计数")
+    @GetMapping("/dashboard/{organizationId}")
+    public ContentResponse<CourseDashboardDTO> dashboard(
+            @Parameter(description = "机构ID", required = true) @PathVariable Long organizationId) {
+        return ContentResponse.success(courseCounterService.getDashboard(organizationId));
+    }
+
+    @Operation(summary = "审核状态统计", description = "全平台各审核状态的课程数，读取机构课程计数")
+    @GetMapping("/audit/counts")
+    public ContentResponse<Map<String, Long>> auditCounts() {
+        return ContentResponse.success(courseCounterService.countAuditStatus());
+    }
+
     @Operation(summary = "创建课程", description = "创建新的课程，包含基本信息和营销信息")
     @PostMapping
     public ContentResponse<Long> createCourse(
@@ -65,7 +91,12 @@ public class CourseController {
     @Operation(summary = "课程预览", description = "获取课程详细信息，包括基本信息、课程计划和教师信息")
     @GetMapping("/preview/{courseId}")
     public ContentResponse<CoursePreviewDTO> previewCourse(
-            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId) {
+            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId,
+            WebRequest webRequest) {
+        String eTag = contentVersionService.coursePreviewETag(courseId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         return ContentResponse.success(courseBaseService.preview(courseId));
     }
 
@@ -88,10 +119,15 @@ public class CourseController {
     @Operation(summary = "获取课程详情")
     @GetMapping("/{courseId}")
     public ContentResponse<CourseBaseDTO> getCourseById(
-            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId) {
-        log.info("获取课程详情，courseId：{}", courseId);
+            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId,
+            WebRequest webRequest) {
+        String eTag = contentVersionService.courseETag(courseId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        log.debug("获取课程详情，courseId：{}", courseId);
         CourseBaseDTO courseBaseDTO = courseBaseService.getCourseById(courseId);
-        log.info("获取课程详情成功，courseId：{}", courseId);
+        log.debug("获取课程详情成功，courseId：{}", courseId);
         return ContentResponse.success(courseBaseDTO);
     }
 
@@ -105,20 +141,32 @@ public class CourseController {
         return ContentResponse.success(null);
     }
 
-    @Operation(summary = "发布课程")
+    @Operation(summary = "发布课程", description = "传入publishAt时在该时间发布，返回定时任务；否则立即发布")
     @PostMapping("/{courseId}/publish")
-    public ContentResponse<Void> publishCourse(
-            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId) {
+    public ContentResponse<CourseScheduleDTO> publishCourse(
+            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId,
+            @Parameter(description = "定时发布时间，ISO格式，如 2025-01-01T00:00:00+08:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date publishAt) {
+        if (publishAt != null) {
+            log.info("定时发布课程，courseId：{}，发布时间：{}", courseId, publishAt);
+            return ContentResponse.success(courseBaseService.publishCourse(courseId, publishAt));
+        }
         log.info("发布课程，courseId：{}", courseId);
         courseBaseService.publishCourse(courseId);
         log.info("发布课程成功，courseId：{}", courseId);
         return ContentResponse.success(null);
     }
 
-    @Operation(summary = "下架课程")
+    @Operation(summary = "下架课程", description = "传入offlineAt时在该时间下架，返回定时任务；否则立即下架")
     @PostMapping("/{courseId}/offline")
-    public ContentResponse<Void> offlineCourse(
-            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId) {
+    public ContentResponse<CourseScheduleDTO> offlineCourse(
+            @Parameter(description = "课程ID", required = true) @PathVariable Long courseId,
+            @Parameter(description = "定时下架时间，ISO格式")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date offlineAt) {
+        if (offlineAt != null) {
+            log.info("定时下架课程，courseId：{}，下架时间：{}", courseId, offlineAt);
+            return ContentResponse.success(courseBaseService.offlineCourse(courseId, offlineAt));
+        }
         log.info("下架课程，courseId：{}", courseId);
         courseBaseService.offlineCourse(courseId);
         log.info("下架课程成功，courseId：{}", courseId);
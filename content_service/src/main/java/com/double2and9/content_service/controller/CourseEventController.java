@@ -0,0 +1,31 @@
+package com.double2and9.content_service.controller;
+
+import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.service.CourseEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/course-events")
+@Tag(name = "课程事件管理", description = "处理投递失败停放的课程事件")
+public class CourseEventController {
+
+    private final CourseEventService courseEventService;
+
+    public CourseEventController(CourseEventService courseEventService) {
+        this.courseEventService = courseEventService;
+    }
+
+    @Operation(summary = "停放事件重新投递", description = "清除停放标志和失败次数，同一课程之后暂停的事件随之按顺序投递；不指定课程时处理所有停放的事件")
+    @PostMapping("/parked/requeue")
+    public ContentResponse<Integer> requeueParked(
+            @Parameter(description = "课程ID")
+            @RequestParam(required = false) Long courseId) {
+        log.info("停放的课程事件重新投递，课程ID：{}", courseId);
+        return ContentResponse.success(courseEventService.requeueParked(courseId));
+    }
+}
@@ -0,0 +1,42 @@
+package com.double2and9.content_service.controller;
+
+import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.dto.CourseScheduleDTO;
+import com.double2and9.content_service.service.CourseScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/course/schedules")
+@Tag(name = "课程定时发布", description = "查看、取消课程的定时发布和定时下架")
+public class CourseScheduleController {
+
+    private final CourseScheduleService courseScheduleService;
+
+    public CourseScheduleController(CourseScheduleService courseScheduleService) {
+        this.courseScheduleService = courseScheduleService;
+    }
+
+    @Operation(summary = "查看定时任务", description = "机构最近的定时任务，按执行时间倒序")
+    @GetMapping
+    public ContentResponse<List<CourseScheduleDTO>> list(
+            @Parameter(description = "机构ID", required = true)
+            @RequestParam Long organizationId) {
+        return ContentResponse.success(courseScheduleService.listSchedules(organizationId));
+    }
+
+    @Operation(summary = "取消定时任务", description = "只能取消待执行的定时任务")
+    @PostMapping("/{scheduleId}/cancel")
+    public ContentResponse<CourseScheduleDTO> cancel(
+            @Parameter(description = "定时任务ID", required = true)
+            @PathVariable Long scheduleId) {
+        log.info("取消课程定时任务，scheduleId：{}", scheduleId);
+        return ContentResponse.success(courseScheduleService.cancel(scheduleId));
+    }
+}
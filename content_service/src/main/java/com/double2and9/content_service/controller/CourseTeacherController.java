@@ -2,8 +2,11 @@ package com.double2and9.content_service.controller;
 
 import com.double2and9.content_service.common.model.ContentResponse;
 import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CourseTeacherBatchDTO;
 import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.dto.CourseTeacherSyncResultDTO;
 import com.double2and9.content_service.dto.SaveCourseTeacherDTO;
+import com.double2and9.content_service.service.ContentVersionService;
 import com.double2and9.content_service.service.CourseTeacherService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +14,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,9 +25,12 @@ import java.util.List;
 public class CourseTeacherController {
 
     private final CourseTeacherService courseTeacherService;
+    private final ContentVersionService contentVersionService;
 
-    public CourseTeacherController(CourseTeacherService courseTeacherService) {
+    public CourseTeacherController(CourseTeacherService courseTeacherService,
+                                   ContentVersionService contentVersionService) {
         this.courseTeacherService = courseTeacherService;
+        this.contentVersionService = contentVersionService;
     }
 
     /**
@@ -33,8 +40,12 @@ public class CourseTeacherController {
     @GetMapping("/list/{courseId}")
     public ContentResponse<List<CourseTeacherDTO>> listByCourseId(
             @Parameter(description = "课程ID", required = true) 
-            @PathVariable Long courseId) {
-        log.info("查询课程教师列表，课程ID：{}", courseId);
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersionService.courseTeachersETag(courseId))) {
+            return null;
+        }
+        log.debug("查询课程教师列表，课程ID：{}", courseId);
         return ContentResponse.success(courseTeacherService.listByCourseId(courseId));
     }
 
@@ -47,8 +58,13 @@ public class CourseTeacherController {
             @Parameter(description = "机构ID", required = true) 
             @PathVariable Long organizationId,
             @Parameter(description = "教师ID", required = true) 
-            @PathVariable Long teacherId) {
-        log.info("查询教师详情，机构ID：{}，教师ID：{}", organizationId, teacherId);
+            @PathVariable Long teacherId,
+            WebRequest webRequest) {
+        String eTag = contentVersionService.teacherETag(organizationId, teacherId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        log.debug("查询教师详情，机构ID：{}，教师ID：{}", organizationId, teacherId);
         return ContentResponse.success(courseTeacherService.getTeacherDetail(organizationId, teacherId));
     }
 
@@ -60,7 +76,7 @@ public class CourseTeacherController {
     public ContentResponse<List<CourseBaseDTO>> listCoursesByTeacherId(
             @Parameter(description = "教师ID", required = true) 
             @PathVariable Long teacherId) {
-        log.info("查询教师关联的课程，教师ID：{}", teacherId);
+        log.debug("查询教师关联的课程，教师ID：{}", teacherId);
         return ContentResponse.success(courseTeacherService.listCoursesByTeacherId(teacherId));
     }
 
@@ -71,9 +87,15 @@ public class CourseTeacherController {
     @GetMapping("/organization/{organizationId}")
     public ContentResponse<List<CourseTeacherDTO>> listByOrganizationId(
             @Parameter(description = "机构ID", required = true) 
-            @PathVariable Long organizationId) {
-        log.info("查询机构教师列表，机构ID：{}", organizationId);
-        return ContentResponse.success(courseTeacherService.listByOrganizationId(organizationId));
+            @PathVariable Long organizationId,
+            WebRequest webRequest) {
+        log.debug("查询机构教师列表，机构ID：{}", organizationId);
+        // 列表来自缓存，ETag按实际返回的列表生成
+        List<CourseTeacherDTO> teachers = courseTeacherService.listByOrganizationId(organizationId);
+        if (webRequest.checkNotModified(contentVersionService.organizationTeachersETag(organizationId, teachers))) {
+            return null;
+        }
+        return ContentResponse.success(teachers);
     }
 
     /**
@@ -90,6 +112,19 @@ public class CourseTeacherController {
         return ContentResponse.success(null);
     }
 
+    /**
+     * 批量同步机构教师
+     */
+    @Operation(summary = "批量同步教师",
+              description = "批量新建或更新同一机构的教师，课程关联以请求为准，只增删有变化的关联")
+    @PostMapping("/batch")
+    public ContentResponse<CourseTeacherSyncResultDTO> syncTeachers(
+            @Parameter(description = "教师列表", required = true)
+            @RequestBody @Validated CourseTeacherBatchDTO batchDTO) {
+        log.info("批量同步教师，机构ID：{}，教师数：{}", batchDTO.getOrganizationId(), batchDTO.getTeachers().size());
+        return ContentResponse.success(courseTeacherService.syncTeachers(batchDTO));
+    }
+
     /**
      * 解除教师与课程的关联关系
      */
@@ -4,11 +4,13 @@ import com.double2and9.content_service.common.model.ContentResponse;
 import com.double2and9.content_service.dto.SaveTeachplanDTO;
 import com.double2and9.content_service.dto.TeachplanDTO;
 import com.double2and9.content_service.dto.TeachplanMediaDTO;
+import com.double2and9.content_service.service.ContentVersionService;
 import com.double2and9.content_service.service.TeachplanService;
 import com.double2and9.content_service.service.TeachplanMediaService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,11 +28,14 @@ public class TeachplanController {
 
     private final TeachplanService teachplanService;
     private final TeachplanMediaService teachplanMediaService;
+    private final ContentVersionService contentVersionService;
 
     public TeachplanController(TeachplanService teachplanService,
-                             TeachplanMediaService teachplanMediaService) {
+                             TeachplanMediaService teachplanMediaService,
+                             ContentVersionService contentVersionService) {
         this.teachplanService = teachplanService;
         this.teachplanMediaService = teachplanMediaService;
+        this.contentVersionService = contentVersionService;
     }
 
     /**
@@ -42,8 +47,12 @@ public class TeachplanController {
     @GetMapping("/tree/{courseId}")
     public ContentResponse<List<TeachplanDTO>> getTeachplanTree(
             @Parameter(description = "课程ID", required = true) 
-            @PathVariable Long courseId) {
-        log.info("查询课程计划树，课程ID：{}", courseId);
+            @PathVariable Long courseId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersionService.teachplanTreeETag(courseId))) {
+            return null;
+        }
+        log.debug("查询课程计划树，课程ID：{}", courseId);
         return ContentResponse.success(teachplanService.findTeachplanTree(courseId));
     }
 
@@ -1,7 +1,9 @@
 package com.double2and9.content_service.controller;
 
 import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.dto.TeachplanMediaBatchDTO;
 import com.double2and9.content_service.dto.TeachplanMediaDTO;
+import com.double2and9.content_service.service.ContentVersionService;
 import com.double2and9.content_service.service.TeachplanMediaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,6 +11,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,9 +22,12 @@ import java.util.List;
 public class TeachplanMediaController {
 
     private final TeachplanMediaService teachplanMediaService;
+    private final ContentVersionService contentVersionService;
 
-    public TeachplanMediaController(TeachplanMediaService teachplanMediaService) {
+    public TeachplanMediaController(TeachplanMediaService teachplanMediaService,
+                                    ContentVersionService contentVersionService) {
         this.teachplanMediaService = teachplanMediaService;
+        this.contentVersionService = contentVersionService;
     }
 
     @Operation(summary = "绑定课程计划与媒资")
@@ -42,6 +48,34 @@ public class TeachplanMediaController {
         return ContentResponse.success(null);
     }
 
+    @Operation(summary = "批量绑定课程计划与媒资", description = "已存在的绑定跳过，返回新建的绑定数")
+    @PostMapping("/batch")
+    public ContentResponse<Integer> associateMediaBatch(
+            @Parameter(description = "课程计划与媒资的配对")
+            @RequestBody @Validated TeachplanMediaBatchDTO batchDTO) {
+        return ContentResponse.success(teachplanMediaService.associateMediaBatch(batchDTO));
+    }
+
+    @Operation(summary = "批量解除课程计划与媒资的绑定", description = "不存在的绑定跳过，返回解除的绑定数")
+    @PostMapping("/batch-delete")
+    public ContentResponse<Integer> dissociateMediaBatch(
+            @Parameter(description = "课程计划与媒资的配对")
+            @RequestBody @Validated TeachplanMediaBatchDTO batchDTO) {
+        return ContentResponse.success(teachplanMediaService.dissociateMediaBatch(batchDTO));
+    }
+
+    @Operation(summary = "获取课程下所有课程计划关联的媒资列表")
+    @GetMapping("/course/{courseId}")
+    public ContentResponse<List<TeachplanMediaDTO>> getCourseMediaList(
+            @Parameter(description = "课程ID") @PathVariable Long courseId,
+            WebRequest webRequest) {
+        // 课程计划树的ETag已包含媒资绑定
+        if (webRequest.checkNotModified(contentVersionService.teachplanTreeETag(courseId))) {
+            return null;
+        }
+        return ContentResponse.success(teachplanMediaService.getMediaByCourseId(courseId));
+    }
+
     @Operation(summary = "获取课程计划关联的媒资列表")
     @GetMapping("/{teachplanId}")
     public ContentResponse<List<TeachplanMediaDTO>> getMediaList(
@@ -0,0 +1,55 @@
+package com.double2and9.content_service.controller;
+
+import com.double2and9.content_service.common.model.ContentResponse;
+import com.double2and9.content_service.dto.TenantShardDTO;
+import com.double2and9.content_service.service.TenantShardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/tenant-shard")
+@ConditionalOnProperty(name = "content.sharding.enabled", havingValue = "true")
+@Tag(name = "机构分片管理", description = "查询机构所在分片、为新机构指定分片、在线迁移机构数据")
+public class TenantShardController {
+
+    private final TenantShardService tenantShardService;
+
+    public TenantShardController(TenantShardService tenantShardService) {
+        this.tenantShardService = tenantShardService;
+    }
+
+    @Operation(summary = "查询机构分片", description = "返回机构所在分片、状态及各表记录数")
+    @GetMapping("/{organizationId}")
+    public ContentResponse<TenantShardDTO> getPlacement(
+            @Parameter(description = "机构ID", required = true)
+            @PathVariable Long organizationId) {
+        return ContentResponse.success(tenantShardService.getPlacement(organizationId));
+    }
+
+    @Operation(summary = "指定机构分片", description = "为还没有数据的机构指定分片")
+    @PostMapping("/{organizationId}/assign")
+    public ContentResponse<TenantShardDTO> assign(
+            @Parameter(description = "机构ID", required = true)
+            @PathVariable Long organizationId,
+            @Parameter(description = "分片名称", required = true)
+            @RequestParam String shard) {
+        log.info("指定机构分片，机构ID：{}，分片：{}", organizationId, shard);
+        return ContentResponse.success(tenantShardService.assign(organizationId, shard));
+    }
+
+    @Operation(summary = "迁移机构", description = "把机构数据迁移到目标分片，标记迁移后立即返回，迁移在后台进行，期间机构数据只读；通过查询接口查看结果")
+    @PostMapping("/{organizationId}/move")
+    public ContentResponse<TenantShardDTO> move(
+            @Parameter(description = "机构ID", required = true)
+            @PathVariable Long organizationId,
+            @Parameter(description = "目标分片", required = true)
+            @RequestParam String targetShard) {
+        log.info("迁移机构，机构ID：{}，目标分片：{}", organizationId, targetShard);
+        return ContentResponse.success(tenantShardService.move(organizationId, targetShard));
+    }
+}
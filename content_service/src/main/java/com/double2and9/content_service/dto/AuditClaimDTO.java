@@ -0,0 +1,36 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import lombok.ToString;
+
+@Data
+@ToString
+@Schema(description = "领取审核任务")
+public class AuditClaimDTO {
+
+    @NotBlank(message = "审核人不能为空")
+    @Schema(description = "审核人", required = true)
+    private String reviewer;
+
+    @NotBlank(message = "审核目标类型不能为空")
+    @Pattern(regexp = "COURSE|MEDIA", message = "审核目标类型只能是COURSE或MEDIA")
+    @Schema(description = "审核目标类型：COURSE 课程，MEDIA 媒资", required = true)
+    private String targetType;
+
+    @Schema(description = "只领取该机构的任务，为空时不限机构")
+    private Long organizationId;
+
+    @Pattern(regexp = "SUBMIT_TIME|PRIORITY", message = "排序方式只能是SUBMIT_TIME或PRIORITY")
+    @Schema(description = "领取顺序：SUBMIT_TIME 先提交先审核，PRIORITY 优先级高的先审核", defaultValue = "SUBMIT_TIME")
+    private String order = "SUBMIT_TIME";
+
+    @NotNull(message = "领取数量不能为空")
+    @Min(value = 1, message = "领取数量至少为1")
+    @Schema(description = "领取数量，超过上限时按上限领取", required = true)
+    private Integer size;
+}
@@ -0,0 +1,38 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "批量审核")
+public class AuditDecisionDTO {
+
+    @NotBlank(message = "审核人不能为空")
+    @Schema(description = "审核人", required = true)
+    private String reviewer;
+
+    @NotBlank(message = "审核目标类型不能为空")
+    @Pattern(regexp = "COURSE|MEDIA", message = "审核目标类型只能是COURSE或MEDIA")
+    @Schema(description = "审核目标类型：COURSE 课程，MEDIA 媒资", required = true)
+    private String targetType;
+
+    @NotEmpty(message = "任务ID不能为空")
+    @Size(max = 500, message = "一次最多审核500个任务")
+    @Schema(description = "任务ID，必须是该审核人持有且租约未到期的任务", required = true)
+    private List<Long> taskIds;
+
+    @NotBlank(message = "审核状态不能为空")
+    @Schema(description = "审核状态，课程为202303通过、202304不通过", required = true)
+    private String auditStatus;
+
+    @Schema(description = "审核意见")
+    private String auditMessage;
+}
@@ -0,0 +1,20 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "批量审核结果")
+public class AuditDecisionResultDTO {
+
+    @Schema(description = "完成审核的任务数")
+    private int decided;
+
+    @Schema(description = "未处理的任务ID：不存在、不属于该审核人或租约已到期")
+    private List<Long> skippedTaskIds = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "审核队列的一页")
+public class AuditQueuePageDTO {
+
+    @Schema(description = "本页任务")
+    private List<AuditTaskDTO> items = new ArrayList<>();
+
+    @Schema(description = "下一页游标，没有下一页时为空")
+    private String nextCursor;
+}
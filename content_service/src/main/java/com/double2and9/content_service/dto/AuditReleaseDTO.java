@@ -0,0 +1,25 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "归还审核任务")
+public class AuditReleaseDTO {
+
+    @NotBlank(message = "审核人不能为空")
+    @Schema(description = "审核人", required = true)
+    private String reviewer;
+
+    @NotEmpty(message = "任务ID不能为空")
+    @Size(max = 500, message = "一次最多归还500个任务")
+    @Schema(description = "任务ID，只归还该审核人持有的任务", required = true)
+    private List<Long> taskIds;
+}
@@ -0,0 +1,40 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Date;
+
+@Data
+@ToString
+@Schema(description = "审核任务")
+public class AuditTaskDTO {
+
+    @Schema(description = "任务ID")
+    private Long id;
+
+    @Schema(description = "审核目标类型：COURSE 课程，MEDIA 媒资")
+    private String targetType;
+
+    @Schema(description = "课程ID或媒资文件ID")
+    private String targetId;
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "课程名称或文件名称")
+    private String name;
+
+    @Schema(description = "优先级，越大越先审核")
+    private Integer priority;
+
+    @Schema(description = "提交审核时间")
+    private Date submitTime;
+
+    @Schema(description = "领取人")
+    private String claimedBy;
+
+    @Schema(description = "租约到期时间，到期未处理的任务可被重新领取")
+    private Date leaseUntil;
+}
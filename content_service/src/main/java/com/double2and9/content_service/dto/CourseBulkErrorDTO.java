@@ -0,0 +1,24 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量操作中失败的课程")
+public class CourseBulkErrorDTO {
+
+    @Schema(description = "课程ID")
+    private Long courseId;
+
+    @Schema(description = "错误码")
+    private Integer code;
+
+    @Schema(description = "失败原因")
+    private String message;
+}
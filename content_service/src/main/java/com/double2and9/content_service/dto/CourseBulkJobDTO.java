@@ -0,0 +1,51 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "课程批量操作任务")
+public class CourseBulkJobDTO {
+
+    @Schema(description = "任务ID")
+    private Long id;
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "操作：PUBLISH 发布，OFFLINE 下架")
+    private String operation;
+
+    @Schema(description = "状态：PENDING 排队中，RUNNING 执行中，CANCELLING 取消中，COMPLETED 已完成，CANCELLED 已取消，FAILED 已中断")
+    private String status;
+
+    @Schema(description = "课程数")
+    private Integer total;
+
+    @Schema(description = "已处理的课程数")
+    private Integer processed;
+
+    @Schema(description = "成功的课程数")
+    private Integer succeeded;
+
+    @Schema(description = "失败的课程数")
+    private Integer failed;
+
+    @Schema(description = "提交时间")
+    private Date createTime;
+
+    @Schema(description = "开始执行时间")
+    private Date startTime;
+
+    @Schema(description = "结束时间")
+    private Date finishTime;
+
+    @Schema(description = "失败的课程，最多返回 content.bulk-job.max-reported-errors 条")
+    private List<CourseBulkErrorDTO> errors = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "课程批量操作")
+public class CourseBulkJobRequestDTO {
+
+    @NotNull(message = "机构ID不能为空")
+    @Schema(description = "机构ID，课程必须都属于该机构", required = true)
+    private Long organizationId;
+
+    @NotBlank(message = "操作不能为空")
+    @Pattern(regexp = "PUBLISH|OFFLINE", message = "操作只能是PUBLISH或OFFLINE")
+    @Schema(description = "操作：PUBLISH 发布，OFFLINE 下架", required = true)
+    private String operation;
+
+    @NotEmpty(message = "课程ID不能为空")
+    @Size(max = 5000, message = "一次最多5000门课程")
+    @Schema(description = "课程ID，重复的只处理一次", required = true)
+    private List<Long> courseIds;
+}
@@ -0,0 +1,41 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Data
+@ToString
+@Schema(description = "课程目录中的课程")
+public class CourseCatalogItemDTO {
+
+    @Schema(description = "课程ID")
+    private Long courseId;
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "课程名称")
+    private String name;
+
+    @Schema(description = "课程封面")
+    private String logo;
+
+    @Schema(description = "大分类")
+    private Long mt;
+
+    @Schema(description = "小分类")
+    private Long st;
+
+    @Schema(description = "收费规则")
+    private String charge;
+
+    @Schema(description = "现价")
+    private BigDecimal price;
+
+    @Schema(description = "发布时间")
+    private Date publishTime;
+}
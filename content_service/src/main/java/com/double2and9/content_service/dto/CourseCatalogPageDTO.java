@@ -0,0 +1,20 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "课程目录的一页")
+public class CourseCatalogPageDTO {
+
+    @Schema(description = "本页课程，按发布时间倒序")
+    private List<CourseCatalogItemDTO> items = new ArrayList<>();
+
+    @Schema(description = "下一页游标，没有下一页时为空")
+    private String nextCursor;
+}
@@ -0,0 +1,34 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Data
+@ToString
+@Schema(description = "课程目录查询条件，条件为空时不过滤")
+public class CourseCatalogQueryDTO {
+
+    @Schema(description = "大分类")
+    private Long mt;
+
+    @Schema(description = "小分类")
+    private Long st;
+
+    @Schema(description = "收费规则：201001 免费，201002 收费")
+    private String charge;
+
+    @Schema(description = "最低价格")
+    private BigDecimal minPrice;
+
+    @Schema(description = "最高价格")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "游标，第一页为空")
+    private String cursor;
+
+    @Schema(description = "每页数量")
+    private Integer size = 20;
+}
@@ -0,0 +1,25 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Data
+@ToString
+@Schema(description = "机构课程看板")
+public class CourseDashboardDTO {
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "课程总数")
+    private long totalCourses;
+
+    @Schema(description = "各课程状态的课程数，状态码 -> 数量")
+    private Map<String, Long> courseStatusCounts;
+
+    @Schema(description = "各审核状态的课程数，状态码 -> 数量")
+    private Map<String, Long> auditStatusCounts;
+}
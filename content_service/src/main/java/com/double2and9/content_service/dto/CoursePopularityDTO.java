@@ -0,0 +1,23 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+@Data
+@ToString
+@Schema(description = "课程热度")
+public class CoursePopularityDTO {
+
+    @Schema(description = "课程ID")
+    private Long courseId;
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "累计浏览数，包含本节点尚未写入的增量")
+    private Long viewCount;
+
+    @Schema(description = "累计报名数，包含本节点尚未写入的增量")
+    private Long enrollCount;
+}
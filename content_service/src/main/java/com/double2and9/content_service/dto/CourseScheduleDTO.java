@@ -0,0 +1,40 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Date;
+
+@Data
+@ToString
+@Schema(description = "课程定时发布/下架")
+public class CourseScheduleDTO {
+
+    @Schema(description = "定时任务ID")
+    private Long id;
+
+    @Schema(description = "课程ID")
+    private Long courseId;
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "操作：PUBLISH 发布，OFFLINE 下架")
+    private String operation;
+
+    @Schema(description = "执行时间")
+    private Date fireTime;
+
+    @Schema(description = "状态：PENDING 待执行，FIRING 执行中，DONE 已执行，FAILED 执行失败，CANCELLED 已取消")
+    private String status;
+
+    @Schema(description = "失败错误码")
+    private Integer errorCode;
+
+    @Schema(description = "失败原因")
+    private String message;
+
+    @Schema(description = "更新时间")
+    private Date updateTime;
+}
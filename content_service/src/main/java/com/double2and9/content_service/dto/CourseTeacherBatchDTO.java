@@ -0,0 +1,26 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "教师批量同步DTO")
+public class CourseTeacherBatchDTO {
+
+    @Schema(description = "机构ID，批次中的教师都必须属于该机构")
+    @NotNull(message = "机构ID不能为空")
+    private Long organizationId;
+
+    @Schema(description = "教师列表，带ID的更新已有教师，不带ID的新建；课程关联以列表中的课程ID为准")
+    @NotEmpty(message = "教师列表不能为空")
+    @Size(max = 1000, message = "一次最多同步1000个教师")
+    private List<@Valid SaveCourseTeacherDTO> teachers;
+}
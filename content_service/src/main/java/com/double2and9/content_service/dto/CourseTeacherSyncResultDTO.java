@@ -0,0 +1,32 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "教师批量同步结果")
+public class CourseTeacherSyncResultDTO {
+
+    @Schema(description = "教师ID，与请求中的教师一一对应")
+    private List<Long> teacherIds = new ArrayList<>();
+
+    @Schema(description = "新建的教师数")
+    private int created;
+
+    @Schema(description = "有变化的已有教师数")
+    private int updated;
+
+    @Schema(description = "没有任何变化的教师数")
+    private int unchanged;
+
+    @Schema(description = "新增的教师-课程关联数")
+    private int relationsInserted;
+
+    @Schema(description = "删除的教师-课程关联数")
+    private int relationsDeleted;
+}
@@ -0,0 +1,34 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Data
+@ToString
+@Schema(description = "热门课程")
+public class CourseTrendingDTO {
+
+    @Schema(description = "课程ID")
+    private Long courseId;
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "课程名称")
+    private String name;
+
+    @Schema(description = "课程封面")
+    private String logo;
+
+    @Schema(description = "收费规则")
+    private String charge;
+
+    @Schema(description = "现价")
+    private BigDecimal price;
+
+    @Schema(description = "热度：浏览数加报名折算的浏览数，按半衰期衰减")
+    private Double score;
+}
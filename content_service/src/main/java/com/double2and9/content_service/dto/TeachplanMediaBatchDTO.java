@@ -0,0 +1,21 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+@Data
+@ToString
+@Schema(description = "课程计划媒资批量绑定/解绑DTO")
+public class TeachplanMediaBatchDTO {
+
+    @Schema(description = "课程计划与媒资的配对，重复的配对只处理一次")
+    @NotEmpty(message = "绑定列表不能为空")
+    @Size(max = 1000, message = "一次最多处理1000个绑定")
+    private List<@Valid TeachplanMediaDTO> items;
+}
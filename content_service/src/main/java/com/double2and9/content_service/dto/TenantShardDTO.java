@@ -0,0 +1,26 @@
+package com.double2and9.content_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Schema(description = "机构分片位置")
+public class TenantShardDTO {
+
+    @Schema(description = "机构ID")
+    private Long organizationId;
+
+    @Schema(description = "所在分片")
+    private String shard;
+
+    @Schema(description = "状态：ACTIVE 正常读写，MOVING 迁移中（只读）")
+    private String status;
+
+    @Schema(description = "迁移目标分片")
+    private String targetShard;
+
+    @Schema(description = "所在分片上各表的记录数；迁移完成时为复制的记录数")
+    private Map<String, Long> rowCounts;
+}
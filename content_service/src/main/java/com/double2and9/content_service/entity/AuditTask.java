@@ -0,0 +1,92 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 审核队列任务
+ * 课程提交审核、媒资上传待审核时入队，审核完成后删除；
+ * 审核人领取后在租约到期前独占，到期未处理的任务可被重新领取
+ */
+@Data
+@Entity
+@Table(name = "audit_task", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_audit_task_target", columnNames = {"target_type", "target_id"})
+}, indexes = {
+        @Index(name = "idx_audit_task_type_time", columnList = "target_type, submit_time, id"),
+        @Index(name = "idx_audit_task_type_priority", columnList = "target_type, priority, submit_time, id"),
+        @Index(name = "idx_audit_task_org_type", columnList = "organization_id, target_type, submit_time"),
+        @Index(name = "idx_audit_task_claim_token", columnList = "claim_token")
+})
+public class AuditTask {
+
+    /**
+     * 审核目标：课程
+     */
+    public static final String COURSE = "COURSE";
+
+    /**
+     * 审核目标：媒资
+     */
+    public static final String MEDIA = "MEDIA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 审核目标类型
+     */
+    @Column(name = "target_type", nullable = false, length = 16)
+    private String targetType;
+
+    /**
+     * 课程ID或媒资文件ID
+     */
+    @Column(name = "target_id", nullable = false, length = 64)
+    private String targetId;
+
+    /**
+     * 机构ID
+     */
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    /**
+     * 课程名称或文件名称
+     */
+    @Column(length = 255)
+    private String name;
+
+    /**
+     * 优先级，越大越先审核
+     */
+    @Column(nullable = false)
+    private Integer priority;
+
+    /**
+     * 提交审核时间
+     */
+    @Column(name = "submit_time", nullable = false)
+    private Date submitTime;
+
+    /**
+     * 领取人
+     */
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    /**
+     * 领取批次标识，一次领取的任务相同
+     */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    /**
+     * 租约到期时间
+     */
+    @Column(name = "lease_until")
+    private Date leaseUntil;
+}
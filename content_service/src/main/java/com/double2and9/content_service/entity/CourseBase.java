@@ -15,8 +15,12 @@ import java.util.HashSet;
  */
 @Data
 @Entity
-@Table(name = "course_base")
-public class CourseBase {
+@EntityListeners(TimestampListener.class)
+@Table(name = "course_base", indexes = {
+        @Index(name = "idx_course_base_org_status_time", columnList = "organization_id, status, create_time"),
+        @Index(name = "idx_course_base_mt_st", columnList = "mt, st")
+})
+public class CourseBase implements Timestamped {
     /**
      * 课程ID
      */
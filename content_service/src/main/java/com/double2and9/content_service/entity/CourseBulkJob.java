@@ -0,0 +1,95 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 课程批量操作任务
+ * 提交后由后台执行器按块处理，每块一个事务；进度在每块提交后更新，取消在块之间生效
+ */
+@Data
+@Entity
+@Table(name = "course_bulk_job", indexes = {
+        @Index(name = "idx_course_bulk_job_status_update", columnList = "status, update_time")
+})
+public class CourseBulkJob {
+
+    public static final String PUBLISH = "PUBLISH";
+    public static final String OFFLINE = "OFFLINE";
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String CANCELLING = "CANCELLING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 机构ID，任务中的课程都属于该机构
+     */
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    /**
+     * 操作：PUBLISH / OFFLINE
+     */
+    @Column(nullable = false, length = 16)
+    private String operation;
+
+    /**
+     * 状态：PENDING / RUNNING / CANCELLING / COMPLETED / CANCELLED / FAILED
+     */
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    /**
+     * 课程数
+     */
+    @Column(nullable = false)
+    private Integer total;
+
+    /**
+     * 已处理的课程数
+     */
+    @Column(nullable = false)
+    private Integer processed = 0;
+
+    /**
+     * 成功的课程数
+     */
+    @Column(nullable = false)
+    private Integer succeeded = 0;
+
+    /**
+     * 失败的课程数
+     */
+    @Column(nullable = false)
+    private Integer failed = 0;
+
+    @Column(name = "create_time", nullable = false)
+    private Date createTime;
+
+    @Column(name = "start_time")
+    private Date startTime;
+
+    @Column(name = "finish_time")
+    private Date finishTime;
+
+    /**
+     * 最近一次进度更新时间，执行中的任务长时间不更新说明执行节点已失联
+     */
+    @Column(name = "update_time", nullable = false)
+    private Date updateTime;
+
+    /**
+     * 排队期间所在节点最近一次确认任务仍在队列中的时间，排队中的任务长时间不更新说明所在节点已失联
+     */
+    @Column(name = "heartbeat_time")
+    private Date heartbeatTime;
+}
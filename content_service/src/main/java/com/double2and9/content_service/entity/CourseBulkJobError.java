@@ -0,0 +1,34 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * 课程批量操作中失败的课程
+ */
+@Data
+@Entity
+@Table(name = "course_bulk_job_error", indexes = {
+        @Index(name = "idx_course_bulk_job_error_job", columnList = "job_id, id")
+})
+public class CourseBulkJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    /**
+     * 错误码，见 ContentErrorCode
+     */
+    @Column(name = "error_code", nullable = false)
+    private Integer errorCode;
+
+    @Column(length = 500)
+    private String message;
+}
@@ -0,0 +1,75 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * 课程目录
+ * 已发布课程的浏览字段冗余在一行中，发布时写入、下架时删除，课程修改时同步
+ */
+@Data
+@Entity
+@Table(name = "course_catalog", indexes = {
+        @Index(name = "idx_course_catalog_time", columnList = "publish_time, course_id, price"),
+        @Index(name = "idx_course_catalog_mt_st_time", columnList = "mt, st, publish_time, course_id, price"),
+        @Index(name = "idx_course_catalog_mt_charge_time", columnList = "mt, charge, publish_time, course_id, price"),
+        @Index(name = "idx_course_catalog_charge_time", columnList = "charge, publish_time, course_id, price"),
+        @Index(name = "idx_course_catalog_org", columnList = "organization_id")
+})
+public class CourseCatalog {
+
+    /**
+     * 课程ID
+     */
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(nullable = false)
+    private String name;
+
+    /**
+     * 课程封面
+     */
+    @Column(length = 1024)
+    private String logo;
+
+    /**
+     * 大分类
+     */
+    @Column
+    private Long mt;
+
+    /**
+     * 小分类
+     */
+    @Column
+    private Long st;
+
+    /**
+     * 收费规则，对应数据字典
+     */
+    @Column(length = 20)
+    private String charge;
+
+    /**
+     * 现价
+     */
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    /**
+     * 发布时间，浏览默认按发布时间倒序
+     */
+    @Column(name = "publish_time", nullable = false)
+    private Date publishTime;
+
+    @Column(name = "update_time", nullable = false)
+    private Date updateTime;
+}
@@ -1,14 +1,23 @@
 package com.double2and9.content_service.entity;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.Date;
 
 /**
  * 课程分类
+ * 分类很少变化、课程列表逐条按ID取分类名称，放入二级缓存
  */
 @Data
 @Entity
-@Table(name = "course_category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-category")
+@Table(name = "course_category", indexes = {
+        @Index(name = "idx_course_category_parent_level", columnList = "parent_id, level"),
+        @Index(name = "idx_course_category_level", columnList = "level")
+})
 public class CourseCategory {
     /**
      * 分类ID
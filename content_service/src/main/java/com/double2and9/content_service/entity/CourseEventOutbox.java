@@ -0,0 +1,105 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 课程事件发件箱
+ * 与课程状态变更写在同一事务中，由中继任务异步投递到事件流
+ */
+@Data
+@Entity
+@Table(name = "course_event_outbox", indexes = {
+        @Index(name = "idx_outbox_published_id", columnList = "published, id"),
+        @Index(name = "idx_outbox_course_id", columnList = "course_id"),
+        @Index(name = "idx_outbox_org_published", columnList = "organization_id, published")
+})
+public class CourseEventOutbox {
+    /**
+     * 主键，自增顺序即事件顺序
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 事件唯一标识，供下游去重
+     */
+    @Column(nullable = false, length = 36, unique = true)
+    private String eventId;
+
+    /**
+     * 课程ID，同一课程的事件按ID顺序投递
+     */
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    /**
+     * 机构ID
+     */
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    /**
+     * 事件类型
+     */
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    /**
+     * 事件内容（JSON）
+     */
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * 是否已投递
+     */
+    @Column(nullable = false)
+    private Boolean published = false;
+
+    /**
+     * 投递尝试次数
+     */
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * 最近一次投递失败原因
+     */
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * 下次投递时间，投递失败后按指数退避推迟；为空表示立即投递
+     */
+    @Column(name = "next_attempt_time")
+    private Date nextAttemptTime;
+
+    /**
+     * 是否已停放：投递失败达到最大次数后不再重试，同一课程之后的事件也暂停投递；人工处理后重新投递
+     */
+    @Column(nullable = false)
+    private Boolean parked = false;
+
+    /**
+     * 创建时间
+     */
+    @Column(nullable = false)
+    private Date createTime;
+
+    /**
+     * 投递时间
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date publishedTime;
+
+    @PrePersist
+    public void prePersist() {
+        if (createTime == null) {
+            createTime = new Date();
+        }
+    }
+}
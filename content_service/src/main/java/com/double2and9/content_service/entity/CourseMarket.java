@@ -3,6 +3,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -12,8 +14,13 @@ import java.util.Date;
  */
 @Data
 @Entity
-@Table(name = "course_market")
-public class CourseMarket {
+@EntityListeners(TimestampListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-market")
+@Table(name = "course_market", indexes = {
+        @Index(name = "idx_course_market_price", columnList = "price")
+})
+public class CourseMarket implements Timestamped {
     /**
      * 主键，课程ID
      */
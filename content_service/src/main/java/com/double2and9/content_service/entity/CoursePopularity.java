@@ -0,0 +1,43 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 课程热度
+ * 累计浏览数和报名数，由各节点定期合并内存中的增量后写入，不记录单次浏览
+ */
+@Data
+@Entity
+@Table(name = "course_popularity", indexes = {
+        @Index(name = "idx_course_popularity_org", columnList = "organization_id")
+})
+public class CoursePopularity {
+
+    /**
+     * 课程ID
+     */
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    /**
+     * 累计浏览数
+     */
+    @Column(name = "view_count", nullable = false)
+    private Long viewCount;
+
+    /**
+     * 累计报名数
+     */
+    @Column(name = "enroll_count", nullable = false)
+    private Long enrollCount;
+
+    @Column(name = "update_time", nullable = false)
+    private Date updateTime;
+}
@@ -11,7 +11,9 @@ import java.util.Date;
  */
 @Data
 @Entity
-@Table(name = "course_publish")
+@Table(name = "course_publish", indexes = {
+        @Index(name = "idx_course_publish_status", columnList = "status")
+})
 public class CoursePublish {
     /**
      * 主键，课程ID
@@ -11,8 +11,11 @@ import java.util.Date;
  */
 @Data
 @Entity
-@Table(name = "course_publish_pre")
-public class CoursePublishPre {
+@EntityListeners(TimestampListener.class)
+@Table(name = "course_publish_pre", indexes = {
+        @Index(name = "idx_course_publish_pre_status", columnList = "status")
+})
+public class CoursePublishPre implements Timestamped {
     /**
      * 主键，课程ID
      */
@@ -0,0 +1,89 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 课程定时发布/下架
+ * 节点领取即将到期的记录时写入租约，租约内只有该节点能执行；执行前改为FIRING，执行后改为DONE或FAILED
+ */
+@Data
+@Entity
+@Table(name = "course_schedule", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_schedule_course_op", columnNames = {"course_id", "operation"})
+}, indexes = {
+        @Index(name = "idx_course_schedule_status_fire", columnList = "status, fire_time"),
+        @Index(name = "idx_course_schedule_org_fire", columnList = "organization_id, fire_time"),
+        @Index(name = "idx_course_schedule_claim_token", columnList = "claim_token")
+})
+public class CourseSchedule {
+
+    public static final String PUBLISH = "PUBLISH";
+    public static final String OFFLINE = "OFFLINE";
+
+    public static final String PENDING = "PENDING";
+    public static final String FIRING = "FIRING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    /**
+     * 操作：PUBLISH / OFFLINE
+     */
+    @Column(nullable = false, length = 16)
+    private String operation;
+
+    /**
+     * 执行时间
+     */
+    @Column(name = "fire_time", nullable = false)
+    private Date fireTime;
+
+    /**
+     * 状态：PENDING / FIRING / DONE / FAILED / CANCELLED
+     */
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    /**
+     * 持有租约的节点
+     */
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    /**
+     * 领取批次标识，同一次领取的记录相同；重新设置时间时清空，旧的时间轮条目随之失效
+     */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    /**
+     * 租约到期时间，到期后其他节点可以重新领取
+     */
+    @Column(name = "lease_until")
+    private Date leaseUntil;
+
+    @Column(name = "error_code")
+    private Integer errorCode;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(name = "create_time", nullable = false)
+    private Date createTime;
+
+    @Column(name = "update_time", nullable = false)
+    private Date updateTime;
+}
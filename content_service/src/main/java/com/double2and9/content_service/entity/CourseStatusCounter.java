@@ -0,0 +1,67 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 机构课程计数
+ * 每个机构每种状态一行，与课程状态变更在同一事务中增减
+ */
+@Data
+@Entity
+@IdClass(CourseStatusCounter.Key.class)
+@Table(name = "course_status_counter", indexes = {
+        @Index(name = "idx_course_status_counter_type_status", columnList = "counter_type, status, total")
+})
+public class CourseStatusCounter {
+
+    /**
+     * 计数类型：课程状态（course_base.status）
+     */
+    public static final String COURSE = "COURSE";
+
+    /**
+     * 计数类型：审核状态（course_publish_pre.status）
+     */
+    public static final String AUDIT = "AUDIT";
+
+    /**
+     * 机构ID
+     */
+    @Id
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    /**
+     * 计数类型
+     */
+    @Id
+    @Column(name = "counter_type", length = 16)
+    private String counterType;
+
+    /**
+     * 状态码，状态为空的历史课程记为空字符串
+     */
+    @Id
+    @Column(length = 20)
+    private String status;
+
+    /**
+     * 课程数
+     */
+    @Column(nullable = false)
+    private Long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long organizationId;
+        private String counterType;
+        private String status;
+    }
+}
@@ -3,6 +3,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Date;
 import java.util.HashSet;
@@ -10,16 +12,23 @@ import java.util.Set;
 
 /**
  * 课程教师信息
+ * 只缓存教师本身，所属课程集合不进缓存
  */
 @Data
 @Entity
-@Table(name = "course_teacher")
-public class CourseTeacher {
+@EntityListeners(TimestampListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-teacher")
+@Table(name = "course_teacher", indexes = {
+        @Index(name = "idx_course_teacher_org", columnList = "organization_id")
+})
+public class CourseTeacher implements Timestamped {
     /**
-     * 主键ID
+     * 主键ID，与课程计划一样按号段预分配
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_teacher_seq")
+    @SequenceGenerator(name = "course_teacher_seq", sequenceName = "course_teacher_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -52,7 +61,8 @@ public class CourseTeacher {
     @JoinTable(
         name = "course_teacher_relation",
         joinColumns = @JoinColumn(name = "teacher_id"),
-        inverseJoinColumns = @JoinColumn(name = "course_id")
+        inverseJoinColumns = @JoinColumn(name = "course_id"),
+        indexes = @Index(name = "idx_course_teacher_relation_teacher", columnList = "teacher_id, course_id")
     )
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -69,4 +79,22 @@ public class CourseTeacher {
      */
     @Column(nullable = false)
     private Date updateTime;
+
+    /**
+     * 关联课程；只修改关联集合时教师本身不脏，不会触发 @PreUpdate，这里刷新更新时间，ETag依赖该字段
+     */
+    public void addCourse(CourseBase course) {
+        if (courses.add(course)) {
+            updateTime = new Date();
+        }
+    }
+
+    /**
+     * 解除课程关联，同 {@link #addCourse}
+     */
+    public void removeCourse(CourseBase course) {
+        if (courses.remove(course)) {
+            updateTime = new Date();
+        }
+    }
 }
\ No newline at end of file
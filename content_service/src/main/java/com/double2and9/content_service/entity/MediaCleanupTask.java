@@ -0,0 +1,111 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 媒资清理任务
+ * 课程删除时写入，由后台任务异步批量删除媒体服务中的文件，失败按退避策略重试
+ */
+@Data
+@Entity
+@Table(name = "media_cleanup_task", indexes = {
+        @Index(name = "idx_cleanup_status_next", columnList = "status, next_attempt_time"),
+        @Index(name = "idx_cleanup_claim_token", columnList = "claim_token"),
+        @Index(name = "idx_cleanup_org_status", columnList = "organization_id, status")
+})
+public class MediaCleanupTask {
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 待删除文件的访问地址
+     */
+    @Column(nullable = false, length = 1024)
+    private String url;
+
+    /**
+     * 来源课程ID
+     */
+    @Column(name = "course_id")
+    private Long courseId;
+
+    /**
+     * 来源课程所属机构，机构迁移前等待该机构的任务处理完
+     */
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    /**
+     * 任务状态：PENDING / DONE / FAILED
+     */
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    /**
+     * 已尝试次数
+     */
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * 下次尝试时间
+     */
+    @Column(name = "next_attempt_time", nullable = false)
+    private Date nextAttemptTime;
+
+    /**
+     * 领取批次标识，同一次领取的任务相同，回写结果时只更新本批次的任务
+     */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    /**
+     * 租约到期时间，到期后其他节点可以重新领取
+     */
+    @Column(name = "lease_until")
+    private Date leaseUntil;
+
+    /**
+     * 最近一次失败原因
+     */
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    @Column(nullable = false)
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    @Column(nullable = false)
+    private Date updateTime;
+
+    @PrePersist
+    public void prePersist() {
+        Date now = new Date();
+        if (createTime == null) {
+            createTime = now;
+        }
+        if (updateTime == null) {
+            updateTime = now;
+        }
+        if (nextAttemptTime == null) {
+            nextAttemptTime = now;
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updateTime = new Date();
+    }
+}
@@ -9,7 +9,10 @@ import java.util.List;
  */
 @Data
 @Entity
-@Table(name = "media_files")
+@Table(name = "media_files", indexes = {
+        @Index(name = "idx_media_files_org_type_purpose", columnList = "organization_id, media_type, purpose"),
+        @Index(name = "idx_media_files_org_audit", columnList = "organization_id, audit_status")
+})
 public class MediaFile {
     /**
      * 主键，使用media服务的fileId
@@ -13,13 +13,18 @@ import java.util.Date;
  */
 @Data
 @Entity
-@Table(name = "teachplan")
-public class Teachplan {
+@EntityListeners(TimestampListener.class)
+@Table(name = "teachplan", indexes = {
+        @Index(name = "idx_teachplan_course_parent_order", columnList = "course_id, parent_id, order_by"),
+        @Index(name = "idx_teachplan_parent_order", columnList = "parent_id, order_by")
+})
+public class Teachplan implements Timestamped {
     /**
-     * 计划ID
+     * 计划ID，序列每次预取50个号段，插入时不必逐条取回自增主键，同一事务的插入可以合并为JDBC批量
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teachplan_seq")
+    @SequenceGenerator(name = "teachplan_seq", sequenceName = "teachplan_seq", allocationSize = 50)
     private Long id;
 
     /**
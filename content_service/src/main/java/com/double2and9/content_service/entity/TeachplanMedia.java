@@ -11,13 +11,16 @@ import java.util.Date;
  */
 @Data
 @Entity
-@Table(name = "teachplan_media")
+@Table(name = "teachplan_media", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_teachplan_media_teachplan_media", columnNames = {"teachplan_id", "media_id"})
+})
 public class TeachplanMedia {
     /**
-     * 主键ID
+     * 主键ID，按号段预分配
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teachplan_media_seq")
+    @SequenceGenerator(name = "teachplan_media_seq", sequenceName = "teachplan_media_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,30 @@
+package com.double2and9.content_service.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import java.util.Date;
+
+/**
+ * 实体时间戳监听器
+ * 新增时补齐创建时间和更新时间，任何字段变更都刷新更新时间，ETag依赖该字段。
+ * 只增删多对多关联时维护方实体本身不脏，不会触发 @PreUpdate，由维护方自己刷新（见 {@link CourseTeacher#addCourse}）
+ */
+public class TimestampListener {
+
+    @PrePersist
+    public void prePersist(Timestamped entity) {
+        Date now = new Date();
+        if (entity.getCreateTime() == null) {
+            entity.setCreateTime(now);
+        }
+        if (entity.getUpdateTime() == null) {
+            entity.setUpdateTime(now);
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate(Timestamped entity) {
+        entity.setUpdateTime(new Date());
+    }
+}
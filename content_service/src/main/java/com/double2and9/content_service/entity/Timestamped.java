@@ -0,0 +1,17 @@
+package com.double2and9.content_service.entity;
+
+import java.util.Date;
+
+/**
+ * 带创建时间、更新时间的实体，由 {@link TimestampListener} 维护
+ */
+public interface Timestamped {
+
+    Date getCreateTime();
+
+    void setCreateTime(Date createTime);
+
+    Date getUpdateTime();
+
+    void setUpdateTime(Date updateTime);
+}
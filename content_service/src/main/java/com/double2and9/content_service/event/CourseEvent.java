@@ -0,0 +1,49 @@
+package com.double2and9.content_service.event;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * 投递到事件流的课程事件
+ * 下游按eventId去重（至少一次投递），同一courseId的事件按sequence有序
+ */
+@Data
+@ToString
+public class CourseEvent {
+    /**
+     * 发件箱自增ID，用作顺序号
+     */
+    private Long sequence;
+
+    /**
+     * 事件唯一标识
+     */
+    private String eventId;
+
+    /**
+     * 课程ID
+     */
+    private Long courseId;
+
+    /**
+     * 机构ID
+     */
+    private Long organizationId;
+
+    /**
+     * 事件类型，见CourseEventTypeEnum
+     */
+    private String eventType;
+
+    /**
+     * 事件内容（JSON）
+     */
+    private String payload;
+
+    /**
+     * 事件发生时间
+     */
+    private Date occurredAt;
+}
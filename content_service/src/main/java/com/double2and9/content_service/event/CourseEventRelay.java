@@ -0,0 +1,70 @@
+package com.double2and9.content_service.event;
+
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.service.CourseEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 发件箱中继任务
+ * 定时拉取待投递事件并批量写入事件流，一轮内持续投递直到积压清空
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "content.event.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class CourseEventRelay {
+
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final CourseEventService courseEventService;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+
+    public CourseEventRelay(CourseEventService courseEventService, ObjectProvider<ShardRegistry> shardRegistry) {
+        this.courseEventService = courseEventService;
+        this.shardRegistry = shardRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${content.event.relay-interval-ms:1000}")
+    public void relay() {
+        onEachShard(this::relayShard);
+    }
+
+    private void relayShard() {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            int published = courseEventService.relayPendingEvents();
+            total += published;
+            if (published == 0) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("课程事件投递完成，数量：{}", total);
+        }
+    }
+
+    @Scheduled(cron = "${content.event.purge-cron:0 30 3 * * ?}")
+    public void purge() {
+        onEachShard(this::purgeShard);
+    }
+
+    private void purgeShard() {
+        int purged = courseEventService.purgePublishedEvents();
+        log.info("清理已投递课程事件，数量：{}", purged);
+    }
+
+    /**
+     * 启用分库时在每个分片上各执行一次
+     */
+    private void onEachShard(Runnable action) {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            action.run();
+        } else {
+            registry.forEachShard(action);
+        }
+    }
+}
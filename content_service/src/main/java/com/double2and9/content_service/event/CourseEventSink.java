@@ -0,0 +1,34 @@
+package com.double2and9.content_service.event;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.util.List;
+
+/**
+ * 课程事件投递目标
+ * 实现需保证同一批次内事件按列表顺序写出
+ */
+public interface CourseEventSink {
+
+    /**
+     * 批量投递事件，抛出异常表示整批投递失败，中继会在下次调度时重试
+     *
+     * @param events 按发件箱顺序排列的事件
+     */
+    void publish(List<CourseEvent> events) throws Exception;
+
+    /**
+     * 投递失败是否因为目标不可用（连接失败、超时等），与批次中的事件无关；这类失败不计入事件的失败次数
+     *
+     * @param e publish抛出的异常
+     */
+    default boolean isUnavailable(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException || cause instanceof TransientDataAccessException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.double2and9.content_service.event;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * 内存事件投递目标，用于测试断言和模拟投递失败
+ */
+public class InMemoryCourseEventSink implements CourseEventSink {
+
+    private final List<CourseEvent> events = new CopyOnWriteArrayList<>();
+    private volatile Predicate<CourseEvent> failure;
+    private volatile boolean unavailable;
+
+    @Override
+    public void publish(List<CourseEvent> batch) {
+        if (unavailable) {
+            throw new DataAccessResourceFailureException("模拟投递目标不可用");
+        }
+        Predicate<CourseEvent> failure = this.failure;
+        if (failure != null && batch.stream().anyMatch(failure)) {
+            throw new IllegalStateException("模拟投递失败");
+        }
+        events.addAll(batch);
+    }
+
+    /**
+     * 模拟投递失败：批次中有满足条件的事件时整批失败
+     */
+    public void failWhen(Predicate<CourseEvent> failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * 模拟投递目标不可用：所有投递都失败
+     */
+    public void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    /**
+     * 获取已投递事件的快照
+     */
+    public List<CourseEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * 清空已投递事件
+     */
+    public void clear() {
+        events.clear();
+        failure = null;
+        unavailable = false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.double2and9.content_service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 本地文件事件投递目标
+ * 每个事件写一行JSON（JSON Lines），便于离线测试和回放
+ */
+public class LocalFileCourseEventSink implements CourseEventSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public LocalFileCourseEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 写文件失败（磁盘满、目录不可写）与事件无关；序列化失败是具体事件的问题
+     */
+    @Override
+    public boolean isUnavailable(Exception e) {
+        return e instanceof IOException && !(e instanceof JsonProcessingException);
+    }
+
+    @Override
+    public synchronized void publish(List<CourseEvent> events) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (CourseEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        }
+    }
+}
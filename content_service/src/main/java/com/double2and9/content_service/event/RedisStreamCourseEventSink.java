@@ -0,0 +1,78 @@
+package com.double2and9.content_service.event;
+
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis Streams事件投递目标
+ * 按courseId哈希分区到多个Stream，同一课程始终落在同一分区以保证顺序；
+ * 一个批次通过pipeline一次性写出
+ */
+public class RedisStreamCourseEventSink implements CourseEventSink {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKeyPrefix;
+    private final int partitions;
+    private final long maxLength;
+
+    public RedisStreamCourseEventSink(StringRedisTemplate redisTemplate, String streamKeyPrefix,
+                                      int partitions, long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.streamKeyPrefix = streamKeyPrefix;
+        this.partitions = Math.max(1, partitions);
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public void publish(List<CourseEvent> events) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (CourseEvent event : events) {
+                byte[] streamKey = serializer.serialize(streamKey(event.getCourseId()));
+                MapRecord<byte[], byte[], byte[]> record = StreamRecords.newRecord()
+                        .in(streamKey)
+                        .ofMap(toFields(event));
+                connection.streamCommands().xAdd(record);
+                if (maxLength > 0) {
+                    connection.streamCommands().xTrim(streamKey, maxLength, true);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 计算课程所在分区的Stream键
+     */
+    String streamKey(Long courseId) {
+        int partition = (int) Math.floorMod(courseId, (long) partitions);
+        return streamKeyPrefix + ":" + partition;
+    }
+
+    private Map<byte[], byte[]> toFields(CourseEvent event) {
+        Map<byte[], byte[]> fields = new HashMap<>();
+        put(fields, "sequence", event.getSequence());
+        put(fields, "eventId", event.getEventId());
+        put(fields, "courseId", event.getCourseId());
+        put(fields, "organizationId", event.getOrganizationId());
+        put(fields, "eventType", event.getEventType());
+        put(fields, "payload", event.getPayload());
+        put(fields, "occurredAt", event.getOccurredAt() == null ? null : event.getOccurredAt().getTime());
+        return fields;
+    }
+
+    private void put(Map<byte[], byte[]> fields, String name, Object value) {
+        if (value != null) {
+            fields.put(name.getBytes(StandardCharsets.UTF_8),
+                    String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
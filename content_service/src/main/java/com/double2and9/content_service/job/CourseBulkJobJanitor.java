@@ -0,0 +1,43 @@
+package com.double2and9.content_service.job;
+
+import com.double2and9.content_service.service.CourseBulkJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 课程批量任务的维护
+ * 任务表只在默认分片上，不需要逐个分片执行
+ */
+@Slf4j
+@Component
+public class CourseBulkJobJanitor {
+
+    private final CourseBulkJobService courseBulkJobService;
+
+    public CourseBulkJobJanitor(CourseBulkJobService courseBulkJobService) {
+        this.courseBulkJobService = courseBulkJobService;
+    }
+
+    /**
+     * 排队中的任务没有进度，由所在节点定期刷新心跳，间隔需明显小于 stale-after-ms
+     */
+    @Scheduled(fixedDelayString = "${content.bulk-job.heartbeat-interval-ms:60000}")
+    public void heartbeatQueuedJobs() {
+        courseBulkJobService.heartbeatQueuedJobs();
+    }
+
+    /**
+     * 节点崩溃时任务停留在执行中或排队中，分别按进度更新时间和心跳时间标记为失败
+     */
+    @Scheduled(fixedDelayString = "${content.bulk-job.stale-check-interval-ms:60000}")
+    public void failStaleJobs() {
+        courseBulkJobService.failStaleJobs();
+    }
+
+    @Scheduled(cron = "${content.bulk-job.purge-cron:0 50 3 * * ?}")
+    public void purge() {
+        int purged = courseBulkJobService.purgeFinishedJobs();
+        log.info("清理已结束的课程批量任务，数量：{}", purged);
+    }
+}
@@ -0,0 +1,36 @@
+package com.double2and9.content_service.job;
+
+import com.double2and9.content_service.service.CoursePopularityService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定期写入本节点累加的课程热度增量，节点停止前再写入一次
+ */
+@Slf4j
+@Component
+public class CoursePopularityFlusher {
+
+    private final CoursePopularityService coursePopularityService;
+
+    public CoursePopularityFlusher(CoursePopularityService coursePopularityService) {
+        this.coursePopularityService = coursePopularityService;
+    }
+
+    @Scheduled(fixedDelayString = "${content.popularity.flush-interval-ms:5000}")
+    public void flush() {
+        coursePopularityService.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            int written = coursePopularityService.flush();
+            log.info("节点停止，写入课程热度增量，课程数：{}", written);
+        } catch (RuntimeException e) {
+            log.warn("节点停止时写入课程热度增量失败", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.double2and9.content_service.job;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.base.schedule.HierarchicalTimingWheel;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.config.CourseScheduleProperties;
+import com.double2and9.content_service.dto.CourseBulkErrorDTO;
+import com.double2and9.content_service.entity.CourseSchedule;
+import com.double2and9.content_service.service.CourseBaseService;
+import com.double2and9.content_service.service.CourseScheduleService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 课程定时发布/下架的执行
+ * 定期按租约领取即将到期的定时任务放入本节点的分层时间轮，单个线程每 tick 推进时间轮并执行到期的任务：
+ * 同一时刻到期的大量课程按领取批次、机构和操作分组，每 fire-batch-size 门课程一个事务依次执行，
+ * 不会同时开启大量事务。租约保证同一定时任务只有一个节点执行。
+ */
+@Slf4j
+@Component
+public class CourseScheduleRunner {
+
+    private final CourseScheduleService courseScheduleService;
+    private final CourseBaseService courseBaseService;
+    private final CourseScheduleProperties properties;
+    private final HierarchicalTimingWheel<CourseSchedule> wheel;
+    private final ScheduledExecutorService ticker;
+    private final String nodeId;
+
+    public CourseScheduleRunner(CourseScheduleService courseScheduleService,
+                                CourseBaseService courseBaseService,
+                                CourseScheduleProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.courseScheduleService = courseScheduleService;
+        this.courseBaseService = courseBaseService;
+        this.properties = properties;
+        this.nodeId = StringUtils.hasText(properties.getNodeId()) ? properties.getNodeId() : defaultNodeId();
+        this.wheel = new HierarchicalTimingWheel<>(properties.getTickMs(), properties.getWheelSize(),
+                System.currentTimeMillis());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("course-schedule-");
+        threadFactory.setDaemon(true);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        if (properties.isEnabled()) {
+            ticker.scheduleWithFixedDelay(this::tick, properties.getTickMs(), properties.getTickMs(),
+                    TimeUnit.MILLISECONDS);
+        }
+        Gauge.builder("course.schedule.wheel.pending", wheel, HierarchicalTimingWheel::size)
+                .description("本节点时间轮中等待执行的定时任务数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 回收失联节点的定时任务，领取即将到期的定时任务放入时间轮；已到期的交给执行线程立即执行
+     */
+    @Scheduled(fixedDelayString = "${content.course-schedule.poll-interval-ms:5000}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        courseScheduleService.failStale();
+        List<CourseSchedule> overdue = new ArrayList<>();
+        for (CourseSchedule schedule : courseScheduleService.claimDue(nodeId)) {
+            if (!wheel.add(schedule, schedule.getFireTime().getTime())) {
+                overdue.add(schedule);
+            }
+        }
+        if (!overdue.isEmpty()) {
+            ticker.execute(() -> fire(overdue));
+        }
+    }
+
+    /**
+     * 在执行线程上推进时间轮；异常不能抛出，否则后续 tick 不再执行
+     */
+    private void tick() {
+        try {
+            List<CourseSchedule> due = wheel.advance(System.currentTimeMillis());
+            if (!due.isEmpty()) {
+                fire(due);
+            }
+        } catch (RuntimeException e) {
+            log.error("执行课程定时任务出错", e);
+        }
+    }
+
+    private void fire(List<CourseSchedule> due) {
+        Map<String, List<CourseSchedule>> groups = due.stream().collect(Collectors.groupingBy(
+                schedule -> schedule.getClaimToken() + ":" + schedule.getOrganizationId() + ":" + schedule.getOperation(),
+                LinkedHashMap::new, Collectors.toList()));
+        for (List<CourseSchedule> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += properties.getFireBatchSize()) {
+                fireBatch(group.subList(from, Math.min(from + properties.getFireBatchSize(), group.size())));
+            }
+        }
+    }
+
+    /**
+     * 一批同一领取批次、机构和操作的定时任务：先改为FIRING，再在一个事务中处理全部课程，最后记录结果
+     */
+    private void fireBatch(List<CourseSchedule> batch) {
+        CourseSchedule first = batch.get(0);
+        List<CourseSchedule> fired = courseScheduleService.startFiring(first.getClaimToken(),
+                batch.stream().map(CourseSchedule::getId).collect(Collectors.toList()));
+        if (fired.isEmpty()) {
+            return;
+        }
+        List<Long> courseIds = fired.stream().map(CourseSchedule::getCourseId).collect(Collectors.toList());
+        List<CourseBulkErrorDTO> errors;
+        try {
+            errors = apply(first.getOrganizationId(), first.getOperation(), courseIds);
+        } catch (RuntimeException e) {
+            log.warn("课程定时任务整批失败，逐门重试，机构ID：{}，课程数：{}", first.getOrganizationId(), courseIds.size(), e);
+            errors = new ArrayList<>();
+            for (Long courseId : courseIds) {
+                try {
+                    errors.addAll(apply(first.getOrganizationId(), first.getOperation(), List.of(courseId)));
+                } catch (ContentException ce) {
+                    errors.add(new CourseBulkErrorDTO(courseId, ce.getErrorCode().getCode(), ce.getMessage()));
+                } catch (RuntimeException re) {
+                    errors.add(new CourseBulkErrorDTO(courseId, ContentErrorCode.SYSTEM_ERROR.getCode(), re.getMessage()));
+                }
+            }
+        }
+        courseScheduleService.finish(fired, errors);
+        log.info("执行课程定时任务，机构ID：{}，操作：{}，课程数：{}，失败：{}",
+                first.getOrganizationId(), first.getOperation(), courseIds.size(), errors.size());
+    }
+
+    /**
+     * 以机构的身份执行，启用分库时落在机构的分片上
+     */
+    private List<CourseBulkErrorDTO> apply(Long organizationId, String operation, List<Long> courseIds) {
+        return TenantContext.callAs(organizationId, () -> CourseSchedule.PUBLISH.equals(operation)
+                ? courseBaseService.publishCourses(organizationId, courseIds)
+                : courseBaseService.offlineCourses(organizationId, courseIds));
+    }
+
+    /**
+     * 节点停止：归还时间轮中尚未执行的定时任务，其他节点下次轮询即可领取
+     */
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int released = courseScheduleService.release(nodeId);
+            log.info("归还课程定时任务，节点：{}，数量：{}", nodeId, released);
+        } catch (RuntimeException e) {
+            log.warn("归还课程定时任务失败，租约到期后由其他节点领取，节点：{}", nodeId, e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return (name.length() > 55 ? name.substring(0, 55) : name) + "-" + suffix;
+    }
+}
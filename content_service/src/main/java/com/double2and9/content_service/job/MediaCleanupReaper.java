@@ -0,0 +1,70 @@
+package com.double2and9.content_service.job;
+
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.service.MediaCleanupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 媒资清理后台任务
+ * 定时批量处理到期的删除任务，直到没有到期任务或达到单轮上限
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "content.media-cleanup.enabled", havingValue = "true", matchIfMissing = true)
+public class MediaCleanupReaper {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final MediaCleanupService mediaCleanupService;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+
+    public MediaCleanupReaper(MediaCleanupService mediaCleanupService, ObjectProvider<ShardRegistry> shardRegistry) {
+        this.mediaCleanupService = mediaCleanupService;
+        this.shardRegistry = shardRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${content.media-cleanup.interval-ms:10000}")
+    public void reap() {
+        onEachShard(this::reapShard);
+    }
+
+    private void reapShard() {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            int processed = mediaCleanupService.processDueTasks();
+            total += processed;
+            if (processed == 0) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("媒资清理任务处理完成，数量：{}", total);
+        }
+    }
+
+    @Scheduled(cron = "${content.media-cleanup.purge-cron:0 40 3 * * ?}")
+    public void purge() {
+        onEachShard(this::purgeShard);
+    }
+
+    private void purgeShard() {
+        int purged = mediaCleanupService.purgeDoneTasks();
+        log.info("清理已完成的媒资清理任务，数量：{}", purged);
+    }
+
+    /**
+     * 启用分库时在每个分片上各执行一次
+     */
+    private void onEachShard(Runnable action) {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            action.run();
+        } else {
+            registry.forEachShard(action);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.double2and9.content_service.job;
+
+import com.double2and9.content_service.service.TenantShardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分库的维护，启用分库时各节点都执行，操作本身是幂等的
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "content.sharding.enabled", havingValue = "true")
+public class TenantShardJanitor {
+
+    private final TenantShardService tenantShardService;
+
+    public TenantShardJanitor(TenantShardService tenantShardService) {
+        this.tenantShardService = tenantShardService;
+    }
+
+    /**
+     * 执行节点崩溃时机构停留在迁移中（只读），按续约时间回滚到原分片
+     */
+    @Scheduled(fixedDelayString = "${content.sharding.move-recovery-interval-ms:30000}")
+    public void recoverStaleMoves() {
+        int recovered = tenantShardService.recoverStaleMoves();
+        if (recovered > 0) {
+            log.warn("回滚执行节点失联的机构迁移，数量：{}", recovered);
+        }
+    }
+
+    /**
+     * 课程分类在默认分片上维护，定期复制到其余分片
+     */
+    @Scheduled(fixedDelayString = "${content.sharding.reference-sync-interval-ms:300000}")
+    public void syncReferenceData() {
+        tenantShardService.syncReferenceData();
+    }
+}
@@ -0,0 +1,115 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.AuditTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface AuditTaskRepository extends JpaRepository<AuditTask, Long> {
+
+    // 入队；同一目标重复提交时刷新提交时间并清除领取，保留优先级
+    @Modifying
+    @Query(value = "INSERT INTO audit_task (target_type, target_id, organization_id, name, priority, submit_time) " +
+                   "VALUES (:targetType, :targetId, :organizationId, :name, 0, :submitTime) " +
+                   "ON DUPLICATE KEY UPDATE name = :name, submit_time = :submitTime, " +
+                   "claimed_by = NULL, claim_token = NULL, lease_until = NULL", nativeQuery = true)
+    int upsert(@Param("targetType") String targetType,
+               @Param("targetId") String targetId,
+               @Param("organizationId") Long organizationId,
+               @Param("name") String name,
+               @Param("submitTime") Date submitTime);
+
+    // 按提交时间的一页，从 (afterTime, afterId) 之后开始
+    @Query("SELECT t FROM AuditTask t WHERE t.targetType = :targetType " +
+           "AND (:organizationId IS NULL OR t.organizationId = :organizationId) " +
+           "AND (t.submitTime > :afterTime OR (t.submitTime = :afterTime AND t.id > :afterId)) " +
+           "ORDER BY t.submitTime, t.id")
+    List<AuditTask> findPageBySubmitTime(@Param("targetType") String targetType,
+                                         @Param("organizationId") Long organizationId,
+                                         @Param("afterTime") Date afterTime,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    // 按优先级（高的在前）、提交时间的一页，从 (afterPriority, afterTime, afterId) 之后开始
+    @Query("SELECT t FROM AuditTask t WHERE t.targetType = :targetType " +
+           "AND (:organizationId IS NULL OR t.organizationId = :organizationId) " +
+           "AND (t.priority < :afterPriority OR (t.priority = :afterPriority AND " +
+           "(t.submitTime > :afterTime OR (t.submitTime = :afterTime AND t.id > :afterId)))) " +
+           "ORDER BY t.priority DESC, t.submitTime, t.id")
+    List<AuditTask> findPageByPriority(@Param("targetType") String targetType,
+                                       @Param("organizationId") Long organizationId,
+                                       @Param("afterPriority") Integer afterPriority,
+                                       @Param("afterTime") Date afterTime,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // 可领取的任务（未领取或租约已到期），按提交时间
+    @Query("SELECT t FROM AuditTask t WHERE t.targetType = :targetType " +
+           "AND (:organizationId IS NULL OR t.organizationId = :organizationId) " +
+           "AND (t.leaseUntil IS NULL OR t.leaseUntil < :now) ORDER BY t.submitTime, t.id")
+    List<AuditTask> findAvailableBySubmitTime(@Param("targetType") String targetType,
+                                              @Param("organizationId") Long organizationId,
+                                              @Param("now") Date now,
+                                              Pageable pageable);
+
+    // 可领取的任务（未领取或租约已到期），按优先级
+    @Query("SELECT t FROM AuditTask t WHERE t.targetType = :targetType " +
+           "AND (:organizationId IS NULL OR t.organizationId = :organizationId) " +
+           "AND (t.leaseUntil IS NULL OR t.leaseUntil < :now) ORDER BY t.priority DESC, t.submitTime, t.id")
+    List<AuditTask> findAvailableByPriority(@Param("targetType") String targetType,
+                                            @Param("organizationId") Long organizationId,
+                                            @Param("now") Date now,
+                                            Pageable pageable);
+
+    // 领取：条件更新，并发领取同一任务时只有一个审核人成功
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuditTask t SET t.claimedBy = :reviewer, t.claimToken = :claimToken, t.leaseUntil = :leaseUntil " +
+           "WHERE t.id IN :ids AND (t.leaseUntil IS NULL OR t.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("reviewer") String reviewer,
+              @Param("claimToken") String claimToken,
+              @Param("leaseUntil") Date leaseUntil,
+              @Param("now") Date now);
+
+    List<AuditTask> findByClaimToken(String claimToken);
+
+    // 审核人持有且租约未到期的任务
+    @Query("SELECT t FROM AuditTask t WHERE t.id IN :ids AND t.targetType = :targetType " +
+           "AND t.claimedBy = :reviewer AND t.leaseUntil >= :now")
+    List<AuditTask> findHeld(@Param("ids") Collection<Long> ids,
+                             @Param("targetType") String targetType,
+                             @Param("reviewer") String reviewer,
+                             @Param("now") Date now);
+
+    // 审核人持有的任务，不论租约是否到期
+    @Query("SELECT t FROM AuditTask t WHERE t.id IN :ids AND t.claimedBy = :reviewer")
+    List<AuditTask> findClaimedBy(@Param("ids") Collection<Long> ids, @Param("reviewer") String reviewer);
+
+    // 归还审核人持有的任务
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuditTask t SET t.claimedBy = NULL, t.claimToken = NULL, t.leaseUntil = NULL " +
+           "WHERE t.id IN :ids AND t.claimedBy = :reviewer")
+    int release(@Param("ids") Collection<Long> ids, @Param("reviewer") String reviewer);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuditTask t SET t.priority = :priority WHERE t.id = :taskId")
+    int updatePriority(@Param("taskId") Long taskId, @Param("priority") Integer priority);
+
+    // 审核完成出队
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AuditTask t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // 不经过队列直接审核时出队
+    @Modifying
+    @Query("DELETE FROM AuditTask t WHERE t.targetType = :targetType AND t.targetId = :targetId")
+    int deleteByTarget(@Param("targetType") String targetType, @Param("targetId") String targetId);
+}
@@ -0,0 +1,15 @@
+package com.double2and9.content_service.repository;
+
+/**
+ * 课程审核前的状态，批量审核时用于调整机构课程计数
+ */
+public interface CourseAuditRow {
+
+    Long getId();
+
+    Long getOrganizationId();
+
+    String getStatus();
+
+    String getAuditStatus();
+}
@@ -1,12 +1,17 @@
 package com.double2and9.content_service.repository;
 
+import com.double2and9.base.queryplan.AllowFullScan;
 import com.double2and9.content_service.entity.CourseBase;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,18 +20,13 @@ import java.util.List;
 public interface CourseBaseRepository extends JpaRepository<CourseBase, Long>, JpaSpecificationExecutor<CourseBase> {
     
     // 根据课程名称模糊查询
+    @AllowFullScan("LIKE '%关键字%' 无法使用索引")
     List<CourseBase> findByNameContaining(String name);
     
     // 根据课程状态查询
+    @AllowFullScan("有效标志只有两个取值，建索引没有选择性")
     List<CourseBase> findByValid(Boolean valid);
     
-    // 根据课程分类查询
-    List<CourseBase> findByMtAndSt(Long mt, Long st);
-    
-    // 自定义查询示例
-    @Query("SELECT c FROM CourseBase c WHERE c.mt = ?1 AND c.valid = true ORDER BY c.createTime DESC")
-    List<CourseBase> findLatestCoursesByMt(Long mt);
-    
     // 添加按机构ID查询的方法
     Page<CourseBase> findByOrganizationId(Long organizationId, Pageable pageable);
     
@@ -45,4 +45,33 @@ public interface CourseBaseRepository extends JpaRepository<CourseBase, Long>, J
         @Param("status") String status,
         Pageable pageable
     );
-} 
\ No newline at end of file
+
+    // 按机构和状态分页查询，不执行COUNT，总数取机构课程计数
+    @Query("SELECT c FROM CourseBase c WHERE c.organizationId = :organizationId AND " +
+           "(:status IS NULL OR c.status = :status)")
+    List<CourseBase> findByOrganizationIdAndStatus(
+        @Param("organizationId") Long organizationId,
+        @Param("status") String status,
+        Pageable pageable
+    );
+
+    // 批量修改课程状态，一条语句
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CourseBase c SET c.status = :status, c.updateTime = :now WHERE c.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("now") Date now);
+
+    // 课程连同一对一关联一次查出，写课程事件时不再逐条加载
+    @Query("SELECT DISTINCT c FROM CourseBase c LEFT JOIN FETCH c.courseMarket LEFT JOIN FETCH c.coursePublishPre " +
+           "LEFT JOIN FETCH c.coursePublish WHERE c.id IN :ids")
+    List<CourseBase> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 查询课程最后修改时间，用于生成ETag
+    @Query("SELECT c.updateTime FROM CourseBase c WHERE c.id = :courseId")
+    Optional<Date> findUpdateTimeById(@Param("courseId") Long courseId);
+
+    // 查询课程、营销信息、预发布信息的最后修改时间，用于生成课程预览ETag
+    @Query("SELECT c.updateTime AS courseUpdateTime, m.updateTime AS marketUpdateTime, " +
+            "p.updateTime AS publishPreUpdateTime FROM CourseBase c " +
+            "LEFT JOIN c.courseMarket m LEFT JOIN c.coursePublishPre p WHERE c.id = :courseId")
+    Optional<CoursePreviewVersion> findPreviewVersionById(@Param("courseId") Long courseId);
+}
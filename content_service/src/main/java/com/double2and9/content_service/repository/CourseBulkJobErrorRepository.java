@@ -0,0 +1,22 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CourseBulkJobError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CourseBulkJobErrorRepository extends JpaRepository<CourseBulkJobError, Long> {
+
+    List<CourseBulkJobError> findByJobIdOrderById(Long jobId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CourseBulkJobError e WHERE e.jobId IN :jobIds")
+    int deleteByJobIdIn(@Param("jobIds") Collection<Long> jobIds);
+}
@@ -0,0 +1,70 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CourseBulkJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface CourseBulkJobRepository extends JpaRepository<CourseBulkJob, Long> {
+
+    @Query("SELECT j.status FROM CourseBulkJob j WHERE j.id = :jobId")
+    String findStatusById(@Param("jobId") Long jobId);
+
+    // 开始执行；排队期间已取消的任务不再执行
+    @Modifying
+    @Query("UPDATE CourseBulkJob j SET j.status = 'RUNNING', j.startTime = :now, j.updateTime = :now " +
+           "WHERE j.id = :jobId AND j.status = 'PENDING'")
+    int start(@Param("jobId") Long jobId, @Param("now") Date now);
+
+    // 一块处理完后累加进度；任务已被标记为结束（如节点被判定失联）时不再累加
+    @Modifying
+    @Query("UPDATE CourseBulkJob j SET j.processed = j.processed + :processed, j.succeeded = j.succeeded + :succeeded, " +
+           "j.failed = j.failed + :failed, j.updateTime = :now WHERE j.id = :jobId AND j.status IN ('RUNNING', 'CANCELLING')")
+    int addProgress(@Param("jobId") Long jobId,
+                    @Param("processed") int processed,
+                    @Param("succeeded") int succeeded,
+                    @Param("failed") int failed,
+                    @Param("now") Date now);
+
+    // 状态为 from 之一时改为 to
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CourseBulkJob j SET j.status = :to, j.updateTime = :now WHERE j.id = :jobId AND j.status IN :from")
+    int transition(@Param("jobId") Long jobId,
+                   @Param("from") Collection<String> from,
+                   @Param("to") String to,
+                   @Param("now") Date now);
+
+    // 状态为 from 之一时结束任务，已经结束的任务不会被改写
+    @Modifying
+    @Query("UPDATE CourseBulkJob j SET j.status = :status, j.finishTime = :now, j.updateTime = :now " +
+           "WHERE j.id = :jobId AND j.status IN :from")
+    int finish(@Param("jobId") Long jobId,
+               @Param("from") Collection<String> from,
+               @Param("status") String status,
+               @Param("now") Date now);
+
+    // 排队中的任务由所在节点刷新心跳
+    @Modifying
+    @Query("UPDATE CourseBulkJob j SET j.heartbeatTime = :now WHERE j.id IN :jobIds AND j.status = 'PENDING'")
+    int heartbeat(@Param("jobIds") Collection<Long> jobIds, @Param("now") Date now);
+
+    // 节点失联：执行中的任务长时间没有进度，排队中的任务长时间没有心跳；排队久不代表节点失联，不按提交时间判断
+    @Modifying
+    @Query("UPDATE CourseBulkJob j SET j.status = 'FAILED', j.finishTime = :now, j.updateTime = :now " +
+           "WHERE (j.status IN ('RUNNING', 'CANCELLING') AND j.updateTime < :before) " +
+           "OR (j.status = 'PENDING' AND j.heartbeatTime < :before)")
+    int failStale(@Param("before") Date before, @Param("now") Date now);
+
+    // 结束时间早于 before 的任务，分批清理
+    @Query("SELECT j.id FROM CourseBulkJob j WHERE j.status IN ('COMPLETED', 'CANCELLED', 'FAILED') " +
+           "AND j.updateTime < :before ORDER BY j.updateTime")
+    List<Long> findFinishedIdsBefore(@Param("before") Date before, Pageable pageable);
+}
@@ -0,0 +1,62 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CourseCatalog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface CourseCatalogRepository extends JpaRepository<CourseCatalog, Long> {
+
+    // 发布时写入，已在目录中时更新浏览字段
+    @Modifying
+    @Query(value = "INSERT INTO course_catalog (course_id, organization_id, name, logo, mt, st, charge, price, " +
+                   "publish_time, update_time) VALUES (:courseId, :organizationId, :name, :logo, :mt, :st, :charge, " +
+                   ":price, :publishTime, :now) ON DUPLICATE KEY UPDATE organization_id = :organizationId, " +
+                   "name = :name, logo = :logo, mt = :mt, st = :st, charge = :charge, price = :price, " +
+                   "publish_time = :publishTime, update_time = :now", nativeQuery = true)
+    int upsert(@Param("courseId") Long courseId,
+               @Param("organizationId") Long organizationId,
+               @Param("name") String name,
+               @Param("logo") String logo,
+               @Param("mt") Long mt,
+               @Param("st") Long st,
+               @Param("charge") String charge,
+               @Param("price") BigDecimal price,
+               @Param("publishTime") Date publishTime,
+               @Param("now") Date now);
+
+    @Modifying
+    @Query("DELETE FROM CourseCatalog c WHERE c.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("DELETE FROM CourseCatalog c WHERE c.courseId IN :courseIds")
+    int deleteByCourseIdIn(@Param("courseIds") Collection<Long> courseIds);
+
+    // 按发布时间倒序的键集分页，从上一页最后一门课程的发布时间和课程ID之后开始；条件为空时不过滤
+    @Query("SELECT c FROM CourseCatalog c WHERE " +
+           "(:mt IS NULL OR c.mt = :mt) AND " +
+           "(:st IS NULL OR c.st = :st) AND " +
+           "(:charge IS NULL OR c.charge = :charge) AND " +
+           "(:minPrice IS NULL OR c.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR c.price <= :maxPrice) AND " +
+           "(c.publishTime < :afterTime OR (c.publishTime = :afterTime AND c.courseId < :afterId)) " +
+           "ORDER BY c.publishTime DESC, c.courseId DESC")
+    List<CourseCatalog> browse(@Param("mt") Long mt,
+                               @Param("st") Long st,
+                               @Param("charge") String charge,
+                               @Param("minPrice") BigDecimal minPrice,
+                               @Param("maxPrice") BigDecimal maxPrice,
+                               @Param("afterTime") Date afterTime,
+                               @Param("afterId") Long afterId,
+                               Pageable pageable);
+}
@@ -1,20 +1,35 @@
 package com.double2and9.content_service.repository;
 
 import com.double2and9.content_service.entity.CourseCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
+/**
+ * 课程分类
+ * 分类实体在二级缓存中，以下查询同时走查询缓存：命中时只取ID列表，再按ID从二级缓存组装实体
+ */
 @Repository
 public interface CourseCategoryRepository extends JpaRepository<CourseCategory, Long> {
-    
+
+    // 全部分类，用于构建分类树
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CourseCategory> findAll();
+
     // 查找顶级分类
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CourseCategory> findByParentId(Long parentId);
-    
+
     // 根据层级查询分类
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CourseCategory> findByLevel(Integer level);
-    
+
     // 根据父ID和层级查询
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CourseCategory> findByParentIdAndLevel(Long parentId, Integer level);
-} 
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CourseEventOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface CourseEventOutboxRepository extends JpaRepository<CourseEventOutbox, Long> {
+
+    /**
+     * 按写入顺序领取一批到期的待投递事件
+     * SELECT ... FOR UPDATE SKIP LOCKED，行锁持有到投递事务结束；多个节点同时中继时跳过其他节点正在投递的事件，不会重复投递。
+     * 同一课程有更早的停放事件时，之后的事件留在发件箱，等停放事件重新投递或丢弃后再领取
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2：SKIP LOCKED
+    @Query("SELECT e FROM CourseEventOutbox e WHERE e.published = false AND e.parked = false " +
+           "AND (e.nextAttemptTime IS NULL OR e.nextAttemptTime <= :now) " +
+           "AND NOT EXISTS (SELECT p.id FROM CourseEventOutbox p WHERE p.courseId = e.courseId " +
+           "AND p.published = false AND p.parked = true AND p.id < e.id) ORDER BY e.id ASC")
+    List<CourseEventOutbox> claimPending(@Param("now") Date now, Pageable pageable);
+
+    /**
+     * 批次之外还有更早的未投递事件的课程（事件正被其他节点投递，或刚被停放），这些课程的事件本批不投递，避免越过更早的事件
+     */
+    @Query("SELECT DISTINCT e.courseId FROM CourseEventOutbox e WHERE e.published = false " +
+           "AND e.courseId IN :courseIds AND e.id < :maxId AND e.id NOT IN :ids")
+    List<Long> findCoursesWithEarlierPending(@Param("courseIds") Collection<Long> courseIds,
+                                             @Param("maxId") Long maxId,
+                                             @Param("ids") Collection<Long> ids);
+
+    /**
+     * 批量标记为已投递
+     */
+    @Modifying
+    @Query("UPDATE CourseEventOutbox e SET e.published = true, e.publishedTime = :publishedTime, " +
+           "e.attempts = e.attempts + 1, e.lastError = null WHERE e.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedTime") Date publishedTime);
+
+    /**
+     * 记录一次投递失败，退避到 nextAttemptTime 后再领取；清空持久化上下文，下次领取时读到最新的失败次数
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CourseEventOutbox e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.nextAttemptTime = :nextAttemptTime WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error, @Param("nextAttemptTime") Date nextAttemptTime);
+
+    /**
+     * 投递目标不可用时推迟一批事件，不计失败次数
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CourseEventOutbox e SET e.lastError = :error, e.nextAttemptTime = :nextAttemptTime " +
+           "WHERE e.id IN :ids")
+    int postpone(@Param("ids") List<Long> ids, @Param("error") String error,
+                 @Param("nextAttemptTime") Date nextAttemptTime);
+
+    /**
+     * 记录投递失败并停放
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CourseEventOutbox e SET e.attempts = e.attempts + 1, e.lastError = :error, e.parked = true " +
+           "WHERE e.id = :id")
+    int park(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * 停放事件重新投递：清除停放标志、失败次数和退避时间；courseId为空时处理所有课程
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CourseEventOutbox e SET e.parked = false, e.attempts = 0, e.nextAttemptTime = null " +
+           "WHERE e.parked = true AND e.published = false AND (:courseId IS NULL OR e.courseId = :courseId)")
+    int requeueParked(@Param("courseId") Long courseId);
+
+    /**
+     * 清理已投递的历史事件
+     */
+    @Modifying
+    @Query("DELETE FROM CourseEventOutbox e WHERE e.published = true AND e.publishedTime < :before")
+    int deletePublishedBefore(@Param("before") Date before);
+}
@@ -1,6 +1,8 @@
 package com.double2and9.content_service.repository;
 
+import com.double2and9.base.queryplan.AllowFullScan;
 import com.double2and9.content_service.entity.CourseMarket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,12 +12,13 @@ import java.util.List;
 @Repository
 public interface CourseMarketRepository extends JpaRepository<CourseMarket, Long> {
     
-    // 查询特定价格区间的课程
-    List<CourseMarket> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    // 查询特定价格区间的课程，按页返回；学员浏览使用课程目录
+    List<CourseMarket> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
     
     // 查询免费课程
     List<CourseMarket> findByPrice(BigDecimal price);
     
     // 查询有效的课程营销信息
+    @AllowFullScan("有效标志只有两个取值，建索引没有选择性")
     List<CourseMarket> findByValid(Boolean valid);
 } 
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CoursePopularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface CoursePopularityRepository extends JpaRepository<CoursePopularity, Long> {
+
+    // 累加一段时间内的增量，没有记录时创建；清空持久化上下文，之后读到的是累加后的值
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO course_popularity (course_id, organization_id, view_count, enroll_count, update_time) " +
+                   "VALUES (:courseId, :organizationId, :views, :enrollments, :now) ON DUPLICATE KEY UPDATE " +
+                   "organization_id = :organizationId, view_count = view_count + :views, " +
+                   "enroll_count = enroll_count + :enrollments, update_time = :now", nativeQuery = true)
+    int increment(@Param("courseId") Long courseId,
+                  @Param("organizationId") Long organizationId,
+                  @Param("views") long views,
+                  @Param("enrollments") long enrollments,
+                  @Param("now") Date now);
+}
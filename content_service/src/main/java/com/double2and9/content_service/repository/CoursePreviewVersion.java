@@ -0,0 +1,16 @@
+package com.double2and9.content_service.repository;
+
+import java.util.Date;
+
+/**
+ * 课程预览版本投影
+ * 预览同时展示课程基本信息、营销信息和预发布信息，各自的最后修改时间都参与ETag；营销、预发布信息不存在时为空
+ */
+public interface CoursePreviewVersion {
+
+    Date getCourseUpdateTime();
+
+    Date getMarketUpdateTime();
+
+    Date getPublishPreUpdateTime();
+}
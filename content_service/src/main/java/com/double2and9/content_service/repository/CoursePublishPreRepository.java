@@ -1,9 +1,15 @@
 package com.double2and9.content_service.repository;
 
+import com.double2and9.base.queryplan.AllowFullScan;
 import com.double2and9.content_service.entity.CoursePublishPre;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -13,5 +19,20 @@ public interface CoursePublishPreRepository extends JpaRepository<CoursePublishP
     List<CoursePublishPre> findByStatus(String status);
     
     // 根据课程名称模糊查询
+    @AllowFullScan("LIKE '%关键字%' 无法使用索引")
     List<CoursePublishPre> findByNameContaining(String name);
+
+    // 批量审核前的课程状态和审核状态
+    @Query("SELECT c.id AS id, c.organizationId AS organizationId, c.status AS status, p.status AS auditStatus " +
+           "FROM CoursePublishPre p JOIN p.courseBase c WHERE p.id IN :ids")
+    List<CourseAuditRow> findAuditRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 批量审核，一条语句更新全部预发布记录
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CoursePublishPre p SET p.status = :status, p.auditMessage = :auditMessage, p.updateTime = :now " +
+           "WHERE p.id IN :ids")
+    int updateAuditStatusByIds(@Param("ids") Collection<Long> ids,
+                               @Param("status") String status,
+                               @Param("auditMessage") String auditMessage,
+                               @Param("now") Date now);
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.double2and9.content_service.repository;
 
+import com.double2and9.base.queryplan.AllowFullScan;
 import com.double2and9.content_service.entity.CoursePublish;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -13,5 +14,6 @@ public interface CoursePublishRepository extends JpaRepository<CoursePublish, Lo
     List<CoursePublish> findByStatus(String status);
     
     // 根据课程名称模糊查询
+    @AllowFullScan("LIKE '%关键字%' 无法使用索引")
     List<CoursePublish> findByNameContaining(String name);
 } 
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CourseSchedule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseScheduleRepository extends JpaRepository<CourseSchedule, Long> {
+
+    Optional<CourseSchedule> findByCourseIdAndOperation(Long courseId, String operation);
+
+    List<CourseSchedule> findByOrganizationIdOrderByFireTimeDesc(Long organizationId, Pageable pageable);
+
+    List<CourseSchedule> findByClaimToken(String claimToken);
+
+    // 重新设置时间：清空租约和领取批次，已放入时间轮的旧条目不再执行；执行中的不修改
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CourseSchedule s SET s.organizationId = :organizationId, s.fireTime = :fireTime, " +
+           "s.status = 'PENDING', s.leaseOwner = NULL, s.claimToken = NULL, s.leaseUntil = NULL, " +
+           "s.errorCode = NULL, s.message = NULL, s.updateTime = :now " +
+           "WHERE s.courseId = :courseId AND s.operation = :operation AND s.status <> 'FIRING'")
+    int reschedule(@Param("courseId") Long courseId,
+                   @Param("operation") String operation,
+                   @Param("organizationId") Long organizationId,
+                   @Param("fireTime") Date fireTime,
+                   @Param("now") Date now);
+
+    // until 之前到期、没有租约或租约已到期的记录
+    @Query("SELECT s.id FROM CourseSchedule s WHERE s.status = 'PENDING' AND s.fireTime <= :until " +
+           "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now) ORDER BY s.fireTime")
+    List<Long> findClaimableIds(@Param("until") Date until, @Param("now") Date now, Pageable pageable);
+
+    // 条件更新领取，并发领取同一记录时只有一个节点更新成功
+    @Modifying
+    @Query("UPDATE CourseSchedule s SET s.leaseOwner = :owner, s.claimToken = :token, s.leaseUntil = :leaseUntil, " +
+           "s.updateTime = :now WHERE s.id IN :ids AND s.status = 'PENDING' " +
+           "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("token") String token,
+              @Param("leaseUntil") Date leaseUntil,
+              @Param("now") Date now);
+
+    // 执行前改为FIRING：领取后被重新设置、取消或租约已到期的记录不再执行
+    @Modifying
+    @Query("UPDATE CourseSchedule s SET s.status = 'FIRING', s.claimToken = :fireToken, s.leaseUntil = :leaseUntil, " +
+           "s.updateTime = :now WHERE s.id IN :ids AND s.claimToken = :claimToken AND s.status = 'PENDING' " +
+           "AND s.leaseUntil > :now")
+    int startFiring(@Param("ids") Collection<Long> ids,
+                    @Param("claimToken") String claimToken,
+                    @Param("fireToken") String fireToken,
+                    @Param("leaseUntil") Date leaseUntil,
+                    @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE CourseSchedule s SET s.status = :status, s.errorCode = :errorCode, s.message = :message, " +
+           "s.updateTime = :now WHERE s.id IN :ids AND s.claimToken = :fireToken AND s.status = 'FIRING'")
+    int finish(@Param("ids") Collection<Long> ids,
+               @Param("fireToken") String fireToken,
+               @Param("status") String status,
+               @Param("errorCode") Integer errorCode,
+               @Param("message") String message,
+               @Param("now") Date now);
+
+    // 节点停止时归还尚未执行的记录，其他节点不必等租约到期
+    @Modifying
+    @Query("UPDATE CourseSchedule s SET s.leaseOwner = NULL, s.claimToken = NULL, s.leaseUntil = NULL, " +
+           "s.updateTime = :now WHERE s.status = 'PENDING' AND s.leaseOwner = :owner")
+    int release(@Param("owner") String owner, @Param("now") Date now);
+
+    // 执行节点失联：执行中的记录租约到期，是否已生效无法确定，标记为失败而不是重新执行
+    @Modifying
+    @Query("UPDATE CourseSchedule s SET s.status = 'FAILED', s.errorCode = :errorCode, s.message = :message, " +
+           "s.updateTime = :now WHERE s.status = 'FIRING' AND s.leaseUntil < :now")
+    int failStale(@Param("errorCode") Integer errorCode, @Param("message") String message, @Param("now") Date now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CourseSchedule s SET s.status = 'CANCELLED', s.claimToken = NULL, s.updateTime = :now " +
+           "WHERE s.id = :scheduleId AND s.status = 'PENDING'")
+    int cancel(@Param("scheduleId") Long scheduleId, @Param("now") Date now);
+}
@@ -0,0 +1,34 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.CourseStatusCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourseStatusCounterRepository extends JpaRepository<CourseStatusCounter, CourseStatusCounter.Key> {
+
+    // 增减计数，行不存在时插入；只锁该机构该状态的一行
+    @Modifying
+    @Query(value = "INSERT INTO course_status_counter (organization_id, counter_type, status, total) " +
+                   "VALUES (:organizationId, :counterType, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE total = total + :delta", nativeQuery = true)
+    int increment(@Param("organizationId") Long organizationId,
+                  @Param("counterType") String counterType,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    // 机构的全部计数，按主键前缀读取
+    @Query("SELECT c.counterType AS counterType, c.status AS status, c.total AS total FROM CourseStatusCounter c " +
+           "WHERE c.organizationId = :organizationId")
+    List<StatusCount> findCountsByOrganizationId(@Param("organizationId") Long organizationId);
+
+    // 全平台各状态的课程数
+    @Query("SELECT c.counterType AS counterType, c.status AS status, SUM(c.total) AS total " +
+           "FROM CourseStatusCounter c WHERE c.counterType = :counterType GROUP BY c.counterType, c.status")
+    List<StatusCount> sumByCounterType(@Param("counterType") String counterType);
+}
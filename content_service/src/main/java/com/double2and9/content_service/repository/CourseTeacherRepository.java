@@ -3,8 +3,10 @@ package com.double2and9.content_service.repository;
 import com.double2and9.content_service.entity.CourseTeacher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +19,38 @@ public interface CourseTeacherRepository extends JpaRepository<CourseTeacher, Lo
     
     @Query("SELECT ct FROM CourseTeacher ct JOIN ct.courses c WHERE c.id = :courseId AND ct.organizationId = :organizationId")
     List<CourseTeacher> findByCourseIdAndOrganizationId(Long courseId, Long organizationId);
-} 
\ No newline at end of file
+
+    // 批量同步：按机构加载教师并一次取出已关联的课程，其他机构的教师不会返回
+    @Query("SELECT DISTINCT ct FROM CourseTeacher ct LEFT JOIN FETCH ct.courses " +
+           "WHERE ct.organizationId = :organizationId AND ct.id IN :ids")
+    List<CourseTeacher> findWithCoursesByOrganizationIdAndIdIn(@Param("organizationId") Long organizationId,
+                                                               @Param("ids") Collection<Long> ids);
+
+    // 机构教师目录：教师字段和关联课程ID，按教师ID、课程ID排序，同样的数据编码结果相同（ETag由编码生成）
+    @Query("SELECT ct.id AS id, ct.organizationId AS organizationId, ct.name AS name, ct.position AS position, " +
+           "ct.description AS description, c.id AS courseId " +
+           "FROM CourseTeacher ct LEFT JOIN ct.courses c WHERE ct.organizationId = :organizationId ORDER BY ct.id, c.id")
+    List<CourseTeacherRow> findRowsByOrganizationId(@Param("organizationId") Long organizationId);
+
+    // 课程的教师及各教师关联的全部课程ID，按教师ID排序
+    @Query("SELECT ct.id AS id, ct.organizationId AS organizationId, ct.name AS name, ct.position AS position, " +
+           "ct.description AS description, c.id AS courseId " +
+           "FROM CourseTeacher ct JOIN ct.courses c " +
+           "WHERE ct.id IN (SELECT t.id FROM CourseTeacher t JOIN t.courses tc WHERE tc.id = :courseId) ORDER BY ct.id")
+    List<CourseTeacherRow> findRowsByCourseId(@Param("courseId") Long courseId);
+
+    // 查询课程教师版本，用于生成ETag
+    @Query("SELECT MAX(ct.updateTime) AS lastModified, COUNT(ct) AS total FROM CourseTeacher ct JOIN ct.courses c " +
+           "WHERE c.id = :courseId")
+    ResourceVersion findVersionByCourseId(@Param("courseId") Long courseId);
+
+    // 查询机构教师版本，用于生成ETag
+    @Query("SELECT MAX(ct.updateTime) AS lastModified, COUNT(ct) AS total FROM CourseTeacher ct " +
+           "WHERE ct.organizationId = :organizationId")
+    ResourceVersion findVersionByOrganizationId(@Param("organizationId") Long organizationId);
+
+    // 查询单个教师版本，用于生成ETag
+    @Query("SELECT MAX(ct.updateTime) AS lastModified, COUNT(ct) AS total FROM CourseTeacher ct " +
+           "WHERE ct.organizationId = :organizationId AND ct.id = :teacherId")
+    ResourceVersion findVersionById(@Param("organizationId") Long organizationId, @Param("teacherId") Long teacherId);
+}
@@ -0,0 +1,21 @@
+package com.double2and9.content_service.repository;
+
+/**
+ * 教师与课程关联的扁平投影
+ * 每个 (教师, 课程) 一行，没有关联课程的教师一行且 courseId 为null；
+ * 教师列表用一条语句取回教师字段和课程ID，不再逐个教师加载课程集合
+ */
+public interface CourseTeacherRow {
+
+    Long getId();
+
+    Long getOrganizationId();
+
+    String getName();
+
+    String getPosition();
+
+    String getDescription();
+
+    Long getCourseId();
+}
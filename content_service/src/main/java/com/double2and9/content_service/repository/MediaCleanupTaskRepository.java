@@ -0,0 +1,58 @@
+package com.double2and9.content_service.repository;
+
+import com.double2and9.content_service.entity.MediaCleanupTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface MediaCleanupTaskRepository extends JpaRepository<MediaCleanupTask, Long> {
+
+    /**
+     * 已到执行时间、没有租约或租约已到期的待处理任务
+     */
+    @Query("SELECT t.id FROM MediaCleanupTask t WHERE t.status = 'PENDING' AND t.nextAttemptTime <= :now " +
+           "AND (t.leaseUntil IS NULL OR t.leaseUntil < :now) ORDER BY t.nextAttemptTime ASC")
+    List<Long> findClaimableIds(@Param("now") Date now, Pageable pageable);
+
+    /**
+     * 条件更新领取，多个节点并发领取同一任务时只有一个节点更新成功
+     */
+    @Modifying
+    @Query("UPDATE MediaCleanupTask t SET t.claimToken = :token, t.leaseUntil = :leaseUntil, t.updateTime = :now " +
+           "WHERE t.id IN :ids AND t.status = 'PENDING' AND (t.leaseUntil IS NULL OR t.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("leaseUntil") Date leaseUntil,
+              @Param("now") Date now);
+
+    List<MediaCleanupTask> findByClaimToken(String claimToken);
+
+    /**
+     * 批量标记任务完成，只更新本批次领取的任务
+     */
+    @Modifying
+    @Query("UPDATE MediaCleanupTask t SET t.status = 'DONE', t.attempts = t.attempts + 1, " +
+           "t.lastError = null, t.claimToken = null, t.leaseUntil = null, t.updateTime = :now " +
+           "WHERE t.id IN :ids AND t.claimToken = :token")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") Date now);
+
+    /**
+     * 统计某状态的任务数量
+     */
+    long countByStatus(String status);
+
+    /**
+     * 清理已完成的历史任务
+     */
+    @Modifying
+    @Query("DELETE FROM MediaCleanupTask t WHERE t.status = 'DONE' AND t.updateTime < :before")
+    int deleteDoneBefore(@Param("before") Date before);
+}
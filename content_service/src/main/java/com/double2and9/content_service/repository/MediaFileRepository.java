@@ -7,8 +7,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +38,13 @@ public interface MediaFileRepository extends JpaRepository<MediaFile, String>, J
     
     // 根据机构ID和媒体类型查询
     List<MediaFile> findByOrganizationIdAndMediaType(Long organizationId, String mediaType);
+
+    // 批量审核，一条语句更新全部媒资
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MediaFile m SET m.auditStatus = :auditStatus, m.auditMessage = :auditMessage, m.updateTime = :now " +
+           "WHERE m.mediaFileId IN :ids")
+    int updateAuditStatusByIds(@Param("ids") Collection<String> ids,
+                               @Param("auditStatus") String auditStatus,
+                               @Param("auditMessage") String auditMessage,
+                               @Param("now") Date now);
 }
\ No newline at end of file
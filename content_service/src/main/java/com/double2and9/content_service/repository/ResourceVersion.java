@@ -0,0 +1,14 @@
+package com.double2and9.content_service.repository;
+
+import java.util.Date;
+
+/**
+ * 资源版本投影
+ * 用于生成ETag：最后修改时间 + 记录数，记录数覆盖删除场景
+ */
+public interface ResourceVersion {
+
+    Date getLastModified();
+
+    Long getTotal();
+}
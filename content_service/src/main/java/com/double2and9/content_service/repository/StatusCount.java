@@ -0,0 +1,14 @@
+package com.double2and9.content_service.repository;
+
+/**
+ * 状态计数投影
+ * 计数由原生语句增减，读取时用投影而不是实体，不会拿到持久化上下文中的旧值
+ */
+public interface StatusCount {
+
+    String getCounterType();
+
+    String getStatus();
+
+    Long getTotal();
+}
@@ -2,8 +2,12 @@ package com.double2and9.content_service.repository;
 
 import com.double2and9.content_service.entity.TeachplanMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +17,21 @@ public interface TeachplanMediaRepository extends JpaRepository<TeachplanMedia,
     // 根据课程计划ID查询
     List<TeachplanMedia> findByTeachplanId(Long teachplanId);
     
+    // 根据课程计划ID查询，连同媒资文件一次取回
+    @Query("SELECT tm FROM TeachplanMedia tm JOIN FETCH tm.mediaFile WHERE tm.teachplan.id = :teachplanId")
+    List<TeachplanMedia> findWithMediaFileByTeachplanId(@Param("teachplanId") Long teachplanId);
+
+    // 查询课程下所有课程计划的媒资关联，课程计划和媒资文件一次取回
+    @Query("SELECT tm FROM TeachplanMedia tm JOIN FETCH tm.teachplan t JOIN FETCH tm.mediaFile " +
+           "WHERE t.courseBase.id = :courseId ORDER BY t.id, tm.id")
+    List<TeachplanMedia> findWithMediaFileByCourseId(@Param("courseId") Long courseId);
+
+    // 批量查询已有关联，走 (teachplan_id, media_id) 唯一索引；结果是两个ID集合的笛卡尔积范围，调用方按配对过滤
+    @Query("SELECT tm FROM TeachplanMedia tm JOIN FETCH tm.mediaFile " +
+           "WHERE tm.teachplan.id IN :teachplanIds AND tm.mediaFile.mediaFileId IN :mediaFileIds")
+    List<TeachplanMedia> findByTeachplanIdsAndMediaFileIds(@Param("teachplanIds") Collection<Long> teachplanIds,
+                                                           @Param("mediaFileIds") Collection<String> mediaFileIds);
+
     // 根据课程计划ID和媒资文件ID查询
     Optional<TeachplanMedia> findByTeachplanIdAndMediaFile_MediaFileId(Long teachplanId, String mediaFileId);
     
@@ -21,4 +40,14 @@ public interface TeachplanMediaRepository extends JpaRepository<TeachplanMedia,
     
     // 删除课程计划的所有媒资关联
     void deleteByTeachplanId(Long teachplanId);
-}
\ No newline at end of file
+
+    // 按ID批量删除关联，一条 DELETE ... WHERE id IN (...)
+    @Modifying
+    @Query("DELETE FROM TeachplanMedia tm WHERE tm.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 查询课程下媒资绑定的版本，用于生成ETag
+    @Query("SELECT MAX(tm.updateTime) AS lastModified, COUNT(tm) AS total FROM TeachplanMedia tm " +
+           "WHERE tm.teachplan.courseBase.id = :courseId")
+    ResourceVersion findVersionByCourseId(@Param("courseId") Long courseId);
+}
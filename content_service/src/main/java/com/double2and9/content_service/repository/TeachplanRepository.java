@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,10 @@ public interface TeachplanRepository extends JpaRepository<Teachplan, Long> {
     // 获取课程的第一级章节
     List<Teachplan> findByCourseBaseIdAndLevelOrderByOrderBy(Long courseId, Integer level);
     
+    // 按ID批量查询课程计划，连同所属课程一次取回
+    @Query("SELECT t FROM Teachplan t JOIN FETCH t.courseBase WHERE t.id IN :ids")
+    List<Teachplan> findWithCourseByIdIn(@Param("ids") Collection<Long> ids);
+
     // 统计同一父节点下的子节点数量
     Integer countByParentId(Long parentId);
     
@@ -54,4 +59,10 @@ public interface TeachplanRepository extends JpaRepository<Teachplan, Long> {
      */
     @Query("SELECT t FROM Teachplan t WHERE t.parentId = :parentId AND t.orderBy > :orderBy ORDER BY t.orderBy ASC")
     Optional<Teachplan> findNextNode(@Param("parentId") Long parentId, @Param("orderBy") Integer orderBy);
-} 
\ No newline at end of file
+
+    /**
+     * 查询课程计划版本，用于生成ETag
+     */
+    @Query("SELECT MAX(t.updateTime) AS lastModified, COUNT(t) AS total FROM Teachplan t WHERE t.courseBase.id = :courseId")
+    ResourceVersion findVersionByCourseId(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,72 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.AuditClaimDTO;
+import com.double2and9.content_service.dto.AuditDecisionDTO;
+import com.double2and9.content_service.dto.AuditDecisionResultDTO;
+import com.double2and9.content_service.dto.AuditQueuePageDTO;
+import com.double2and9.content_service.dto.AuditReleaseDTO;
+import com.double2and9.content_service.dto.AuditTaskDTO;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.MediaFile;
+
+import java.util.List;
+
+public interface AuditQueueService {
+    /**
+     * 在当前事务中把课程加入审核队列，重复提交时刷新提交时间并清除领取
+     * @param courseBase 课程
+     */
+    void enqueueCourse(CourseBase courseBase);
+
+    /**
+     * 在当前事务中把待审核的媒资加入审核队列
+     * @param mediaFile 媒资文件
+     */
+    void enqueueMedia(MediaFile mediaFile);
+
+    /**
+     * 在当前事务中移除目标的审核任务，用于不经过队列直接审核或删除目标
+     * @param targetType 审核目标类型
+     * @param targetId 课程ID或媒资文件ID
+     */
+    void complete(String targetType, String targetId);
+
+    /**
+     * 按游标分页查看队列
+     * @param targetType 审核目标类型
+     * @param organizationId 机构ID，为空时查看全部机构
+     * @param order 排序方式：SUBMIT_TIME 或 PRIORITY
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页数量
+     * @return 一页任务和下一页游标
+     */
+    AuditQueuePageDTO list(String targetType, Long organizationId, String order, String cursor, int size);
+
+    /**
+     * 领取任务，已被他人领取且租约未到期的任务不会被领取
+     * @param claimDTO 领取条件
+     * @return 领取到的任务，可能少于请求的数量
+     */
+    List<AuditTaskDTO> claim(AuditClaimDTO claimDTO);
+
+    /**
+     * 归还审核人持有的任务
+     * @param releaseDTO 审核人和任务ID
+     * @return 归还的任务数
+     */
+    int release(AuditReleaseDTO releaseDTO);
+
+    /**
+     * 调整任务优先级
+     * @param taskId 任务ID
+     * @param priority 优先级，越大越先审核
+     */
+    void updatePriority(Long taskId, Integer priority);
+
+    /**
+     * 批量审核审核人持有的任务，审核结果一条语句写入，完成的任务出队
+     * @param decisionDTO 审核人、任务和审核结果
+     * @return 完成数和未处理的任务
+     */
+    AuditDecisionResultDTO decide(AuditDecisionDTO decisionDTO);
+}
@@ -0,0 +1,44 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.CourseTeacherDTO;
+
+import java.util.List;
+
+/**
+ * 内容版本服务
+ * 通过轻量的版本查询（最后修改时间、记录数）生成弱ETag，
+ * 控制器在加载完整数据之前用它处理条件请求
+ */
+public interface ContentVersionService {
+
+    /**
+     * 课程基本信息的ETag，课程不存在时返回null
+     */
+    String courseETag(Long courseId);
+
+    /**
+     * 课程计划树的ETag（包含媒资绑定）
+     */
+    String teachplanTreeETag(Long courseId);
+
+    /**
+     * 课程教师列表的ETag
+     */
+    String courseTeachersETag(Long courseId);
+
+    /**
+     * 课程预览的ETag，覆盖课程、课程计划和教师，课程不存在时返回null
+     */
+    String coursePreviewETag(Long courseId);
+
+    /**
+     * 机构教师列表的ETag，由返回的列表本身生成：
+     * 列表来自课程缓存，缓存中的数据与数据库版本可能短暂不一致，ETag必须与响应体对应
+     */
+    String organizationTeachersETag(Long organizationId, List<CourseTeacherDTO> teachers);
+
+    /**
+     * 教师详情的ETag，教师不存在时返回null
+     */
+    String teacherETag(Long organizationId, Long teacherId);
+}
@@ -5,7 +5,9 @@ import com.double2and9.base.model.PageParams;
 import com.double2and9.base.model.PageResult;
 import com.double2and9.content_service.dto.*;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -36,6 +38,15 @@ public interface CourseBaseService {
      */
     void publishCourse(Long courseId);
 
+    /**
+     * 定时发布课程，到时按发布条件检查，不满足时定时任务记为失败
+     *
+     * @param courseId  课程ID
+     * @param publishAt 发布时间，必须晚于当前时间
+     * @return 定时任务
+     */
+    CourseScheduleDTO publishCourse(Long courseId, Date publishAt);
+
     PageResult<CourseBaseDTO> queryCourseList(PageParams params, QueryCourseParamsDTO queryParams);
 
     List<CourseCategoryTreeDTO> queryCourseCategoryTree();
@@ -87,15 +98,42 @@ public interface CourseBaseService {
      */
     void offlineCourse(Long courseId);
 
+    /**
+     * 定时下架课程
+     *
+     * @param courseId  课程ID
+     * @param offlineAt 下架时间，必须晚于当前时间
+     * @return 定时任务
+     */
+    CourseScheduleDTO offlineCourse(Long courseId, Date offlineAt);
+
+    /**
+     * 在一个事务中发布同一机构的一批课程，不满足条件的课程跳过
+     *
+     * @param organizationId 机构ID
+     * @param courseIds      课程ID
+     * @return 失败的课程及原因
+     */
+    List<CourseBulkErrorDTO> publishCourses(Long organizationId, List<Long> courseIds);
+
+    /**
+     * 在一个事务中下架同一机构的一批课程，不满足条件的课程跳过
+     *
+     * @param organizationId 机构ID
+     * @param courseIds      课程ID
+     * @return 失败的课程及原因
+     */
+    List<CourseBulkErrorDTO> offlineCourses(Long organizationId, List<Long> courseIds);
+
     /**
      * 更新课程封面
      * 
      * @param courseId 课程ID
      * @param file     封面图片文件
-     * @throws ContentException 如果课程不存在或上传失败
+     * @return 上传并保存完成后结束；上传失败时以 ContentException 异常结束
+     * @throws ContentException 如果课程不存在
      */
-    @Transactional
-    void updateCourseLogo(Long courseId, MultipartFile file);
+    CompletableFuture<Void> updateCourseLogo(Long courseId, MultipartFile file);
 
     /**
      * 删除课程封面
@@ -0,0 +1,46 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.CourseBulkJobDTO;
+import com.double2and9.content_service.dto.CourseBulkJobRequestDTO;
+
+public interface CourseBulkJobService {
+    /**
+     * 提交批量发布/下架任务，立即返回，由后台执行器按块处理
+     * @param request 机构、操作和课程ID
+     * @return 排队中的任务
+     * @throws com.double2and9.content_service.common.exception.ContentException 执行器已满时
+     */
+    CourseBulkJobDTO submit(CourseBulkJobRequestDTO request);
+
+    /**
+     * 查询任务进度和失败的课程
+     * @param jobId 任务ID
+     * @return 任务
+     */
+    CourseBulkJobDTO getJob(Long jobId);
+
+    /**
+     * 取消任务：排队中的任务不再执行，执行中的任务在当前块提交后停止，已提交的块不回滚
+     * @param jobId 任务ID
+     * @return 任务
+     */
+    CourseBulkJobDTO cancel(Long jobId);
+
+    /**
+     * 刷新本节点排队中任务的心跳
+     * @return 刷新的任务数
+     */
+    int heartbeatQueuedJobs();
+
+    /**
+     * 把执行节点已失联的任务标记为FAILED：执行中的任务按进度更新时间，排队中的任务按心跳时间
+     * @return 标记的任务数
+     */
+    int failStaleJobs();
+
+    /**
+     * 清理过期的已结束任务
+     * @return 清理的任务数
+     */
+    int purgeFinishedJobs();
+}
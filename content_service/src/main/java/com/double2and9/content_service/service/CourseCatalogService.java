@@ -0,0 +1,28 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.CourseCatalogPageDTO;
+import com.double2and9.content_service.dto.CourseCatalogQueryDTO;
+import com.double2and9.content_service.entity.CourseBase;
+
+import java.util.Collection;
+
+public interface CourseCatalogService {
+    /**
+     * 在课程的事务中同步课程目录：已发布的课程写入或更新，其他状态的课程移出目录
+     * @param courseBase 课程，营销信息和发布信息已加载或可延迟加载
+     */
+    void sync(CourseBase courseBase);
+
+    /**
+     * 在课程的事务中把课程移出目录，用于批量改为未发布的场景
+     * @param courseIds 课程ID
+     */
+    void remove(Collection<Long> courseIds);
+
+    /**
+     * 按分类、收费规则和价格浏览已发布的课程，按发布时间倒序的游标分页
+     * @param query 查询条件
+     * @return 一页课程
+     */
+    CourseCatalogPageDTO browse(CourseCatalogQueryDTO query);
+}
@@ -0,0 +1,46 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.CourseDashboardDTO;
+
+import java.util.Map;
+
+public interface CourseCounterService {
+    /**
+     * 在当前事务中增减机构某个状态的课程数
+     * @param counterType 计数类型，见 CourseStatusCounter.COURSE / AUDIT
+     * @param organizationId 机构ID
+     * @param status 状态码
+     * @param delta 增量，减少时为负数
+     */
+    void increment(String counterType, Long organizationId, String status, long delta);
+
+    /**
+     * 在当前事务中把一门课程从一个状态计到另一个状态，状态相同时不变
+     * @param counterType 计数类型
+     * @param organizationId 机构ID
+     * @param from 原状态
+     * @param to 新状态
+     */
+    void transfer(String counterType, Long organizationId, String from, String to);
+
+    /**
+     * 机构课程数
+     * @param organizationId 机构ID
+     * @param status 课程状态，为空时统计全部课程
+     * @return 课程数
+     */
+    long countCourses(Long organizationId, String status);
+
+    /**
+     * 机构课程看板
+     * @param organizationId 机构ID
+     * @return 各课程状态、审核状态的课程数
+     */
+    CourseDashboardDTO getDashboard(Long organizationId);
+
+    /**
+     * 全平台各审核状态的课程数
+     * @return 审核状态码 -> 数量
+     */
+    Map<String, Long> countAuditStatus();
+}
@@ -0,0 +1,32 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.CourseEventTypeEnum;
+import com.double2and9.content_service.entity.CourseBase;
+
+public interface CourseEventService {
+    /**
+     * 在当前事务中写入一条课程事件到发件箱
+     * @param courseBase 发生变更的课程
+     * @param eventType 事件类型
+     */
+    void record(CourseBase courseBase, CourseEventTypeEnum eventType);
+
+    /**
+     * 投递一批待发送事件
+     * @return 本次成功投递的事件数量
+     */
+    int relayPendingEvents();
+
+    /**
+     * 停放的事件重新投递：清除停放标志和失败次数，同一课程之后的事件随之按顺序投递
+     * @param courseId 课程ID，为空时处理所有停放的事件
+     * @return 重新投递的事件数量
+     */
+    int requeueParked(Long courseId);
+
+    /**
+     * 清理超过保留期的已投递事件
+     * @return 清理数量
+     */
+    int purgePublishedEvents();
+}
@@ -0,0 +1,40 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.CoursePopularityDTO;
+import com.double2and9.content_service.dto.CourseTrendingDTO;
+
+import java.util.List;
+
+public interface CoursePopularityService {
+    /**
+     * 记录一次浏览，只在内存中累加，不访问数据库
+     * @param courseId 课程ID，未发布的课程在写入时忽略
+     */
+    void recordView(Long courseId);
+
+    /**
+     * 记录一次报名，只在内存中累加，不访问数据库
+     * @param courseId 课程ID，未发布的课程在写入时忽略
+     */
+    void recordEnrollment(Long courseId);
+
+    /**
+     * 把本节点累加的增量按课程合并后分批写入，写入失败的增量留到下次
+     * @return 写入的课程数
+     */
+    int flush();
+
+    /**
+     * 本节点统计的热门课程，只包含仍在目录中的课程
+     * @param size 条数
+     * @return 按热度从高到低
+     */
+    List<CourseTrendingDTO> trending(Integer size);
+
+    /**
+     * 课程的累计浏览数和报名数
+     * @param courseId 课程ID
+     * @return 课程热度
+     */
+    CoursePopularityDTO getPopularity(Long courseId);
+}
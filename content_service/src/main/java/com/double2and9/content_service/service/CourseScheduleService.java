@@ -0,0 +1,69 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.CourseBulkErrorDTO;
+import com.double2and9.content_service.dto.CourseScheduleDTO;
+import com.double2and9.content_service.entity.CourseSchedule;
+
+import java.util.Date;
+import java.util.List;
+
+public interface CourseScheduleService {
+    /**
+     * 设置课程在指定时间发布或下架；同一课程同一操作已有定时任务时改为新的时间
+     * @param organizationId 机构ID
+     * @param courseId 课程ID
+     * @param operation PUBLISH / OFFLINE
+     * @param fireTime 执行时间
+     * @return 待执行的定时任务
+     */
+    CourseScheduleDTO schedule(Long organizationId, Long courseId, String operation, Date fireTime);
+
+    /**
+     * 查看机构最近的定时任务，按执行时间倒序
+     * @param organizationId 机构ID
+     * @return 定时任务
+     */
+    List<CourseScheduleDTO> listSchedules(Long organizationId);
+
+    /**
+     * 取消待执行的定时任务
+     * @param scheduleId 定时任务ID
+     * @return 定时任务
+     */
+    CourseScheduleDTO cancel(Long scheduleId);
+
+    /**
+     * 领取即将到期、没有租约或租约已到期的定时任务，供定时执行组件放入时间轮
+     * @param nodeId 节点标识
+     * @return 领取到的定时任务
+     */
+    List<CourseSchedule> claimDue(String nodeId);
+
+    /**
+     * 执行前把本节点领取的定时任务改为FIRING；领取后被重新设置、取消或租约已到期的不返回
+     * @param claimToken 领取批次标识
+     * @param scheduleIds 定时任务ID
+     * @return 可以执行的定时任务，claimToken 为本次执行的标识
+     */
+    List<CourseSchedule> startFiring(String claimToken, List<Long> scheduleIds);
+
+    /**
+     * 记录执行结果：失败的课程标记为FAILED，其余标记为DONE
+     * @param fired 本次执行的定时任务
+     * @param errors 失败的课程及原因
+     */
+    void finish(List<CourseSchedule> fired, List<CourseBulkErrorDTO> errors);
+
+    /**
+     * 归还节点领取后尚未执行的定时任务
+     * @param nodeId 节点标识
+     * @return 归还的定时任务数
+     */
+    int release(String nodeId);
+
+    /**
+     * 把执行节点已失联的定时任务标记为FAILED
+     * @return 标记的定时任务数
+     */
+    int failStale();
+}
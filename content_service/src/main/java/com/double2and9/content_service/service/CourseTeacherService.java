@@ -1,7 +1,9 @@
 package com.double2and9.content_service.service;
 
 import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CourseTeacherBatchDTO;
 import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.dto.CourseTeacherSyncResultDTO;
 import com.double2and9.content_service.dto.SaveCourseTeacherDTO;
 
 import java.util.List;
@@ -42,6 +44,13 @@ public interface CourseTeacherService {
      */
     void saveCourseTeacher(SaveCourseTeacherDTO teacherDTO);
 
+    /**
+     * 批量新建或更新机构教师，课程关联只增删有变化的部分
+     * @param batchDTO 教师列表
+     * @return 各教师ID及变更统计
+     */
+    CourseTeacherSyncResultDTO syncTeachers(CourseTeacherBatchDTO batchDTO);
+
     /**
      * 解除教师与课程的关联
      * @param courseId 课程ID
@@ -0,0 +1,23 @@
+package com.double2and9.content_service.service;
+
+public interface MediaCleanupService {
+    /**
+     * 在当前事务中登记一个媒资删除任务
+     * @param courseId 来源课程ID
+     * @param organizationId 来源课程所属机构
+     * @param url 文件访问地址
+     */
+    void enqueue(Long courseId, Long organizationId, String url);
+
+    /**
+     * 批量处理到期的删除任务
+     * @return 本次处理的任务数量
+     */
+    int processDueTasks();
+
+    /**
+     * 清理已完成的历史任务
+     * @return 清理数量
+     */
+    int purgeDoneTasks();
+}
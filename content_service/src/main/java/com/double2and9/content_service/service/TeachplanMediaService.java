@@ -1,5 +1,6 @@
 package com.double2and9.content_service.service;
 
+import com.double2and9.content_service.dto.TeachplanMediaBatchDTO;
 import com.double2and9.content_service.dto.TeachplanMediaDTO;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,4 +28,25 @@ public interface TeachplanMediaService {
      * @return 媒资列表
      */
     List<TeachplanMediaDTO> getMediaByTeachplanId(Long teachplanId);
-} 
\ No newline at end of file
+
+    /**
+     * 获取课程下所有课程计划关联的媒资列表
+     * @param courseId 课程ID
+     * @return 媒资列表，按课程计划排序
+     */
+    List<TeachplanMediaDTO> getMediaByCourseId(Long courseId);
+
+    /**
+     * 批量绑定课程计划与媒资，已存在的绑定跳过
+     * @param batchDTO 课程计划与媒资的配对
+     * @return 新建的绑定数
+     */
+    int associateMediaBatch(TeachplanMediaBatchDTO batchDTO);
+
+    /**
+     * 批量解除课程计划与媒资的绑定，不存在的绑定跳过
+     * @param batchDTO 课程计划与媒资的配对
+     * @return 解除的绑定数
+     */
+    int dissociateMediaBatch(TeachplanMediaBatchDTO batchDTO);
+}
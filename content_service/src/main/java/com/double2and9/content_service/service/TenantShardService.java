@@ -0,0 +1,45 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.dto.TenantShardDTO;
+
+/**
+ * 机构分片管理：查询位置、为新机构指定分片、在线迁移机构
+ */
+public interface TenantShardService {
+
+    /**
+     * 查询机构所在分片及各表记录数
+     * @param organizationId 机构ID
+     * @return 分片位置
+     */
+    TenantShardDTO getPlacement(Long organizationId);
+
+    /**
+     * 为还没有数据的机构指定分片
+     * @param organizationId 机构ID
+     * @param shard 分片名称
+     * @return 分片位置
+     */
+    TenantShardDTO assign(Long organizationId, String shard);
+
+    /**
+     * 把机构的课程数据迁移到另一个分片
+     * 标记迁移后立即返回，复制、核对、切换在后台执行；迁移期间机构数据只读，完成后切换到目标分片并删除原分片上的数据
+     * @param organizationId 机构ID
+     * @param targetShard 目标分片
+     * @return 开始迁移时的位置，状态为MOVING；之后通过 {@link #getPlacement} 查看结果
+     */
+    TenantShardDTO move(Long organizationId, String targetShard);
+
+    /**
+     * 回滚执行节点失联的迁移：超过租约没有续约的机构恢复到原分片并清理目标分片
+     * @return 回滚的机构数
+     */
+    int recoverStaleMoves();
+
+    /**
+     * 把课程分类等参考数据从默认分片复制到其余分片
+     * @return 复制成功的分片数
+     */
+    int syncReferenceData();
+}
@@ -0,0 +1,423 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.base.enums.CourseEventTypeEnum;
+import com.double2and9.content_service.cache.CourseCache;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.config.AuditQueueProperties;
+import com.double2and9.content_service.dto.AuditClaimDTO;
+import com.double2and9.content_service.dto.AuditDecisionDTO;
+import com.double2and9.content_service.dto.AuditDecisionResultDTO;
+import com.double2and9.content_service.dto.AuditQueuePageDTO;
+import com.double2and9.content_service.dto.AuditReleaseDTO;
+import com.double2and9.content_service.dto.AuditTaskDTO;
+import com.double2and9.content_service.entity.AuditTask;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseStatusCounter;
+import com.double2and9.content_service.entity.MediaFile;
+import com.double2and9.content_service.repository.AuditTaskRepository;
+import com.double2and9.content_service.repository.CourseAuditRow;
+import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.CoursePublishPreRepository;
+import com.double2and9.content_service.repository.MediaFileRepository;
+import com.double2and9.content_service.service.AuditQueueService;
+import com.double2and9.content_service.service.CourseCounterService;
+import com.double2and9.content_service.service.CourseCatalogService;
+import com.double2and9.content_service.service.CourseEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 审核队列
+ * 待审核的课程和媒资各一行任务，按 (优先级, 提交时间, ID) 游标分页，不再一次取出全部待审核记录。
+ * 领取是一条条件UPDATE：只更新未领取或租约已到期的任务，并写入本次领取的标识，再按标识查出领取到的任务；
+ * 并发领取同一任务时只有一个审核人的UPDATE命中，落空的审核人再取下一批，不依赖 SKIP LOCKED。
+ * 批量审核时审核结果、课程状态各一条UPDATE写入，计数按键排序后逐行调整。
+ * 启用分库时任务与课程存放在同一分片，不指定机构时逐个分片查出任务，再按机构分组、以机构身份各一个事务写入，
+ * 与其他写入一样经过迁移检查；迁移中的机构的任务本次跳过。
+ */
+@Slf4j
+@Service
+public class AuditQueueServiceImpl implements AuditQueueService {
+
+    private static final String ORDER_PRIORITY = "PRIORITY";
+    private static final String COURSE_APPROVED = "202303";
+    private static final String COURSE_REJECTED = "202304";
+    private static final String COURSE_DRAFT = "202001";
+    private static final String COURSE_PUBLISHED = "202002";
+    private static final int CLAIM_ROUNDS = 3;
+
+    private static final Comparator<AuditTask> BY_SUBMIT_TIME = Comparator
+            .comparing((AuditTask task) -> task.getSubmitTime().toInstant())
+            .thenComparing(AuditTask::getId);
+    private static final Comparator<AuditTask> BY_PRIORITY = Comparator
+            .comparing(AuditTask::getPriority, Comparator.reverseOrder())
+            .thenComparing(BY_SUBMIT_TIME);
+
+    /**
+     * 计数行的键，批量调整时按此顺序加锁，与单门课程审核的加锁顺序一致
+     */
+    private record CounterKey(Long organizationId, String counterType, String status)
+            implements Comparable<CounterKey> {
+
+        private static final Comparator<CounterKey> ORDER = Comparator.comparing(CounterKey::organizationId)
+                .thenComparing(CounterKey::counterType)
+                .thenComparing(CounterKey::status);
+
+        CounterKey {
+            status = status == null ? "" : status;
+        }
+
+        @Override
+        public int compareTo(CounterKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * 游标：上一页最后一个任务的排序键
+     */
+    private record Cursor(int priority, Date submitTime, long id) {
+
+        static final Cursor FIRST = new Cursor(Integer.MAX_VALUE, new Date(0), 0);
+
+        static Cursor of(AuditTask task) {
+            return new Cursor(task.getPriority(), task.getSubmitTime(), task.getId());
+        }
+
+        String encode() {
+            String raw = priority + "," + submitTime.toInstant() + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            if (!StringUtils.hasText(cursor)) {
+                return FIRST;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                return new Cursor(Integer.parseInt(parts[0]), Timestamp.from(Instant.parse(parts[1])),
+                        Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new ContentException(ContentErrorCode.AUDIT_CURSOR_INVALID);
+            }
+        }
+    }
+
+    private final AuditTaskRepository auditTaskRepository;
+    private final CoursePublishPreRepository coursePublishPreRepository;
+    private final CourseBaseRepository courseBaseRepository;
+    private final MediaFileRepository mediaFileRepository;
+    private final CourseCounterService courseCounterService;
+    private final CourseEventService courseEventService;
+    private final CourseCatalogService courseCatalogService;
+    private final CourseCache courseCache;
+    private final AuditQueueProperties properties;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public AuditQueueServiceImpl(AuditTaskRepository auditTaskRepository,
+                                 CoursePublishPreRepository coursePublishPreRepository,
+                                 CourseBaseRepository courseBaseRepository,
+                                 MediaFileRepository mediaFileRepository,
+                                 CourseCounterService courseCounterService,
+                                 CourseEventService courseEventService,
+                                 CourseCatalogService courseCatalogService,
+                                 CourseCache courseCache,
+                                 AuditQueueProperties properties,
+                                 ObjectProvider<ShardRegistry> shardRegistry,
+                                 PlatformTransactionManager transactionManager) {
+        this.auditTaskRepository = auditTaskRepository;
+        this.coursePublishPreRepository = coursePublishPreRepository;
+        this.courseBaseRepository = courseBaseRepository;
+        this.mediaFileRepository = mediaFileRepository;
+        this.courseCounterService = courseCounterService;
+        this.courseEventService = courseEventService;
+        this.courseCatalogService = courseCatalogService;
+        this.courseCache = courseCache;
+        this.properties = properties;
+        this.shardRegistry = shardRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCourse(CourseBase courseBase) {
+        auditTaskRepository.upsert(AuditTask.COURSE, String.valueOf(courseBase.getId()),
+                courseBase.getOrganizationId(), courseBase.getName(), new Date());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueMedia(MediaFile mediaFile) {
+        auditTaskRepository.upsert(AuditTask.MEDIA, mediaFile.getMediaFileId(),
+                mediaFile.getOrganizationId(), mediaFile.getFileName(), new Date());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String targetType, String targetId) {
+        auditTaskRepository.deleteByTarget(targetType, targetId);
+    }
+
+    @Override
+    public AuditQueuePageDTO list(String targetType, Long organizationId, String order, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        Cursor after = Cursor.decode(cursor);
+        boolean byPriority = ORDER_PRIORITY.equals(order);
+        // 多一条判断是否还有下一页；逐个分片各取一页后归并
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<AuditTask> tasks = new ArrayList<>();
+        onShards(organizationId, () -> tasks.addAll(byPriority
+                ? auditTaskRepository.findPageByPriority(targetType, organizationId, after.priority(),
+                        after.submitTime(), after.id(), page)
+                : auditTaskRepository.findPageBySubmitTime(targetType, organizationId, after.submitTime(),
+                        after.id(), page)));
+        tasks.sort(byPriority ? BY_PRIORITY : BY_SUBMIT_TIME);
+
+        AuditQueuePageDTO result = new AuditQueuePageDTO();
+        List<AuditTask> items = tasks.subList(0, Math.min(pageSize, tasks.size()));
+        result.setItems(items.stream().map(AuditQueueServiceImpl::toDTO).collect(Collectors.toList()));
+        if (tasks.size() > pageSize) {
+            result.setNextCursor(Cursor.of(items.get(items.size() - 1)).encode());
+        }
+        return result;
+    }
+
+    @Override
+    public List<AuditTaskDTO> claim(AuditClaimDTO claimDTO) {
+        int size = Math.min(claimDTO.getSize(), properties.getMaxClaimSize());
+        boolean byPriority = ORDER_PRIORITY.equals(claimDTO.getOrder());
+        String claimToken = UUID.randomUUID().toString();
+        Date now = new Date();
+        Date leaseUntil = new Date(now.getTime() + properties.getLeaseSeconds() * 1000);
+        // 取一批可领取的任务，条件更新；被别人抢先的部分再取下一批补上
+        int remaining = size;
+        for (int round = 0; round < CLAIM_ROUNDS && remaining > 0; round++) {
+            List<AuditTask> available = findAvailable(claimDTO, byPriority, now, remaining);
+            if (available.isEmpty()) {
+                break;
+            }
+            int updated = forEachOrganization(available, ids ->
+                    auditTaskRepository.claim(ids, claimDTO.getReviewer(), claimToken, leaseUntil, now));
+            remaining -= updated;
+            if (updated == available.size()) {
+                break;
+            }
+        }
+        List<AuditTask> claimed = new ArrayList<>();
+        onShards(claimDTO.getOrganizationId(), () -> claimed.addAll(auditTaskRepository.findByClaimToken(claimToken)));
+        claimed.sort(byPriority ? BY_PRIORITY : BY_SUBMIT_TIME);
+        log.info("领取审核任务，审核人：{}，类型：{}，请求：{}，领取：{}",
+                claimDTO.getReviewer(), claimDTO.getTargetType(), claimDTO.getSize(), claimed.size());
+        return claimed.stream().map(AuditQueueServiceImpl::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * 可领取的任务，逐个分片各取 size 个后归并，取排在前面的 size 个
+     */
+    private List<AuditTask> findAvailable(AuditClaimDTO claimDTO, boolean byPriority, Date now, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        List<AuditTask> available = new ArrayList<>();
+        onShards(claimDTO.getOrganizationId(), () -> available.addAll(byPriority
+                ? auditTaskRepository.findAvailableByPriority(claimDTO.getTargetType(),
+                        claimDTO.getOrganizationId(), now, page)
+                : auditTaskRepository.findAvailableBySubmitTime(claimDTO.getTargetType(),
+                        claimDTO.getOrganizationId(), now, page)));
+        available.sort(byPriority ? BY_PRIORITY : BY_SUBMIT_TIME);
+        return available.subList(0, Math.min(size, available.size()));
+    }
+
+    @Override
+    public int release(AuditReleaseDTO releaseDTO) {
+        List<AuditTask> claimed = new ArrayList<>();
+        onShards(null, () -> claimed.addAll(
+                auditTaskRepository.findClaimedBy(releaseDTO.getTaskIds(), releaseDTO.getReviewer())));
+        int released = forEachOrganization(claimed, ids -> auditTaskRepository.release(ids, releaseDTO.getReviewer()));
+        log.info("归还审核任务，审核人：{}，归还：{}", releaseDTO.getReviewer(), released);
+        return released;
+    }
+
+    @Override
+    @Transactional
+    public void updatePriority(Long taskId, Integer priority) {
+        if (auditTaskRepository.updatePriority(taskId, priority) == 0) {
+            throw new ContentException(ContentErrorCode.AUDIT_TASK_NOT_EXISTS);
+        }
+    }
+
+    @Override
+    public AuditDecisionResultDTO decide(AuditDecisionDTO decisionDTO) {
+        boolean course = AuditTask.COURSE.equals(decisionDTO.getTargetType());
+        if (course && !COURSE_APPROVED.equals(decisionDTO.getAuditStatus())
+                && !COURSE_REJECTED.equals(decisionDTO.getAuditStatus())) {
+            throw new ContentException(ContentErrorCode.COURSE_AUDIT_STATUS_ERROR);
+        }
+        Date now = new Date();
+        List<AuditTask> held = new ArrayList<>();
+        onShards(null, () -> held.addAll(auditTaskRepository.findHeld(decisionDTO.getTaskIds(),
+                decisionDTO.getTargetType(), decisionDTO.getReviewer(), now)));
+        Set<Long> decided = new HashSet<>();
+        forEachOrganization(held, taskIds -> {
+            Set<Long> decidedTasks = decideTasks(decisionDTO, taskIds, course);
+            decided.addAll(decidedTasks);
+            return decidedTasks.size();
+        });
+
+        AuditDecisionResultDTO result = new AuditDecisionResultDTO();
+        result.setDecided(decided.size());
+        result.setSkippedTaskIds(decisionDTO.getTaskIds().stream()
+                .filter(id -> !decided.contains(id))
+                .distinct()
+                .collect(Collectors.toList()));
+        log.info("批量审核完成，审核人：{}，类型：{}，审核状态：{}，完成：{}，跳过：{}", decisionDTO.getReviewer(),
+                decisionDTO.getTargetType(), decisionDTO.getAuditStatus(), result.getDecided(),
+                result.getSkippedTaskIds().size());
+        return result;
+    }
+
+    /**
+     * 审核一个机构的任务，返回完成的任务ID；事务内重新检查持有，目标已不存在的任务直接出队，不计入完成
+     */
+    private Set<Long> decideTasks(AuditDecisionDTO decisionDTO, List<Long> taskIds, boolean course) {
+        Date now = new Date();
+        List<AuditTask> held = auditTaskRepository.findHeld(taskIds, decisionDTO.getTargetType(),
+                decisionDTO.getReviewer(), now);
+        if (held.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> decidedTargets = course
+                ? decideCourses(held, decisionDTO, now)
+                : decideMedia(held, decisionDTO, now);
+        auditTaskRepository.deleteByIds(held.stream().map(AuditTask::getId).collect(Collectors.toList()));
+        return held.stream()
+                .filter(task -> decidedTargets.contains(task.getTargetId()))
+                .map(AuditTask::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> decideCourses(List<AuditTask> held, AuditDecisionDTO decisionDTO, Date now) {
+        List<Long> courseIds = held.stream().map(task -> Long.valueOf(task.getTargetId())).collect(Collectors.toList());
+        List<CourseAuditRow> rows = coursePublishPreRepository.findAuditRowsByIdIn(courseIds);
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = rows.stream().map(CourseAuditRow::getId).collect(Collectors.toList());
+        coursePublishPreRepository.updateAuditStatusByIds(ids, decisionDTO.getAuditStatus(),
+                decisionDTO.getAuditMessage(), now);
+        // 与单门课程审核一致：通过或不通过课程都回到未发布，等待机构主动发布
+        courseBaseRepository.updateStatusByIds(ids, COURSE_DRAFT, now);
+        courseCatalogService.remove(rows.stream()
+                .filter(row -> COURSE_PUBLISHED.equals(row.getStatus()))
+                .map(CourseAuditRow::getId)
+                .collect(Collectors.toList()));
+        courseCache.evict(ids);
+
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        for (CourseAuditRow row : rows) {
+            deltas.merge(new CounterKey(row.getOrganizationId(), CourseStatusCounter.COURSE, row.getStatus()), -1L, Long::sum);
+            deltas.merge(new CounterKey(row.getOrganizationId(), CourseStatusCounter.COURSE, COURSE_DRAFT), 1L, Long::sum);
+            deltas.merge(new CounterKey(row.getOrganizationId(), CourseStatusCounter.AUDIT, row.getAuditStatus()), -1L, Long::sum);
+            deltas.merge(new CounterKey(row.getOrganizationId(), CourseStatusCounter.AUDIT, decisionDTO.getAuditStatus()), 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) ->
+                courseCounterService.increment(key.counterType(), key.organizationId(), key.status(), delta));
+
+        courseBaseRepository.findWithDetailsByIdIn(ids)
+                .forEach(courseBase -> courseEventService.record(courseBase, CourseEventTypeEnum.AUDITED));
+        return ids.stream().map(String::valueOf).collect(Collectors.toSet());
+    }
+
+    private Set<String> decideMedia(List<AuditTask> held, AuditDecisionDTO decisionDTO, Date now) {
+        Set<String> mediaFileIds = mediaFileRepository.findAllById(
+                        held.stream().map(AuditTask::getTargetId).collect(Collectors.toList())).stream()
+                .map(MediaFile::getMediaFileId)
+                .collect(Collectors.toSet());
+        if (!mediaFileIds.isEmpty()) {
+            mediaFileRepository.updateAuditStatusByIds(mediaFileIds, decisionDTO.getAuditStatus(),
+                    decisionDTO.getAuditMessage(), now);
+        }
+        return mediaFileIds;
+    }
+
+    /**
+     * 读取：指定机构时以该机构身份执行一次，未启用分库时执行一次，否则逐个分片执行
+     */
+    private void onShards(Long organizationId, Runnable action) {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            action.run();
+        } else if (organizationId != null) {
+            TenantContext.callAs(organizationId, () -> {
+                action.run();
+                return null;
+            });
+        } else {
+            registry.dataSources().keySet().forEach(shard -> TenantContext.runOnShard(shard, action));
+        }
+    }
+
+    /**
+     * 写入：按机构分组，以机构身份各在一个事务中执行，返回各次结果之和。
+     * 不在 {@link TenantContext#runOnShard} 中写入：指定分片时不检查机构是否迁移中，
+     * 复制之后写到原分片的审核结果会在切换分片时丢失。迁移中的机构拒绝写入，其任务保持原状，本次跳过
+     */
+    private int forEachOrganization(List<AuditTask> tasks, ToIntFunction<List<Long>> action) {
+        Map<Long, List<Long>> byOrganization = tasks.stream().collect(Collectors.groupingBy(
+                AuditTask::getOrganizationId, TreeMap::new,
+                Collectors.mapping(AuditTask::getId, Collectors.toList())));
+        int total = 0;
+        for (Map.Entry<Long, List<Long>> entry : byOrganization.entrySet()) {
+            try {
+                total += TenantContext.callAs(entry.getKey(), () ->
+                        transactionTemplate.execute(status -> action.applyAsInt(entry.getValue())));
+            } catch (ContentException e) {
+                if (e.getErrorCode() != ContentErrorCode.TENANT_MOVING) {
+                    throw e;
+                }
+                log.warn("机构数据迁移中，跳过该机构的审核任务，机构ID：{}，任务数：{}",
+                        entry.getKey(), entry.getValue().size());
+            }
+        }
+        return total;
+    }
+
+    private static AuditTaskDTO toDTO(AuditTask task) {
+        AuditTaskDTO dto = new AuditTaskDTO();
+        dto.setId(task.getId());
+        dto.setTargetType(task.getTargetType());
+        dto.setTargetId(task.getTargetId());
+        dto.setOrganizationId(task.getOrganizationId());
+        dto.setName(task.getName());
+        dto.setPriority(task.getPriority());
+        dto.setSubmitTime(task.getSubmitTime());
+        dto.setClaimedBy(task.getClaimedBy());
+        dto.setLeaseUntil(task.getLeaseUntil());
+        return dto;
+    }
+}
@@ -0,0 +1,106 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.content_service.cache.CourseCacheCodec;
+import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.repository.*;
+import com.double2and9.content_service.service.ContentVersionService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * 内容版本服务实现
+ * ETag = W/"摘要(资源类型 + 各部分的最后修改时间和记录数)"，
+ * 版本查询只读取聚合值，不加载实体；机构教师列表例外，由返回的列表编码后生成
+ */
+@Service
+@Transactional(readOnly = true)
+public class ContentVersionServiceImpl implements ContentVersionService {
+
+    private final CourseBaseRepository courseBaseRepository;
+    private final TeachplanRepository teachplanRepository;
+    private final TeachplanMediaRepository teachplanMediaRepository;
+    private final CourseTeacherRepository courseTeacherRepository;
+
+    public ContentVersionServiceImpl(CourseBaseRepository courseBaseRepository,
+                                     TeachplanRepository teachplanRepository,
+                                     TeachplanMediaRepository teachplanMediaRepository,
+                                     CourseTeacherRepository courseTeacherRepository) {
+        this.courseBaseRepository = courseBaseRepository;
+        this.teachplanRepository = teachplanRepository;
+        this.teachplanMediaRepository = teachplanMediaRepository;
+        this.courseTeacherRepository = courseTeacherRepository;
+    }
+
+    @Override
+    public String courseETag(Long courseId) {
+        return courseBaseRepository.findUpdateTimeById(courseId)
+                .map(updateTime -> weakETag("course", courseId, millis(updateTime)))
+                .orElse(null);
+    }
+
+    @Override
+    public String teachplanTreeETag(Long courseId) {
+        return weakETag("teachplan", courseId,
+                version(teachplanRepository.findVersionByCourseId(courseId)),
+                version(teachplanMediaRepository.findVersionByCourseId(courseId)));
+    }
+
+    @Override
+    public String courseTeachersETag(Long courseId) {
+        return weakETag("course-teachers", courseId,
+                version(courseTeacherRepository.findVersionByCourseId(courseId)));
+    }
+
+    @Override
+    public String coursePreviewETag(Long courseId) {
+        return courseBaseRepository.findPreviewVersionById(courseId)
+                .map(preview -> weakETag("preview", courseId, millis(preview.getCourseUpdateTime()),
+                        millis(preview.getMarketUpdateTime()), millis(preview.getPublishPreUpdateTime()),
+                        version(teachplanRepository.findVersionByCourseId(courseId)),
+                        version(teachplanMediaRepository.findVersionByCourseId(courseId)),
+                        version(courseTeacherRepository.findVersionByCourseId(courseId))))
+                .orElse(null);
+    }
+
+    @Override
+    public String organizationTeachersETag(Long organizationId, List<CourseTeacherDTO> teachers) {
+        return weakETag("org-teachers", organizationId,
+                DigestUtils.md5DigestAsHex(CourseCacheCodec.encodeTeachers(teachers)));
+    }
+
+    @Override
+    public String teacherETag(Long organizationId, Long teacherId) {
+        ResourceVersion version = courseTeacherRepository.findVersionById(organizationId, teacherId);
+        if (version == null || version.getTotal() == null || version.getTotal() == 0) {
+            return null;
+        }
+        return weakETag("teacher", teacherId, version(version));
+    }
+
+    private static String version(ResourceVersion version) {
+        if (version == null) {
+            return "0:0";
+        }
+        long total = version.getTotal() == null ? 0 : version.getTotal();
+        return millis(version.getLastModified()) + ":" + total;
+    }
+
+    private static String millis(Date date) {
+        return date == null ? "0" : String.valueOf(date.getTime());
+    }
+
+    private static String weakETag(String type, Long id, String... parts) {
+        StringJoiner joiner = new StringJoiner("|").add(type).add(String.valueOf(id));
+        for (String part : parts) {
+            joiner.add(part);
+        }
+        String digest = DigestUtils.md5DigestAsHex(joiner.toString().getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + digest + "\"";
+    }
+}
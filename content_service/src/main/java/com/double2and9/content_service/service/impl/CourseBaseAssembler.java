@@ -0,0 +1,86 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CourseCategoryTreeDTO;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseCategory;
+import com.double2and9.content_service.repository.CourseCategoryRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程分类树组装和课程实体转DTO
+ * 只依赖分类仓库和ModelMapper，课程服务和基准测试共用
+ */
+@Component
+public class CourseBaseAssembler {
+
+    private final CourseCategoryRepository courseCategoryRepository;
+    private final ModelMapper modelMapper;
+
+    public CourseBaseAssembler(CourseCategoryRepository courseCategoryRepository, ModelMapper modelMapper) {
+        this.courseCategoryRepository = courseCategoryRepository;
+        this.modelMapper = modelMapper;
+    }
+
+    /**
+     * 获取课程分类树
+     *
+     * @return 课程分类树形结构
+     */
+    public List<CourseCategoryTreeDTO> categoryTree() {
+        // 查询所有课程分类
+        List<CourseCategory> categories = courseCategoryRepository.findAll();
+
+        // 将课程分类转换为树形结构
+        List<CourseCategoryTreeDTO> rootNodes = new ArrayList<>();
+        Map<Long, CourseCategoryTreeDTO> nodeMap = new HashMap<>();
+
+        // 转换所有节点
+        categories.forEach(category -> {
+            CourseCategoryTreeDTO node = modelMapper.map(category, CourseCategoryTreeDTO.class);
+            nodeMap.put(node.getId(), node);
+
+            if (category.getParentId() == 0L) {
+                rootNodes.add(node);
+            } else {
+                CourseCategoryTreeDTO parentNode = nodeMap.get(category.getParentId());
+                if (parentNode != null) {
+                    if (parentNode.getChildrenTreeNodes() == null) {
+                        parentNode.setChildrenTreeNodes(new ArrayList<>());
+                    }
+                    parentNode.getChildrenTreeNodes().add(node);
+                }
+            }
+        });
+
+        return rootNodes;
+    }
+
+    /**
+     * 将CourseBase实体转换为DTO
+     *
+     * @param courseBase 课程基本信息实体
+     * @return 课程基本信息DTO
+     */
+    public CourseBaseDTO toCourseBaseDTO(CourseBase courseBase) {
+        CourseBaseDTO dto = modelMapper.map(courseBase, CourseBaseDTO.class);
+
+        // 设置课程分类名称 - 添加空值检查
+        if (courseBase.getMt() != null) {
+            courseCategoryRepository.findById(courseBase.getMt())
+                    .ifPresent(category -> dto.setMtName(category.getName()));
+        }
+        if (courseBase.getSt() != null) {
+            courseCategoryRepository.findById(courseBase.getSt())
+                    .ifPresent(category -> dto.setStName(category.getName()));
+        }
+
+        return dto;
+    }
+}
@@ -5,32 +5,49 @@ import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.base.model.PageParams;
 import com.double2and9.base.model.PageResult;
 import com.double2and9.base.enums.ContentErrorCode;
-import com.double2and9.content_service.client.MediaFeignClient;
+import com.double2and9.base.enums.CourseEventTypeEnum;
+import com.double2and9.base.log.LogRateLimiter;
+import com.double2and9.content_service.cache.CourseCache;
+import com.double2and9.content_service.client.MediaAsyncClient;
 import com.double2and9.content_service.common.exception.ContentException;
 import com.double2and9.content_service.dto.*;
 import com.double2and9.content_service.entity.*;
 import com.double2and9.content_service.repository.CourseBaseRepository;
-import com.double2and9.content_service.repository.CourseCategoryRepository;
 import com.double2and9.content_service.repository.TeachplanRepository;
 import com.double2and9.content_service.repository.CourseTeacherRepository;
 import com.double2and9.content_service.repository.MediaFileRepository;
+import com.double2and9.content_service.service.AuditQueueService;
 import com.double2and9.content_service.service.CourseBaseService;
+import com.double2and9.content_service.service.CourseCatalogService;
+import com.double2and9.content_service.service.CourseCounterService;
+import com.double2and9.content_service.service.CourseEventService;
+import com.double2and9.content_service.service.CourseScheduleService;
+import com.double2and9.content_service.service.MediaCleanupService;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.persistence.criteria.Predicate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * 课程基本信息服务实现类
@@ -40,31 +57,66 @@ import java.util.Map;
 @Service
 public class CourseBaseServiceImpl implements CourseBaseService {
 
+    private static final LogRateLimiter COURSE_LIST_LOG_LIMITER = new LogRateLimiter(Duration.ofSeconds(1));
+
     private final CourseBaseRepository courseBaseRepository;
-    private final CourseCategoryRepository courseCategoryRepository;
+    private final CourseBaseAssembler courseBaseAssembler;
     private final TeachplanRepository teachplanRepository;
     private final CourseTeacherRepository courseTeacherRepository;
     private final MediaFileRepository mediaFileRepository;
     private final ModelMapper modelMapper;
-    private final MediaFeignClient mediaFeignClient;
+    private final MediaAsyncClient mediaAsyncClient;
+    private final CourseEventService courseEventService;
+    private final MediaCleanupService mediaCleanupService;
+    private final CourseCounterService courseCounterService;
+    private final AuditQueueService auditQueueService;
+    private final CourseScheduleService courseScheduleService;
+    private final CourseCatalogService courseCatalogService;
+    private final CourseCache courseCache;
+    /**
+     * 缓存未命中时在只读事务中加载课程预览，命中时不开启事务
+     */
+    private final TransactionTemplate readOnlyTransaction;
+    /**
+     * 异步回调中保存结果使用的事务
+     */
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 构造函数注入依赖
      */
     public CourseBaseServiceImpl(CourseBaseRepository courseBaseRepository,
-            CourseCategoryRepository courseCategoryRepository,
+            CourseBaseAssembler courseBaseAssembler,
             TeachplanRepository teachplanRepository,
             CourseTeacherRepository courseTeacherRepository,
             MediaFileRepository mediaFileRepository,
             ModelMapper modelMapper,
-            MediaFeignClient mediaFeignClient) {
+            MediaAsyncClient mediaAsyncClient,
+            CourseEventService courseEventService,
+            MediaCleanupService mediaCleanupService,
+            CourseCounterService courseCounterService,
+            AuditQueueService auditQueueService,
+            CourseScheduleService courseScheduleService,
+            CourseCatalogService courseCatalogService,
+            CourseCache courseCache,
+            PlatformTransactionManager transactionManager) {
         this.courseBaseRepository = courseBaseRepository;
-        this.courseCategoryRepository = courseCategoryRepository;
+        this.courseBaseAssembler = courseBaseAssembler;
         this.teachplanRepository = teachplanRepository;
         this.courseTeacherRepository = courseTeacherRepository;
         this.mediaFileRepository = mediaFileRepository;
         this.modelMapper = modelMapper;
-        this.mediaFeignClient = mediaFeignClient;
+        this.mediaAsyncClient = mediaAsyncClient;
+        this.courseEventService = courseEventService;
+        this.mediaCleanupService = mediaCleanupService;
+        this.courseCounterService = courseCounterService;
+        this.auditQueueService = auditQueueService;
+        this.courseScheduleService = courseScheduleService;
+        this.courseCatalogService = courseCatalogService;
+        this.courseCache = courseCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -76,28 +128,38 @@ public class CourseBaseServiceImpl implements CourseBaseService {
      */
     @Override
     public PageResult<CourseBaseDTO> queryCourseList(PageParams params, QueryCourseParamsDTO queryParams) {
-        log.info("分页查询课程列表，参数：params={}, queryParams={}", params, queryParams);
-
         // 使用查询参数中的机构ID
         Long organizationId = queryParams.getOrganizationId();
         String courseName = queryParams.getCourseName();
         String status = queryParams.getStatus();
 
-        log.info("查询参数：organizationId={}, courseName={}, status={}",
-                organizationId, courseName, status);
-
         // 使用机构ID进行查询
-        Page<CourseBase> page = courseBaseRepository.findByConditions(
-                organizationId,
-                courseName,
-                status,
-                PageRequest.of(params.getPageNo().intValue() - 1, params.getPageSize().intValue()));
+        PageRequest pageRequest = PageRequest.of(params.getPageNo().intValue() - 1, params.getPageSize().intValue());
+        Page<CourseBase> page;
+        if (organizationId != null && !StringUtils.hasText(courseName)
+                && (status == null || StringUtils.hasText(status))) {
+            // 只按机构和状态过滤时总数取机构课程计数，不再执行COUNT
+            page = new PageImpl<>(
+                    courseBaseRepository.findByOrganizationIdAndStatus(organizationId, status, pageRequest),
+                    pageRequest,
+                    courseCounterService.countCourses(organizationId, status));
+        } else {
+            page = courseBaseRepository.findByConditions(organizationId, courseName, status, pageRequest);
+        }
 
-        log.info("查询结果：total={}, content.size={}", page.getTotalElements(), page.getContent().size());
+        // 列表是高频接口：逐条明细只在DEBUG级别输出，INFO摘要每秒最多一条
+        if (log.isDebugEnabled()) {
+            log.debug("分页查询课程列表，params={}, queryParams={}, total={}, size={}",
+                    params, queryParams, page.getTotalElements(), page.getContent().size());
+        } else if (log.isInfoEnabled() && COURSE_LIST_LOG_LIMITER.tryAcquire()) {
+            log.info("分页查询课程列表，organizationId={}, status={}, pageNo={}, total={}，期间省略{}条",
+                    organizationId, status, params.getPageNo(), page.getTotalElements(),
+                    COURSE_LIST_LOG_LIMITER.takeSuppressed());
+        }
 
         // 数据转换
         List<CourseBaseDTO> items = page.getContent().stream()
-                .map(this::convertToCourseBaseDTO)
+                .map(courseBaseAssembler::toCourseBaseDTO)
                 .collect(Collectors.toList());
 
         return new PageResult<>(items, page.getTotalElements(), params.getPageNo(), params.getPageSize());
@@ -118,6 +180,7 @@ public class CourseBaseServiceImpl implements CourseBaseService {
 
         CourseBase courseBase = modelMapper.map(addCourseDTO, CourseBase.class);
         courseBase.setOrganizationId(organizationId);
+        courseBase.setStatus("202001"); // 未发布
 
         // 先保存CourseBase以获取ID
         CourseBase savedCourse = courseBaseRepository.save(courseBase);
@@ -132,6 +195,7 @@ public class CourseBaseServiceImpl implements CourseBaseService {
 
         // 再次保存以更新关联关系
         courseBaseRepository.save(courseBase);
+        courseCounterService.increment(CourseStatusCounter.COURSE, organizationId, courseBase.getStatus(), 1);
 
         log.info("课程创建成功，课程ID：{}", savedCourse.getId());
         return savedCourse.getId();
@@ -166,10 +230,21 @@ public class CourseBaseServiceImpl implements CourseBaseService {
 
         // 保存更新
         courseBaseRepository.save(courseBase);
+        syncCatalogIfPublished(courseBase);
+        courseCache.evict(courseBase.getId());
 
         log.info("课程更新成功，课程ID：{}", courseBase.getId());
     }
 
+    /**
+     * 已发布课程的名称、分类、价格、封面变化时同步课程目录
+     */
+    private void syncCatalogIfPublished(CourseBase courseBase) {
+        if ("202002".equals(courseBase.getStatus())) {
+            courseCatalogService.sync(courseBase);
+        }
+    }
+
     /**
      * 获取课程分类树
      * 
@@ -177,32 +252,7 @@ public class CourseBaseServiceImpl implements CourseBaseService {
      */
     @Override
     public List<CourseCategoryTreeDTO> queryCourseCategoryTree() {
-        // 查询所有课程分类
-        List<CourseCategory> categories = courseCategoryRepository.findAll();
-
-        // 将课程分类转换为树形结构
-        List<CourseCategoryTreeDTO> rootNodes = new ArrayList<>();
-        Map<Long, CourseCategoryTreeDTO> nodeMap = new HashMap<>();
-
-        // 转换所有节点
-        categories.forEach(category -> {
-            CourseCategoryTreeDTO node = modelMapper.map(category, CourseCategoryTreeDTO.class);
-            nodeMap.put(node.getId(), node);
-
-            if (category.getParentId() == 0L) {
-                rootNodes.add(node);
-            } else {
-                CourseCategoryTreeDTO parentNode = nodeMap.get(category.getParentId());
-                if (parentNode != null) {
-                    if (parentNode.getChildrenTreeNodes() == null) {
-                        parentNode.setChildrenTreeNodes(new ArrayList<>());
-                    }
-                    parentNode.getChildrenTreeNodes().add(node);
-                }
-            }
-        });
-
-        return rootNodes;
+        return courseBaseAssembler.categoryTree();
     }
 
     /**
@@ -213,8 +263,12 @@ public class CourseBaseServiceImpl implements CourseBaseService {
      * @throws ContentException 如果课程不存在
      */
     @Override
-    @Transactional(readOnly = true)
     public CoursePreviewDTO preview(Long courseId) {
+        return courseCache.getPreview(courseId,
+                () -> readOnlyTransaction.execute(status -> loadPreview(courseId)));
+    }
+
+    private CoursePreviewDTO loadPreview(Long courseId) {
         // 获取课程基本信息
         CourseBase courseBase = courseBaseRepository.findById(courseId)
                 .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
@@ -222,7 +276,7 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         CoursePreviewDTO previewDTO = new CoursePreviewDTO();
 
         // 设课程基本信息
-        previewDTO.setCourseBase(convertToCourseBaseDTO(courseBase));
+        previewDTO.setCourseBase(courseBaseAssembler.toCourseBaseDTO(courseBase));
 
         // 获取课程计划信息
         List<Teachplan> teachplans = teachplanRepository.findByCourseBaseIdOrderByOrderBy(courseId);
@@ -238,7 +292,7 @@ public class CourseBaseServiceImpl implements CourseBaseService {
                 .collect(Collectors.toList());
         previewDTO.setTeachers(teacherDTOs);
 
-        log.info("课程预览信息获取成功，课程ID：{}", courseId);
+        log.debug("课程预览信息获取成功，课程ID：{}", courseId);
         return previewDTO;
     }
 
@@ -260,6 +314,8 @@ public class CourseBaseServiceImpl implements CourseBaseService {
 
         // 创建预发布记录
         CoursePublishPre publishPre = courseBase.getCoursePublishPre();
+        boolean firstSubmit = publishPre == null;
+        String previousAuditStatus = firstSubmit ? null : publishPre.getStatus();
         if (publishPre == null) {
             publishPre = new CoursePublishPre();
             publishPre.setId(courseId);
@@ -275,6 +331,15 @@ public class CourseBaseServiceImpl implements CourseBaseService {
 
         courseBase.setCoursePublishPre(publishPre);
         courseBaseRepository.save(courseBase);
+        if (firstSubmit) {
+            courseCounterService.increment(CourseStatusCounter.AUDIT, courseBase.getOrganizationId(),
+                    publishPre.getStatus(), 1);
+        } else {
+            courseCounterService.transfer(CourseStatusCounter.AUDIT, courseBase.getOrganizationId(),
+                    previousAuditStatus, publishPre.getStatus());
+        }
+        auditQueueService.enqueueCourse(courseBase);
+        courseEventService.record(courseBase, CourseEventTypeEnum.SUBMITTED_FOR_AUDIT);
 
         log.info("课程提交审核成功，课程ID：{}", courseId);
     }
@@ -333,6 +398,37 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         CourseBase courseBase = courseBaseRepository.findById(courseId)
                 .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
 
+        String previousStatus = applyPublish(courseBase);
+        courseCounterService.transfer(CourseStatusCounter.COURSE, courseBase.getOrganizationId(),
+                previousStatus, courseBase.getStatus());
+
+        log.info("课程发布成功，课程ID：{}", courseId);
+    }
+
+    /**
+     * 定时任务记录在默认分片上，不在课程的事务中写入；到时由定时执行组件批量发布
+     */
+    @Override
+    public CourseScheduleDTO publishCourse(Long courseId, Date publishAt) {
+        return scheduleTransition(courseId, CourseSchedule.PUBLISH, publishAt);
+    }
+
+    @Override
+    public CourseScheduleDTO offlineCourse(Long courseId, Date offlineAt) {
+        return scheduleTransition(courseId, CourseSchedule.OFFLINE, offlineAt);
+    }
+
+    private CourseScheduleDTO scheduleTransition(Long courseId, String operation, Date fireTime) {
+        CourseBase courseBase = courseBaseRepository.findById(courseId)
+                .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
+        return courseScheduleService.schedule(courseBase.getOrganizationId(), courseId, operation, fireTime);
+    }
+
+    /**
+     * 发布已加载的课程并记录事件，返回原课程状态；计数由调用方调整
+     */
+    private String applyPublish(CourseBase courseBase) {
+        Long courseId = courseBase.getId();
         CoursePublishPre publishPre = courseBase.getCoursePublishPre();
         if (publishPre == null || !"202303".equals(publishPre.getStatus())) {
             throw new ContentException(ContentErrorCode.COURSE_AUDIT_STATUS_ERROR, "课程未通过审核，不能发布");
@@ -353,12 +449,15 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         coursePublish.setUpdateTime(new Date());
 
         // 更新课程状态
+        String previousStatus = courseBase.getStatus();
         courseBase.setStatus("202002"); // 已发布
         courseBase.setCoursePublish(coursePublish);
 
         courseBaseRepository.save(courseBase);
-
-        log.info("课程发布成功，课程ID：{}", courseId);
+        courseCatalogService.sync(courseBase);
+        courseCache.evict(courseId);
+        courseEventService.record(courseBase, CourseEventTypeEnum.PUBLISHED);
+        return previousStatus;
     }
 
     @Override
@@ -369,28 +468,6 @@ public class CourseBaseServiceImpl implements CourseBaseService {
                 .orElse(null);
     }
 
-    /**
-     * 将CourseBase实体转换为DTO
-     * 
-     * @param courseBase 课程基本信息实体
-     * @return 课程基本信息DTO
-     */
-    private CourseBaseDTO convertToCourseBaseDTO(CourseBase courseBase) {
-        CourseBaseDTO dto = modelMapper.map(courseBase, CourseBaseDTO.class);
-
-        // 设置课程分类名称 - 添加空值检查
-        if (courseBase.getMt() != null) {
-            courseCategoryRepository.findById(courseBase.getMt())
-                    .ifPresent(category -> dto.setMtName(category.getName()));
-        }
-        if (courseBase.getSt() != null) {
-            courseCategoryRepository.findById(courseBase.getSt())
-                    .ifPresent(category -> dto.setStName(category.getName()));
-        }
-
-        return dto;
-    }
-
     /**
      * 审核课程
      * 
@@ -409,6 +486,8 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         }
 
         // 更新审核状态
+        String previousAuditStatus = publishPre.getStatus();
+        String previousStatus = courseBase.getStatus();
         publishPre.setStatus(auditDTO.getAuditStatus());
         publishPre.setAuditMessage(auditDTO.getAuditMessage()); // 设置审核意见
         publishPre.setUpdateTime(new Date());
@@ -422,8 +501,18 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         }
         courseBase.setUpdateTime(new Date());
 
-        // 保存更新
+        // 保存更新；已发布的课程重新审核后回到未发布，移出课程目录
         courseBaseRepository.save(courseBase);
+        if ("202002".equals(previousStatus)) {
+            courseCatalogService.sync(courseBase);
+        }
+        courseCache.evict(courseBase.getId());
+        courseCounterService.transfer(CourseStatusCounter.COURSE, courseBase.getOrganizationId(),
+                previousStatus, courseBase.getStatus());
+        courseCounterService.transfer(CourseStatusCounter.AUDIT, courseBase.getOrganizationId(),
+                previousAuditStatus, publishPre.getStatus());
+        auditQueueService.complete(AuditTask.COURSE, String.valueOf(courseBase.getId()));
+        courseEventService.record(courseBase, CourseEventTypeEnum.AUDITED);
 
         log.info("课程审核完成，课程ID：{}，审核状态：{}, 课程状态：{}",
                 auditDTO.getCourseId(),
@@ -433,7 +522,11 @@ public class CourseBaseServiceImpl implements CourseBaseService {
 
     @Override
     public CourseBaseDTO getCourseById(Long courseId) {
-        log.info("获取课程信息，courseId：{}", courseId);
+        return courseCache.getCourse(courseId, () -> loadCourse(courseId));
+    }
+
+    private CourseBaseDTO loadCourse(Long courseId) {
+        log.debug("获取课程信息，courseId：{}", courseId);
 
         // 查询课程基本信息
         CourseBase courseBase = courseBaseRepository.findById(courseId)
@@ -442,7 +535,7 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         // 使用modelMapper替代BeanUtils
         CourseBaseDTO courseBaseDTO = modelMapper.map(courseBase, CourseBaseDTO.class);
 
-        log.info("获取课程信息成功，courseId：{}", courseId);
+        log.debug("获取课程信息成功，courseId：{}", courseId);
         return courseBaseDTO;
     }
 
@@ -459,18 +552,34 @@ public class CourseBaseServiceImpl implements CourseBaseService {
             throw new ContentException(ContentErrorCode.COURSE_STATUS_ERROR, "已发布的课程不能删除");
         }
 
-        // 删除课程封面
+        // 课程封面交给后台任务异步删除，不在事务内调用媒体服务
         if (StringUtils.hasText(courseBase.getLogo())) {
-            try {
-                deleteCourseLogo(courseId);
-            } catch (Exception e) {
-                log.error("删除课程封面失败：", e);
-                // 继续删除课程，不影响主流程
-            }
+            mediaCleanupService.enqueue(courseId, courseBase.getOrganizationId(), courseBase.getLogo());
         }
 
         // 删除课程相关数据
+        CoursePublishPre publishPre = courseBase.getCoursePublishPre();
+        courseEventService.record(courseBase, CourseEventTypeEnum.DELETED);
+        // 教师是关联的维护方，先解除关联再删除课程；教师关联的其余课程的预览、机构教师目录中都有该课程，一并删除缓存
+        List<CourseTeacher> teachers = courseTeacherRepository.findByCourseId(courseId);
+        Set<Long> affectedCourseIds = new HashSet<>();
+        affectedCourseIds.add(courseId);
+        for (CourseTeacher teacher : teachers) {
+            teacher.getCourses().forEach(course -> affectedCourseIds.add(course.getId()));
+            teacher.removeCourse(courseBase);
+        }
         courseBaseRepository.delete(courseBase);
+        courseCache.evict(affectedCourseIds);
+        if (!teachers.isEmpty()) {
+            courseCache.evictOrganizationTeachers(courseBase.getOrganizationId());
+        }
+        courseCounterService.increment(CourseStatusCounter.COURSE, courseBase.getOrganizationId(),
+                courseBase.getStatus(), -1);
+        if (publishPre != null) {
+            courseCounterService.increment(CourseStatusCounter.AUDIT, courseBase.getOrganizationId(),
+                    publishPre.getStatus(), -1);
+            auditQueueService.complete(AuditTask.COURSE, String.valueOf(courseId));
+        }
 
         log.info("删除课程成功，courseId：{}", courseId);
     }
@@ -481,6 +590,61 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         CourseBase courseBase = courseBaseRepository.findById(courseId)
                 .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
 
+        String previousStatus = applyOffline(courseBase);
+        courseCounterService.transfer(CourseStatusCounter.COURSE, courseBase.getOrganizationId(),
+                previousStatus, courseBase.getStatus());
+
+        log.info("课程下架成功，课程ID：{}", courseId);
+    }
+
+    @Override
+    @Transactional
+    public List<CourseBulkErrorDTO> publishCourses(Long organizationId, List<Long> courseIds) {
+        return applyInBatch(organizationId, courseIds, this::applyPublish);
+    }
+
+    @Override
+    @Transactional
+    public List<CourseBulkErrorDTO> offlineCourses(Long organizationId, List<Long> courseIds) {
+        return applyInBatch(organizationId, courseIds, this::applyOffline);
+    }
+
+    /**
+     * 课程连同一对一关联一次查出，逐门执行；失败的课程不做任何修改，其余课程照常提交。
+     * 计数按状态汇总后每个状态只改一次，按状态码顺序加锁
+     */
+    private List<CourseBulkErrorDTO> applyInBatch(Long organizationId, List<Long> courseIds,
+                                                  Function<CourseBase, String> action) {
+        Map<Long, CourseBase> courses = courseBaseRepository.findWithDetailsByIdIn(courseIds).stream()
+                .collect(Collectors.toMap(CourseBase::getId, Function.identity()));
+        List<CourseBulkErrorDTO> errors = new ArrayList<>();
+        Map<String, Long> deltas = new TreeMap<>();
+        for (Long courseId : courseIds) {
+            CourseBase courseBase = courses.get(courseId);
+            try {
+                if (courseBase == null) {
+                    throw new ContentException(ContentErrorCode.COURSE_NOT_EXISTS);
+                }
+                if (!organizationId.equals(courseBase.getOrganizationId())) {
+                    throw new ContentException(ContentErrorCode.COURSE_ORG_NOT_MATCH);
+                }
+                String previousStatus = action.apply(courseBase);
+                deltas.merge(Objects.toString(previousStatus, ""), -1L, Long::sum);
+                deltas.merge(courseBase.getStatus(), 1L, Long::sum);
+            } catch (ContentException e) {
+                errors.add(new CourseBulkErrorDTO(courseId, e.getErrorCode().getCode(), e.getMessage()));
+            }
+        }
+        deltas.forEach((status, delta) ->
+                courseCounterService.increment(CourseStatusCounter.COURSE, organizationId, status, delta));
+        log.info("批量处理课程，机构ID：{}，课程数：{}，失败：{}", organizationId, courseIds.size(), errors.size());
+        return errors;
+    }
+
+    /**
+     * 下架已加载的课程并记录事件，返回原课程状态；计数由调用方调整
+     */
+    private String applyOffline(CourseBase courseBase) {
         // 只有已发布的课程才能下架
         if (!"202002".equals(courseBase.getStatus())) {
             throw new ContentException(ContentErrorCode.COURSE_STATUS_ERROR, "只有已发布的课程才能下架");
@@ -491,55 +655,72 @@ public class CourseBaseServiceImpl implements CourseBaseService {
         courseBase.setUpdateTime(new Date());
 
         courseBaseRepository.save(courseBase);
-
-        log.info("课程下架成功，课程ID：{}", courseId);
+        courseCatalogService.sync(courseBase);
+        courseCache.evict(courseBase.getId());
+        courseEventService.record(courseBase, CourseEventTypeEnum.OFFLINE);
+        return "202002";
     }
 
     /**
      * 更新课程封面
+     * 上传交给媒体服务异步客户端，不占用调用线程，也不在等待期间占用数据库连接；
+     * 上传成功后在舱壁线程上用短事务保存媒资记录和封面URL
      * 
      * @param courseId 课程ID
      * @param file     封面图片文件
-     * @throws ContentException 如果课程不存在或上传失败
+     * @throws ContentException 如果课程不存在
      */
-    @Transactional
-    public void updateCourseLogo(Long courseId, MultipartFile file) {
+    @Override
+    public CompletableFuture<Void> updateCourseLogo(Long courseId, MultipartFile file) {
         // 1. 获取课程信息
         CourseBase courseBase = courseBaseRepository.findById(courseId)
                 .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
 
-        try {
-            // 2. 调用媒体服务上传图片
-            CommonResponse<MediaFileDTO> response = mediaFeignClient.uploadCourseLogo(
-                    courseId,
-                    courseBase.getOrganizationId(),
-                    file);
-
-            if (!response.isSuccess()) {
-                throw new ContentException(ContentErrorCode.UPLOAD_LOGO_FAILED, response.getMessage());
-            }
-
-            MediaFileDTO mediaFileDTO = response.getData();
+        // 2. 调用媒体服务上传图片（上传舱壁 + 自适应超时）
+        return mediaAsyncClient.uploadCourseLogo(courseId, courseBase.getOrganizationId(), file)
+                .thenAccept(response -> {
+                    if (!response.isSuccess()) {
+                        throw new ContentException(ContentErrorCode.UPLOAD_LOGO_FAILED, response.getMessage());
+                    }
+                    MediaFileDTO mediaFileDTO = response.getData();
+                    transactionTemplate.executeWithoutResult(status -> saveCourseLogo(courseId, mediaFileDTO));
+                    log.info("课程封面更新成功，课程ID：{}，文件ID：{}", courseId, mediaFileDTO.getMediaFileId());
+                })
+                .exceptionally(error -> {
+                    RuntimeException failure = MediaAsyncClient.failure(error);
+                    if (failure instanceof ContentException) {
+                        throw failure;
+                    }
+                    log.error("更新课程封面失败：", failure);
+                    throw new ContentException(ContentErrorCode.UPLOAD_LOGO_FAILED);
+                });
+    }
 
-            // 3. 保存或更新媒体文件记录
-            MediaFile mediaFile = mediaFileRepository.findByMediaFileId(mediaFileDTO.getMediaFileId())
-                    .orElse(new MediaFile());
-            modelMapper.map(mediaFileDTO, mediaFile);
-            mediaFileRepository.save(mediaFile);
+    /**
+     * 保存上传结果：媒资记录和课程封面URL
+     */
+    private void saveCourseLogo(Long courseId, MediaFileDTO mediaFileDTO) {
+        CourseBase courseBase = courseBaseRepository.findById(courseId)
+                .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
 
-            // 4. 更新课程封面URL
-            courseBase.setLogo(mediaFileDTO.getUrl());
-            courseBaseRepository.save(courseBase);
+        // 3. 保存或更新媒体文件记录
+        MediaFile mediaFile = mediaFileRepository.findByMediaFileId(mediaFileDTO.getMediaFileId())
+                .orElse(new MediaFile());
+        modelMapper.map(mediaFileDTO, mediaFile);
+        mediaFileRepository.save(mediaFile);
 
-            log.info("课程封面更新成功，课程ID：{}，文件ID：{}", courseId, mediaFileDTO.getMediaFileId());
-        } catch (ContentException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("更新课程封面失败：", e);
-            throw new ContentException(ContentErrorCode.UPLOAD_LOGO_FAILED);
-        }
+        // 4. 更新课程封面URL
+        courseBase.setLogo(mediaFileDTO.getUrl());
+        courseBaseRepository.save(courseBase);
+        syncCatalogIfPublished(courseBase);
+        courseCache.evict(courseId);
     }
 
+    /**
+     * 删除课程封面
+     * 与删除课程一样，封面文件登记为媒资清理任务由后台删除，不在请求线程上等待媒体服务
+     */
+    @Override
     @Transactional
     public void deleteCourseLogo(Long courseId) {
         // 1. 获取课程信息
@@ -551,23 +732,15 @@ public class CourseBaseServiceImpl implements CourseBaseService {
             return; // 没有封面，直接返回
         }
 
-        try {
-            // 2. 调用媒体服务删除文件
-            CommonResponse<?> response = mediaFeignClient.deleteMediaFile(logoUrl);
-            if (!response.isSuccess()) {
-                throw new ContentException(ContentErrorCode.DELETE_LOGO_FAILED, response.getMessage());
-            }
+        // 2. 登记媒资清理任务，与清除封面URL在同一事务提交
+        mediaCleanupService.enqueue(courseId, courseBase.getOrganizationId(), logoUrl);
 
-            // 3. 清除课程封面URL
-            courseBase.setLogo(null);
-            courseBaseRepository.save(courseBase);
+        // 3. 清除课程封面URL
+        courseBase.setLogo(null);
+        courseBaseRepository.save(courseBase);
+        syncCatalogIfPublished(courseBase);
+        courseCache.evict(courseId);
 
-            log.info("课程封面删除成功，课程ID：{}", courseId);
-        } catch (ContentException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("删除课程封面失败：", e);
-            throw new ContentException(ContentErrorCode.DELETE_LOGO_FAILED);
-        }
+        log.info("课程封面删除成功，课程ID：{}", courseId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,376 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.config.CourseBulkJobProperties;
+import com.double2and9.content_service.dto.CourseBulkErrorDTO;
+import com.double2and9.content_service.dto.CourseBulkJobDTO;
+import com.double2and9.content_service.dto.CourseBulkJobRequestDTO;
+import com.double2and9.content_service.entity.CourseBulkJob;
+import com.double2and9.content_service.entity.CourseBulkJobError;
+import com.double2and9.content_service.repository.CourseBulkJobErrorRepository;
+import com.double2and9.content_service.repository.CourseBulkJobRepository;
+import com.double2and9.content_service.service.CourseBaseService;
+import com.double2and9.content_service.service.CourseBulkJobService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 课程批量发布/下架
+ * 任务记录在默认分片的 course_bulk_job 表中，任一节点都能查询进度、取消；执行在提交任务的节点上：
+ * <ol>
+ *     <li>独立的有界线程池，同时执行的任务数固定，队列满时拒绝提交，不占用请求线程</li>
+ *     <li>每块课程一个事务，课程一次查出，块之间停顿，单个任务不会长时间持有连接和行锁</li>
+ *     <li>块内某门课程不满足条件时只跳过该课程；块整体失败（如数据库异常）时逐门重试，找出失败的课程</li>
+ *     <li>每块提交后在单独的事务中累加进度、写入失败明细，并检查是否已取消</li>
+ * </ol>
+ * 节点停止时排队和执行中的任务标记为FAILED；节点崩溃留下的任务由定时任务标记为FAILED：
+ * 执行中的任务按进度更新时间判断，排队中的任务由所在节点定期刷新心跳，按心跳时间判断，排队再久也不会被误判。
+ * 结束任务和累加进度都带状态条件，已经结束的任务不会被改写；执行节点（如长时间停顿后被误判为失联）
+ * 累加进度或结束任务没有更新到记录时说明任务已被结束，立即停止。
+ */
+@Slf4j
+@Service
+public class CourseBulkJobServiceImpl implements CourseBulkJobService {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    private static final int PURGE_BATCH_SIZE = 500;
+    private static final List<String> ACTIVE = List.of(CourseBulkJob.RUNNING, CourseBulkJob.CANCELLING);
+    private static final List<String> UNFINISHED =
+            List.of(CourseBulkJob.PENDING, CourseBulkJob.RUNNING, CourseBulkJob.CANCELLING);
+
+    private final CourseBulkJobRepository jobRepository;
+    private final CourseBulkJobErrorRepository errorRepository;
+    private final CourseBaseService courseBaseService;
+    private final CourseBulkJobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public CourseBulkJobServiceImpl(CourseBulkJobRepository jobRepository,
+                                    CourseBulkJobErrorRepository errorRepository,
+                                    CourseBaseService courseBaseService,
+                                    CourseBulkJobProperties properties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.courseBaseService = courseBaseService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("course-bulk-");
+        threadFactory.setDaemon(true);
+        threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        this.executor = new ThreadPoolExecutor(
+                properties.getWorkers(), properties.getWorkers(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("course.bulk.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行的课程批量任务数")
+                .register(meterRegistry);
+        Gauge.builder("course.bulk.jobs.queued", executor, e -> e.getQueue().size())
+                .description("排队的课程批量任务数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CourseBulkJobDTO submit(CourseBulkJobRequestDTO request) {
+        List<Long> courseIds = new ArrayList<>(new LinkedHashSet<>(request.getCourseIds()));
+        Date now = new Date();
+        CourseBulkJob job = new CourseBulkJob();
+        job.setOrganizationId(request.getOrganizationId());
+        job.setOperation(request.getOperation());
+        job.setStatus(CourseBulkJob.PENDING);
+        job.setTotal(courseIds.size());
+        job.setCreateTime(now);
+        job.setUpdateTime(now);
+        job.setHeartbeatTime(now);
+        jobRepository.save(job);
+
+        try {
+            executor.execute(new JobRun(job.getId(), job.getOrganizationId(), job.getOperation(), courseIds));
+        } catch (RejectedExecutionException e) {
+            finish(job.getId(), List.of(CourseBulkJob.PENDING), CourseBulkJob.FAILED);
+            log.warn("课程批量任务被拒绝，执行中：{}，排队：{}", executor.getActiveCount(), executor.getQueue().size());
+            throw new ContentException(ContentErrorCode.COURSE_BULK_JOB_BUSY);
+        }
+        log.info("提交课程批量任务，任务ID：{}，机构ID：{}，操作：{}，课程数：{}",
+                job.getId(), job.getOrganizationId(), job.getOperation(), courseIds.size());
+        return toDTO(job, List.of());
+    }
+
+    @Override
+    public CourseBulkJobDTO getJob(Long jobId) {
+        CourseBulkJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_BULK_JOB_NOT_EXISTS));
+        List<CourseBulkErrorDTO> errors = errorRepository
+                .findByJobIdOrderById(jobId, PageRequest.of(0, properties.getMaxReportedErrors())).stream()
+                .map(error -> new CourseBulkErrorDTO(error.getCourseId(), error.getErrorCode(), error.getMessage()))
+                .collect(Collectors.toList());
+        return toDTO(job, errors);
+    }
+
+    @Override
+    public CourseBulkJobDTO cancel(Long jobId) {
+        Date now = new Date();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jobRepository.finish(jobId, List.of(CourseBulkJob.PENDING), CourseBulkJob.CANCELLED, now) == 0) {
+                jobRepository.transition(jobId, List.of(CourseBulkJob.RUNNING), CourseBulkJob.CANCELLING, now);
+            }
+        });
+        log.info("取消课程批量任务，任务ID：{}", jobId);
+        return getJob(jobId);
+    }
+
+    @Override
+    public int heartbeatQueuedJobs() {
+        List<Long> jobIds = executor.getQueue().stream()
+                .filter(JobRun.class::isInstance)
+                .map(task -> ((JobRun) task).jobId())
+                .collect(Collectors.toList());
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        Integer updated = transactionTemplate.execute(status -> jobRepository.heartbeat(jobIds, new Date()));
+        return updated == null ? 0 : updated;
+    }
+
+    @Override
+    public int failStaleJobs() {
+        Date now = new Date();
+        Integer failed = transactionTemplate.execute(status ->
+                jobRepository.failStale(new Date(now.getTime() - properties.getStaleAfterMs()), now));
+        if (failed != null && failed > 0) {
+            log.warn("课程批量任务长时间没有进度，已标记为失败，数量：{}", failed);
+        }
+        return failed == null ? 0 : failed;
+    }
+
+    @Override
+    public int purgeFinishedJobs() {
+        Date before = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(properties.getRetentionDays()));
+        int purged = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> jobIds = jobRepository.findFinishedIdsBefore(before, PageRequest.of(0, PURGE_BATCH_SIZE));
+                if (!jobIds.isEmpty()) {
+                    errorRepository.deleteByJobIdIn(jobIds);
+                    jobRepository.deleteAllByIdInBatch(jobIds);
+                }
+                return jobIds.size();
+            });
+            purged += count == null ? 0 : count;
+            if (count == null || count < PURGE_BATCH_SIZE) {
+                return purged;
+            }
+        }
+    }
+
+    /**
+     * 在执行器线程上处理一个任务
+     */
+    private void execute(JobRun run) {
+        try {
+            Integer started = transactionTemplate.execute(status -> jobRepository.start(run.jobId(), new Date()));
+            if (started == null || started == 0) {
+                log.info("课程批量任务已在排队时取消，任务ID：{}", run.jobId());
+                return;
+            }
+            List<Long> courseIds = run.courseIds();
+            for (int from = 0; from < courseIds.size(); from += properties.getChunkSize()) {
+                if (CourseBulkJob.CANCELLING.equals(jobRepository.findStatusById(run.jobId()))) {
+                    if (finish(run.jobId(), List.of(CourseBulkJob.CANCELLING), CourseBulkJob.CANCELLED)) {
+                        log.info("课程批量任务已取消，任务ID：{}，已处理：{}", run.jobId(), from);
+                    } else {
+                        logEnded(run.jobId());
+                    }
+                    return;
+                }
+                List<Long> chunk = courseIds.subList(from, Math.min(from + properties.getChunkSize(), courseIds.size()));
+                List<CourseBulkErrorDTO> errors = processChunk(run, chunk);
+                if (!recordProgress(run.jobId(), chunk.size(), errors)) {
+                    logEnded(run.jobId());
+                    return;
+                }
+                if (from + chunk.size() < courseIds.size() && properties.getChunkPauseMs() > 0) {
+                    Thread.sleep(properties.getChunkPauseMs());
+                }
+            }
+            if (finish(run.jobId(), ACTIVE, CourseBulkJob.COMPLETED)) {
+                log.info("课程批量任务完成，任务ID：{}，课程数：{}", run.jobId(), courseIds.size());
+            } else {
+                logEnded(run.jobId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markFailed(run.jobId(), null);
+        } catch (RuntimeException e) {
+            markFailed(run.jobId(), e);
+        }
+    }
+
+    /**
+     * 整块一个事务；整块失败时回滚，逐门课程各一个事务重试
+     */
+    private List<CourseBulkErrorDTO> processChunk(JobRun run, List<Long> chunk) {
+        try {
+            return applyAs(run, chunk);
+        } catch (RuntimeException e) {
+            log.warn("课程批量任务整块失败，逐门重试，任务ID：{}，课程数：{}", run.jobId(), chunk.size(), e);
+        }
+        List<CourseBulkErrorDTO> errors = new ArrayList<>();
+        for (Long courseId : chunk) {
+            try {
+                errors.addAll(applyAs(run, List.of(courseId)));
+            } catch (ContentException e) {
+                errors.add(new CourseBulkErrorDTO(courseId, e.getErrorCode().getCode(), e.getMessage()));
+            } catch (RuntimeException e) {
+                errors.add(new CourseBulkErrorDTO(courseId, ContentErrorCode.SYSTEM_ERROR.getCode(), e.getMessage()));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 以任务所属机构的身份执行，启用分库时落在机构的分片上
+     */
+    private List<CourseBulkErrorDTO> applyAs(JobRun run, List<Long> courseIds) {
+        return TenantContext.callAs(run.organizationId(), () -> CourseBulkJob.PUBLISH.equals(run.operation())
+                ? courseBaseService.publishCourses(run.organizationId(), courseIds)
+                : courseBaseService.offlineCourses(run.organizationId(), courseIds));
+    }
+
+    /**
+     * @return 任务已经结束、没有累加到进度时返回false
+     */
+    private boolean recordProgress(Long jobId, int processed, List<CourseBulkErrorDTO> errors) {
+        Boolean recorded = transactionTemplate.execute(status -> {
+            if (jobRepository.addProgress(jobId, processed, processed - errors.size(), errors.size(), new Date()) == 0) {
+                return false;
+            }
+            errorRepository.saveAll(errors.stream().map(error -> toEntity(jobId, error)).collect(Collectors.toList()));
+            return true;
+        });
+        return Boolean.TRUE.equals(recorded);
+    }
+
+    private static void logEnded(Long jobId) {
+        log.warn("课程批量任务已被结束（如被判定为节点失联），停止执行，任务ID：{}", jobId);
+    }
+
+    private void markFailed(Long jobId, Exception cause) {
+        log.error("课程批量任务中断，任务ID：{}", jobId, cause);
+        try {
+            finish(jobId, UNFINISHED, CourseBulkJob.FAILED);
+        } catch (RuntimeException e) {
+            log.error("标记课程批量任务失败时出错，任务ID：{}", jobId, e);
+        }
+    }
+
+    /**
+     * 状态为 from 之一时结束任务
+     * @return 是否更新到了任务
+     */
+    private boolean finish(Long jobId, List<String> from, String status) {
+        Integer finished = transactionTemplate.execute(tx -> jobRepository.finish(jobId, from, status, new Date()));
+        return finished != null && finished > 0;
+    }
+
+    /**
+     * 节点停止：执行中的任务在当前块结束后中断，排队的任务不再执行
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable pending : executor.shutdownNow()) {
+            if (pending instanceof JobRun run) {
+                markFailed(run.jobId(), null);
+            }
+        }
+    }
+
+    /**
+     * 提交到执行器的任务，节点停止时据此标记排队中的任务
+     */
+    private final class JobRun implements Runnable {
+
+        private final Long jobId;
+        private final Long organizationId;
+        private final String operation;
+        private final List<Long> courseIds;
+
+        private JobRun(Long jobId, Long organizationId, String operation, List<Long> courseIds) {
+            this.jobId = jobId;
+            this.organizationId = organizationId;
+            this.operation = operation;
+            this.courseIds = courseIds;
+        }
+
+        Long jobId() {
+            return jobId;
+        }
+
+        Long organizationId() {
+            return organizationId;
+        }
+
+        String operation() {
+            return operation;
+        }
+
+        List<Long> courseIds() {
+            return courseIds;
+        }
+
+        @Override
+        public void run() {
+            execute(this);
+        }
+    }
+
+    private static CourseBulkJobError toEntity(Long jobId, CourseBulkErrorDTO error) {
+        CourseBulkJobError entity = new CourseBulkJobError();
+        entity.setJobId(jobId);
+        entity.setCourseId(error.getCourseId());
+        entity.setErrorCode(error.getCode());
+        String message = error.getMessage();
+        entity.setMessage(message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+        return entity;
+    }
+
+    private static CourseBulkJobDTO toDTO(CourseBulkJob job, List<CourseBulkErrorDTO> errors) {
+        CourseBulkJobDTO dto = new CourseBulkJobDTO();
+        dto.setId(job.getId());
+        dto.setOrganizationId(job.getOrganizationId());
+        dto.setOperation(job.getOperation());
+        dto.setStatus(job.getStatus());
+        dto.setTotal(job.getTotal());
+        dto.setProcessed(job.getProcessed());
+        dto.setSucceeded(job.getSucceeded());
+        dto.setFailed(job.getFailed());
+        dto.setCreateTime(job.getCreateTime());
+        dto.setStartTime(job.getStartTime());
+        dto.setFinishTime(job.getFinishTime());
+        dto.setErrors(errors);
+        return dto;
+    }
+}
@@ -0,0 +1,160 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.dto.CourseCatalogItemDTO;
+import com.double2and9.content_service.dto.CourseCatalogPageDTO;
+import com.double2and9.content_service.dto.CourseCatalogQueryDTO;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseCatalog;
+import com.double2and9.content_service.entity.CourseMarket;
+import com.double2and9.content_service.entity.CoursePublish;
+import com.double2and9.content_service.repository.CourseCatalogRepository;
+import com.double2and9.content_service.service.CourseCatalogService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 课程目录
+ * 目录表与课程在同一分片，发布、下架、修改课程时在同一事务中维护；
+ * 浏览不限机构，启用分库时逐个分片各取一页，按发布时间归并后取一页
+ */
+@Service
+public class CourseCatalogServiceImpl implements CourseCatalogService {
+
+    private static final String PUBLISHED = "202002";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<CourseCatalog> NEWEST_FIRST = Comparator
+            .comparing((CourseCatalog c) -> c.getPublishTime().getTime(), Comparator.reverseOrder())
+            .thenComparing(CourseCatalog::getCourseId, Comparator.reverseOrder());
+
+    /**
+     * 游标：上一页最后一门课程的发布时间和课程ID
+     */
+    private record Cursor(Date publishTime, long courseId) {
+
+        static final Cursor FIRST = new Cursor(Timestamp.from(Instant.parse("9999-12-31T00:00:00Z")), Long.MAX_VALUE);
+
+        static Cursor of(CourseCatalog catalog) {
+            return new Cursor(catalog.getPublishTime(), catalog.getCourseId());
+        }
+
+        String encode() {
+            String raw = publishTime.toInstant() + "," + courseId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            if (!StringUtils.hasText(cursor)) {
+                return FIRST;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+                return new Cursor(Timestamp.from(Instant.parse(parts[0])), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new ContentException(ContentErrorCode.COURSE_CATALOG_CURSOR_INVALID);
+            }
+        }
+    }
+
+    private final CourseCatalogRepository courseCatalogRepository;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+
+    public CourseCatalogServiceImpl(CourseCatalogRepository courseCatalogRepository,
+                                    ObjectProvider<ShardRegistry> shardRegistry) {
+        this.courseCatalogRepository = courseCatalogRepository;
+        this.shardRegistry = shardRegistry;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sync(CourseBase courseBase) {
+        if (!PUBLISHED.equals(courseBase.getStatus())) {
+            courseCatalogRepository.deleteByCourseId(courseBase.getId());
+            return;
+        }
+        // 营销信息为准，没有营销信息时取课程上的冗余字段
+        CourseMarket market = courseBase.getCourseMarket();
+        CoursePublish publish = courseBase.getCoursePublish();
+        Date now = new Date();
+        courseCatalogRepository.upsert(courseBase.getId(), courseBase.getOrganizationId(), courseBase.getName(),
+                courseBase.getLogo(), courseBase.getMt(), courseBase.getSt(),
+                market != null && market.getCharge() != null ? market.getCharge() : courseBase.getCharge(),
+                market != null && market.getPrice() != null ? market.getPrice() : courseBase.getPrice(),
+                publish != null && publish.getPublishTime() != null ? publish.getPublishTime() : now,
+                now);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Collection<Long> courseIds) {
+        if (!courseIds.isEmpty()) {
+            courseCatalogRepository.deleteByCourseIdIn(courseIds);
+        }
+    }
+
+    @Override
+    public CourseCatalogPageDTO browse(CourseCatalogQueryDTO query) {
+        int pageSize = Math.max(1, Math.min(query.getSize() == null ? 20 : query.getSize(), MAX_PAGE_SIZE));
+        Cursor after = Cursor.decode(query.getCursor());
+        String charge = StringUtils.hasText(query.getCharge()) ? query.getCharge() : null;
+        // 多一条判断是否还有下一页
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<CourseCatalog> courses = new ArrayList<>();
+        onEachShard(() -> courses.addAll(courseCatalogRepository.browse(query.getMt(), query.getSt(), charge,
+                query.getMinPrice(), query.getMaxPrice(), after.publishTime(), after.courseId(), page)));
+        courses.sort(NEWEST_FIRST);
+
+        CourseCatalogPageDTO result = new CourseCatalogPageDTO();
+        List<CourseCatalog> items = courses.subList(0, Math.min(pageSize, courses.size()));
+        result.setItems(items.stream().map(CourseCatalogServiceImpl::toDTO).collect(Collectors.toList()));
+        if (courses.size() > pageSize) {
+            result.setNextCursor(Cursor.of(items.get(items.size() - 1)).encode());
+        }
+        return result;
+    }
+
+    /**
+     * 目录不限机构，启用分库时逐个分片执行；任一分片失败时整个请求失败，不返回缺页
+     */
+    private void onEachShard(Runnable action) {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            action.run();
+        } else {
+            registry.dataSources().keySet().forEach(shard -> TenantContext.runOnShard(shard, action));
+        }
+    }
+
+    private static CourseCatalogItemDTO toDTO(CourseCatalog catalog) {
+        CourseCatalogItemDTO dto = new CourseCatalogItemDTO();
+        dto.setCourseId(catalog.getCourseId());
+        dto.setOrganizationId(catalog.getOrganizationId());
+        dto.setName(catalog.getName());
+        dto.setLogo(catalog.getLogo());
+        dto.setMt(catalog.getMt());
+        dto.setSt(catalog.getSt());
+        dto.setCharge(catalog.getCharge());
+        dto.setPrice(catalog.getPrice());
+        dto.setPublishTime(catalog.getPublishTime());
+        return dto;
+    }
+}
@@ -0,0 +1,117 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.dto.CourseDashboardDTO;
+import com.double2and9.content_service.entity.CourseStatusCounter;
+import com.double2and9.content_service.repository.CourseStatusCounterRepository;
+import com.double2and9.content_service.repository.StatusCount;
+import com.double2and9.content_service.service.CourseCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 机构课程计数
+ * 计数与课程状态在同一事务中修改，提交后即准确，读取时不再扫描课程表。
+ * 一次状态变更先减后加两行，按状态码顺序加锁，并发的反向变更（如发布与重新审核）不会互相死锁。
+ */
+@Slf4j
+@Service
+public class CourseCounterServiceImpl implements CourseCounterService {
+
+    private final CourseStatusCounterRepository counterRepository;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+
+    public CourseCounterServiceImpl(CourseStatusCounterRepository counterRepository,
+                                    ObjectProvider<ShardRegistry> shardRegistry) {
+        this.counterRepository = counterRepository;
+        this.shardRegistry = shardRegistry;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increment(String counterType, Long organizationId, String status, long delta) {
+        if (delta != 0) {
+            counterRepository.increment(organizationId, counterType, key(status), delta);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transfer(String counterType, Long organizationId, String from, String to) {
+        String fromKey = key(from);
+        String toKey = key(to);
+        if (fromKey.equals(toKey)) {
+            return;
+        }
+        if (fromKey.compareTo(toKey) < 0) {
+            counterRepository.increment(organizationId, counterType, fromKey, -1);
+            counterRepository.increment(organizationId, counterType, toKey, 1);
+        } else {
+            counterRepository.increment(organizationId, counterType, toKey, 1);
+            counterRepository.increment(organizationId, counterType, fromKey, -1);
+        }
+    }
+
+    @Override
+    public long countCourses(Long organizationId, String status) {
+        return counterRepository.findCountsByOrganizationId(organizationId).stream()
+                .filter(counter -> CourseStatusCounter.COURSE.equals(counter.getCounterType()))
+                .filter(counter -> status == null || status.equals(counter.getStatus()))
+                .mapToLong(StatusCount::getTotal)
+                .sum();
+    }
+
+    @Override
+    public CourseDashboardDTO getDashboard(Long organizationId) {
+        Map<String, Long> courseCounts = new TreeMap<>();
+        Map<String, Long> auditCounts = new TreeMap<>();
+        for (StatusCount counter : counterRepository.findCountsByOrganizationId(organizationId)) {
+            if (counter.getTotal() == 0) {
+                continue;
+            }
+            if (CourseStatusCounter.COURSE.equals(counter.getCounterType())) {
+                courseCounts.put(counter.getStatus(), counter.getTotal());
+            } else if (CourseStatusCounter.AUDIT.equals(counter.getCounterType())) {
+                auditCounts.put(counter.getStatus(), counter.getTotal());
+            }
+        }
+        CourseDashboardDTO dashboard = new CourseDashboardDTO();
+        dashboard.setOrganizationId(organizationId);
+        dashboard.setTotalCourses(courseCounts.values().stream().mapToLong(Long::longValue).sum());
+        dashboard.setCourseStatusCounts(courseCounts);
+        dashboard.setAuditStatusCounts(auditCounts);
+        return dashboard;
+    }
+
+    @Override
+    public Map<String, Long> countAuditStatus() {
+        Map<String, Long> counts = new TreeMap<>();
+        Runnable sum = () -> counterRepository.sumByCounterType(CourseStatusCounter.AUDIT).forEach(row -> {
+            if (row.getTotal() != null && row.getTotal() != 0) {
+                counts.merge(row.getStatus(), row.getTotal(), Long::sum);
+            }
+        });
+        // 启用分库时各分片只有本分片机构的计数，逐个分片汇总；任一分片失败则整体失败，不返回部分结果
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            sum.run();
+        } else {
+            registry.dataSources().keySet().forEach(shard -> TenantContext.runOnShard(shard, sum));
+        }
+        return counts;
+    }
+
+    /**
+     * 计数行的状态列不能为空，状态为空的历史课程记为空字符串
+     */
+    private static String key(String status) {
+        return status == null ? "" : status;
+    }
+}
@@ -0,0 +1,274 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.CourseEventTypeEnum;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.config.CourseEventProperties;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseEventOutbox;
+import com.double2and9.content_service.entity.CoursePublishPre;
+import com.double2and9.content_service.event.CourseEvent;
+import com.double2and9.content_service.event.CourseEventSink;
+import com.double2and9.content_service.repository.CourseEventOutboxRepository;
+import com.double2and9.content_service.service.CourseEventService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 课程事件发件箱服务
+ * record在业务事务内写入发件箱，relayPendingEvents由中继任务调用，按发件箱顺序批量投递；
+ * 待投递事件以 SKIP LOCKED 领取，多个节点可以同时中继。
+ * 投递目标不可用（连接失败、超时）时整批推迟并暂停本节点的中继，按指数退避，不计入事件的失败次数；
+ * 单个事件投递失败计一次失败并按指数退避，达到最大次数后停放。
+ * 停放事件之后的同一课程事件不再投递，等停放事件重新投递（requeueParked）或丢弃
+ */
+@Slf4j
+@Service
+public class CourseEventServiceImpl implements CourseEventService {
+
+    private final CourseEventOutboxRepository outboxRepository;
+    private final CourseEventSink courseEventSink;
+    private final CourseEventProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 投递目标连续不可用的次数，决定推迟的时间；整批投递成功后清零
+     */
+    private final AtomicInteger unavailableStreak = new AtomicInteger();
+
+    /**
+     * 投递目标不可用时本节点在此之前不再领取事件
+     */
+    private volatile long pausedUntil;
+
+    public CourseEventServiceImpl(CourseEventOutboxRepository outboxRepository,
+                                  CourseEventSink courseEventSink,
+                                  CourseEventProperties properties,
+                                  ObjectMapper objectMapper,
+                                  ObjectProvider<ShardRegistry> shardRegistry,
+                                  PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.courseEventSink = courseEventSink;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.shardRegistry = shardRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CourseBase courseBase, CourseEventTypeEnum eventType) {
+        CourseEventOutbox outbox = new CourseEventOutbox();
+        outbox.setEventId(UUID.randomUUID().toString());
+        outbox.setCourseId(courseBase.getId());
+        outbox.setOrganizationId(courseBase.getOrganizationId());
+        outbox.setEventType(eventType.getCode());
+        outbox.setPayload(buildPayload(courseBase));
+        outbox.setCreateTime(new Date());
+        outboxRepository.save(outbox);
+    }
+
+    @Override
+    @Transactional
+    public int relayPendingEvents() {
+        if (System.currentTimeMillis() < pausedUntil) {
+            return 0;
+        }
+        List<CourseEventOutbox> pending = withoutBlockedCourses(outboxRepository.claimPending(
+                new Date(), PageRequest.of(0, properties.getBatchSize())));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // 整批按发件箱ID顺序投递，保证同一课程的事件不乱序
+            courseEventSink.publish(pending.stream().map(this::toEvent).collect(Collectors.toList()));
+        } catch (Exception e) {
+            if (courseEventSink.isUnavailable(e)) {
+                postpone(pending, e);
+                return 0;
+            }
+            log.warn("课程事件投递失败，批次大小：{}，起始ID：{}", pending.size(), pending.get(0).getId(), e);
+            if (pending.size() == 1) {
+                markFailed(pending.get(0), e);
+                return 0;
+            }
+            return relayOneByOne(pending);
+        }
+
+        outboxRepository.markPublished(ids(pending), new Date());
+        unavailableStreak.set(0);
+        return pending.size();
+    }
+
+    @Override
+    public int requeueParked(Long courseId) {
+        int[] requeued = {0};
+        onEachShard(() -> requeued[0] += transactionTemplate.execute(status ->
+                outboxRepository.requeueParked(courseId)));
+        log.info("停放的课程事件重新投递，课程ID：{}，事件数：{}", courseId, requeued[0]);
+        return requeued[0];
+    }
+
+    @Override
+    @Transactional
+    public int purgePublishedEvents() {
+        Date before = new Date(System.currentTimeMillis() - properties.getRetentionDays() * 24L * 3600 * 1000);
+        return outboxRepository.deletePublishedBefore(before);
+    }
+
+    /**
+     * 去掉批次之外还有更早未投递事件的课程：其他节点领取了这些课程更早的事件，或更早的事件已停放、正在退避，本批先投递会乱序，留到下次领取
+     */
+    private List<CourseEventOutbox> withoutBlockedCourses(List<CourseEventOutbox> claimed) {
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        Set<Long> courseIds = claimed.stream().map(CourseEventOutbox::getCourseId).collect(Collectors.toSet());
+        Long maxId = claimed.get(claimed.size() - 1).getId();
+        Set<Long> blocked = new HashSet<>(
+                outboxRepository.findCoursesWithEarlierPending(courseIds, maxId, ids(claimed)));
+        if (blocked.isEmpty()) {
+            return claimed;
+        }
+        return claimed.stream().filter(outbox -> !blocked.contains(outbox.getCourseId())).collect(Collectors.toList());
+    }
+
+    /**
+     * 整批失败后逐条投递，在第一个失败的事件处停止：之前的事件标记为已投递，失败的事件记一次失败，
+     * 之后的事件不计失败、下次重新领取。反复失败的只是这一个事件，停放时不会连带整批事件；
+     * 同一课程之后的事件不会越过它，其他课程的事件照常投递。
+     * 单条投递也因投递目标不可用而失败时，说明不是事件本身的问题，剩余事件一起推迟，不计失败
+     */
+    private int relayOneByOne(List<CourseEventOutbox> pending) {
+        List<Long> published = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            CourseEventOutbox outbox = pending.get(i);
+            try {
+                courseEventSink.publish(List.of(toEvent(outbox)));
+            } catch (Exception e) {
+                if (courseEventSink.isUnavailable(e)) {
+                    postpone(pending.subList(i, pending.size()), e);
+                } else {
+                    markFailed(outbox, e);
+                }
+                break;
+            }
+            published.add(outbox.getId());
+        }
+        if (!published.isEmpty()) {
+            outboxRepository.markPublished(published, new Date());
+        }
+        return published.size();
+    }
+
+    /**
+     * 投递目标不可用：事件推迟到退避时间之后，本节点在此之前暂停领取，不计失败次数
+     */
+    private void postpone(List<CourseEventOutbox> outboxes, Exception e) {
+        long delay = backoff(unavailableStreak.incrementAndGet());
+        pausedUntil = System.currentTimeMillis() + delay;
+        outboxRepository.postpone(ids(outboxes), abbreviate(e.getMessage()), new Date(pausedUntil));
+        log.warn("课程事件投递目标不可用，{}毫秒后重试，不计入失败次数，事件数：{}，起始ID：{}",
+                delay, outboxes.size(), outboxes.get(0).getId(), e);
+    }
+
+    /**
+     * 记录一次投递失败并按退避时间推迟，失败次数达到 max-attempts 后停放
+     */
+    private void markFailed(CourseEventOutbox outbox, Exception e) {
+        String error = abbreviate(e.getMessage());
+        int attempts = outbox.getAttempts() + 1;
+        if (attempts < properties.getMaxAttempts()) {
+            outboxRepository.markFailed(outbox.getId(), error,
+                    new Date(System.currentTimeMillis() + backoff(attempts)));
+            return;
+        }
+        outboxRepository.park(outbox.getId(), error);
+        log.error("课程事件投递失败{}次，已停放，该课程之后的事件暂停投递，需人工处理，发件箱ID：{}，事件ID：{}，课程ID：{}",
+                attempts, outbox.getId(), outbox.getEventId(), outbox.getCourseId(), e);
+    }
+
+    /**
+     * 指数退避：initial * 2^(n-1)，不超过上限
+     */
+    long backoff(int n) {
+        long delay = properties.getInitialBackoffMs() << Math.min(n - 1, 30);
+        return Math.min(delay, properties.getMaxBackoffMs());
+    }
+
+    /**
+     * 启用分库时在每个分片上各执行一次
+     */
+    private void onEachShard(Runnable action) {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            action.run();
+        } else {
+            registry.forEachShard(action);
+        }
+    }
+
+    private static List<Long> ids(List<CourseEventOutbox> outboxes) {
+        return outboxes.stream().map(CourseEventOutbox::getId).collect(Collectors.toList());
+    }
+
+    private CourseEvent toEvent(CourseEventOutbox outbox) {
+        CourseEvent event = new CourseEvent();
+        event.setSequence(outbox.getId());
+        event.setEventId(outbox.getEventId());
+        event.setCourseId(outbox.getCourseId());
+        event.setOrganizationId(outbox.getOrganizationId());
+        event.setEventType(outbox.getEventType());
+        event.setPayload(outbox.getPayload());
+        event.setOccurredAt(outbox.getCreateTime());
+        return event;
+    }
+
+    /**
+     * 事件内容只携带下游增量更新需要的字段
+     */
+    private String buildPayload(CourseBase courseBase) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("courseId", courseBase.getId());
+        payload.put("organizationId", courseBase.getOrganizationId());
+        payload.put("name", courseBase.getName());
+        payload.put("status", courseBase.getStatus());
+        payload.put("mt", courseBase.getMt());
+        payload.put("st", courseBase.getSt());
+        CoursePublishPre publishPre = courseBase.getCoursePublishPre();
+        payload.put("auditStatus", publishPre == null ? null : publishPre.getStatus());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("课程事件序列化失败", e);
+        }
+    }
+
+    private String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,330 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.base.stats.DecayingTopK;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.config.CoursePopularityProperties;
+import com.double2and9.content_service.dto.CoursePopularityDTO;
+import com.double2and9.content_service.dto.CourseTrendingDTO;
+import com.double2and9.content_service.entity.CourseCatalog;
+import com.double2and9.content_service.entity.CoursePopularity;
+import com.double2and9.content_service.repository.CourseCatalogRepository;
+import com.double2and9.content_service.repository.CoursePopularityRepository;
+import com.double2and9.content_service.service.CoursePopularityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 课程热度
+ * 浏览、报名只在内存中累加：每门课程一对 LongAdder，高并发下各线程写入不同的分段，不争用同一个计数。
+ * 定期把增量取出并清零，按课程合并后分批写入：
+ * <ol>
+ *     <li>MySQL：逐个分片按课程目录找出已发布的课程和所属机构，按机构分组，每个机构一个事务累加到 course_popularity，
+ *     未发布的课程丢弃；机构迁移中时写入被拒绝，该机构的增量放回内存，迁移结束后写到新分片</li>
+ *     <li>Redis：写入MySQL成功的增量用一个pipeline累加到哈希，失败只记录日志，以MySQL为准</li>
+ *     <li>热门课程：写入成功的增量累加到本节点按时间衰减的 Top-K，各节点分别统计自己收到的请求</li>
+ * </ol>
+ * 写入失败的增量放回内存，下次重试；节点崩溃时最多丢失一个写入间隔的统计，计数本身是近似值。
+ */
+@Slf4j
+@Service
+public class CoursePopularityServiceImpl implements CoursePopularityService {
+
+    /**
+     * 一门课程在两次写入之间的浏览和报名增量
+     */
+    private static final class Delta {
+        final LongAdder views = new LongAdder();
+        final LongAdder enrollments = new LongAdder();
+    }
+
+    private final CoursePopularityRepository coursePopularityRepository;
+    private final CourseCatalogRepository courseCatalogRepository;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final CoursePopularityProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, Delta> deltas = new ConcurrentHashMap<>();
+    private final DecayingTopK<Long> trending;
+    private final Counter dropped;
+
+    public CoursePopularityServiceImpl(CoursePopularityRepository coursePopularityRepository,
+                                       CourseCatalogRepository courseCatalogRepository,
+                                       ObjectProvider<ShardRegistry> shardRegistry,
+                                       StringRedisTemplate redisTemplate,
+                                       CoursePopularityProperties properties,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.coursePopularityRepository = coursePopularityRepository;
+        this.courseCatalogRepository = courseCatalogRepository;
+        this.shardRegistry = shardRegistry;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.trending = new DecayingTopK<>(properties.getTrendingCapacity(), properties.getTrendingHalfLifeMs(),
+                System.currentTimeMillis());
+        this.dropped = Counter.builder("course.popularity.dropped")
+                .description("统计的课程数达到上限后未计数的浏览和报名")
+                .register(meterRegistry);
+        Gauge.builder("course.popularity.pending", deltas, Map::size)
+                .description("本节点有未写入增量的课程数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordView(Long courseId) {
+        Delta delta = deltaOf(courseId);
+        if (delta != null) {
+            delta.views.increment();
+        }
+    }
+
+    @Override
+    public void recordEnrollment(Long courseId) {
+        Delta delta = deltaOf(courseId);
+        if (delta != null) {
+            delta.enrollments.increment();
+        }
+    }
+
+    private Delta deltaOf(Long courseId) {
+        if (!properties.isEnabled() || courseId == null) {
+            return null;
+        }
+        Delta delta = deltas.get(courseId);
+        if (delta == null) {
+            if (deltas.size() >= properties.getMaxTrackedCourses()) {
+                dropped.increment();
+                return null;
+            }
+            delta = deltas.computeIfAbsent(courseId, id -> new Delta());
+        }
+        return delta;
+    }
+
+    /**
+     * 同一时间只有一个线程写入，避免同一增量被两次取出后乱序写入
+     */
+    @Override
+    public synchronized int flush() {
+        Map<Long, long[]> pending = drain();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Long> courseIds = new ArrayList<>(pending.keySet());
+        int written = 0;
+        for (int from = 0; from < courseIds.size(); from += properties.getFlushBatchSize()) {
+            List<Long> batch = courseIds.subList(from, Math.min(from + properties.getFlushBatchSize(), courseIds.size()));
+            written += flushBatch(batch, pending);
+        }
+        log.debug("写入课程热度增量，课程数：{}，已发布：{}", pending.size(), written);
+        return written;
+    }
+
+    /**
+     * 取出各课程的增量并清零；上一轮起没有增量的课程移出，其他课程保留计数器，热门课程不必每轮重新创建
+     */
+    private Map<Long, long[]> drain() {
+        Map<Long, long[]> pending = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<Long, Delta>> it = deltas.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Delta> entry = it.next();
+            long views = entry.getValue().views.sumThenReset();
+            long enrollments = entry.getValue().enrollments.sumThenReset();
+            if (views == 0 && enrollments == 0) {
+                // 移除与并发的累加之间没有同步，极少数增量可能丢失
+                it.remove();
+            } else {
+                pending.put(entry.getKey(), new long[]{views, enrollments});
+            }
+        }
+        return pending;
+    }
+
+    private int flushBatch(List<Long> batch, Map<Long, long[]> pending) {
+        // 迁移切换后、原分片删除前，同一门课程在两个分片上都有目录，按课程去重
+        Map<Long, Long> organizations = new HashMap<>();
+        try {
+            onEachShard(() -> courseCatalogRepository.findAllById(batch)
+                    .forEach(course -> organizations.put(course.getCourseId(), course.getOrganizationId())));
+        } catch (RuntimeException e) {
+            log.warn("查询课程目录失败，课程热度增量下次重试，课程数：{}", batch.size(), e);
+            batch.forEach(courseId -> restore(courseId, pending.get(courseId)));
+            return 0;
+        }
+        Map<Long, List<Long>> byOrganization = organizations.entrySet().stream().collect(Collectors.groupingBy(
+                Map.Entry::getValue, TreeMap::new, Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        List<Long> written = new ArrayList<>();
+        byOrganization.forEach((organizationId, courseIds) -> {
+            try {
+                writeOrganization(organizationId, courseIds, pending);
+                written.addAll(courseIds);
+            } catch (RuntimeException e) {
+                // 已写入的机构不重复写，其余放回内存
+                if (e instanceof ContentException ce && ce.getErrorCode() == ContentErrorCode.TENANT_MOVING) {
+                    log.info("机构数据迁移中，课程热度增量下次重试，机构ID：{}，课程数：{}", organizationId, courseIds.size());
+                } else {
+                    log.warn("写入课程热度增量失败，下次重试，机构ID：{}，课程数：{}", organizationId, courseIds.size(), e);
+                }
+                courseIds.forEach(courseId -> restore(courseId, pending.get(courseId)));
+            }
+        });
+        if (written.isEmpty()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        for (Long courseId : written) {
+            long[] delta = pending.get(courseId);
+            trending.add(courseId, delta[0] + delta[1] * properties.getEnrollmentWeight(), now);
+        }
+        if (properties.isRedisEnabled()) {
+            incrementRedis(written, pending);
+        }
+        return written.size();
+    }
+
+    /**
+     * 以机构身份在一个事务中累加该机构课程的增量，路由到机构所在的分片；机构迁移中时抛出 TENANT_MOVING
+     */
+    private void writeOrganization(Long organizationId, List<Long> courseIds, Map<Long, long[]> pending) {
+        TenantContext.callAs(organizationId, () -> transactionTemplate.execute(status -> {
+            Date now = new Date();
+            for (Long courseId : courseIds) {
+                long[] delta = pending.get(courseId);
+                coursePopularityRepository.increment(courseId, organizationId, delta[0], delta[1], now);
+            }
+            return null;
+        }));
+    }
+
+    private void restore(Long courseId, long[] delta) {
+        Delta current = deltas.computeIfAbsent(courseId, id -> new Delta());
+        current.views.add(delta[0]);
+        current.enrollments.add(delta[1]);
+    }
+
+    private void incrementRedis(Iterable<Long> courseIds, Map<Long, long[]> pending) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        byte[] viewsKey = serializer.serialize(properties.getRedisKeyPrefix() + ":views");
+        byte[] enrollmentsKey = serializer.serialize(properties.getRedisKeyPrefix() + ":enrollments");
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long courseId : courseIds) {
+                    long[] delta = pending.get(courseId);
+                    byte[] field = serializer.serialize(String.valueOf(courseId));
+                    if (delta[0] > 0) {
+                        connection.hashCommands().hIncrBy(viewsKey, field, delta[0]);
+                    }
+                    if (delta[1] > 0) {
+                        connection.hashCommands().hIncrBy(enrollmentsKey, field, delta[1]);
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("课程热度增量写入Redis失败，以MySQL为准：{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<CourseTrendingDTO> trending(Integer size) {
+        int limit = Math.max(1, Math.min(size == null ? 10 : size, properties.getMaxTrendingSize()));
+        // 多取一些候选，已下架的课程过滤后仍能凑满
+        List<DecayingTopK.Scored<Long>> candidates = trending.top(limit * 2, System.currentTimeMillis());
+        List<Long> courseIds = candidates.stream().map(DecayingTopK.Scored::key).collect(Collectors.toList());
+        Map<Long, CourseCatalog> published = new HashMap<>();
+        if (!courseIds.isEmpty()) {
+            onEachShard(() -> courseCatalogRepository.findAllById(courseIds)
+                    .forEach(course -> published.put(course.getCourseId(), course)));
+        }
+
+        List<CourseTrendingDTO> result = new ArrayList<>();
+        for (DecayingTopK.Scored<Long> candidate : candidates) {
+            CourseCatalog course = published.get(candidate.key());
+            if (course == null) {
+                trending.remove(candidate.key());
+            } else if (result.size() < limit) {
+                result.add(toTrendingDTO(course, candidate.score()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CoursePopularityDTO getPopularity(Long courseId) {
+        List<CoursePopularity> popularity = new ArrayList<>();
+        List<CourseCatalog> published = new ArrayList<>();
+        onEachShard(() -> {
+            coursePopularityRepository.findById(courseId).ifPresent(popularity::add);
+            if (popularity.isEmpty()) {
+                courseCatalogRepository.findById(courseId).ifPresent(published::add);
+            }
+        });
+
+        CoursePopularityDTO dto = new CoursePopularityDTO();
+        dto.setCourseId(courseId);
+        if (!popularity.isEmpty()) {
+            dto.setOrganizationId(popularity.get(0).getOrganizationId());
+            dto.setViewCount(popularity.get(0).getViewCount());
+            dto.setEnrollCount(popularity.get(0).getEnrollCount());
+        } else if (!published.isEmpty()) {
+            dto.setOrganizationId(published.get(0).getOrganizationId());
+            dto.setViewCount(0L);
+            dto.setEnrollCount(0L);
+        } else {
+            throw new ContentException(ContentErrorCode.COURSE_NOT_EXISTS);
+        }
+        Delta delta = deltas.get(courseId);
+        if (delta != null) {
+            dto.setViewCount(dto.getViewCount() + delta.views.sum());
+            dto.setEnrollCount(dto.getEnrollCount() + delta.enrollments.sum());
+        }
+        return dto;
+    }
+
+    /**
+     * 课程热度与课程目录在课程所在的分片，按课程ID查找时逐个分片执行；任一分片失败时整个操作失败
+     */
+    private void onEachShard(Runnable action) {
+        ShardRegistry registry = shardRegistry.getIfAvailable();
+        if (registry == null) {
+            action.run();
+        } else {
+            registry.dataSources().keySet().forEach(shard -> TenantContext.runOnShard(shard, action));
+        }
+    }
+
+    private static CourseTrendingDTO toTrendingDTO(CourseCatalog course, double score) {
+        CourseTrendingDTO dto = new CourseTrendingDTO();
+        dto.setCourseId(course.getCourseId());
+        dto.setOrganizationId(course.getOrganizationId());
+        dto.setName(course.getName());
+        dto.setLogo(course.getLogo());
+        dto.setCharge(course.getCharge());
+        dto.setPrice(course.getPrice());
+        dto.setScore(score);
+        return dto;
+    }
+}
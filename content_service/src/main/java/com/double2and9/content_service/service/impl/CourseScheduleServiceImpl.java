@@ -0,0 +1,199 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.config.CourseScheduleProperties;
+import com.double2and9.content_service.dto.CourseBulkErrorDTO;
+import com.double2and9.content_service.dto.CourseScheduleDTO;
+import com.double2and9.content_service.entity.CourseSchedule;
+import com.double2and9.content_service.repository.CourseScheduleRepository;
+import com.double2and9.content_service.service.CourseScheduleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 课程定时发布/下架
+ * 记录在默认分片的 course_schedule 表中，每门课程每种操作一行。执行分两步，都是条件更新：
+ * <ol>
+ *     <li>领取：PENDING 且没有租约（或租约已到期）的记录写入节点、领取批次和租约到期时间，并发领取时只有一个节点成功</li>
+ *     <li>执行前：领取批次未变、租约未到期的记录改为FIRING并换成新的批次标识，执行后按该标识改为DONE或FAILED</li>
+ * </ol>
+ * 重新设置时间或取消会清空领取批次，节点时间轮中的旧条目随之失效；
+ * 执行中节点失联的记录无法确定是否已生效，租约到期后标记为FAILED，不重复执行。
+ */
+@Slf4j
+@Service
+public class CourseScheduleServiceImpl implements CourseScheduleService {
+
+    private static final int MAX_LIST_SIZE = 200;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final CourseScheduleRepository courseScheduleRepository;
+    private final CourseScheduleProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public CourseScheduleServiceImpl(CourseScheduleRepository courseScheduleRepository,
+                                     CourseScheduleProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.courseScheduleRepository = courseScheduleRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public CourseScheduleDTO schedule(Long organizationId, Long courseId, String operation, Date fireTime) {
+        Date now = new Date();
+        if (fireTime == null || !fireTime.after(now)) {
+            throw new ContentException(ContentErrorCode.COURSE_SCHEDULE_TIME_INVALID);
+        }
+        CourseSchedule schedule = transactionTemplate.execute(status -> {
+            if (courseScheduleRepository.reschedule(courseId, operation, organizationId, fireTime, now) == 0) {
+                if (courseScheduleRepository.findByCourseIdAndOperation(courseId, operation).isPresent()) {
+                    throw new ContentException(ContentErrorCode.COURSE_SCHEDULE_STATUS_ERROR);
+                }
+                CourseSchedule created = new CourseSchedule();
+                created.setCourseId(courseId);
+                created.setOrganizationId(organizationId);
+                created.setOperation(operation);
+                created.setFireTime(fireTime);
+                created.setStatus(CourseSchedule.PENDING);
+                created.setCreateTime(now);
+                created.setUpdateTime(now);
+                return courseScheduleRepository.save(created);
+            }
+            return courseScheduleRepository.findByCourseIdAndOperation(courseId, operation).orElseThrow();
+        });
+        log.info("设置课程定时任务，课程ID：{}，操作：{}，执行时间：{}", courseId, operation, fireTime);
+        return toDTO(schedule);
+    }
+
+    @Override
+    public List<CourseScheduleDTO> listSchedules(Long organizationId) {
+        return courseScheduleRepository
+                .findByOrganizationIdOrderByFireTimeDesc(organizationId, PageRequest.of(0, MAX_LIST_SIZE)).stream()
+                .map(CourseScheduleServiceImpl::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CourseScheduleDTO cancel(Long scheduleId) {
+        CourseSchedule schedule = transactionTemplate.execute(status -> {
+            int cancelled = courseScheduleRepository.cancel(scheduleId, new Date());
+            CourseSchedule current = courseScheduleRepository.findById(scheduleId)
+                    .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_SCHEDULE_NOT_EXISTS));
+            if (cancelled == 0 && !CourseSchedule.CANCELLED.equals(current.getStatus())) {
+                throw new ContentException(ContentErrorCode.COURSE_SCHEDULE_STATUS_ERROR);
+            }
+            return current;
+        });
+        log.info("取消课程定时任务，定时任务ID：{}", scheduleId);
+        return toDTO(schedule);
+    }
+
+    @Override
+    public List<CourseSchedule> claimDue(String nodeId) {
+        List<CourseSchedule> claimed = new ArrayList<>();
+        for (int round = 0; round < properties.getMaxClaimRounds(); round++) {
+            Date now = new Date();
+            Date until = new Date(now.getTime() + properties.getHorizonMs());
+            Date leaseUntil = new Date(until.getTime() + properties.getLeaseMs());
+            String token = UUID.randomUUID().toString();
+            List<Long> candidates = transactionTemplate.execute(status -> {
+                List<Long> ids = courseScheduleRepository.findClaimableIds(until, now,
+                        PageRequest.of(0, properties.getClaimBatchSize()));
+                if (!ids.isEmpty()) {
+                    courseScheduleRepository.claim(ids, nodeId, token, leaseUntil, now);
+                }
+                return ids;
+            });
+            if (candidates == null || candidates.isEmpty()) {
+                break;
+            }
+            claimed.addAll(courseScheduleRepository.findByClaimToken(token));
+            if (candidates.size() < properties.getClaimBatchSize()) {
+                break;
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public List<CourseSchedule> startFiring(String claimToken, List<Long> scheduleIds) {
+        Date now = new Date();
+        String fireToken = UUID.randomUUID().toString();
+        Integer started = transactionTemplate.execute(status -> courseScheduleRepository.startFiring(
+                scheduleIds, claimToken, fireToken, new Date(now.getTime() + properties.getLeaseMs()), now));
+        if (started == null || started == 0) {
+            return List.of();
+        }
+        return courseScheduleRepository.findByClaimToken(fireToken);
+    }
+
+    @Override
+    public void finish(List<CourseSchedule> fired, List<CourseBulkErrorDTO> errors) {
+        if (fired.isEmpty()) {
+            return;
+        }
+        String fireToken = fired.get(0).getClaimToken();
+        Map<Long, Long> scheduleIds = fired.stream()
+                .collect(Collectors.toMap(CourseSchedule::getCourseId, CourseSchedule::getId));
+        List<Long> succeeded = new ArrayList<>(scheduleIds.values());
+        Date now = new Date();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (CourseBulkErrorDTO error : errors) {
+                Long scheduleId = scheduleIds.get(error.getCourseId());
+                succeeded.remove(scheduleId);
+                courseScheduleRepository.finish(List.of(scheduleId), fireToken, CourseSchedule.FAILED,
+                        error.getCode(), truncate(error.getMessage()), now);
+            }
+            if (!succeeded.isEmpty()) {
+                courseScheduleRepository.finish(succeeded, fireToken, CourseSchedule.DONE, null, null, now);
+            }
+        });
+    }
+
+    @Override
+    public int release(String nodeId) {
+        Integer released = transactionTemplate.execute(status -> courseScheduleRepository.release(nodeId, new Date()));
+        return released == null ? 0 : released;
+    }
+
+    @Override
+    public int failStale() {
+        Integer failed = transactionTemplate.execute(status -> courseScheduleRepository.failStale(
+                ContentErrorCode.SYSTEM_ERROR.getCode(), "执行节点失联，是否已生效请检查课程状态", new Date()));
+        if (failed != null && failed > 0) {
+            log.warn("课程定时任务执行中节点失联，已标记为失败，数量：{}", failed);
+        }
+        return failed == null ? 0 : failed;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static CourseScheduleDTO toDTO(CourseSchedule schedule) {
+        CourseScheduleDTO dto = new CourseScheduleDTO();
+        dto.setId(schedule.getId());
+        dto.setCourseId(schedule.getCourseId());
+        dto.setOrganizationId(schedule.getOrganizationId());
+        dto.setOperation(schedule.getOperation());
+        dto.setFireTime(schedule.getFireTime());
+        dto.setStatus(schedule.getStatus());
+        dto.setErrorCode(schedule.getErrorCode());
+        dto.setMessage(schedule.getMessage());
+        dto.setUpdateTime(schedule.getUpdateTime());
+        return dto;
+    }
+}
@@ -1,23 +1,34 @@
 package com.double2and9.content_service.service.impl;
 
 import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.cache.CourseCache;
 import com.double2and9.content_service.common.exception.ContentException;
 import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CourseTeacherBatchDTO;
 import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.dto.CourseTeacherSyncResultDTO;
 import com.double2and9.content_service.dto.SaveCourseTeacherDTO;
 import com.double2and9.content_service.entity.CourseBase;
 import com.double2and9.content_service.entity.CourseTeacher;
 import com.double2and9.content_service.repository.CourseBaseRepository;
 import com.double2and9.content_service.repository.CourseTeacherRepository;
+import com.double2and9.content_service.repository.CourseTeacherRow;
 import com.double2and9.content_service.service.CourseTeacherService;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,27 +38,21 @@ public class CourseTeacherServiceImpl implements CourseTeacherService {
     private final CourseTeacherRepository courseTeacherRepository;
     private final CourseBaseRepository courseBaseRepository;
     private final ModelMapper modelMapper;
+    private final CourseCache courseCache;
 
     public CourseTeacherServiceImpl(CourseTeacherRepository courseTeacherRepository,
                                   CourseBaseRepository courseBaseRepository,
-                                  ModelMapper modelMapper) {
+                                  ModelMapper modelMapper,
+                                  CourseCache courseCache) {
         this.courseTeacherRepository = courseTeacherRepository;
         this.courseBaseRepository = courseBaseRepository;
         this.modelMapper = modelMapper;
+        this.courseCache = courseCache;
     }
 
     @Override
     public List<CourseTeacherDTO> listByCourseId(Long courseId) {
-        List<CourseTeacher> teachers = courseTeacherRepository.findByCourseId(courseId);
-        return teachers.stream()
-                .map(teacher -> {
-                    CourseTeacherDTO dto = modelMapper.map(teacher, CourseTeacherDTO.class);
-                    dto.setCourseIds(teacher.getCourses().stream()
-                        .map(CourseBase::getId)
-                        .collect(Collectors.toSet()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return toDTOs(courseTeacherRepository.findRowsByCourseId(courseId));
     }
 
     @Override
@@ -58,6 +63,9 @@ public class CourseTeacherServiceImpl implements CourseTeacherService {
         if (teacherDTO.getId() != null) {
             teacher = courseTeacherRepository.findById(teacherDTO.getId())
                     .orElseThrow(() -> new ContentException(ContentErrorCode.TEACHER_NOT_EXISTS));
+            courseCache.evictOrganizationTeachers(teacher.getOrganizationId());
+            // 教师出现在所教课程的预览中，原来关联的课程也要删除缓存
+            courseCache.evict(courseIdsOf(teacher));
         } else {
             teacher = new CourseTeacher();
             teacher.setCreateTime(new Date());
@@ -68,22 +76,98 @@ public class CourseTeacherServiceImpl implements CourseTeacherService {
         teacher.setUpdateTime(new Date());
 
         // 处理课程关联
-        Set<CourseBase> courses = courseBaseRepository.findAllById(teacherDTO.getCourseIds())
+        Map<Long, CourseBase> courses = courseBaseRepository.findAllById(teacherDTO.getCourseIds())
                 .stream()
-                .collect(Collectors.toSet());
+                .collect(Collectors.toMap(CourseBase::getId, Function.identity()));
         
         // 验证所有课程都属于同一机构
-        if (!courses.stream().allMatch(course -> 
+        if (!courses.values().stream().allMatch(course -> 
                 course.getOrganizationId().equals(teacherDTO.getOrganizationId()))) {
             throw new ContentException(ContentErrorCode.COURSE_ORG_NOT_MATCH);
         }
 
-        teacher.setCourses(courses);
+        syncCourses(teacher, courses);
         courseTeacherRepository.save(teacher);
+        courseCache.evictOrganizationTeachers(teacherDTO.getOrganizationId());
+        courseCache.evict(courses.keySet());
         
         log.info("保存教师信息成功，教师ID：{}，关联课程数：{}", teacher.getId(), courses.size());
     }
 
+    @Override
+    @Transactional
+    public CourseTeacherSyncResultDTO syncTeachers(CourseTeacherBatchDTO batchDTO) {
+        Long organizationId = batchDTO.getOrganizationId();
+        Set<Long> teacherIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (SaveCourseTeacherDTO item : batchDTO.getTeachers()) {
+            if (!organizationId.equals(item.getOrganizationId())) {
+                throw new ContentException(ContentErrorCode.COURSE_ORG_NOT_MATCH);
+            }
+            if (item.getId() != null && !teacherIds.add(item.getId())) {
+                throw new ContentException(ContentErrorCode.TEACHER_DUPLICATED, "教师重复：" + item.getId());
+            }
+            courseIds.addAll(item.getCourseIds());
+        }
+
+        // 已有教师连同关联课程一次查出，课程一次查出，逐个教师比较时不再访问数据库
+        Map<Long, CourseTeacher> existing = teacherIds.isEmpty() ? Map.of()
+                : courseTeacherRepository.findWithCoursesByOrganizationIdAndIdIn(organizationId, teacherIds).stream()
+                        .collect(Collectors.toMap(CourseTeacher::getId, Function.identity()));
+        if (existing.size() != teacherIds.size()) {
+            throw new ContentException(ContentErrorCode.TEACHER_NOT_EXISTS);
+        }
+        Map<Long, CourseBase> courses = courseBaseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(CourseBase::getId, Function.identity()));
+        if (courses.size() != courseIds.size()) {
+            throw new ContentException(ContentErrorCode.COURSE_NOT_EXISTS);
+        }
+        if (!courses.values().stream().allMatch(course -> organizationId.equals(course.getOrganizationId()))) {
+            throw new ContentException(ContentErrorCode.COURSE_ORG_NOT_MATCH);
+        }
+
+        // 新旧关联的课程都要删除预览缓存
+        Set<Long> affectedCourseIds = new HashSet<>(courseIds);
+        existing.values().forEach(teacher -> affectedCourseIds.addAll(courseIdsOf(teacher)));
+
+        CourseTeacherSyncResultDTO result = new CourseTeacherSyncResultDTO();
+        List<CourseTeacher> teachers = new ArrayList<>();
+        List<CourseTeacher> created = new ArrayList<>();
+        Date now = new Date();
+        for (SaveCourseTeacherDTO item : batchDTO.getTeachers()) {
+            CourseTeacher teacher = item.getId() != null ? existing.get(item.getId()) : new CourseTeacher();
+            boolean changed = applyFields(teacher, item);
+            Map<Long, CourseBase> targets = new HashMap<>();
+            item.getCourseIds().forEach(courseId -> targets.put(courseId, courses.get(courseId)));
+            CourseDiff diff = syncCourses(teacher, targets);
+            result.setRelationsInserted(result.getRelationsInserted() + diff.inserted());
+            result.setRelationsDeleted(result.getRelationsDeleted() + diff.deleted());
+
+            if (teacher.getId() == null) {
+                teacher.setCreateTime(now);
+                teacher.setUpdateTime(now);
+                created.add(teacher);
+            } else if (changed || diff.changed()) {
+                // 只有关联变化时教师本身不脏，显式刷新更新时间，ETag随之变化
+                teacher.setUpdateTime(now);
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                result.setUnchanged(result.getUnchanged() + 1);
+            }
+            teachers.add(teacher);
+        }
+        courseTeacherRepository.saveAll(created);
+        result.setCreated(created.size());
+        teachers.forEach(teacher -> result.getTeacherIds().add(teacher.getId()));
+        courseCache.evictOrganizationTeachers(organizationId);
+        courseCache.evict(affectedCourseIds);
+
+        log.info("批量同步教师，机构ID：{}，新建：{}，更新：{}，未变化：{}，新增关联：{}，删除关联：{}",
+                organizationId, result.getCreated(), result.getUpdated(), result.getUnchanged(),
+                result.getRelationsInserted(), result.getRelationsDeleted());
+        return result;
+    }
+
     @Override
     @Transactional
     public void deleteCourseTeacher(Long courseId, Long teacherId) {
@@ -99,8 +183,10 @@ public class CourseTeacherServiceImpl implements CourseTeacherService {
             throw new ContentException(ContentErrorCode.TEACHER_COURSE_NOT_MATCH);
         }
 
-        // 解除课程关联
-        teacher.getCourses().remove(courseBase);
+        // 解除课程关联；教师的课程列表出现在其余课程的预览中，一并删除缓存
+        courseCache.evict(courseIdsOf(teacher));
+        teacher.removeCourse(courseBase);
+        courseCache.evictOrganizationTeachers(teacher.getOrganizationId());
 
         // 如果教师不再关联任何课程，则删除教师
         if (teacher.getCourses().isEmpty()) {
@@ -114,16 +200,8 @@ public class CourseTeacherServiceImpl implements CourseTeacherService {
 
     @Override
     public List<CourseTeacherDTO> listByOrganizationId(Long organizationId) {
-        List<CourseTeacher> teachers = courseTeacherRepository.findByOrganizationId(organizationId);
-        return teachers.stream()
-                .map(teacher -> {
-                    CourseTeacherDTO dto = modelMapper.map(teacher, CourseTeacherDTO.class);
-                    dto.setCourseIds(teacher.getCourses().stream()
-                        .map(CourseBase::getId)
-                        .collect(Collectors.toSet()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return courseCache.getOrganizationTeachers(organizationId,
+                () -> toDTOs(courseTeacherRepository.findRowsByOrganizationId(organizationId)));
     }
 
     @Override
@@ -153,4 +231,93 @@ public class CourseTeacherServiceImpl implements CourseTeacherService {
             .collect(Collectors.toSet()));
         return dto;
     }
-} 
\ No newline at end of file
+
+    private static Set<Long> courseIdsOf(CourseTeacher teacher) {
+        return teacher.getCourses().stream().map(CourseBase::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * 课程关联的增删数
+     */
+    private record CourseDiff(int inserted, int deleted) {
+        boolean changed() {
+            return inserted > 0 || deleted > 0;
+        }
+    }
+
+    /**
+     * 在原集合上增删课程，不整体替换集合：
+     * Hibernate按集合快照只插入、删除变化的关联行（按 jdbc.batch_size 成批执行），替换集合则会删除全部关联后重新插入
+     *
+     * @param targets 课程ID -> 课程，教师最终关联的课程
+     */
+    private static CourseDiff syncCourses(CourseTeacher teacher, Map<Long, CourseBase> targets) {
+        Set<Long> current = new HashSet<>();
+        List<CourseBase> removed = new ArrayList<>();
+        for (CourseBase course : teacher.getCourses()) {
+            if (targets.containsKey(course.getId())) {
+                current.add(course.getId());
+            } else {
+                removed.add(course);
+            }
+        }
+        removed.forEach(teacher::removeCourse);
+        int inserted = 0;
+        for (CourseBase course : targets.values()) {
+            if (current.add(course.getId())) {
+                teacher.addCourse(course);
+                inserted++;
+            }
+        }
+        return new CourseDiff(inserted, removed.size());
+    }
+
+    /**
+     * 按同步数据设置教师字段，与保存接口一样忽略为空的字段
+     *
+     * @return 字段是否有变化
+     */
+    private static boolean applyFields(CourseTeacher teacher, SaveCourseTeacherDTO dto) {
+        boolean changed = false;
+        if (!Objects.equals(teacher.getOrganizationId(), dto.getOrganizationId())) {
+            teacher.setOrganizationId(dto.getOrganizationId());
+            changed = true;
+        }
+        if (!Objects.equals(teacher.getName(), dto.getName())) {
+            teacher.setName(dto.getName());
+            changed = true;
+        }
+        if (dto.getPosition() != null && !dto.getPosition().equals(teacher.getPosition())) {
+            teacher.setPosition(dto.getPosition());
+            changed = true;
+        }
+        if (dto.getDescription() != null && !dto.getDescription().equals(teacher.getDescription())) {
+            teacher.setDescription(dto.getDescription());
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * 把 (教师, 课程) 行按教师合并，保持查询的教师顺序
+     */
+    private static List<CourseTeacherDTO> toDTOs(List<CourseTeacherRow> rows) {
+        Map<Long, CourseTeacherDTO> teachers = new LinkedHashMap<>();
+        for (CourseTeacherRow row : rows) {
+            CourseTeacherDTO dto = teachers.computeIfAbsent(row.getId(), id -> {
+                CourseTeacherDTO teacher = new CourseTeacherDTO();
+                teacher.setId(id);
+                teacher.setOrganizationId(row.getOrganizationId());
+                teacher.setName(row.getName());
+                teacher.setPosition(row.getPosition());
+                teacher.setDescription(row.getDescription());
+                teacher.setCourseIds(new HashSet<>());
+                return teacher;
+            });
+            if (row.getCourseId() != null) {
+                dto.getCourseIds().add(row.getCourseId());
+            }
+        }
+        return new ArrayList<>(teachers.values());
+    }
+}
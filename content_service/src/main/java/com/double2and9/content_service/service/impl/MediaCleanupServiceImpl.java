@@ -0,0 +1,171 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.dto.BatchDeleteResultDTO;
+import com.double2and9.base.dto.CommonResponse;
+import com.double2and9.content_service.client.MediaAsyncClient;
+import com.double2and9.content_service.config.MediaCleanupProperties;
+import com.double2and9.content_service.entity.MediaCleanupTask;
+import com.double2and9.content_service.repository.MediaCleanupTaskRepository;
+import com.double2and9.content_service.service.MediaCleanupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 媒资异步清理服务
+ * 删除请求先落库，后台批量调用媒体服务删除；调用媒体服务时不持有数据库事务。
+ * 任务按租约领取，多个节点同时清理时同一任务只由一个节点处理；回写结果时只更新本批次仍持有租约的任务，
+ * 租约到期后被其他节点重新领取的任务不会被覆盖
+ */
+@Slf4j
+@Service
+public class MediaCleanupServiceImpl implements MediaCleanupService {
+
+    static final String STATUS_PENDING = "PENDING";
+    static final String STATUS_FAILED = "FAILED";
+
+    private final MediaCleanupTaskRepository taskRepository;
+    private final MediaAsyncClient mediaAsyncClient;
+    private final MediaCleanupProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public MediaCleanupServiceImpl(MediaCleanupTaskRepository taskRepository,
+                                   MediaAsyncClient mediaAsyncClient,
+                                   MediaCleanupProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.mediaAsyncClient = mediaAsyncClient;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long courseId, Long organizationId, String url) {
+        MediaCleanupTask task = new MediaCleanupTask();
+        task.setCourseId(courseId);
+        task.setOrganizationId(organizationId);
+        task.setUrl(url);
+        task.setStatus(STATUS_PENDING);
+        taskRepository.save(task);
+        log.info("登记媒资清理任务，课程ID：{}，URL：{}", courseId, url);
+    }
+
+    @Override
+    public int processDueTasks() {
+        // 1. 短事务领取到期任务
+        List<MediaCleanupTask> tasks = claimDue();
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        // 2. 事务外调用媒体服务批量删除
+        List<String> urls = tasks.stream().map(MediaCleanupTask::getUrl).distinct().collect(Collectors.toList());
+        Set<String> deleted = new HashSet<>();
+        String error = null;
+        try {
+            CommonResponse<BatchDeleteResultDTO> response = MediaAsyncClient.await(mediaAsyncClient.deleteMediaFiles(urls));
+            if (response != null && response.isSuccess() && response.getData() != null) {
+                deleted.addAll(response.getData().getDeletedUrls());
+                if (!response.getData().getFailedUrls().isEmpty()) {
+                    error = "媒体服务删除失败：" + response.getData().getFailedUrls().size() + "个文件";
+                }
+            } else {
+                error = response == null ? "媒体服务无响应" : response.getMessage();
+            }
+        } catch (Exception e) {
+            log.warn("批量删除媒资文件失败，数量：{}", urls.size(), e);
+            error = e.getMessage();
+        }
+
+        // 3. 短事务回写结果
+        String failure = error;
+        String token = tasks.get(0).getClaimToken();
+        transactionTemplate.executeWithoutResult(status -> applyResult(token, deleted, failure));
+        return tasks.size();
+    }
+
+    @Override
+    @Transactional
+    public int purgeDoneTasks() {
+        Date before = new Date(System.currentTimeMillis() - properties.getRetentionDays() * 24L * 3600 * 1000);
+        return taskRepository.deleteDoneBefore(before);
+    }
+
+    /**
+     * 条件更新领取到期任务，返回本节点领取成功的任务
+     */
+    private List<MediaCleanupTask> claimDue() {
+        Date now = new Date();
+        Date leaseUntil = new Date(now.getTime() + properties.getLeaseMs());
+        String token = UUID.randomUUID().toString();
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<Long> ids = taskRepository.findClaimableIds(now, PageRequest.of(0, properties.getBatchSize()));
+            return ids.isEmpty() ? 0 : taskRepository.claim(ids, token, leaseUntil, now);
+        });
+        if (claimed == null || claimed == 0) {
+            return List.of();
+        }
+        return taskRepository.findByClaimToken(token);
+    }
+
+    /**
+     * 回写本批次的结果：租约已到期的任务可能已被其他节点重新领取，不再回写
+     */
+    private void applyResult(String token, Set<String> deleted, String error) {
+        Date now = new Date();
+        List<MediaCleanupTask> tasks = taskRepository.findByClaimToken(token).stream()
+                .filter(task -> task.getLeaseUntil() != null && task.getLeaseUntil().after(now))
+                .collect(Collectors.toList());
+        List<Long> doneIds = new ArrayList<>();
+        List<MediaCleanupTask> retry = new ArrayList<>();
+        for (MediaCleanupTask task : tasks) {
+            if (deleted.contains(task.getUrl())) {
+                doneIds.add(task.getId());
+            } else {
+                retry.add(task);
+            }
+        }
+        if (!doneIds.isEmpty()) {
+            taskRepository.markDone(doneIds, token, now);
+        }
+        for (MediaCleanupTask task : retry) {
+            int attempts = task.getAttempts() + 1;
+            task.setAttempts(attempts);
+            task.setLastError(abbreviate(error));
+            task.setClaimToken(null);
+            task.setLeaseUntil(null);
+            if (attempts >= properties.getMaxAttempts()) {
+                task.setStatus(STATUS_FAILED);
+                log.error("媒资清理任务多次失败，已停止重试，任务ID：{}，URL：{}", task.getId(), task.getUrl());
+            } else {
+                task.setNextAttemptTime(new Date(now.getTime() + backoff(attempts)));
+            }
+        }
+        if (!retry.isEmpty()) {
+            taskRepository.saveAll(retry);
+        }
+    }
+
+    /**
+     * 指数退避：initial * 2^(attempts-1)，不超过上限
+     */
+    long backoff(int attempts) {
+        long delay = properties.getInitialBackoffMs() << Math.min(attempts - 1, 30);
+        return Math.min(delay, properties.getMaxBackoffMs());
+    }
+
+    private String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
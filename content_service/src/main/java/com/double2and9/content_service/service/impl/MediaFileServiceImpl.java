@@ -4,8 +4,10 @@ import com.double2and9.base.model.PageParams;
 import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.base.model.PageResult;
 import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.entity.AuditTask;
 import com.double2and9.content_service.entity.MediaFile;
 import com.double2and9.content_service.repository.MediaFileRepository;
+import com.double2and9.content_service.service.AuditQueueService;
 import com.double2and9.content_service.service.MediaFileService;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
@@ -26,10 +28,13 @@ public class MediaFileServiceImpl implements MediaFileService {
     
     private final MediaFileRepository mediaFileRepository;
     private final ModelMapper modelMapper;
+    private final AuditQueueService auditQueueService;
     
-    public MediaFileServiceImpl(MediaFileRepository mediaFileRepository, ModelMapper modelMapper) {
+    public MediaFileServiceImpl(MediaFileRepository mediaFileRepository, ModelMapper modelMapper,
+                                AuditQueueService auditQueueService) {
         this.mediaFileRepository = mediaFileRepository;
         this.modelMapper = modelMapper;
+        this.auditQueueService = auditQueueService;
     }
     
     @Override
@@ -51,7 +56,11 @@ public class MediaFileServiceImpl implements MediaFileService {
             mediaFile.setAuditStatus("202001"); // 其他类型默认待审核
         }
         
-        return mediaFileRepository.save(mediaFile);
+        MediaFile saved = mediaFileRepository.save(mediaFile);
+        if ("202001".equals(saved.getAuditStatus())) {
+            auditQueueService.enqueueMedia(saved);
+        }
+        return saved;
     }
     
     @Override
@@ -122,6 +131,7 @@ public class MediaFileServiceImpl implements MediaFileService {
         mediaFile.setAuditStatus(auditStatus);
         mediaFile.setAuditMessage(auditMessage);
         mediaFileRepository.save(mediaFile);
+        auditQueueService.complete(AuditTask.MEDIA, mediaFileId);
         
         log.info("更新媒资文件审核状态：mediaFileId={}, status={}", mediaFileId, auditStatus);
     }
@@ -2,6 +2,7 @@ package com.double2and9.content_service.service.impl;
 
 import com.double2and9.base.enums.ContentErrorCode;
 import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.TeachplanMediaBatchDTO;
 import com.double2and9.content_service.dto.TeachplanMediaDTO;
 import com.double2and9.content_service.entity.MediaFile;
 import com.double2and9.content_service.entity.Teachplan;
@@ -12,17 +13,30 @@ import com.double2and9.content_service.repository.TeachplanRepository;
 import com.double2and9.content_service.service.TeachplanMediaService;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class TeachplanMediaServiceImpl implements TeachplanMediaService {
 
+    /**
+     * 课程计划与媒资的配对
+     */
+    private record Binding(Long teachplanId, String mediaId) {
+    }
+
     private final TeachplanMediaRepository teachplanMediaRepository;
     private final TeachplanRepository teachplanRepository;
     private final MediaFileRepository mediaFileRepository;
@@ -83,12 +97,107 @@ public class TeachplanMediaServiceImpl implements TeachplanMediaService {
 
     @Override
     public List<TeachplanMediaDTO> getMediaByTeachplanId(Long teachplanId) {
-        List<TeachplanMedia> teachplanMediaList = teachplanMediaRepository.findByTeachplanId(teachplanId);
+        List<TeachplanMedia> teachplanMediaList = teachplanMediaRepository.findWithMediaFileByTeachplanId(teachplanId);
         return teachplanMediaList.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<TeachplanMediaDTO> getMediaByCourseId(Long courseId) {
+        return teachplanMediaRepository.findWithMediaFileByCourseId(courseId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public int associateMediaBatch(TeachplanMediaBatchDTO batchDTO) {
+        Set<Binding> bindings = toBindings(batchDTO);
+        int requested = bindings.size();
+        Set<Long> teachplanIds = bindings.stream().map(Binding::teachplanId).collect(Collectors.toSet());
+        Set<String> mediaIds = bindings.stream().map(Binding::mediaId).collect(Collectors.toSet());
+
+        // 课程计划（连同课程）、媒资、已有关联各一次IN查询
+        Map<Long, Teachplan> teachplans = teachplanRepository.findWithCourseByIdIn(teachplanIds).stream()
+                .collect(Collectors.toMap(Teachplan::getId, Function.identity()));
+        if (teachplans.size() < teachplanIds.size()) {
+            teachplanIds.removeAll(teachplans.keySet());
+            throw new ContentException(ContentErrorCode.TEACHPLAN_NOT_EXISTS, "课程计划不存在：" + teachplanIds);
+        }
+        Map<String, MediaFile> mediaFiles = mediaFileRepository.findAllById(mediaIds).stream()
+                .collect(Collectors.toMap(MediaFile::getMediaFileId, Function.identity()));
+        if (mediaFiles.size() < mediaIds.size()) {
+            mediaIds.removeAll(mediaFiles.keySet());
+            throw new ContentException(ContentErrorCode.MEDIA_NOT_EXISTS, "媒资文件不存在：" + mediaIds);
+        }
+        // 只能绑定课程所属机构的媒资
+        Set<String> foreignMediaIds = bindings.stream()
+                .filter(binding -> !Objects.equals(mediaFiles.get(binding.mediaId()).getOrganizationId(),
+                        teachplans.get(binding.teachplanId()).getCourseBase().getOrganizationId()))
+                .map(Binding::mediaId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!foreignMediaIds.isEmpty()) {
+            throw new ContentException(ContentErrorCode.MEDIA_ORG_NOT_MATCH, "媒资文件不属于课程所属机构：" + foreignMediaIds);
+        }
+        findExisting(teachplanIds, mediaIds, bindings).forEach(existing -> bindings.remove(toBinding(existing)));
+
+        Date now = new Date();
+        List<TeachplanMedia> created = new ArrayList<>(bindings.size());
+        for (Binding binding : bindings) {
+            TeachplanMedia teachplanMedia = new TeachplanMedia();
+            teachplanMedia.setTeachplan(teachplans.get(binding.teachplanId()));
+            teachplanMedia.setMediaFile(mediaFiles.get(binding.mediaId()));
+            teachplanMedia.setCreateTime(now);
+            teachplanMedia.setUpdateTime(now);
+            created.add(teachplanMedia);
+        }
+        try {
+            teachplanMediaRepository.saveAllAndFlush(created);
+        } catch (DataIntegrityViolationException e) {
+            // 并发绑定了同一对，由 (teachplan_id, media_id) 唯一索引拦下
+            throw new ContentException(ContentErrorCode.MEDIA_BIND_ERROR, "媒资绑定失败，请重试", e);
+        }
+        log.info("批量绑定课程计划与媒资，新建：{}，已存在：{}", created.size(), requested - created.size());
+        return created.size();
+    }
+
+    @Override
+    @Transactional
+    public int dissociateMediaBatch(TeachplanMediaBatchDTO batchDTO) {
+        Set<Binding> bindings = toBindings(batchDTO);
+        Set<Long> teachplanIds = bindings.stream().map(Binding::teachplanId).collect(Collectors.toSet());
+        Set<String> mediaIds = bindings.stream().map(Binding::mediaId).collect(Collectors.toSet());
+
+        List<TeachplanMedia> existing = findExisting(teachplanIds, mediaIds, bindings);
+        if (!existing.isEmpty()) {
+            teachplanMediaRepository.deleteByIdIn(existing.stream().map(TeachplanMedia::getId).collect(Collectors.toList()));
+        }
+        log.info("批量解除课程计划与媒资的绑定，解除：{}，请求：{}", existing.size(), bindings.size());
+        return existing.size();
+    }
+
+    /**
+     * 查询已存在的关联：按两组ID一次IN查询，再按配对过滤掉交叉组合
+     */
+    private List<TeachplanMedia> findExisting(Set<Long> teachplanIds, Set<String> mediaIds, Set<Binding> bindings) {
+        return teachplanMediaRepository.findByTeachplanIdsAndMediaFileIds(teachplanIds, mediaIds).stream()
+                .filter(teachplanMedia -> bindings.contains(toBinding(teachplanMedia)))
+                .collect(Collectors.toList());
+    }
+
+    private static Set<Binding> toBindings(TeachplanMediaBatchDTO batchDTO) {
+        Set<Binding> bindings = new LinkedHashSet<>();
+        for (TeachplanMediaDTO item : batchDTO.getItems()) {
+            bindings.add(new Binding(item.getTeachplanId(), item.getMediaId()));
+        }
+        return bindings;
+    }
+
+    private static Binding toBinding(TeachplanMedia teachplanMedia) {
+        return new Binding(teachplanMedia.getTeachplan().getId(), teachplanMedia.getMediaFile().getMediaFileId());
+    }
+
     private TeachplanMediaDTO convertToDTO(TeachplanMedia teachplanMedia) {
         TeachplanMediaDTO dto = new TeachplanMediaDTO();
         dto.setTeachplanId(teachplanMedia.getTeachplan().getId());
@@ -1,6 +1,7 @@
 package com.double2and9.content_service.service.impl;
 
 import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.cache.CourseCache;
 import com.double2and9.content_service.common.exception.ContentException;
 import com.double2and9.content_service.dto.SaveTeachplanDTO;
 import com.double2and9.content_service.dto.TeachplanDTO;
@@ -23,13 +24,16 @@ public class TeachplanServiceImpl implements TeachplanService {
     private final TeachplanRepository teachplanRepository;
     private final CourseBaseRepository courseBaseRepository;
     private final ModelMapper modelMapper;
+    private final CourseCache courseCache;
 
     public TeachplanServiceImpl(TeachplanRepository teachplanRepository,
                               CourseBaseRepository courseBaseRepository,
-                              ModelMapper modelMapper) {
+                              ModelMapper modelMapper,
+                              CourseCache courseCache) {
         this.teachplanRepository = teachplanRepository;
         this.courseBaseRepository = courseBaseRepository;
         this.modelMapper = modelMapper;
+        this.courseCache = courseCache;
     }
 
     @Override
@@ -96,6 +100,7 @@ public class TeachplanServiceImpl implements TeachplanService {
         
         // 保存课程计划
         Teachplan savedTeachplan = teachplanRepository.save(teachplan);
+        courseCache.evict(courseBase.getId());
         
         log.info("保存课程计划成功，课程ID：{}，课程计划ID：{}", courseBase.getId(), savedTeachplan.getId());
         return savedTeachplan.getId();  // 返回ID
@@ -120,6 +125,7 @@ public class TeachplanServiceImpl implements TeachplanService {
         
         // 删除当前课程计划
         teachplanRepository.delete(teachplan);
+        courseCache.evict(teachplan.getCourseBase().getId());
         
         log.info("课程计划删除成功，课程计划ID：{}", teachplanId);
     }
@@ -146,6 +152,7 @@ public class TeachplanServiceImpl implements TeachplanService {
         // 保存更改
         teachplanRepository.save(current);
         teachplanRepository.save(previous.get());
+        courseCache.evict(current.getCourseBase().getId());
     }
 
     @Override
@@ -170,5 +177,6 @@ public class TeachplanServiceImpl implements TeachplanService {
         // 保存更改
         teachplanRepository.save(current);
         teachplanRepository.save(next.get());
+        courseCache.evict(current.getCourseBase().getId());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,388 @@
+package com.double2and9.content_service.service.impl;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantDirectory;
+import com.double2and9.content_service.common.shard.TenantDirectory.Placement;
+import com.double2and9.content_service.config.ShardingProperties;
+import com.double2and9.content_service.dto.TenantShardDTO;
+import com.double2and9.content_service.service.TenantShardService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 机构分片管理
+ * 迁移流程：
+ * <ol>
+ *     <li>目录标记为MOVING并等待目录缓存过期，所有节点都开始拒绝该机构的写入，读取仍在原分片</li>
+ *     <li>等待该机构未投递的课程事件、未完成的媒资清理任务由原分片的后台任务处理完</li>
+ *     <li>清掉目标分片上该机构的残留数据（上次失败的迁移），按外键顺序逐表复制，主键不变</li>
+ *     <li>核对每张表的记录数，一致后目录切换到目标分片，恢复写入</li>
+ *     <li>再等待一次缓存过期，没有节点再读原分片后删除原分片上的数据</li>
+ * </ol>
+ * 复制或核对失败时目录恢复为原分片，目标分片上复制了一半的数据被删除。
+ * 发件箱（course_event_outbox）和媒资清理任务（media_cleanup_task）不随机构复制，而是在切换前排空：
+ * 发件箱按主键顺序投递，复制到目标分片的事件主键在原分片的区间内，与目标分片新产生的事件排不出课程内的先后，
+ * 原分片的中继也会继续投递复制前留下的事件；排空后两张表上只剩已投递的事件和已结束的任务，留在原分片按保留期清理。
+ * 有停放的事件或排空超过 move-drain-timeout-ms 时迁移失败，停放的事件需要先重新投递。
+ * 标记MOVING后请求立即返回，之后的步骤在后台线程执行，进度通过查询接口查看；执行节点每复制一批续约一次，
+ * 节点失联（超过 move-lease-ms 没有续约）的迁移由任一节点的定时任务回滚，机构不会一直停留在只读状态。
+ * 标记MOVING前已经开始的写事务如果在等待时间内没有结束，其写入可能漏复制，缓存时间应大于最长的写事务。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "content.sharding.enabled", havingValue = "true")
+public class TenantShardServiceImpl implements TenantShardService {
+
+    private static final int MAX_QUEUED_MOVES = 16;
+
+    private static final long DRAIN_POLL_MS = 200;
+
+    private static final String COURSE_IDS = "SELECT id FROM course_base WHERE organization_id = ?";
+
+    private static final String PARKED_EVENTS =
+            "SELECT COUNT(*) FROM course_event_outbox WHERE organization_id = ? AND published = FALSE AND parked = TRUE";
+
+    /**
+     * 机构的课程数据，按插入顺序（先父表后子表）排列；条件中的唯一参数是机构ID
+     */
+    private static final Map<String, String> TENANT_TABLES = new LinkedHashMap<>();
+
+    static {
+        TENANT_TABLES.put("course_base", "organization_id = ?");
+        TENANT_TABLES.put("course_market", "id IN (" + COURSE_IDS + ")");
+        TENANT_TABLES.put("course_publish_pre", "id IN (" + COURSE_IDS + ")");
+        TENANT_TABLES.put("course_publish", "id IN (" + COURSE_IDS + ")");
+        TENANT_TABLES.put("course_status_counter", "organization_id = ?");
+        TENANT_TABLES.put("course_catalog", "organization_id = ?");
+        TENANT_TABLES.put("course_popularity", "organization_id = ?");
+        TENANT_TABLES.put("audit_task", "organization_id = ?");
+        TENANT_TABLES.put("course_teacher", "organization_id = ?");
+        TENANT_TABLES.put("course_teacher_relation", "course_id IN (" + COURSE_IDS + ")");
+        TENANT_TABLES.put("media_files", "organization_id = ?");
+        TENANT_TABLES.put("teachplan", "course_id IN (" + COURSE_IDS + ")");
+        TENANT_TABLES.put("teachplan_media",
+                "teachplan_id IN (SELECT id FROM teachplan WHERE course_id IN (" + COURSE_IDS + "))");
+    }
+
+    /**
+     * 切换分片前需要在原分片上处理完的异步任务，不复制；条件中的唯一参数是机构ID
+     */
+    private static final Map<String, String> DRAINED_TABLES = new LinkedHashMap<>();
+
+    static {
+        DRAINED_TABLES.put("course_event_outbox", "organization_id = ? AND published = FALSE");
+        DRAINED_TABLES.put("media_cleanup_task", "organization_id = ? AND status = 'PENDING'");
+    }
+
+    private final ShardRegistry shardRegistry;
+    private final TenantDirectory tenantDirectory;
+    private final ShardingProperties properties;
+    /**
+     * 迁移在后台逐个执行
+     */
+    private final ThreadPoolExecutor moveExecutor;
+
+    public TenantShardServiceImpl(ShardRegistry shardRegistry, TenantDirectory tenantDirectory,
+                                  ShardingProperties properties) {
+        this.shardRegistry = shardRegistry;
+        this.tenantDirectory = tenantDirectory;
+        this.properties = properties;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("tenant-move-");
+        threadFactory.setDaemon(true);
+        this.moveExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_MOVES), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public TenantShardDTO getPlacement(Long organizationId) {
+        Placement placement = tenantDirectory.load(organizationId);
+        return toDTO(placement, countRows(shardRegistry.dataSource(placement.shard()), organizationId));
+    }
+
+    @Override
+    public TenantShardDTO assign(Long organizationId, String shard) {
+        shardRegistry.dataSource(shard);
+        Placement placement = tenantDirectory.load(organizationId);
+        boolean hasData = countRows(shardRegistry.dataSource(placement.shard()), organizationId).values().stream()
+                .anyMatch(count -> count > 0);
+        if (placement.version() > 0 || hasData || !tenantDirectory.assign(organizationId, shard)) {
+            throw new ContentException(ContentErrorCode.TENANT_ALREADY_PLACED);
+        }
+        log.info("机构分配分片，机构ID：{}，分片：{}", organizationId, shard);
+        return getPlacement(organizationId);
+    }
+
+    @Override
+    public TenantShardDTO move(Long organizationId, String targetShard) {
+        shardRegistry.dataSource(targetShard);
+        Placement placement = tenantDirectory.load(organizationId);
+        if (placement.shard().equals(targetShard)) {
+            throw new ContentException(ContentErrorCode.TENANT_MOVE_FAILED, "机构已在分片" + targetShard);
+        }
+        if (!tenantDirectory.markMoving(placement, targetShard)) {
+            throw new ContentException(ContentErrorCode.TENANT_MOVING);
+        }
+        Placement moving = tenantDirectory.load(organizationId);
+        try {
+            moveExecutor.execute(() -> runMove(moving));
+        } catch (RejectedExecutionException e) {
+            tenantDirectory.abortMove(moving);
+            throw new ContentException(ContentErrorCode.TENANT_MOVE_FAILED, "迁移任务过多，请稍后重试", e);
+        }
+        log.info("开始迁移机构，机构ID：{}，{} -> {}", organizationId, placement.shard(), targetShard);
+        return getPlacement(organizationId);
+    }
+
+    @Override
+    public int recoverStaleMoves() {
+        Date before = new Date(System.currentTimeMillis() - properties.getMoveLeaseMs());
+        int recovered = 0;
+        for (Placement stale : tenantDirectory.findStaleMoves(before)) {
+            if (!tenantDirectory.abortMove(stale)) {
+                continue;
+            }
+            log.warn("机构迁移超过{}毫秒没有续约，执行节点可能已失联，恢复到原分片，机构ID：{}，目标分片：{}",
+                    properties.getMoveLeaseMs(), stale.organizationId(), stale.targetShard());
+            cleanupTarget(stale.organizationId(), stale.targetShard());
+            recovered++;
+        }
+        return recovered;
+    }
+
+    @Override
+    public int syncReferenceData() {
+        return shardRegistry.replicateReferenceTables();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 进行中的迁移停止续约，租约过期后由其他节点回滚
+        moveExecutor.shutdownNow();
+    }
+
+    /**
+     * 后台执行迁移，每复制一批续约一次；续约失败说明迁移已被回滚，立即停止
+     */
+    private void runMove(Placement moving) {
+        Long organizationId = moving.organizationId();
+        String targetShard = moving.targetShard();
+        DataSource source = shardRegistry.dataSource(moving.shard());
+        DataSource target = shardRegistry.dataSource(targetShard);
+        Runnable renew = () -> {
+            if (!tenantDirectory.renewMove(moving)) {
+                throw new IllegalStateException("迁移已被回滚");
+            }
+        };
+
+        Map<String, Long> copied;
+        try {
+            waitForDirectoryCache();
+            renew.run();
+            awaitDrained(source, organizationId, renew);
+            deleteRows(target, organizationId);
+            copied = copyRows(source, target, organizationId, renew);
+            Map<String, Long> sourceCounts = countRows(source, organizationId);
+            Map<String, Long> targetCounts = countRows(target, organizationId);
+            if (!sourceCounts.equals(targetCounts)) {
+                throw new IllegalStateException("记录数不一致，原分片：" + sourceCounts + "，目标分片：" + targetCounts);
+            }
+            Map<String, Long> pending = countPending(source, organizationId);
+            if (!isDrained(pending)) {
+                throw new IllegalStateException("复制期间原分片又产生了待处理的任务：" + pending);
+            }
+        } catch (Exception e) {
+            log.error("机构迁移失败，恢复到原分片，机构ID：{}", organizationId, e);
+            tenantDirectory.abortMove(moving);
+            cleanupTarget(organizationId, targetShard);
+            return;
+        }
+
+        if (!tenantDirectory.completeMove(moving)) {
+            log.error("机构迁移已被回滚，不再切换分片，机构ID：{}，目标分片：{}", organizationId, targetShard);
+            cleanupTarget(organizationId, targetShard);
+            return;
+        }
+        log.info("机构已切换到新分片，机构ID：{}，分片：{}，复制记录数：{}", organizationId, targetShard, copied);
+        try {
+            waitForDirectoryCache();
+            deleteRows(source, organizationId);
+        } catch (RuntimeException e) {
+            // 目录已切换，原分片上的数据不会再被访问，可以稍后手工清理
+            log.error("删除原分片数据失败，机构ID：{}，分片：{}", organizationId, moving.shard(), e);
+        }
+    }
+
+    /**
+     * 删除迁移失败后目标分片上复制了一半的数据；机构此时已在该分片或正在重新迁往该分片时不删除
+     */
+    private void cleanupTarget(Long organizationId, String targetShard) {
+        try {
+            Placement current = tenantDirectory.load(organizationId);
+            if (current.shard().equals(targetShard) || targetShard.equals(current.targetShard())) {
+                return;
+            }
+            deleteRows(shardRegistry.dataSource(targetShard), organizationId);
+        } catch (RuntimeException e) {
+            log.error("清理目标分片数据失败，机构ID：{}，分片：{}", organizationId, targetShard, e);
+        }
+    }
+
+    /**
+     * 等待机构在原分片上未投递的课程事件、未完成的媒资清理任务处理完，等待期间续约；
+     * 停放的事件不会再自动投递，直接失败
+     */
+    private void awaitDrained(DataSource source, Long organizationId, Runnable renew) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(source);
+        long deadline = System.currentTimeMillis() + properties.getMoveDrainTimeoutMs();
+        Map<String, Long> pending;
+        while (!isDrained(pending = countPending(source, organizationId))) {
+            Long parked = jdbcTemplate.queryForObject(PARKED_EVENTS, Long.class, organizationId);
+            if (parked != null && parked > 0) {
+                throw new IllegalStateException("机构有" + parked + "条停放的课程事件，重新投递后再迁移");
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("等待异步任务处理完超时，未处理：" + pending);
+            }
+            renew.run();
+            sleep(DRAIN_POLL_MS);
+        }
+    }
+
+    private Map<String, Long> countPending(DataSource dataSource, Long organizationId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        DRAINED_TABLES.forEach((table, condition) -> counts.put(table, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + condition, Long.class, organizationId)));
+        return counts;
+    }
+
+    private static boolean isDrained(Map<String, Long> pending) {
+        return pending.values().stream().allMatch(count -> count == 0);
+    }
+
+    /**
+     * 逐表复制，每张表一个目标事务，按批提交
+     */
+    private Map<String, Long> copyRows(DataSource source, DataSource target, Long organizationId, Runnable renew)
+            throws SQLException {
+        Map<String, Long> copied = new LinkedHashMap<>();
+        try (Connection from = source.getConnection(); Connection to = target.getConnection()) {
+            boolean autoCommit = to.getAutoCommit();
+            to.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, String> table : TENANT_TABLES.entrySet()) {
+                    copied.put(table.getKey(),
+                            copyTable(from, to, table.getKey(), table.getValue(), organizationId, renew));
+                    to.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                to.rollback();
+                throw e;
+            } finally {
+                to.setAutoCommit(autoCommit);
+            }
+        }
+        return copied;
+    }
+
+    private long copyTable(Connection from, Connection to, String table, String condition, Long organizationId,
+                           Runnable renew) throws SQLException {
+        long rows = 0;
+        try (PreparedStatement select = from.prepareStatement("SELECT * FROM " + table + " WHERE " + condition)) {
+            select.setLong(1, organizationId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                List<String> columns = new ArrayList<>();
+                for (int i = 1; i <= columnCount; i++) {
+                    columns.add(metaData.getColumnName(i));
+                }
+                String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+                try (PreparedStatement statement = to.prepareStatement(insert)) {
+                    while (resultSet.next()) {
+                        for (int i = 1; i <= columnCount; i++) {
+                            statement.setObject(i, resultSet.getObject(i));
+                        }
+                        statement.addBatch();
+                        if (++rows % properties.getMoveBatchSize() == 0) {
+                            statement.executeBatch();
+                            renew.run();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 按外键的逆序删除机构数据
+     */
+    private void deleteRows(DataSource dataSource, Long organizationId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<String> tables = new ArrayList<>(TENANT_TABLES.keySet());
+        for (int i = tables.size() - 1; i >= 0; i--) {
+            String table = tables.get(i);
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + TENANT_TABLES.get(table), organizationId);
+        }
+    }
+
+    private Map<String, Long> countRows(DataSource dataSource, Long organizationId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        TENANT_TABLES.forEach((table, condition) -> counts.put(table, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + condition, Long.class, organizationId)));
+        return counts;
+    }
+
+    /**
+     * 等待各节点的目录缓存过期
+     */
+    private void waitForDirectoryCache() {
+        sleep(tenantDirectory.getCacheTtlMs());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("迁移被中断", e);
+        }
+    }
+
+    private static TenantShardDTO toDTO(Placement placement, Map<String, Long> rowCounts) {
+        TenantShardDTO dto = new TenantShardDTO();
+        dto.setOrganizationId(placement.organizationId());
+        dto.setShard(placement.shard());
+        dto.setStatus(placement.status().name());
+        dto.setTargetShard(placement.targetShard());
+        dto.setRowCounts(rowCounts);
+        return dto;
+    }
+}
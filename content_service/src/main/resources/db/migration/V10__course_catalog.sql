@@ -0,0 +1,36 @@
+-- 课程目录：面向学员的已发布课程浏览索引
+-- 分类在 course_base、价格在 course_market、发布时间在 course_publish，"某分类的免费课程按发布时间倒序"无法用一个索引完成；
+-- 这里把浏览需要的字段冗余到一张表，发布时写入、下架时删除，与课程在同一分片、同一事务中维护
+
+CREATE TABLE IF NOT EXISTS course_catalog (
+    course_id       BIGINT        NOT NULL COMMENT '课程ID',
+    organization_id BIGINT        NOT NULL COMMENT '机构ID',
+    name            VARCHAR(255)  NOT NULL COMMENT '课程名称',
+    logo            VARCHAR(1024) NULL COMMENT '课程封面',
+    mt              BIGINT        NULL COMMENT '大分类',
+    st              BIGINT        NULL COMMENT '小分类',
+    charge          VARCHAR(20)   NULL COMMENT '收费规则',
+    price           DECIMAL(10, 2) NULL COMMENT '现价',
+    publish_time    DATETIME(6)   NOT NULL COMMENT '发布时间',
+    update_time     DATETIME(6)   NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (course_id)
+) COMMENT '课程目录';
+
+-- 按发布时间倒序翻页，分类、收费规则为等值前缀，价格放在最后，按价格过滤在索引中完成
+CREATE INDEX idx_course_catalog_time ON course_catalog (publish_time, course_id, price);
+CREATE INDEX idx_course_catalog_mt_st_time ON course_catalog (mt, st, publish_time, course_id, price);
+CREATE INDEX idx_course_catalog_mt_charge_time ON course_catalog (mt, charge, publish_time, course_id, price);
+CREATE INDEX idx_course_catalog_charge_time ON course_catalog (charge, publish_time, course_id, price);
+-- 机构迁移分片
+CREATE INDEX idx_course_catalog_org ON course_catalog (organization_id);
+
+-- 已发布的课程
+INSERT INTO course_catalog (course_id, organization_id, name, logo, mt, st, charge, price, publish_time, update_time)
+SELECT c.id, c.organization_id, c.name, c.logo, c.mt, c.st,
+       COALESCE(m.charge, c.charge), COALESCE(m.price, c.price),
+       COALESCE(p.publish_time, c.update_time, c.create_time, CURRENT_TIMESTAMP),
+       CURRENT_TIMESTAMP
+FROM course_base c
+    LEFT JOIN course_market m ON m.id = c.id
+    LEFT JOIN course_publish p ON p.id = c.id
+WHERE c.status = '202002';
@@ -0,0 +1,15 @@
+-- 课程热度：已发布课程的累计浏览数和报名数
+-- 浏览、报名先在各节点内存中累加，定期把一段时间内的增量按课程合并后批量写入，不记录单次浏览；
+-- 与课程在同一分片，按课程目录确定课程所在的分片，未发布的课程不计数
+
+CREATE TABLE IF NOT EXISTS course_popularity (
+    course_id       BIGINT      NOT NULL COMMENT '课程ID',
+    organization_id BIGINT      NOT NULL COMMENT '机构ID',
+    view_count      BIGINT      NOT NULL DEFAULT 0 COMMENT '累计浏览数',
+    enroll_count    BIGINT      NOT NULL DEFAULT 0 COMMENT '累计报名数',
+    update_time     DATETIME(6) NOT NULL COMMENT '最后一次写入增量的时间',
+    PRIMARY KEY (course_id)
+) COMMENT '课程热度';
+
+-- 机构迁移分片
+CREATE INDEX idx_course_popularity_org ON course_popularity (organization_id);
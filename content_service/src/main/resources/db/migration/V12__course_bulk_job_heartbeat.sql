@@ -0,0 +1,6 @@
+-- 排队中的任务没有进度，原来按更新时间判断节点失联时，排队超过 stale-after-ms 的任务会被误判为失败
+-- 改为由所在节点定期刷新心跳时间，排队中的任务按心跳时间判断；已有记录以更新时间为初始心跳
+
+ALTER TABLE course_bulk_job ADD COLUMN heartbeat_time DATETIME(6) NULL COMMENT '排队期间所在节点最近一次刷新的心跳时间';
+
+UPDATE course_bulk_job SET heartbeat_time = update_time WHERE heartbeat_time IS NULL;
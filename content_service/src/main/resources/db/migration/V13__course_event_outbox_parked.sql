@@ -0,0 +1,4 @@
+-- 投递反复失败的事件原来一直留在队首，每轮整批重试，之后的事件全部无法投递
+-- 失败达到 content.event.max-attempts 次后停放，中继不再领取；人工处理后将 parked 置回 0 重新投递
+
+ALTER TABLE course_event_outbox ADD COLUMN parked BIT NOT NULL DEFAULT 0 COMMENT '投递失败达到最大次数后停放';
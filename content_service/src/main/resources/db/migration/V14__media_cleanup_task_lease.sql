@@ -0,0 +1,8 @@
+-- 原来各节点直接读取到期任务，多个节点同时清理时重复调用媒体服务批量删除，并发回写的失败次数、退避时间互相覆盖
+-- 改为与定时任务表一样按租约领取：条件更新写入领取批次和租约到期时间，只有一个节点领取成功；
+-- 回写结果时只更新本批次仍持有租约的任务，节点失联时租约到期后其他节点重新领取
+
+ALTER TABLE media_cleanup_task ADD COLUMN claim_token VARCHAR(36) NULL COMMENT '领取批次标识';
+ALTER TABLE media_cleanup_task ADD COLUMN lease_until DATETIME(6) NULL COMMENT '租约到期时间';
+
+CREATE INDEX idx_cleanup_claim_token ON media_cleanup_task (claim_token);
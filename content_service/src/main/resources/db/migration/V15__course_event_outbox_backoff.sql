@@ -0,0 +1,4 @@
+-- 原来每次投递失败都计入失败次数且没有退避，事件流不可用十几秒队首事件就会停放，同一课程之后的事件随之一直暂停
+-- 投递目标不可用（连接失败、超时）时整批推迟，不计失败次数；单个事件投递失败计一次，按指数退避推迟下次投递
+
+ALTER TABLE course_event_outbox ADD COLUMN next_attempt_time DATETIME(6) NULL COMMENT '下次投递时间，为空表示立即投递';
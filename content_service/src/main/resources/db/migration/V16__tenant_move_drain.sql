@@ -0,0 +1,7 @@
+-- 机构迁移在切换分片前等待该机构未投递的课程事件、未完成的媒资清理任务在原分片处理完，两张表不随机构复制
+-- 媒资清理任务原来只记录课程ID，课程删除后无法再确定机构，补充机构ID；历史任务为空，不参与迁移前的等待
+
+ALTER TABLE media_cleanup_task ADD COLUMN organization_id BIGINT NULL COMMENT '来源课程所属机构';
+
+CREATE INDEX idx_cleanup_org_status ON media_cleanup_task (organization_id, status);
+CREATE INDEX idx_outbox_org_published ON course_event_outbox (organization_id, published);
@@ -0,0 +1,159 @@
+-- 内容服务基线表结构，与此前 ddl-auto 按实体生成的结构一致
+-- 与媒资服务共用一个库，库非空时Flyway以版本0建立基线后仍会执行本脚本，
+-- 因此只用 CREATE TABLE IF NOT EXISTS，外键和已有索引写在建表语句内，已存在的表原样保留
+
+CREATE TABLE IF NOT EXISTS course_base (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    name            VARCHAR(255) NOT NULL,
+    brief           TEXT,
+    logo            VARCHAR(1024),
+    mt              BIGINT,
+    st              BIGINT,
+    price_old       DECIMAL(10, 2),
+    price           DECIMAL(10, 2),
+    charge          VARCHAR(20),
+    status          VARCHAR(20),
+    valid           BIT,
+    qq              VARCHAR(20),
+    organization_id BIGINT       NOT NULL,
+    create_time     DATETIME(6),
+    update_time     DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_category (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    parent_id   BIGINT,
+    level       INTEGER,
+    create_time DATETIME(6),
+    update_time DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_market (
+    id          BIGINT NOT NULL,
+    charge      VARCHAR(20),
+    price_old   DECIMAL(10, 2),
+    price       DECIMAL(10, 2),
+    discounts   VARCHAR(255),
+    valid       BIT,
+    create_time DATETIME(6),
+    update_time DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKb6kigbfvgcll2n60af7ddf0c3 FOREIGN KEY (id) REFERENCES course_base (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_publish (
+    id           BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    status       VARCHAR(20),
+    publish_time DATETIME(6),
+    create_time  DATETIME(6),
+    update_time  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FK7ilxfkpn2c0gq989awqmbb9hm FOREIGN KEY (id) REFERENCES course_base (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_publish_pre (
+    id            BIGINT       NOT NULL,
+    name          VARCHAR(255) NOT NULL,
+    status        VARCHAR(20),
+    audit_message VARCHAR(500),
+    preview_time  DATETIME(6),
+    create_time   DATETIME(6),
+    update_time   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKq00tootgt16ii9o69dkeqgjpp FOREIGN KEY (id) REFERENCES course_base (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_teacher (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    organization_id BIGINT       NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    position        VARCHAR(255),
+    description     TEXT,
+    create_time     DATETIME(6)  NOT NULL,
+    update_time     DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_teacher_relation (
+    course_id  BIGINT NOT NULL,
+    teacher_id BIGINT NOT NULL,
+    PRIMARY KEY (course_id, teacher_id),
+    CONSTRAINT FKdo9pp0esdwhmxpsn17dbrvk67 FOREIGN KEY (course_id) REFERENCES course_base (id),
+    CONSTRAINT FK8yu0qfdfw3pinkoi0wrr67y0x FOREIGN KEY (teacher_id) REFERENCES course_teacher (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS teachplan (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    parent_id   BIGINT,
+    level       INTEGER,
+    order_by    INTEGER,
+    course_id   BIGINT,
+    create_time DATETIME(6),
+    update_time DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKee5arf9yu4cnjrm0obroxdsuf FOREIGN KEY (course_id) REFERENCES course_base (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS media_files (
+    media_file_id   VARCHAR(32)  NOT NULL,
+    organization_id BIGINT       NOT NULL,
+    file_name       VARCHAR(255),
+    media_type      VARCHAR(20),
+    purpose         VARCHAR(32),
+    url             VARCHAR(512),
+    file_size       BIGINT,
+    mime_type       VARCHAR(128),
+    audit_status    VARCHAR(20),
+    audit_message   VARCHAR(255),
+    create_time     DATETIME(6)  NOT NULL,
+    update_time     DATETIME(6)  NOT NULL,
+    PRIMARY KEY (media_file_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS teachplan_media (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    teachplan_id BIGINT,
+    media_id     VARCHAR(32),
+    create_time  DATETIME(6) NOT NULL,
+    update_time  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FK6ribccoyeev3cwsdxcjhnbaho FOREIGN KEY (teachplan_id) REFERENCES teachplan (id),
+    CONSTRAINT FKl6kftnp2v63ee5ukw5hcbel0q FOREIGN KEY (media_id) REFERENCES media_files (media_file_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS course_event_outbox (
+    id              BIGINT      NOT NULL AUTO_INCREMENT,
+    event_id        VARCHAR(36) NOT NULL,
+    event_type      VARCHAR(32) NOT NULL,
+    course_id       BIGINT      NOT NULL,
+    organization_id BIGINT,
+    payload         TEXT,
+    published       BIT         NOT NULL,
+    published_time  DATETIME(6),
+    attempts        INTEGER     NOT NULL,
+    last_error      VARCHAR(500),
+    create_time     DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UKeo1k94w3cpxsuorij0gbipi14 UNIQUE (event_id),
+    INDEX idx_outbox_published_id (published, id),
+    INDEX idx_outbox_course_id (course_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS media_cleanup_task (
+    id                BIGINT        NOT NULL AUTO_INCREMENT,
+    url               VARCHAR(1024) NOT NULL,
+    course_id         BIGINT,
+    status            VARCHAR(16)   NOT NULL,
+    attempts          INTEGER       NOT NULL,
+    next_attempt_time DATETIME(6)   NOT NULL,
+    last_error        VARCHAR(500),
+    create_time       DATETIME(6)   NOT NULL,
+    update_time       DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_cleanup_status_next (status, next_attempt_time)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
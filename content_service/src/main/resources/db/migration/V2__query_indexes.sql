@@ -0,0 +1,38 @@
+-- 仓库查询所需的索引，索引名与实体 @Table(indexes) 一致
+-- 每个索引后注明服务的查询；左前缀能覆盖的查询不再单独建索引
+
+-- findByCourseBaseIdOrderByOrderBy、findByCourseBaseIdAndParentIdOrderByOrderBy、
+-- findByCourseBaseIdAndLevelOrderByOrderBy、findVersionByCourseId
+CREATE INDEX idx_teachplan_course_parent_order ON teachplan (course_id, parent_id, order_by);
+-- findByParentId(OrderByOrderBy)、countByParentId、deleteByParentId、findMaxOrderByUnderParent、findPreviousNode、findNextNode
+CREATE INDEX idx_teachplan_parent_order ON teachplan (parent_id, order_by);
+
+-- findByConditions、findByOrganizationId（机构课程分页）
+CREATE INDEX idx_course_base_org_status_time ON course_base (organization_id, status, create_time);
+-- findByMtAndSt、findLatestCoursesByMt
+CREATE INDEX idx_course_base_mt_st ON course_base (mt, st);
+
+-- findByParentId、findByParentIdAndLevel
+CREATE INDEX idx_course_category_parent_level ON course_category (parent_id, level);
+-- findByLevel
+CREATE INDEX idx_course_category_level ON course_category (level);
+
+-- findByPrice、findByPriceBetween
+CREATE INDEX idx_course_market_price ON course_market (price);
+
+-- findByStatus
+CREATE INDEX idx_course_publish_status ON course_publish (status);
+CREATE INDEX idx_course_publish_pre_status ON course_publish_pre (status);
+
+-- findByOrganizationId、findVersionByOrganizationId
+CREATE INDEX idx_course_teacher_org ON course_teacher (organization_id);
+-- 关联表主键为 (course_id, teacher_id)，按课程查教师走主键；按教师查所属课程走这个索引
+CREATE INDEX idx_course_teacher_relation_teacher ON course_teacher_relation (teacher_id, course_id);
+
+-- findByTeachplanIdAndMediaFile_MediaFileId
+CREATE INDEX idx_teachplan_media_teachplan_media ON teachplan_media (teachplan_id, media_id);
+
+-- findByOrganizationIdAndMediaType、findByOrganizationIdAndPurpose、findByOrganizationId
+CREATE INDEX idx_media_files_org_type_purpose ON media_files (organization_id, media_type, purpose);
+-- findByOrganizationIdAndAuditStatus
+CREATE INDEX idx_media_files_org_audit ON media_files (organization_id, audit_status);
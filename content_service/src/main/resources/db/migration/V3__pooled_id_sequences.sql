@@ -0,0 +1,16 @@
+-- 课程计划、课程教师、课程计划媒资的主键由自增改为序列号段预分配（allocationSize = 50）
+-- MySQL没有序列，Hibernate用单行单列的表模拟序列。此前由ddl-auto建的序列表初始值为1，会与已有数据的主键冲突，
+-- 这里（重新）建表，并按现有最大ID设置序列的下一个值。
+-- pooled优化器取到值v后使用 (v-49, v] 这一段，因此下一个值设为 MAX(id) + 50
+
+CREATE TABLE IF NOT EXISTS teachplan_seq (next_val BIGINT);
+DELETE FROM teachplan_seq;
+INSERT INTO teachplan_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM teachplan;
+
+CREATE TABLE IF NOT EXISTS course_teacher_seq (next_val BIGINT);
+DELETE FROM course_teacher_seq;
+INSERT INTO course_teacher_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM course_teacher;
+
+CREATE TABLE IF NOT EXISTS teachplan_media_seq (next_val BIGINT);
+DELETE FROM teachplan_media_seq;
+INSERT INTO teachplan_media_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM teachplan_media;
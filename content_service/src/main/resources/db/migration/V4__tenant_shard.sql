@@ -0,0 +1,12 @@
+-- 机构分片目录：记录机构所在的分片，没有记录的机构在默认分片
+-- 启用分库时只使用默认分片上的这张表，其余分片上为空表
+
+CREATE TABLE IF NOT EXISTS tenant_shard (
+    organization_id BIGINT      NOT NULL COMMENT '机构ID',
+    shard           VARCHAR(64) NOT NULL COMMENT '当前所在分片',
+    status          VARCHAR(16) NOT NULL COMMENT 'ACTIVE 正常读写，MOVING 迁移中',
+    target_shard    VARCHAR(64) NULL COMMENT '迁移目标分片',
+    version         BIGINT      NOT NULL COMMENT '修改版本号',
+    update_time     DATETIME    NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (organization_id)
+) COMMENT '机构分片目录';
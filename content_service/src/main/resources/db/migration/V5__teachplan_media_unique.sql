@@ -0,0 +1,11 @@
+-- 同一课程计划与同一媒资只保留一条关联，(teachplan_id, media_id) 改为唯一索引
+-- 批量绑定按该索引一次查询已有关联，并发绑定同一对时由唯一约束兜底
+-- 先删除重复关联（保留最早的一条），再建唯一索引，最后删除原普通索引（外键 teachplan_id 改用唯一索引）
+
+DELETE FROM teachplan_media
+WHERE id NOT IN (SELECT keep_id FROM (SELECT MIN(id) AS keep_id FROM teachplan_media
+                                      GROUP BY teachplan_id, media_id) keep);
+
+CREATE UNIQUE INDEX uk_teachplan_media_teachplan_media ON teachplan_media (teachplan_id, media_id);
+
+DROP INDEX idx_teachplan_media_teachplan_media ON teachplan_media;
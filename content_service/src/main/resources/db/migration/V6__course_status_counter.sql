@@ -0,0 +1,26 @@
+-- 机构课程计数：按机构统计各课程状态、各审核状态的课程数
+-- 与课程状态变更在同一事务中增减，机构看板和课程列表的总数直接读取，不再COUNT课程表
+-- 状态为空的历史课程记为空字符串
+
+CREATE TABLE IF NOT EXISTS course_status_counter (
+    organization_id BIGINT      NOT NULL COMMENT '机构ID',
+    counter_type    VARCHAR(16) NOT NULL COMMENT 'COURSE 课程状态，AUDIT 审核状态',
+    status          VARCHAR(20) NOT NULL COMMENT '状态码',
+    total           BIGINT      NOT NULL COMMENT '课程数',
+    PRIMARY KEY (organization_id, counter_type, status)
+) COMMENT '机构课程计数';
+
+-- sumByCounterType（全平台各审核状态的课程数）
+CREATE INDEX idx_course_status_counter_type_status ON course_status_counter (counter_type, status, total);
+
+-- 按现有数据初始化
+INSERT INTO course_status_counter (organization_id, counter_type, status, total)
+SELECT organization_id, 'COURSE', COALESCE(status, ''), COUNT(*)
+FROM course_base
+GROUP BY organization_id, COALESCE(status, '');
+
+INSERT INTO course_status_counter (organization_id, counter_type, status, total)
+SELECT c.organization_id, 'AUDIT', COALESCE(p.status, ''), COUNT(*)
+FROM course_publish_pre p
+         JOIN course_base c ON c.id = p.id
+GROUP BY c.organization_id, COALESCE(p.status, '');
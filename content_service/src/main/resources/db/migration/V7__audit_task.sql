@@ -0,0 +1,39 @@
+-- 审核队列：待审核的课程和媒资，审核完成后删除
+-- 审核人领取任务后在租约到期前独占，到期未处理的任务可被其他审核人重新领取
+
+CREATE TABLE IF NOT EXISTS audit_task (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    target_type     VARCHAR(16)  NOT NULL COMMENT 'COURSE 课程，MEDIA 媒资',
+    target_id       VARCHAR(64)  NOT NULL COMMENT '课程ID或媒资文件ID',
+    organization_id BIGINT       NOT NULL COMMENT '机构ID',
+    name            VARCHAR(255) NULL COMMENT '课程名称或文件名称',
+    priority        INT          NOT NULL DEFAULT 0 COMMENT '优先级，越大越先审核',
+    submit_time     DATETIME(6)  NOT NULL COMMENT '提交审核时间',
+    claimed_by      VARCHAR(64)  NULL COMMENT '领取人',
+    claim_token     VARCHAR(36)  NULL COMMENT '领取批次标识',
+    lease_until     DATETIME(6)  NULL COMMENT '租约到期时间',
+    PRIMARY KEY (id)
+) COMMENT '审核队列';
+
+-- 提交审核时按目标更新，重复提交不产生新任务
+CREATE UNIQUE INDEX uk_audit_task_target ON audit_task (target_type, target_id);
+-- findPageBySubmitTime、findAvailableIds（按提交时间）
+CREATE INDEX idx_audit_task_type_time ON audit_task (target_type, submit_time, id);
+-- findPageByPriority、findAvailableIds（按优先级）
+CREATE INDEX idx_audit_task_type_priority ON audit_task (target_type, priority, submit_time, id);
+-- 按机构查看队列
+CREATE INDEX idx_audit_task_org_type ON audit_task (organization_id, target_type, submit_time);
+-- findByClaimToken
+CREATE INDEX idx_audit_task_claim_token ON audit_task (claim_token);
+
+-- 已有的待审核数据入队
+INSERT INTO audit_task (target_type, target_id, organization_id, name, priority, submit_time)
+SELECT 'COURSE', CONCAT('', p.id), c.organization_id, p.name, 0, COALESCE(p.update_time, p.create_time, CURRENT_TIMESTAMP)
+FROM course_publish_pre p
+         JOIN course_base c ON c.id = p.id
+WHERE p.status IN ('202301', '202302');
+
+INSERT INTO audit_task (target_type, target_id, organization_id, name, priority, submit_time)
+SELECT 'MEDIA', m.media_file_id, m.organization_id, m.file_name, 0, m.create_time
+FROM media_files m
+WHERE m.audit_status = '202001';
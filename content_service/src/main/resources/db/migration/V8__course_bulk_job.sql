@@ -0,0 +1,32 @@
+-- 批量发布/下架任务：提交后返回任务ID，后台按块处理，进度和逐门课程的失败原因写在这两张表中
+-- 与机构分片目录一样只使用默认分片上的表，任一节点都能查询进度、取消任务
+
+CREATE TABLE IF NOT EXISTS course_bulk_job (
+    id              BIGINT      NOT NULL AUTO_INCREMENT,
+    organization_id BIGINT      NOT NULL COMMENT '机构ID',
+    operation       VARCHAR(16) NOT NULL COMMENT 'PUBLISH 发布，OFFLINE 下架',
+    status          VARCHAR(16) NOT NULL COMMENT 'PENDING 排队中，RUNNING 执行中，CANCELLING 取消中，COMPLETED 已完成，CANCELLED 已取消，FAILED 已中断',
+    total           INT         NOT NULL COMMENT '课程数',
+    processed       INT         NOT NULL DEFAULT 0 COMMENT '已处理的课程数',
+    succeeded       INT         NOT NULL DEFAULT 0 COMMENT '成功的课程数',
+    failed          INT         NOT NULL DEFAULT 0 COMMENT '失败的课程数',
+    create_time     DATETIME(6) NOT NULL COMMENT '提交时间',
+    start_time      DATETIME(6) NULL COMMENT '开始执行时间',
+    finish_time     DATETIME(6) NULL COMMENT '结束时间',
+    update_time     DATETIME(6) NOT NULL COMMENT '最近一次进度更新时间',
+    PRIMARY KEY (id)
+) COMMENT '课程批量操作任务';
+
+-- 清理过期任务、中断失联的任务
+CREATE INDEX idx_course_bulk_job_status_update ON course_bulk_job (status, update_time);
+
+CREATE TABLE IF NOT EXISTS course_bulk_job_error (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    job_id     BIGINT       NOT NULL COMMENT '任务ID',
+    course_id  BIGINT       NOT NULL COMMENT '课程ID',
+    error_code INT          NOT NULL COMMENT '错误码',
+    message    VARCHAR(500) NULL COMMENT '失败原因',
+    PRIMARY KEY (id)
+) COMMENT '课程批量操作失败明细';
+
+CREATE INDEX idx_course_bulk_job_error_job ON course_bulk_job_error (job_id, id);
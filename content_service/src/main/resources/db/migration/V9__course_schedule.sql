@@ -0,0 +1,27 @@
+-- 定时发布/下架：每门课程每种操作一行，重新设置时间时复用该行
+-- 与批量任务表一样只使用默认分片上的表，各节点按租约领取即将到期的记录，放入本节点的时间轮，到期后执行
+
+CREATE TABLE IF NOT EXISTS course_schedule (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    course_id       BIGINT       NOT NULL COMMENT '课程ID',
+    organization_id BIGINT       NOT NULL COMMENT '机构ID',
+    operation       VARCHAR(16)  NOT NULL COMMENT 'PUBLISH 发布，OFFLINE 下架',
+    fire_time       DATETIME(6)  NOT NULL COMMENT '执行时间',
+    status          VARCHAR(16)  NOT NULL COMMENT 'PENDING 待执行，FIRING 执行中，DONE 已执行，FAILED 执行失败，CANCELLED 已取消',
+    lease_owner     VARCHAR(64)  NULL COMMENT '持有租约的节点',
+    claim_token     VARCHAR(36)  NULL COMMENT '领取批次标识',
+    lease_until     DATETIME(6)  NULL COMMENT '租约到期时间',
+    error_code      INT          NULL COMMENT '失败错误码',
+    message         VARCHAR(500) NULL COMMENT '失败原因',
+    create_time     DATETIME(6)  NOT NULL COMMENT '创建时间',
+    update_time     DATETIME(6)  NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (id)
+) COMMENT '课程定时发布/下架';
+
+-- 每门课程每种操作一行
+CREATE UNIQUE INDEX uk_course_schedule_course_op ON course_schedule (course_id, operation);
+-- 领取即将到期的记录、回收失联节点的记录
+CREATE INDEX idx_course_schedule_status_fire ON course_schedule (status, fire_time);
+-- 按机构查看
+CREATE INDEX idx_course_schedule_org_fire ON course_schedule (organization_id, fire_time);
+CREATE INDEX idx_course_schedule_claim_token ON course_schedule (claim_token);
@@ -0,0 +1,242 @@
+package com.double2and9.content_service.cache;
+
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.config.CourseCacheProperties;
+import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CoursePreviewDTO;
+import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.dto.TeachplanDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCacheTests {
+
+    private CourseCacheProperties properties;
+    private InMemoryCourseCacheStore store;
+    private CourseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CourseCacheProperties();
+        properties.setTtlMs(60_000);
+        properties.setEarlyRefreshBeta(0);
+        store = new InMemoryCourseCacheStore();
+        cache = new CourseCache(store, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testCodecRoundTripIsSmallerThanJson() throws Exception {
+        CoursePreviewDTO preview = preview();
+        byte[] encoded = CourseCacheCodec.encodePreview(preview);
+        assertEquals(preview, CourseCacheCodec.decodePreview(encoded));
+        assertTrue(encoded.length < new ObjectMapper().writeValueAsBytes(preview).length / 2,
+                "编码后 " + encoded.length + " 字节");
+
+        CourseBaseDTO course = preview.getCourseBase();
+        course.setLogo(null);
+        assertEquals(course, CourseCacheCodec.decodeCourse(CourseCacheCodec.encodeCourse(course)));
+
+        // 版本不符或数据截断
+        byte[] truncated = new byte[encoded.length - 3];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class, () -> CourseCacheCodec.decodePreview(truncated));
+        encoded[0] = CourseCacheCodec.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> CourseCacheCodec.decodePreview(encoded));
+    }
+
+    @Test
+    void testHitMissAndEviction() {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("课程1", cache.getCourse(1L, () -> course(1L, "课程" + loads.incrementAndGet())).getName());
+        assertEquals("课程1", cache.getCourse(1L, () -> course(1L, "课程" + loads.incrementAndGet())).getName());
+        assertEquals(1, loads.get());
+
+        cache.evict(1L);
+        assertEquals("课程2", cache.getCourse(1L, () -> course(1L, "课程" + loads.incrementAndGet())).getName());
+
+        // 回源失败不写缓存
+        assertThrows(ContentException.class, () -> cache.getCourse(2L, () -> {
+            throw new ContentException(ContentErrorCode.COURSE_NOT_EXISTS);
+        }));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<CourseBaseDTO>> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(CompletableFuture.supplyAsync(() -> cache.getCourse(3L, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return course(3L, "热点课程");
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (CompletableFuture<CourseBaseDTO> reader : readers) {
+            assertEquals("热点课程", reader.get(5, TimeUnit.SECONDS).getName());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEarlyRefreshBeforeExpiry() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getCourse(4L, () -> course(4L, "课程" + loads.incrementAndGet()));
+        cache.getCourse(4L, () -> course(4L, "课程" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        // 系数足够大时未过期的缓存也会刷新
+        properties.setEarlyRefreshBeta(1e9);
+        assertEquals("课程2", cache.getCourse(4L, () -> course(4L, "课程" + loads.incrementAndGet())).getName());
+    }
+
+    @Test
+    void testLoadRacingEvictionIsNotWrittenBack() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getCourse(5L, () -> {
+            loads.incrementAndGet();
+            // 回源期间课程被修改
+            cache.evict(5L);
+            return course(5L, "旧数据");
+        });
+        assertEquals("新数据", cache.getCourse(5L, () -> {
+            loads.incrementAndGet();
+            return course(5L, "新数据");
+        }).getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testStaleWriteBackFromOtherNodeRemovedByDelayedEviction() throws Exception {
+        properties.setDelayedEvictMs(300);
+        CourseCache otherNode = new CourseCache(store, properties, new SimpleMeterRegistry());
+
+        // 其他节点在修改提交前读到旧数据，删除之后才写回
+        otherNode.getCourse(6L, () -> {
+            cache.evict(6L);
+            return course(6L, "旧数据");
+        });
+        assertEquals("旧数据", cache.getCourse(6L, () -> course(6L, "新数据")).getName());
+
+        Thread.sleep(600);
+        assertEquals("新数据", cache.getCourse(6L, () -> course(6L, "新数据")).getName());
+        otherNode.shutdown();
+    }
+
+    @Test
+    void testLoadSlowerThanDelayedEvictionIsNotWrittenBack() {
+        properties.setDelayedEvictMs(100);
+        cache.getCourse(7L, () -> {
+            sleep(200);
+            return course(7L, "慢回源");
+        });
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testStoreFailureFallsBackToLoader() {
+        CourseCache broken = new CourseCache(new CourseCacheStore() {
+            @Override
+            public byte[] get(String key) {
+                throw new IllegalStateException("连接失败");
+            }
+
+            @Override
+            public void set(String key, byte[] value, long ttlMs) {
+                throw new IllegalStateException("连接失败");
+            }
+
+            @Override
+            public void delete(Collection<String> keys) {
+                throw new IllegalStateException("连接失败");
+            }
+        }, properties, new SimpleMeterRegistry());
+
+        assertEquals("课程", broken.getCourse(6L, () -> course(6L, "课程")).getName());
+        broken.evict(6L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CourseBaseDTO course(Long id, String name) {
+        CourseBaseDTO course = new CourseBaseDTO();
+        course.setId(id);
+        course.setName(name);
+        course.setBrief("面向初学者的Java入门课程，从环境搭建到面向对象");
+        course.setLogo("https://cdn.example.com/course/logo/" + id + ".png");
+        course.setCharge("201002");
+        course.setStatus("202002");
+        course.setPrice(new BigDecimal("199.90"));
+        course.setMtName("编程开发");
+        course.setStName("Java");
+        course.setTeachmode("200002");
+        course.setOrganizationId(1234L);
+        return course;
+    }
+
+    private static CoursePreviewDTO preview() {
+        CoursePreviewDTO preview = new CoursePreviewDTO();
+        preview.setCourseBase(course(1_000_000_000_123L, "Java 入门"));
+        List<TeachplanDTO> chapters = new ArrayList<>();
+        for (int c = 1; c <= 3; c++) {
+            TeachplanDTO chapter = teachplan(c * 100L, "第" + c + "章", 0L, 1, c);
+            chapter.setTeachPlanTreeNodes(new ArrayList<>());
+            for (int s = 1; s <= 4; s++) {
+                chapter.getTeachPlanTreeNodes().add(teachplan(c * 100L + s, "第" + s + "节", c * 100L, 2, s));
+            }
+            chapters.add(chapter);
+        }
+        preview.setTeachplans(chapters);
+        CourseTeacherDTO teacher = new CourseTeacherDTO();
+        teacher.setId(7L);
+        teacher.setOrganizationId(1234L);
+        teacher.setName("张老师");
+        teacher.setPosition("高级讲师");
+        teacher.setCourseIds(new LinkedHashSet<>(List.of(1_000_000_000_123L, 42L)));
+        preview.setTeachers(List.of(teacher));
+        return preview;
+    }
+
+    private static TeachplanDTO teachplan(Long id, String name, Long parentId, int level, int orderBy) {
+        TeachplanDTO teachplan = new TeachplanDTO();
+        teachplan.setId(id);
+        teachplan.setName(name);
+        teachplan.setCourseId(1_000_000_000_123L);
+        teachplan.setParentId(parentId);
+        teachplan.setLevel(level);
+        teachplan.setOrderBy(orderBy);
+        return teachplan;
+    }
+}
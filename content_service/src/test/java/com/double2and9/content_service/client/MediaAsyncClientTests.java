@@ -0,0 +1,245 @@
+package com.double2and9.content_service.client;
+
+import com.double2and9.base.dto.CommonResponse;
+import com.double2and9.base.tracing.InMemorySpanRecorder;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.config.MediaClientProperties;
+import feign.Client;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class MediaAsyncClientTests {
+
+    private MediaFeignClient mediaFeignClient;
+    private MediaClientProperties properties;
+    private MediaAsyncClient client;
+
+    @BeforeEach
+    void setUp() {
+        mediaFeignClient = mock(MediaFeignClient.class);
+        properties = new MediaClientProperties();
+        properties.getTimeout().setMinSamples(5);
+        properties.getTimeout().setMinMs(100);
+        properties.getHedge().setMinDelayMs(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    private void warmUpDeletes(int count) {
+        for (int i = 0; i < count; i++) {
+            MediaAsyncClient.await(client.deleteMediaFile("warmup"));
+        }
+    }
+
+    @Test
+    void testAdaptiveTimeout_FollowsObservedLatency() {
+        doReturn(CommonResponse.success(null)).when(mediaFeignClient).deleteMediaFile(anyString());
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+
+        // 样本不足时使用初始超时
+        assertEquals(properties.getTimeout().getInitialMs(), client.currentDeleteTimeoutMs());
+
+        warmUpDeletes(10);
+
+        // 调用几乎不耗时，超时收敛到下限
+        assertEquals(properties.getTimeout().getMinMs(), client.currentDeleteTimeoutMs());
+    }
+
+    @Test
+    void testUploadBulkhead_RejectsWhenFull() throws Exception {
+        properties.setUpload(new MediaClientProperties.Bulkhead(1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(mediaFeignClient.uploadCourseLogo(any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return CommonResponse.success(null);
+        });
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+
+        CompletableFuture<?> running = client.uploadCourseLogo(1L, 1L, null);
+        CompletableFuture<?> queued = client.uploadCourseLogo(2L, 1L, null);
+        CompletableFuture<?> rejected = client.uploadCourseLogo(3L, 1L, null);
+
+        ContentException exception = assertThrows(ContentException.class, () -> MediaAsyncClient.await(rejected));
+        assertTrue(exception.getMessage().contains("繁忙"));
+        assertEquals(1, client.getRejectedRequests());
+
+        release.countDown();
+        MediaAsyncClient.await(running);
+        MediaAsyncClient.await(queued);
+    }
+
+    @Test
+    void testTimeout_QueuedCallDroppedAndRunningCallBounded() throws Exception {
+        properties.setUpload(new MediaClientProperties.Bulkhead(1, 1));
+        properties.getTimeout().setInitialMs(200);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Request.Options> options = new AtomicReference<>();
+        Client http = new MediaCallDeadline().enrich((Client) (request, requestOptions) -> {
+            options.set(requestOptions);
+            return null;
+        });
+        when(mediaFeignClient.uploadCourseLogo(any(), any(), any())).thenAnswer(invocation -> {
+            http.execute(null, new Request.Options(1, TimeUnit.SECONDS, 10, TimeUnit.SECONDS, true));
+            release.await(5, TimeUnit.SECONDS);
+            return CommonResponse.success(null);
+        });
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+
+        CompletableFuture<?> running = client.uploadCourseLogo(1L, 1L, null);
+        CompletableFuture<?> queued = client.uploadCourseLogo(2L, 1L, null);
+        ContentException exception = assertThrows(ContentException.class, () -> MediaAsyncClient.await(queued));
+        assertTrue(exception.getMessage().contains("超时"));
+        assertThrows(ContentException.class, () -> MediaAsyncClient.await(running));
+
+        // HTTP读取超时收紧到调用的截止时间
+        assertTrue(options.get().readTimeoutMillis() <= 200);
+        release.countDown();
+        Thread.sleep(100);
+        // 超时的排队调用已移出队列，不再发出
+        verify(mediaFeignClient, times(1)).uploadCourseLogo(any(), any(), any());
+    }
+
+    @Test
+    void testHedgedDelete_SecondRequestWinsWhenFirstIsSlow() {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if ("slow".equals(invocation.getArgument(0)) && calls.incrementAndGet() == 1) {
+                Thread.sleep(2000);
+            }
+            return CommonResponse.success(null);
+        }).when(mediaFeignClient).deleteMediaFile(anyString());
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+        properties.getTimeout().setMinMs(3000);
+        warmUpDeletes(10);
+
+        long start = System.currentTimeMillis();
+        CommonResponse<?> response = MediaAsyncClient.await(client.deleteMediaFile("slow"));
+
+        assertTrue(response.isSuccess());
+        assertTrue(System.currentTimeMillis() - start < 1500, "对冲请求应先于慢请求返回");
+        assertEquals(1, client.getHedgedRequests());
+        verify(mediaFeignClient, times(2)).deleteMediaFile("slow");
+    }
+
+    @Test
+    void testHedgedDelete_NotHedgedWhenFirstFailsFast() {
+        doReturn(CommonResponse.success(null)).when(mediaFeignClient).deleteMediaFile("ok");
+        doThrow(new IllegalStateException("boom")).when(mediaFeignClient).deleteMediaFile("broken");
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+        for (int i = 0; i < 10; i++) {
+            MediaAsyncClient.await(client.deleteMediaFile("ok"));
+        }
+
+        assertThrows(IllegalStateException.class, () -> MediaAsyncClient.await(client.deleteMediaFile("broken")));
+        assertEquals(0, client.getHedgedRequests());
+        verify(mediaFeignClient, times(1)).deleteMediaFile("broken");
+    }
+
+    @Test
+    void testBatchDelete_NotHedgedAndSampledSeparately() {
+        AtomicInteger batches = new AtomicInteger();
+        doReturn(CommonResponse.success(null)).when(mediaFeignClient).deleteMediaFile(anyString());
+        doAnswer(invocation -> {
+            if (batches.incrementAndGet() > 10) {
+                Thread.sleep(300);
+            }
+            return CommonResponse.success(null);
+        }).when(mediaFeignClient).deleteMediaFiles(anyList());
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+        warmUpDeletes(10);
+        for (int i = 0; i < 10; i++) {
+            MediaAsyncClient.await(client.deleteMediaFiles(List.of("a", "b")));
+        }
+
+        // 慢批次不对冲，只发一次
+        assertTrue(MediaAsyncClient.await(client.deleteMediaFiles(List.of("slow"))).isSuccess());
+        assertEquals(0, client.getHedgedRequests());
+        verify(mediaFeignClient, times(1)).deleteMediaFiles(List.of("slow"));
+
+        // 批量删除使用自己的超时配置，单个删除的超时不受影响
+        assertEquals(properties.getTimeout().getMinMs(), client.currentDeleteTimeoutMs());
+        assertEquals(properties.getBatchTimeout().getInitialMs(), client.currentBatchDeleteTimeoutMs());
+    }
+
+    @Test
+    void testMetrics_RecordedByOperationAndOutcome() {
+        properties.getHedge().setEnabled(false);
+        doReturn(CommonResponse.success(null)).when(mediaFeignClient).deleteMediaFile("ok");
+        doThrow(new IllegalStateException("media down")).when(mediaFeignClient).deleteMediaFile("broken");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client = new MediaAsyncClient(mediaFeignClient, properties, registry, CircuitBreakerRegistry.ofDefaults());
+
+        MediaAsyncClient.await(client.deleteMediaFile("ok"));
+        assertThrows(IllegalStateException.class, () -> MediaAsyncClient.await(client.deleteMediaFile("broken")));
+
+        assertEquals(1, registry.get("media.client.requests")
+                .tags("operation", "delete", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("media.client.requests")
+                .tags("operation", "delete", "outcome", "error").timer().count());
+        assertEquals(0, registry.get("media.client.bulkhead.active").tag("bulkhead", "upload").gauge().value());
+    }
+
+    @Test
+    void testTracingContext_PropagatedToBulkheadThread() {
+        InMemorySpanRecorder recorder = new InMemorySpanRecorder(100);
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder().addSpanProcessor(recorder).build();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("test"), new OtelCurrentTraceContext(), event -> {
+        });
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+
+        AtomicReference<String> traceIdInCall = new AtomicReference<>();
+        when(mediaFeignClient.uploadCourseLogo(any(), any(), any())).thenAnswer(invocation -> {
+            Span span = tracer.currentSpan();
+            traceIdInCall.set(span != null ? span.context().traceId() : null);
+            return CommonResponse.success(null);
+        });
+        client = new MediaAsyncClient(mediaFeignClient, properties, new SimpleMeterRegistry(),
+                CircuitBreakerRegistry.ofDefaults());
+
+        // 调用方处于一条链路中，舱壁线程上的Feign调用应使用同一个traceId
+        Observation.createNotStarted("course.logo", observationRegistry).observe(
+                () -> MediaAsyncClient.await(client.uploadCourseLogo(1L, 1L, null)));
+
+        List<SpanData> spans = recorder.getFinishedSpans();
+        assertEquals(1, spans.size());
+        assertEquals(spans.get(0).getTraceId(), traceIdInCall.get());
+        tracerProvider.close();
+    }
+}
@@ -0,0 +1,209 @@
+package com.double2and9.content_service.common.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离路由，两个H2内存库分别代替主库和副本，node表中记录库名用来判断查询落在哪个库
+ */
+public class ReadWriteRoutingDataSourceTests {
+
+    private static final long STICKINESS_MS = 3000;
+
+    private final MutableClock clock = new MutableClock();
+    private SwitchableDataSource replica;
+    private ReplicaHealthMonitor healthMonitor;
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        replica = new SwitchableDataSource(h2("replica"));
+        healthMonitor = new ReplicaHealthMonitor(replica, 2000, 1);
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                primary, replica, healthMonitor, STICKINESS_MS, clock, meterRegistry));
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.end();
+    }
+
+    @Test
+    void testReadOnlyTransaction_UsesReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+        assertTrue(meterRegistry.get(ReadWriteRoutingDataSource.METRIC_NAME)
+                .tag("target", "replica").tag("reason", "read").counter().count() > 0);
+    }
+
+    @Test
+    void testNonTransactionalRead_UsesReplica() {
+        assertEquals("replica", currentNode());
+    }
+
+    @Test
+    void testReadWriteTransaction_UsesPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadAfterWrite_UsesPrimaryUntilStickinessExpires() {
+        AtomicLong notified = new AtomicLong();
+        ReadYourWritesContext.begin(0L, notified::set);
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set updated = updated + 1"));
+        assertEquals(clock.millis(), notified.get());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+        assertEquals("primary", currentNode());
+
+        clock.advance(STICKINESS_MS);
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testCallOnPrimary_ReadsFromPrimaryWithoutStickiness() {
+        assertEquals("primary", ReadWriteRoutingDataSource.callOnPrimary(
+                () -> readOnly.execute(status -> currentNode())));
+        assertEquals("primary", ReadWriteRoutingDataSource.callOnPrimary(this::currentNode));
+        // 只是读取，之后的读取仍走副本
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testRolledBackWrite_DoesNotStickToPrimary() {
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set updated = updated + 1");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testWriteFromPreviousRequest_UsesPrimary() {
+        // Cookie中带回的上次写入时间
+        ReadYourWritesContext.begin(clock.millis() - 1000, writeMillis -> {
+        });
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        ReadYourWritesContext.begin(clock.millis() - STICKINESS_MS, writeMillis -> {
+        });
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReplicaConnectionFailure_FailsOverToPrimary() {
+        replica.down = true;
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+        assertFalse(healthMonitor.isAvailable());
+
+        // 标记不可用后不再尝试副本
+        assertEquals("primary", currentNode());
+
+        replica.down = false;
+        healthMonitor.check();
+        assertTrue(healthMonitor.isAvailable());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReplicationLag_MarksReplicaUnavailable() {
+        AtomicLong lagSeconds = new AtomicLong(5);
+        ReplicaHealthMonitor lagging = new ReplicaHealthMonitor(replica, 2000, 1) {
+            @Override
+            protected Long replicationLagSeconds(Connection connection) {
+                return lagSeconds.get();
+            }
+        };
+        lagging.check();
+        assertFalse(lagging.isAvailable());
+        assertEquals(5000, lagging.getLagMs());
+
+        lagSeconds.set(1);
+        lagging.check();
+        assertTrue(lagging.isAvailable());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource h2(String node) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + node + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table node (name varchar(16), updated int)");
+        jdbc.update("insert into node (name, updated) values (?, 0)", node);
+        return dataSource;
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli());
+
+        void advance(long deltaMillis) {
+            millis.addAndGet(deltaMillis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.double2and9.content_service.common.shard;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.entity.CourseTeacher;
+import com.double2and9.content_service.repository.CourseTeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按机构分片路由，两个H2内存库代替两个分片，node表中记录分片名用来判断查询落在哪个分片
+ */
+public class TenantShardRoutingTests {
+
+    private static final Long ORG_DEFAULT = 1L;
+    private static final Long ORG_SHARD1 = 2L;
+
+    private ShardRegistry shardRegistry;
+    private TenantDirectory tenantDirectory;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("default", h2("default"));
+        dataSources.put("shard1", h2("shard1"));
+        shardRegistry = new ShardRegistry("default", dataSources, Map.of("default", 0, "shard1", 1));
+
+        new JdbcTemplate(dataSources.get("default")).execute("create table tenant_shard (organization_id bigint primary key, "
+                + "shard varchar(64) not null, status varchar(16) not null, target_shard varchar(64), "
+                + "version bigint not null, update_time timestamp not null)");
+        tenantDirectory = new TenantDirectory(dataSources.get("default"), "default", 0);
+        assertTrue(tenantDirectory.assign(ORG_SHARD1, "shard1"));
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new TenantShardRoutingDataSource(shardRegistry, tenantDirectory));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.restoreOrganization(null);
+    }
+
+    @Test
+    void testNoOrganization_UsesDefaultShard() {
+        assertEquals("default", currentNode());
+    }
+
+    @Test
+    void testOrganization_UsesDirectoryShard() {
+        assertEquals("shard1", TenantContext.callAs(ORG_SHARD1, this::currentNode));
+        assertEquals("default", TenantContext.callAs(ORG_DEFAULT, this::currentNode));
+        // 目录中没有记录的机构在默认分片
+        assertEquals("default", TenantContext.callAs(99L, this::currentNode));
+    }
+
+    @Test
+    void testExplicitShard_OverridesOrganization() {
+        List<String> nodes = new ArrayList<>();
+        TenantContext.callAs(ORG_SHARD1, () -> {
+            TenantContext.runOnShard("default", () -> nodes.add(currentNode()));
+            return null;
+        });
+        shardRegistry.forEachShard(() -> nodes.add(currentNode()));
+        assertEquals(List.of("default", "default", "shard1"), nodes);
+    }
+
+    @Test
+    void testMovingTenant_RejectsWritesButAllowsReads() {
+        assertTrue(tenantDirectory.markMoving(tenantDirectory.load(ORG_SHARD1), "default"));
+
+        assertEquals("shard1", TenantContext.callAs(ORG_SHARD1,
+                () -> readOnly.execute(status -> currentNode())));
+        ContentException exception = assertThrows(ContentException.class, () -> TenantContext.callAs(ORG_SHARD1,
+                () -> readWrite.execute(status -> currentNode())));
+        assertEquals(ContentErrorCode.TENANT_MOVING, exception.getErrorCode());
+
+        tenantDirectory.abortMove(tenantDirectory.load(ORG_SHARD1));
+        assertEquals("shard1", TenantContext.callAs(ORG_SHARD1,
+                () -> readWrite.execute(status -> currentNode())));
+    }
+
+    @Test
+    void testAspect_BindsOrganizationToTransaction() {
+        CourseTeacherRepository repository = routedRepository();
+
+        List<String> nodes = readWrite.execute(status -> {
+            repository.findByOrganizationId(ORG_SHARD1);
+            // 绑定后事务内没有机构参数的SQL也落在同一分片
+            return List.of(currentNode(), TenantContext.callAs(null, this::currentNode));
+        });
+        assertEquals(List.of("shard1", "shard1"), nodes);
+        assertNull(TenantContext.currentOrganizationId());
+        assertEquals("default", currentNode());
+    }
+
+    @Test
+    void testAspect_ResolvesOrganizationFromEntityOutsideTransaction() {
+        CourseTeacherRepository repository = routedRepository();
+        CourseTeacher teacher = new CourseTeacher();
+        teacher.setOrganizationId(ORG_SHARD1);
+
+        assertEquals("shard1", repository.save(teacher).getName());
+        assertNull(TenantContext.currentOrganizationId());
+    }
+
+    @Test
+    void testAspect_RejectsCrossShardTransaction() {
+        CourseTeacherRepository repository = routedRepository();
+
+        ContentException exception = assertThrows(ContentException.class, () -> readWrite.executeWithoutResult(status -> {
+            repository.findByOrganizationId(ORG_DEFAULT);
+            repository.findByOrganizationId(ORG_SHARD1);
+        }));
+        assertEquals(ContentErrorCode.CROSS_SHARD_TRANSACTION, exception.getErrorCode());
+    }
+
+    @Test
+    void testAspect_RejectsOrganizationAfterConnectionPinnedToOtherShard() {
+        CourseTeacherRepository repository = routedRepository();
+
+        // 事务先执行了不带机构的SQL，连接已经落在默认分片
+        ContentException exception = assertThrows(ContentException.class, () -> readWrite.executeWithoutResult(status -> {
+            currentNode();
+            repository.findByOrganizationId(ORG_SHARD1);
+        }));
+        assertEquals(ContentErrorCode.CROSS_SHARD_TRANSACTION, exception.getErrorCode());
+
+        // 机构就在该分片时照常执行
+        assertEquals("default", readWrite.execute(status -> {
+            currentNode();
+            repository.findByOrganizationId(ORG_DEFAULT);
+            return currentNode();
+        }));
+    }
+
+    /**
+     * 仓库用JDK动态代理代替（与Spring Data生成的仓库一样），调用时记录当时路由到的分片
+     */
+    private CourseTeacherRepository routedRepository() {
+        Object target = Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{CourseTeacherRepository.class}, (proxy, method, args) -> {
+                    String node = currentNode();
+                    if (method.getName().equals("save")) {
+                        CourseTeacher teacher = (CourseTeacher) args[0];
+                        teacher.setName(node);
+                        return teacher;
+                    }
+                    return List.of();
+                });
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(CourseTeacherRepository.class);
+        factory.addAspect(new TenantRoutingAspect(new TenantLocator(shardRegistry), tenantDirectory));
+        return factory.getProxy();
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(32))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
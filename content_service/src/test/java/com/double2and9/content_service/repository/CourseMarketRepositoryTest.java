@@ -5,6 +5,7 @@ import com.double2and9.content_service.entity.CourseMarket;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -90,7 +91,8 @@ public class CourseMarketRepositoryTest {
         // 3. 执行测试查询
         List<CourseMarket> result = courseMarketRepository.findByPriceBetween(
             BigDecimal.valueOf(50), 
-            BigDecimal.valueOf(150)
+            BigDecimal.valueOf(150),
+            PageRequest.of(0, 20)
         );
 
         // 4. 验证结果
@@ -0,0 +1,162 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.cache.CourseCache;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.common.shard.TenantDirectory;
+import com.double2and9.content_service.common.shard.TenantShardRoutingDataSource;
+import com.double2and9.content_service.config.AuditQueueProperties;
+import com.double2and9.content_service.dto.AuditDecisionDTO;
+import com.double2and9.content_service.dto.AuditDecisionResultDTO;
+import com.double2and9.content_service.entity.AuditTask;
+import com.double2and9.content_service.entity.MediaFile;
+import com.double2and9.content_service.repository.AuditTaskRepository;
+import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.CoursePublishPreRepository;
+import com.double2and9.content_service.repository.MediaFileRepository;
+import com.double2and9.content_service.service.impl.AuditQueueServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 机构迁移中的批量审核：两个H2内存库代替两个分片，仓库用mock代替，
+ * 按分片查询任务时只返回所在分片机构的任务；写入媒资审核状态时查询node表，记录写入落在哪个分片
+ */
+public class AuditQueueMoveTests {
+
+    private static final Long ORG_DEFAULT = 1L;
+    private static final Long ORG_SHARD1 = 2L;
+    private static final String REVIEWER = "reviewer-a";
+
+    private TenantDirectory tenantDirectory;
+    private AuditQueueService auditQueueService;
+    private final List<AuditTask> tasks = new ArrayList<>();
+    private final List<String> writes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("default", h2("default"));
+        dataSources.put("shard1", h2("shard1"));
+        ShardRegistry shardRegistry = new ShardRegistry("default", dataSources, Map.of("default", 0, "shard1", 1));
+        new JdbcTemplate(dataSources.get("default")).execute("create table tenant_shard (organization_id bigint primary key, "
+                + "shard varchar(64) not null, status varchar(16) not null, target_shard varchar(64), "
+                + "version bigint not null, update_time timestamp not null)");
+        tenantDirectory = new TenantDirectory(dataSources.get("default"), "default", 0);
+        assertTrue(tenantDirectory.assign(ORG_SHARD1, "shard1"));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new TenantShardRoutingDataSource(shardRegistry, tenantDirectory));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        tasks.add(mediaTask(1L, ORG_DEFAULT));
+        tasks.add(mediaTask(2L, ORG_SHARD1));
+        AuditTaskRepository auditTaskRepository = mock(AuditTaskRepository.class);
+        when(auditTaskRepository.findHeld(anyCollection(), anyString(), anyString(), any(Date.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    String shard = TenantContext.currentShard();
+                    return tasks.stream()
+                            .filter(task -> ids.contains(task.getId()))
+                            .filter(task -> shard == null
+                                    || shard.equals(tenantDirectory.placement(task.getOrganizationId()).shard()))
+                            .collect(Collectors.toList());
+                });
+        when(auditTaskRepository.deleteByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            tasks.removeIf(task -> ids.contains(task.getId()));
+            return ids.size();
+        });
+        MediaFileRepository mediaFileRepository = mock(MediaFileRepository.class);
+        when(mediaFileRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<MediaFile> mediaFiles = new ArrayList<>();
+            for (String mediaFileId : invocation.<Iterable<String>>getArgument(0)) {
+                MediaFile mediaFile = new MediaFile();
+                mediaFile.setMediaFileId(mediaFileId);
+                mediaFiles.add(mediaFile);
+            }
+            return mediaFiles;
+        });
+        when(mediaFileRepository.updateAuditStatusByIds(anyCollection(), anyString(), anyString(), any(Date.class)))
+                .thenAnswer(invocation -> {
+                    writes.add(jdbcTemplate.queryForObject("select name from node", String.class));
+                    return invocation.<Collection<String>>getArgument(0).size();
+                });
+
+        auditQueueService = new AuditQueueServiceImpl(auditTaskRepository, mock(CoursePublishPreRepository.class),
+                mock(CourseBaseRepository.class), mediaFileRepository, mock(CourseCounterService.class),
+                mock(CourseEventService.class), mock(CourseCatalogService.class), mock(CourseCache.class),
+                new AuditQueueProperties(),
+                new StaticListableBeanFactory(Map.of("shardRegistry", shardRegistry)).getBeanProvider(ShardRegistry.class),
+                new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void testDecide_SkipsTasksOfMovingTenant() {
+        // 迁移复制期间写入原分片的审核结果会在切换分片后丢失，必须被拒绝
+        assertTrue(tenantDirectory.markMoving(tenantDirectory.load(ORG_SHARD1), "default"));
+
+        AuditDecisionResultDTO result = auditQueueService.decide(decisionDTO(List.of(1L, 2L)));
+        assertEquals(1, result.getDecided());
+        assertEquals(List.of(2L), result.getSkippedTaskIds());
+        assertEquals(List.of("default"), writes);
+        // 跳过的任务仍由审核人持有，迁移结束后可以再次审核
+        assertEquals(List.of(2L), tasks.stream().map(AuditTask::getId).collect(Collectors.toList()));
+
+        tenantDirectory.abortMove(tenantDirectory.load(ORG_SHARD1));
+        result = auditQueueService.decide(decisionDTO(List.of(2L)));
+        assertEquals(1, result.getDecided());
+        assertEquals(List.of("default", "shard1"), writes);
+        assertTrue(tasks.isEmpty());
+    }
+
+    private static AuditTask mediaTask(Long id, Long organizationId) {
+        AuditTask task = new AuditTask();
+        task.setId(id);
+        task.setTargetType(AuditTask.MEDIA);
+        task.setTargetId("media-" + id);
+        task.setOrganizationId(organizationId);
+        task.setClaimedBy(REVIEWER);
+        return task;
+    }
+
+    private static AuditDecisionDTO decisionDTO(List<Long> taskIds) {
+        AuditDecisionDTO dto = new AuditDecisionDTO();
+        dto.setReviewer(REVIEWER);
+        dto.setTargetType(AuditTask.MEDIA);
+        dto.setTaskIds(taskIds);
+        dto.setAuditStatus("202003");
+        dto.setAuditMessage("批量审核");
+        return dto;
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(32))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
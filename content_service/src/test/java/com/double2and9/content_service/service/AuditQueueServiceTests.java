@@ -0,0 +1,203 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.dto.MediaFileDTO;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.*;
+import com.double2and9.content_service.entity.AuditTask;
+import com.double2and9.content_service.repository.CoursePublishPreRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Rollback
+class AuditQueueServiceTests {
+
+    private static final Long TEST_ORG_ID = 98765L;
+
+    @Autowired
+    private AuditQueueService auditQueueService;
+
+    @Autowired
+    private CourseBaseService courseBaseService;
+
+    @Autowired
+    private TeachplanService teachplanService;
+
+    @Autowired
+    private CourseTeacherService courseTeacherService;
+
+    @Autowired
+    private CourseCounterService courseCounterService;
+
+    @Autowired
+    private MediaFileService mediaFileService;
+
+    @Autowired
+    private CoursePublishPreRepository coursePublishPreRepository;
+
+    @Test
+    void testCourseQueue() {
+        CourseDashboardDTO before = courseCounterService.getDashboard(TEST_ORG_ID);
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long courseId = createCourse("审核队列课程" + i);
+            courseBaseService.submitForAudit(courseId);
+            courseIds.add(courseId);
+        }
+        // 重复提交不产生新任务
+        courseBaseService.submitForAudit(courseIds.get(0));
+
+        // 按提交时间游标分页
+        AuditQueuePageDTO first = auditQueueService.list(AuditTask.COURSE, TEST_ORG_ID, "SUBMIT_TIME", null, 2);
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+        AuditQueuePageDTO second = auditQueueService.list(AuditTask.COURSE, TEST_ORG_ID, "SUBMIT_TIME",
+                first.getNextCursor(), 2);
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+        Set<String> listed = new HashSet<>();
+        first.getItems().forEach(task -> listed.add(task.getTargetId()));
+        second.getItems().forEach(task -> listed.add(task.getTargetId()));
+        assertEquals(courseIds.stream().map(String::valueOf).collect(Collectors.toSet()), listed);
+        assertThrows(ContentException.class, () ->
+                auditQueueService.list(AuditTask.COURSE, TEST_ORG_ID, "SUBMIT_TIME", "not-a-cursor", 2));
+
+        // 调高优先级后排在最前
+        AuditTaskDTO urgent = second.getItems().get(0);
+        auditQueueService.updatePriority(urgent.getId(), 10);
+        AuditQueuePageDTO byPriority = auditQueueService.list(AuditTask.COURSE, TEST_ORG_ID, "PRIORITY", null, 10);
+        assertEquals(urgent.getId(), byPriority.getItems().get(0).getId());
+
+        // 两个审核人领取，互不重叠
+        List<AuditTaskDTO> claimedByA = auditQueueService.claim(claimDTO("reviewer-a", 2));
+        List<AuditTaskDTO> claimedByB = auditQueueService.claim(claimDTO("reviewer-b", 5));
+        assertEquals(2, claimedByA.size());
+        assertEquals(urgent.getId(), claimedByA.get(0).getId());
+        assertEquals(1, claimedByB.size());
+        assertTrue(claimedByA.stream().noneMatch(task -> task.getId().equals(claimedByB.get(0).getId())));
+        assertTrue(auditQueueService.claim(claimDTO("reviewer-c", 5)).isEmpty());
+
+        // 不能审核别人持有的任务
+        List<Long> taskIdsOfA = claimedByA.stream().map(AuditTaskDTO::getId).collect(Collectors.toList());
+        AuditDecisionResultDTO rejected = auditQueueService.decide(decisionDTO("reviewer-b", taskIdsOfA, "202304"));
+        assertEquals(0, rejected.getDecided());
+        assertEquals(taskIdsOfA, rejected.getSkippedTaskIds());
+
+        // 批量审核通过
+        AuditDecisionResultDTO approved = auditQueueService.decide(decisionDTO("reviewer-a", taskIdsOfA, "202303"));
+        assertEquals(2, approved.getDecided());
+        assertTrue(approved.getSkippedTaskIds().isEmpty());
+        for (AuditTaskDTO task : claimedByA) {
+            assertEquals("202303", coursePublishPreRepository.findById(Long.valueOf(task.getTargetId()))
+                    .orElseThrow().getStatus());
+        }
+        CourseDashboardDTO after = courseCounterService.getDashboard(TEST_ORG_ID);
+        assertEquals(1, after.getAuditStatusCounts().getOrDefault("202301", 0L)
+                - before.getAuditStatusCounts().getOrDefault("202301", 0L));
+        assertEquals(2, after.getAuditStatusCounts().getOrDefault("202303", 0L)
+                - before.getAuditStatusCounts().getOrDefault("202303", 0L));
+
+        // 归还后可被他人领取，单门审核后出队
+        assertEquals(1, auditQueueService.release(releaseDTO("reviewer-b", List.of(claimedByB.get(0).getId()))));
+        assertEquals(1, auditQueueService.claim(claimDTO("reviewer-c", 5)).size());
+        CourseAuditDTO auditDTO = new CourseAuditDTO();
+        auditDTO.setCourseId(Long.valueOf(claimedByB.get(0).getTargetId()));
+        auditDTO.setAuditStatus("202304");
+        courseBaseService.auditCourse(auditDTO);
+        assertTrue(auditQueueService.list(AuditTask.COURSE, TEST_ORG_ID, "SUBMIT_TIME", null, 10)
+                .getItems().isEmpty());
+    }
+
+    @Test
+    void testMediaQueue() {
+        MediaFileDTO dto = new MediaFileDTO();
+        dto.setMediaFileId("audit-queue-video");
+        dto.setFileName("audit-queue.mp4");
+        dto.setMediaType("VIDEO");
+        mediaFileService.saveMediaFile(TEST_ORG_ID, dto);
+
+        AuditQueuePageDTO page = auditQueueService.list(AuditTask.MEDIA, TEST_ORG_ID, "SUBMIT_TIME", null, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals("audit-queue-video", page.getItems().get(0).getTargetId());
+
+        mediaFileService.updateAuditStatus("audit-queue-video", "202003", "审核通过");
+        assertTrue(auditQueueService.list(AuditTask.MEDIA, TEST_ORG_ID, "SUBMIT_TIME", null, 10)
+                .getItems().isEmpty());
+    }
+
+    private Long createCourse(String name) {
+        AddCourseDTO courseDTO = new AddCourseDTO();
+        courseDTO.setName(name);
+        courseDTO.setBrief("审核队列测试课程");
+        courseDTO.setMt(1L);
+        courseDTO.setSt(2L);
+        courseDTO.setCharge("201001");
+        courseDTO.setPrice(BigDecimal.ZERO);
+        courseDTO.setValid(true);
+        courseDTO.setOrganizationId(TEST_ORG_ID);
+        Long courseId = courseBaseService.createCourse(courseDTO);
+
+        SaveTeachplanDTO chapterDTO = new SaveTeachplanDTO();
+        chapterDTO.setCourseId(courseId);
+        chapterDTO.setParentId(0L);
+        chapterDTO.setLevel(1);
+        chapterDTO.setName("第一章");
+        chapterDTO.setOrderBy(1);
+        teachplanService.saveTeachplan(chapterDTO);
+
+        SaveTeachplanDTO sectionDTO = new SaveTeachplanDTO();
+        sectionDTO.setCourseId(courseId);
+        sectionDTO.setParentId(chapterDTO.getId());
+        sectionDTO.setLevel(2);
+        sectionDTO.setName("第一节");
+        sectionDTO.setOrderBy(1);
+        teachplanService.saveTeachplan(sectionDTO);
+
+        SaveCourseTeacherDTO teacherDTO = new SaveCourseTeacherDTO();
+        teacherDTO.setOrganizationId(TEST_ORG_ID);
+        teacherDTO.setName("审核队列教师");
+        teacherDTO.setCourseIds(Set.of(courseId));
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+        return courseId;
+    }
+
+    private AuditClaimDTO claimDTO(String reviewer, int size) {
+        AuditClaimDTO dto = new AuditClaimDTO();
+        dto.setReviewer(reviewer);
+        dto.setTargetType(AuditTask.COURSE);
+        dto.setOrganizationId(TEST_ORG_ID);
+        dto.setOrder("PRIORITY");
+        dto.setSize(size);
+        return dto;
+    }
+
+    private AuditDecisionDTO decisionDTO(String reviewer, List<Long> taskIds, String auditStatus) {
+        AuditDecisionDTO dto = new AuditDecisionDTO();
+        dto.setReviewer(reviewer);
+        dto.setTargetType(AuditTask.COURSE);
+        dto.setTaskIds(taskIds);
+        dto.setAuditStatus(auditStatus);
+        dto.setAuditMessage("批量审核");
+        return dto;
+    }
+
+    private AuditReleaseDTO releaseDTO(String reviewer, List<Long> taskIds) {
+        AuditReleaseDTO dto = new AuditReleaseDTO();
+        dto.setReviewer(reviewer);
+        dto.setTaskIds(taskIds);
+        return dto;
+    }
+}
@@ -0,0 +1,153 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.CourseMarket;
+import com.double2and9.content_service.entity.CourseTeacher;
+import com.double2and9.content_service.entity.Teachplan;
+import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.TeachplanRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@Rollback
+public class ContentVersionServiceTests {
+
+    private static final Long TEST_ORG_ID = 1234L;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private CourseBaseRepository courseBaseRepository;
+
+    @Autowired
+    private TeachplanRepository teachplanRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private CourseBase createTestCourse() {
+        CourseBase courseBase = new CourseBase();
+        courseBase.setName("ETag测试课程");
+        courseBase.setStatus("202001");
+        courseBase.setOrganizationId(TEST_ORG_ID);
+        return courseBaseRepository.saveAndFlush(courseBase);
+    }
+
+    private Teachplan createTeachplan(CourseBase courseBase, int orderBy) {
+        Teachplan teachplan = new Teachplan();
+        teachplan.setName("章节" + orderBy);
+        teachplan.setParentId(0L);
+        teachplan.setLevel(1);
+        teachplan.setOrderBy(orderBy);
+        teachplan.setCourseBase(courseBase);
+        return teachplanRepository.saveAndFlush(teachplan);
+    }
+
+    @Test
+    void testCourseETag_ChangesOnUpdate() throws InterruptedException {
+        CourseBase courseBase = createTestCourse();
+        String before = contentVersionService.courseETag(courseBase.getId());
+        assertNotNull(before);
+        assertTrue(before.startsWith("W/\""));
+
+        Thread.sleep(5);
+        courseBase.setName("ETag测试课程-修改");
+        courseBaseRepository.saveAndFlush(courseBase);
+
+        assertNotEquals(before, contentVersionService.courseETag(courseBase.getId()));
+        assertNull(contentVersionService.courseETag(-1L));
+    }
+
+    @Test
+    void testTeachplanTreeETag_ChangesOnAddAndDelete() {
+        CourseBase courseBase = createTestCourse();
+        String empty = contentVersionService.teachplanTreeETag(courseBase.getId());
+
+        Teachplan teachplan = createTeachplan(courseBase, 1);
+        String withOne = contentVersionService.teachplanTreeETag(courseBase.getId());
+        assertNotEquals(empty, withOne);
+
+        teachplanRepository.delete(teachplan);
+        teachplanRepository.flush();
+        entityManager.clear();
+        assertEquals(empty, contentVersionService.teachplanTreeETag(courseBase.getId()));
+    }
+
+    @Test
+    void testCoursePreviewETag_ChangesOnMarketUpdate() throws InterruptedException {
+        CourseBase courseBase = createTestCourse();
+        String withoutMarket = contentVersionService.coursePreviewETag(courseBase.getId());
+
+        CourseMarket courseMarket = new CourseMarket();
+        courseMarket.setCourseBase(courseBase);
+        courseMarket.setCharge("201001");
+        courseMarket.setPrice(BigDecimal.ONE);
+        entityManager.persist(courseMarket);
+        entityManager.flush();
+        String withMarket = contentVersionService.coursePreviewETag(courseBase.getId());
+        assertNotEquals(withoutMarket, withMarket);
+
+        // 只修改营销信息，课程本身的更新时间不变
+        Thread.sleep(5);
+        courseMarket.setPrice(BigDecimal.TEN);
+        entityManager.flush();
+        assertNotEquals(withMarket, contentVersionService.coursePreviewETag(courseBase.getId()));
+    }
+
+    @Test
+    void testTeacherETag_ChangesOnCourseRelationOnlyEdit() throws InterruptedException {
+        CourseBase first = createTestCourse();
+        CourseBase second = createTestCourse();
+        CourseTeacher teacher = new CourseTeacher();
+        teacher.setOrganizationId(TEST_ORG_ID);
+        teacher.setName("ETag测试教师");
+        teacher.addCourse(first);
+        teacher.addCourse(second);
+        entityManager.persist(teacher);
+        entityManager.flush();
+        String before = contentVersionService.teacherETag(TEST_ORG_ID, teacher.getId());
+
+        // 只删除关联行，教师字段没有变化
+        Thread.sleep(5);
+        teacher.removeCourse(second);
+        entityManager.flush();
+        assertNotEquals(before, contentVersionService.teacherETag(TEST_ORG_ID, teacher.getId()));
+    }
+
+    @Test
+    void testGetCourse_ReturnsNotModifiedForMatchingETag() throws Exception {
+        CourseBase courseBase = createTestCourse();
+        String eTag = contentVersionService.courseETag(courseBase.getId());
+
+        mockMvc.perform(get("/course/{courseId}", courseBase.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+
+        mockMvc.perform(get("/course/{courseId}", courseBase.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+}
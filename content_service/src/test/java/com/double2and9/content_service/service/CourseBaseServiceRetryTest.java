@@ -3,24 +3,33 @@ package com.double2and9.content_service.service;
 import com.double2and9.base.dto.CommonResponse;
 import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.client.MediaAsyncClient;
 import com.double2and9.content_service.client.MediaFeignClient;
 import com.double2and9.content_service.common.exception.ContentException;
 import com.double2and9.content_service.entity.CourseBase;
 import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.MediaFileRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @SpringBootTest
 @Transactional
@@ -33,11 +42,34 @@ public class CourseBaseServiceRetryTest {
     @Autowired
     private CourseBaseRepository courseBaseRepository;
 
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @MockBean
     private MediaFeignClient mediaFeignClient;
 
     private static final Long TEST_ORG_ID = 1234L;
 
+    // 不在测试事务中执行的用例提交的课程，测试结束后删除
+    private final List<Long> committedCourseIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUpCommitted() {
+        if (committedCourseIds.isEmpty()) {
+            return;
+        }
+        TransactionTemplate cleanup = new TransactionTemplate(transactionManager);
+        cleanup.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        cleanup.executeWithoutResult(status -> {
+            mediaFileRepository.findByMediaFileId("test-file-id").ifPresent(mediaFileRepository::delete);
+            courseBaseRepository.deleteAllById(committedCourseIds);
+        });
+        committedCourseIds.clear();
+    }
+
     private CourseBase createTestCourse() {
         CourseBase courseBase = new CourseBase();
         courseBase.setName("Test Course");
@@ -63,7 +95,7 @@ public class CourseBaseServiceRetryTest {
 
         // 执行测试
         ContentException exception = assertThrows(ContentException.class,
-                () -> courseBaseService.updateCourseLogo(courseBase.getId(), file));
+                () -> MediaAsyncClient.await(courseBaseService.updateCourseLogo(courseBase.getId(), file)));
 
         // 验证异常信息
         assertEquals(ContentErrorCode.UPLOAD_LOGO_FAILED.getMessage(), exception.getMessage());
@@ -73,9 +105,11 @@ public class CourseBaseServiceRetryTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void testFallback_WhenServiceSuccess() {
-        // 准备测试数据
+        // 准备测试数据，上传结果在舱壁线程上另起事务保存，课程需要已提交
         CourseBase courseBase = createTestCourse();
+        committedCourseIds.add(courseBase.getId());
 
         MockMultipartFile file = new MockMultipartFile(
                 "file", "test.jpg", "image/jpeg", "test".getBytes());
@@ -93,7 +127,7 @@ public class CourseBaseServiceRetryTest {
                 .thenReturn(CommonResponse.success(mediaFileDTO));
 
         // 执行测试
-        assertDoesNotThrow(() -> courseBaseService.updateCourseLogo(courseBase.getId(), file));
+        assertDoesNotThrow(() -> MediaAsyncClient.await(courseBaseService.updateCourseLogo(courseBase.getId(), file)));
 
         // 验证调用次数
         verify(mediaFeignClient, times(1)).uploadCourseLogo(any(), any(), any());
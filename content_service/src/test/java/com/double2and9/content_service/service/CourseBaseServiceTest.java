@@ -6,11 +6,15 @@ import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.base.model.PageParams;
 import com.double2and9.base.model.PageResult;
 import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.client.MediaAsyncClient;
 import com.double2and9.content_service.client.MediaFeignClient;
 import com.double2and9.content_service.common.exception.ContentException;
 import com.double2and9.content_service.dto.*;
 import com.double2and9.content_service.entity.CourseBase;
 import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.MediaCleanupTaskRepository;
+import com.double2and9.content_service.repository.MediaFileRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,16 +22,26 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -47,11 +61,40 @@ class CourseBaseServiceTest {
     @Autowired
     private CourseBaseRepository courseBaseRepository;
 
+    @Autowired
+    private CourseCounterService courseCounterService;
+
+    @Autowired
+    private MediaCleanupTaskRepository mediaCleanupTaskRepository;
+
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @MockBean
     private MediaFeignClient mediaFeignClient;
 
     private static final Long TEST_ORG_ID = 1234L;
 
+    // 不在测试事务中执行的用例提交的课程，测试结束后删除
+    private final List<Long> committedCourseIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUpCommitted() {
+        if (committedCourseIds.isEmpty()) {
+            return;
+        }
+        TransactionTemplate cleanup = new TransactionTemplate(transactionManager);
+        cleanup.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        cleanup.executeWithoutResult(status -> {
+            mediaFileRepository.findByMediaFileId("test_media_id").ifPresent(mediaFileRepository::delete);
+            courseBaseRepository.deleteAllById(committedCourseIds);
+        });
+        committedCourseIds.clear();
+    }
+
     private AddCourseDTO createTestCourseDTO() {
         AddCourseDTO dto = new AddCourseDTO();
         dto.setName("测试课程");
@@ -342,10 +385,38 @@ class CourseBaseServiceTest {
 
     @Test
     @Transactional
-    void testUpdateCourseLogo() throws IOException {
-        // 1. 先创建一个课程
+    void testScheduledPublish() {
         Long courseId = courseBaseService.createCourse(createTestCourseDTO());
 
+        // 定时发布只记录定时任务，课程状态不变
+        Date publishAt = new Date(System.currentTimeMillis() + 3_600_000);
+        CourseScheduleDTO schedule = courseBaseService.publishCourse(courseId, publishAt);
+        assertEquals("PENDING", schedule.getStatus());
+        assertEquals(TEST_ORG_ID, schedule.getOrganizationId());
+        assertEquals("202001", courseBaseService.getCourseById(courseId).getStatus());
+
+        ContentException pastTime = assertThrows(ContentException.class,
+                () -> courseBaseService.offlineCourse(courseId, new Date(System.currentTimeMillis() - 1000)));
+        assertEquals(ContentErrorCode.COURSE_SCHEDULE_TIME_INVALID, pastTime.getErrorCode());
+        ContentException missing = assertThrows(ContentException.class,
+                () -> courseBaseService.publishCourse(Long.MAX_VALUE, publishAt));
+        assertEquals(ContentErrorCode.COURSE_NOT_EXISTS, missing.getErrorCode());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testUpdateCourseLogo() throws IOException {
+        // 1. 先创建一个课程，上传结果在舱壁线程上另起事务保存，课程需要已提交；
+        //    直接保存课程，不经过createCourse，避免提交课程状态计数
+        CourseBase course = new CourseBase();
+        course.setName("测试课程");
+        course.setMt(1L);
+        course.setSt(1L);
+        course.setStatus("202001");
+        course.setOrganizationId(TEST_ORG_ID);
+        Long courseId = courseBaseRepository.save(course).getId();
+        committedCourseIds.add(courseId);
+
         // 2. 准备测试数据
         MockMultipartFile file = new MockMultipartFile(
                 "file",
@@ -357,11 +428,12 @@ class CourseBaseServiceTest {
         MediaFileDTO mediaFileDTO = new MediaFileDTO();
         mediaFileDTO.setMediaFileId("test_media_id");
         mediaFileDTO.setUrl("/test/url");
+        mediaFileDTO.setOrganizationId(TEST_ORG_ID);
         when(mediaFeignClient.uploadCourseLogo(eq(courseId), any(), eq(file)))
                 .thenReturn(CommonResponse.success(mediaFileDTO));
 
         // 4. 执行测试
-        courseBaseService.updateCourseLogo(courseId, file);
+        MediaAsyncClient.await(courseBaseService.updateCourseLogo(courseId, file));
 
         // 5. 直接通过Repository验证数据库中的实际数据
         CourseBase courseBase = courseBaseRepository.findById(courseId)
@@ -389,10 +461,13 @@ class CourseBaseServiceTest {
         // 4. 执行测试
         courseBaseService.deleteCourseLogo(courseId);
 
-        // 5. 验证结果
+        // 5. 验证结果：封面文件登记为清理任务，不同步调用媒体服务
         courseBase = courseBaseRepository.findById(courseId)
                 .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
         assertNull(courseBase.getLogo());
+        verify(mediaFeignClient, never()).deleteMediaFile(any());
+        assertTrue(mediaCleanupTaskRepository.findAll().stream()
+                .anyMatch(task -> courseId.equals(task.getCourseId()) && logoUrl.equals(task.getUrl())));
     }
 
     @Test
@@ -414,7 +489,7 @@ class CourseBaseServiceTest {
 
         // 4. 验证异常
         ContentException exception = assertThrows(ContentException.class,
-                () -> courseBaseService.updateCourseLogo(courseId, file));
+                () -> MediaAsyncClient.await(courseBaseService.updateCourseLogo(courseId, file)));
         assertEquals(ContentErrorCode.UPLOAD_LOGO_FAILED, exception.getErrorCode());
     }
 
@@ -464,6 +539,174 @@ class CourseBaseServiceTest {
         assertFalse(courseBaseRepository.findById(courseId).isPresent(), "课程应该已被删除");
     }
 
+    @Test
+    @Transactional
+    void testDeleteCourse_EnqueuesLogoCleanup() {
+        Long courseId = courseBaseService.createCourse(createTestCourseDTO());
+
+        CourseBase courseBase = courseBaseRepository.findById(courseId)
+                .orElseThrow(() -> new ContentException(ContentErrorCode.COURSE_NOT_EXISTS));
+        courseBase.setLogo("/media/course/logo/cleanup.jpg");
+        courseBaseRepository.save(courseBase);
+
+        courseBaseService.deleteCourse(courseId);
+
+        // 删除课程不再同步调用媒体服务，而是登记清理任务
+        verify(mediaFeignClient, never()).deleteMediaFile(any());
+        assertTrue(mediaCleanupTaskRepository.findAll().stream()
+                .anyMatch(task -> courseId.equals(task.getCourseId())
+                        && "/media/course/logo/cleanup.jpg".equals(task.getUrl())));
+    }
+
+    @Test
+    @Transactional
+    void testStatusCounters() {
+        CourseDashboardDTO before = courseCounterService.getDashboard(TEST_ORG_ID);
+        Map<String, Long> auditBefore = courseCounterService.countAuditStatus();
+
+        // 创建：未发布+1
+        Long courseId = courseBaseService.createCourse(createTestCourseDTO());
+        prepareForAudit(courseId);
+        assertEquals(1, countDelta(before.getCourseStatusCounts(), "202001"));
+
+        // 提交审核：已提交+1
+        courseBaseService.submitForAudit(courseId);
+        assertEquals(1, auditDelta(before, "202301"));
+        assertEquals(auditBefore.getOrDefault("202301", 0L) + 1,
+                courseCounterService.countAuditStatus().getOrDefault("202301", 0L));
+
+        // 审核通过：已提交-1，审核通过+1
+        CourseAuditDTO auditDTO = new CourseAuditDTO();
+        auditDTO.setCourseId(courseId);
+        auditDTO.setAuditStatus("202303");
+        courseBaseService.auditCourse(auditDTO);
+        assertEquals(0, auditDelta(before, "202301"));
+        assertEquals(1, auditDelta(before, "202303"));
+
+        // 发布、下架：未发布 -> 已发布 -> 已下架
+        courseBaseService.publishCourse(courseId);
+        assertEquals(0, countDelta(before.getCourseStatusCounts(), "202001"));
+        assertEquals(1, countDelta(before.getCourseStatusCounts(), "202002"));
+        courseBaseService.offlineCourse(courseId);
+        assertEquals(0, countDelta(before.getCourseStatusCounts(), "202002"));
+        assertEquals(1, countDelta(before.getCourseStatusCounts(), "202003"));
+
+        // 列表总数取自计数
+        PageParams pageParams = new PageParams();
+        pageParams.setPageNo(1L);
+        pageParams.setPageSize(10L);
+        QueryCourseParamsDTO queryParams = new QueryCourseParamsDTO();
+        queryParams.setOrganizationId(TEST_ORG_ID);
+        queryParams.setStatus("202003");
+        PageResult<CourseBaseDTO> result = courseBaseService.queryCourseList(pageParams, queryParams);
+        assertEquals(before.getCourseStatusCounts().getOrDefault("202003", 0L) + 1, result.getCounts());
+        assertTrue(result.getItems().stream().anyMatch(course -> course.getId().equals(courseId)));
+
+        // 删除：未发布-1
+        Long draftId = courseBaseService.createCourse(createTestCourseDTO());
+        assertEquals(1, countDelta(before.getCourseStatusCounts(), "202001"));
+        courseBaseService.deleteCourse(draftId);
+        assertEquals(0, countDelta(before.getCourseStatusCounts(), "202001"));
+        assertEquals(before.getTotalCourses() + 1, courseCounterService.getDashboard(TEST_ORG_ID).getTotalCourses());
+    }
+
+    @Test
+    void testPublishAndOfflineCoursesInBatch() {
+        CourseDashboardDTO before = courseCounterService.getDashboard(TEST_ORG_ID);
+        List<Long> approvedIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Long courseId = courseBaseService.createCourse(createTestCourseDTO());
+            prepareForAudit(courseId);
+            courseBaseService.submitForAudit(courseId);
+            CourseAuditDTO auditDTO = new CourseAuditDTO();
+            auditDTO.setCourseId(courseId);
+            auditDTO.setAuditStatus("202303");
+            courseBaseService.auditCourse(auditDTO);
+            approvedIds.add(courseId);
+        }
+        Long draftId = courseBaseService.createCourse(createTestCourseDTO());
+        Long missingId = Long.MAX_VALUE;
+
+        List<Long> batch = new ArrayList<>(approvedIds);
+        batch.add(draftId);
+        batch.add(missingId);
+        List<CourseBulkErrorDTO> errors = courseBaseService.publishCourses(TEST_ORG_ID, batch);
+
+        // 不满足条件的课程跳过，其余照常发布
+        assertEquals(2, errors.size());
+        assertEquals(draftId, errors.get(0).getCourseId());
+        assertEquals(ContentErrorCode.COURSE_AUDIT_STATUS_ERROR.getCode(), errors.get(0).getCode());
+        assertEquals(missingId, errors.get(1).getCourseId());
+        assertEquals(ContentErrorCode.COURSE_NOT_EXISTS.getCode(), errors.get(1).getCode());
+        for (Long courseId : approvedIds) {
+            assertEquals("202002", courseBaseService.getCourseById(courseId).getStatus());
+        }
+        assertEquals(2, countDelta(before.getCourseStatusCounts(), "202002"));
+        assertEquals(1, countDelta(before.getCourseStatusCounts(), "202001"));
+
+        // 其他机构的课程不处理
+        List<CourseBulkErrorDTO> otherOrg = courseBaseService.offlineCourses(TEST_ORG_ID + 1, approvedIds);
+        assertEquals(2, otherOrg.size());
+        assertEquals(ContentErrorCode.COURSE_ORG_NOT_MATCH.getCode(), otherOrg.get(0).getCode());
+
+        assertTrue(courseBaseService.offlineCourses(TEST_ORG_ID, approvedIds).isEmpty());
+        assertEquals(0, countDelta(before.getCourseStatusCounts(), "202002"));
+        assertEquals(2, countDelta(before.getCourseStatusCounts(), "202003"));
+    }
+
+    private long countDelta(Map<String, Long> before, String status) {
+        return courseCounterService.getDashboard(TEST_ORG_ID).getCourseStatusCounts().getOrDefault(status, 0L)
+                - before.getOrDefault(status, 0L);
+    }
+
+    private long auditDelta(CourseDashboardDTO before, String status) {
+        return courseCounterService.getDashboard(TEST_ORG_ID).getAuditStatusCounts().getOrDefault(status, 0L)
+                - before.getAuditStatusCounts().getOrDefault(status, 0L);
+    }
+
+    @Test
+    void testCourseCacheEvictedOnChanges() {
+        Long courseId = courseBaseService.createCourse(createTestCourseDTO());
+        prepareForAudit(courseId);
+        assertEquals("测试课程", courseBaseService.getCourseById(courseId).getName());
+        assertEquals(1, courseBaseService.preview(courseId).getTeachers().size());
+
+        // 绕过服务直接修改数据库，读到的仍是缓存
+        CourseBase courseBase = courseBaseRepository.findById(courseId).orElseThrow();
+        courseBase.setName("直接修改的名称");
+        courseBaseRepository.saveAndFlush(courseBase);
+        assertEquals("测试课程", courseBaseService.getCourseById(courseId).getName());
+        assertEquals("测试课程", courseBaseService.preview(courseId).getCourseBase().getName());
+
+        // 通过服务修改时删除缓存
+        courseBaseService.updateCourse(createTestEditCourseDTO(courseId));
+        assertEquals("更新后的课程名称", courseBaseService.getCourseById(courseId).getName());
+        assertEquals("更新后的课程名称", courseBaseService.preview(courseId).getCourseBase().getName());
+
+        SaveTeachplanDTO chapterDTO = new SaveTeachplanDTO();
+        chapterDTO.setCourseId(courseId);
+        chapterDTO.setParentId(0L);
+        chapterDTO.setLevel(1);
+        chapterDTO.setName("第二章");
+        chapterDTO.setOrderBy(2);
+        teachplanService.saveTeachplan(chapterDTO);
+        assertEquals(3, courseBaseService.preview(courseId).getTeachplans().size());
+
+        SaveCourseTeacherDTO teacherDTO = new SaveCourseTeacherDTO();
+        teacherDTO.setOrganizationId(TEST_ORG_ID);
+        teacherDTO.setName("第二位教师");
+        teacherDTO.setCourseIds(Set.of(courseId));
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+        List<CourseTeacherDTO> teachers = courseBaseService.preview(courseId).getTeachers();
+        assertEquals(2, teachers.size());
+
+        Long secondTeacherId = teachers.stream()
+                .filter(teacher -> "第二位教师".equals(teacher.getName()))
+                .findFirst().orElseThrow().getId();
+        courseTeacherService.deleteCourseTeacher(courseId, secondTeacherId);
+        assertEquals(1, courseBaseService.preview(courseId).getTeachers().size());
+    }
+
     // 辅助方法：准备审核所需的课程计划和教师
     private void prepareForAudit(Long courseId) {
         // 添加课程计划
@@ -0,0 +1,154 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.CourseBulkJobDTO;
+import com.double2and9.content_service.dto.CourseBulkJobRequestDTO;
+import com.double2and9.content_service.entity.CourseBulkJob;
+import com.double2and9.content_service.repository.CourseBulkJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量任务在后台线程中执行，看不到测试事务中未提交的数据，这里不使用 @Transactional，
+ * 只用不存在的课程ID验证分块、进度、失败明细和取消
+ */
+@SpringBootTest(properties = {
+        "content.bulk-job.chunk-size=2",
+        "content.bulk-job.chunk-pause-ms=100"
+})
+class CourseBulkJobServiceTests {
+
+    private static final Long TEST_ORG_ID = 1234L;
+
+    @Autowired
+    private CourseBulkJobService courseBulkJobService;
+
+    @Autowired
+    private CourseBulkJobRepository courseBulkJobRepository;
+
+    @Test
+    void testJobCollectsPerCourseErrors() throws InterruptedException {
+        CourseBulkJobDTO submitted = courseBulkJobService.submit(request(missingCourseIds(5)));
+        assertEquals(CourseBulkJob.PENDING, submitted.getStatus());
+        assertEquals(5, submitted.getTotal());
+
+        CourseBulkJobDTO job = awaitFinished(submitted.getId());
+        assertEquals(CourseBulkJob.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessed());
+        assertEquals(0, job.getSucceeded());
+        assertEquals(5, job.getFailed());
+        assertEquals(5, job.getErrors().size());
+        assertTrue(job.getErrors().stream()
+                .allMatch(error -> error.getCode() == ContentErrorCode.COURSE_NOT_EXISTS.getCode()));
+        assertNotNull(job.getFinishTime());
+    }
+
+    @Test
+    void testCancelStopsBetweenChunks() throws InterruptedException {
+        CourseBulkJobDTO submitted = courseBulkJobService.submit(request(missingCourseIds(40)));
+        courseBulkJobService.cancel(submitted.getId());
+
+        CourseBulkJobDTO job = awaitFinished(submitted.getId());
+        assertEquals(CourseBulkJob.CANCELLED, job.getStatus());
+        assertTrue(job.getProcessed() < 40);
+        // 已取消的任务再次取消不变
+        assertEquals(CourseBulkJob.CANCELLED, courseBulkJobService.cancel(submitted.getId()).getStatus());
+    }
+
+    @Test
+    void testJobEndedByOtherNodeStopsExecuting() throws InterruptedException {
+        CourseBulkJobDTO submitted = courseBulkJobService.submit(request(missingCourseIds(40)));
+        for (int i = 0; i < 100 && courseBulkJobService.getJob(submitted.getId()).getProcessed() == 0; i++) {
+            Thread.sleep(20);
+        }
+        // 执行节点停顿过久被判定为失联，任务已被标记为FAILED
+        CourseBulkJob job = courseBulkJobRepository.findById(submitted.getId()).orElseThrow();
+        job.setStatus(CourseBulkJob.FAILED);
+        courseBulkJobRepository.save(job);
+
+        Thread.sleep(500);
+        CourseBulkJobDTO ended = courseBulkJobService.getJob(submitted.getId());
+        // 执行节点不再累加进度，也不会把任务改回COMPLETED
+        Thread.sleep(500);
+        CourseBulkJobDTO later = courseBulkJobService.getJob(submitted.getId());
+        assertEquals(CourseBulkJob.FAILED, later.getStatus());
+        assertEquals(ended.getProcessed(), later.getProcessed());
+        assertTrue(later.getProcessed() < 40);
+    }
+
+    @Test
+    void testFailStaleJobs_QueuedJobsJudgedByHeartbeat() {
+        Date longAgo = new Date(System.currentTimeMillis() - 3_600_000);
+        Date recently = new Date();
+        // 排队很久但所在节点仍在刷新心跳
+        Long queued = saveJob(CourseBulkJob.PENDING, longAgo, recently);
+        // 所在节点失联，心跳停止
+        Long orphaned = saveJob(CourseBulkJob.PENDING, longAgo, longAgo);
+        // 执行中但长时间没有进度
+        Long stuck = saveJob(CourseBulkJob.RUNNING, longAgo, recently);
+
+        assertTrue(courseBulkJobService.failStaleJobs() >= 2);
+
+        assertEquals(CourseBulkJob.PENDING, courseBulkJobService.getJob(queued).getStatus());
+        assertEquals(CourseBulkJob.FAILED, courseBulkJobService.getJob(orphaned).getStatus());
+        assertEquals(CourseBulkJob.FAILED, courseBulkJobService.getJob(stuck).getStatus());
+        courseBulkJobRepository.deleteAllById(List.of(queued, orphaned, stuck));
+    }
+
+    @Test
+    void testGetUnknownJob() {
+        ContentException exception = assertThrows(ContentException.class,
+                () -> courseBulkJobService.getJob(Long.MAX_VALUE));
+        assertEquals(ContentErrorCode.COURSE_BULK_JOB_NOT_EXISTS, exception.getErrorCode());
+    }
+
+    private CourseBulkJobDTO awaitFinished(Long jobId) throws InterruptedException {
+        Set<String> finished = Set.of(CourseBulkJob.COMPLETED, CourseBulkJob.CANCELLED, CourseBulkJob.FAILED);
+        for (int i = 0; i < 100; i++) {
+            CourseBulkJobDTO job = courseBulkJobService.getJob(jobId);
+            if (finished.contains(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        fail("批量任务未在10秒内结束");
+        return null;
+    }
+
+    private Long saveJob(String status, Date updateTime, Date heartbeatTime) {
+        CourseBulkJob job = new CourseBulkJob();
+        job.setOrganizationId(TEST_ORG_ID);
+        job.setOperation(CourseBulkJob.PUBLISH);
+        job.setStatus(status);
+        job.setTotal(1);
+        job.setCreateTime(updateTime);
+        job.setUpdateTime(updateTime);
+        job.setHeartbeatTime(heartbeatTime);
+        return courseBulkJobRepository.save(job).getId();
+    }
+
+    private static CourseBulkJobRequestDTO request(List<Long> courseIds) {
+        CourseBulkJobRequestDTO request = new CourseBulkJobRequestDTO();
+        request.setOrganizationId(TEST_ORG_ID);
+        request.setOperation(CourseBulkJob.PUBLISH);
+        request.setCourseIds(courseIds);
+        return request;
+    }
+
+    private static List<Long> missingCourseIds(int count) {
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            courseIds.add(Long.MAX_VALUE - i);
+        }
+        return courseIds;
+    }
+}
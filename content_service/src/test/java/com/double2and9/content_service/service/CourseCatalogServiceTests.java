@@ -0,0 +1,176 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Rollback
+class CourseCatalogServiceTests {
+
+    private static final Long TEST_ORG_ID = 56789L;
+    // 其他测试不使用的分类，目录浏览不按机构过滤
+    private static final Long TEST_MT = 90001L;
+    private static final Long TEST_ST = 90002L;
+    private static final Long OTHER_ST = 90003L;
+    private static final String FREE = "201001";
+    private static final String CHARGED = "201002";
+
+    @Autowired
+    private CourseCatalogService courseCatalogService;
+
+    @Autowired
+    private CourseBaseService courseBaseService;
+
+    @Autowired
+    private TeachplanService teachplanService;
+
+    @Autowired
+    private CourseTeacherService courseTeacherService;
+
+    @Test
+    void testBrowseWithCombinedFiltersAndKeysetPaging() throws InterruptedException {
+        List<Long> freeCourses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            freeCourses.add(publishedCourse("免费课程" + i, TEST_ST, FREE, BigDecimal.ZERO));
+            // 发布时间不同，便于验证顺序
+            Thread.sleep(5);
+        }
+        Long charged = publishedCourse("收费课程", TEST_ST, CHARGED, new BigDecimal("99.00"));
+        Long otherCategory = publishedCourse("其他分类免费课程", OTHER_ST, FREE, BigDecimal.ZERO);
+        // 未发布的课程不在目录中
+        createCourse("未发布课程", TEST_ST, FREE, BigDecimal.ZERO);
+
+        // 分类 + 免费，按发布时间倒序，两条一页
+        CourseCatalogPageDTO first = courseCatalogService.browse(query(TEST_ST, FREE, null, null, 2));
+        assertEquals(List.of(freeCourses.get(2), freeCourses.get(1)), courseIds(first));
+        assertNotNull(first.getNextCursor());
+        CourseCatalogQueryDTO next = query(TEST_ST, FREE, null, null, 2);
+        next.setCursor(first.getNextCursor());
+        CourseCatalogPageDTO second = courseCatalogService.browse(next);
+        assertEquals(List.of(freeCourses.get(0)), courseIds(second));
+        assertNull(second.getNextCursor());
+
+        // 只按大分类
+        Set<Long> all = Set.copyOf(courseIds(courseCatalogService.browse(query(null, null, null, null, 20))));
+        assertEquals(Set.of(freeCourses.get(0), freeCourses.get(1), freeCourses.get(2), charged, otherCategory), all);
+
+        // 价格区间
+        assertEquals(List.of(charged),
+                courseIds(courseCatalogService.browse(query(null, null, new BigDecimal("50"), new BigDecimal("100"), 20))));
+
+        assertThrows(ContentException.class, () -> {
+            CourseCatalogQueryDTO invalid = query(null, null, null, null, 20);
+            invalid.setCursor("not-a-cursor");
+            courseCatalogService.browse(invalid);
+        });
+    }
+
+    @Test
+    void testCatalogFollowsCourseChanges() {
+        Long courseId = publishedCourse("目录同步课程", TEST_ST, FREE, BigDecimal.ZERO);
+
+        // 修改已发布课程的价格，目录同步
+        EditCourseDTO editDTO = new EditCourseDTO();
+        editDTO.setId(courseId);
+        editDTO.setName("目录同步课程（收费）");
+        editDTO.setMt(TEST_MT);
+        editDTO.setSt(TEST_ST);
+        editDTO.setCharge(CHARGED);
+        editDTO.setPrice(new BigDecimal("19.90"));
+        courseBaseService.updateCourse(editDTO);
+        CourseCatalogItemDTO item = courseCatalogService.browse(query(TEST_ST, CHARGED, null, null, 20)).getItems().get(0);
+        assertEquals(courseId, item.getCourseId());
+        assertEquals("目录同步课程（收费）", item.getName());
+        assertEquals(0, new BigDecimal("19.90").compareTo(item.getPrice()));
+        assertTrue(courseCatalogService.browse(query(TEST_ST, FREE, null, null, 20)).getItems().isEmpty());
+
+        // 下架后移出目录
+        courseBaseService.offlineCourse(courseId);
+        assertTrue(courseCatalogService.browse(query(TEST_ST, null, null, null, 20)).getItems().isEmpty());
+
+        ContentException exception = assertThrows(ContentException.class, () -> {
+            CourseCatalogQueryDTO invalid = query(null, null, null, null, 20);
+            invalid.setCursor("%%%");
+            courseCatalogService.browse(invalid);
+        });
+        assertEquals(ContentErrorCode.COURSE_CATALOG_CURSOR_INVALID, exception.getErrorCode());
+    }
+
+    private static CourseCatalogQueryDTO query(Long st, String charge, BigDecimal minPrice, BigDecimal maxPrice,
+                                               int size) {
+        CourseCatalogQueryDTO query = new CourseCatalogQueryDTO();
+        query.setMt(TEST_MT);
+        query.setSt(st);
+        query.setCharge(charge);
+        query.setMinPrice(minPrice);
+        query.setMaxPrice(maxPrice);
+        query.setSize(size);
+        return query;
+    }
+
+    private static List<Long> courseIds(CourseCatalogPageDTO page) {
+        return page.getItems().stream().map(CourseCatalogItemDTO::getCourseId).collect(Collectors.toList());
+    }
+
+    private Long publishedCourse(String name, Long st, String charge, BigDecimal price) {
+        Long courseId = createCourse(name, st, charge, price);
+        courseBaseService.submitForAudit(courseId);
+        CourseAuditDTO auditDTO = new CourseAuditDTO();
+        auditDTO.setCourseId(courseId);
+        auditDTO.setAuditStatus("202303");
+        courseBaseService.auditCourse(auditDTO);
+        courseBaseService.publishCourse(courseId);
+        return courseId;
+    }
+
+    private Long createCourse(String name, Long st, String charge, BigDecimal price) {
+        AddCourseDTO courseDTO = new AddCourseDTO();
+        courseDTO.setName(name);
+        courseDTO.setBrief("课程目录测试课程");
+        courseDTO.setMt(TEST_MT);
+        courseDTO.setSt(st);
+        courseDTO.setCharge(charge);
+        courseDTO.setPrice(price);
+        courseDTO.setValid(true);
+        courseDTO.setOrganizationId(TEST_ORG_ID);
+        Long courseId = courseBaseService.createCourse(courseDTO);
+
+        SaveTeachplanDTO chapterDTO = new SaveTeachplanDTO();
+        chapterDTO.setCourseId(courseId);
+        chapterDTO.setParentId(0L);
+        chapterDTO.setLevel(1);
+        chapterDTO.setName("第一章");
+        chapterDTO.setOrderBy(1);
+        teachplanService.saveTeachplan(chapterDTO);
+
+        SaveTeachplanDTO sectionDTO = new SaveTeachplanDTO();
+        sectionDTO.setCourseId(courseId);
+        sectionDTO.setParentId(chapterDTO.getId());
+        sectionDTO.setLevel(2);
+        sectionDTO.setName("第一节");
+        sectionDTO.setOrderBy(1);
+        teachplanService.saveTeachplan(sectionDTO);
+
+        SaveCourseTeacherDTO teacherDTO = new SaveCourseTeacherDTO();
+        teacherDTO.setOrganizationId(TEST_ORG_ID);
+        teacherDTO.setName("课程目录教师");
+        teacherDTO.setCourseIds(Set.of(courseId));
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+        return courseId;
+    }
+}
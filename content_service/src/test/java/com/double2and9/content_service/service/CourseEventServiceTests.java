@@ -0,0 +1,203 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.CourseEventTypeEnum;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.event.CourseEvent;
+import com.double2and9.content_service.event.CourseEventSink;
+import com.double2and9.content_service.event.InMemoryCourseEventSink;
+import com.double2and9.content_service.entity.CourseEventOutbox;
+import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.CourseEventOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"content.event.sink=memory", "content.event.relay-enabled=false",
+        "content.event.max-attempts=3", "content.event.initial-backoff-ms=0"})
+@Transactional
+@Rollback
+public class CourseEventServiceTests {
+
+    private static final Long TEST_ORG_ID = 1234L;
+
+    @Autowired
+    private CourseEventService courseEventService;
+
+    @Autowired
+    private CourseEventSink courseEventSink;
+
+    @Autowired
+    private CourseBaseRepository courseBaseRepository;
+
+    @Autowired
+    private CourseEventOutboxRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        ((InMemoryCourseEventSink) courseEventSink).clear();
+        // 清空测试开始前遗留的待投递事件
+        while (courseEventService.relayPendingEvents() > 0) {
+            // 继续投递
+        }
+        ((InMemoryCourseEventSink) courseEventSink).clear();
+    }
+
+    private CourseBase createTestCourse(String name) {
+        CourseBase courseBase = new CourseBase();
+        courseBase.setName(name);
+        courseBase.setStatus("202001");
+        courseBase.setOrganizationId(TEST_ORG_ID);
+        courseBase.setCreateTime(new Date());
+        courseBase.setUpdateTime(new Date());
+        return courseBaseRepository.save(courseBase);
+    }
+
+    @Test
+    void testRelayKeepsPerCourseOrder() {
+        CourseBase first = createTestCourse("事件课程1");
+        CourseBase second = createTestCourse("事件课程2");
+
+        courseEventService.record(first, CourseEventTypeEnum.SUBMITTED_FOR_AUDIT);
+        courseEventService.record(second, CourseEventTypeEnum.SUBMITTED_FOR_AUDIT);
+        courseEventService.record(first, CourseEventTypeEnum.AUDITED);
+        courseEventService.record(first, CourseEventTypeEnum.PUBLISHED);
+
+        int published = courseEventService.relayPendingEvents();
+        assertEquals(4, published);
+
+        List<CourseEvent> events = ((InMemoryCourseEventSink) courseEventSink).getEvents();
+        List<String> firstCourseTypes = events.stream()
+                .filter(e -> e.getCourseId().equals(first.getId()))
+                .map(CourseEvent::getEventType)
+                .collect(Collectors.toList());
+        assertEquals(List.of(
+                CourseEventTypeEnum.SUBMITTED_FOR_AUDIT.getCode(),
+                CourseEventTypeEnum.AUDITED.getCode(),
+                CourseEventTypeEnum.PUBLISHED.getCode()), firstCourseTypes);
+
+        // 已投递事件不会重复投递
+        assertEquals(0, courseEventService.relayPendingEvents());
+    }
+
+    @Test
+    void testFailingEventParkedAfterMaxAttempts() {
+        CourseBase first = createTestCourse("事件课程4");
+        CourseBase second = createTestCourse("事件课程5");
+        courseEventService.record(second, CourseEventTypeEnum.SUBMITTED_FOR_AUDIT);
+        courseEventService.record(first, CourseEventTypeEnum.SUBMITTED_FOR_AUDIT);
+        courseEventService.record(first, CourseEventTypeEnum.AUDITED);
+        courseEventService.record(second, CourseEventTypeEnum.AUDITED);
+
+        InMemoryCourseEventSink sink = (InMemoryCourseEventSink) courseEventSink;
+        String submitted = CourseEventTypeEnum.SUBMITTED_FOR_AUDIT.getCode();
+        sink.failWhen(e -> e.getCourseId().equals(first.getId()) && submitted.equals(e.getEventType()));
+
+        // 整批失败后逐条投递，失败事件之前的事件照常投递，之后的事件不越过它
+        assertEquals(1, courseEventService.relayPendingEvents());
+        assertEquals(0, courseEventService.relayPendingEvents());
+        assertEquals(List.of(second.getId()),
+                sink.getEvents().stream().map(CourseEvent::getCourseId).collect(Collectors.toList()));
+
+        // 第3次失败后停放，其他课程的事件继续投递
+        assertEquals(0, courseEventService.relayPendingEvents());
+        assertEquals(1, courseEventService.relayPendingEvents());
+        assertEquals(0, courseEventService.relayPendingEvents());
+        assertEquals(List.of(second.getId(), second.getId()),
+                sink.getEvents().stream().map(CourseEvent::getCourseId).collect(Collectors.toList()));
+
+        CourseEventOutbox parked = outboxRepository.findAll().stream()
+                .filter(CourseEventOutbox::getParked)
+                .findFirst().orElseThrow();
+        assertEquals(first.getId(), parked.getCourseId());
+        assertEquals(submitted, parked.getEventType());
+        assertEquals(3, parked.getAttempts());
+        assertFalse(parked.getPublished());
+    }
+
+    @Test
+    void testParkedEventHoldsLaterEventsOfSameCourse() {
+        CourseBase course = createTestCourse("事件课程6");
+        courseEventService.record(course, CourseEventTypeEnum.PUBLISHED);
+        courseEventService.record(course, CourseEventTypeEnum.OFFLINE);
+
+        InMemoryCourseEventSink sink = (InMemoryCourseEventSink) courseEventSink;
+        String published = CourseEventTypeEnum.PUBLISHED.getCode();
+        sink.failWhen(e -> published.equals(e.getEventType()));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, courseEventService.relayPendingEvents());
+        }
+
+        // PUBLISHED已停放，之后的OFFLINE不越过它
+        assertEquals(0, courseEventService.relayPendingEvents());
+        assertTrue(sink.getEvents().isEmpty());
+        CourseEventOutbox held = outboxRepository.findAll().stream()
+                .filter(e -> e.getCourseId().equals(course.getId()) && !e.getParked())
+                .findFirst().orElseThrow();
+        assertEquals(CourseEventTypeEnum.OFFLINE.getCode(), held.getEventType());
+        assertEquals(0, held.getAttempts());
+        assertFalse(held.getPublished());
+
+        // 人工处理后重新投递，失败次数清零，两条事件按顺序投递
+        sink.clear();
+        assertEquals(1, courseEventService.requeueParked(course.getId()));
+        CourseEventOutbox requeued = outboxRepository.findAll().stream()
+                .filter(e -> e.getCourseId().equals(course.getId()) && published.equals(e.getEventType()))
+                .findFirst().orElseThrow();
+        assertFalse(requeued.getParked());
+        assertEquals(0, requeued.getAttempts());
+        assertEquals(2, courseEventService.relayPendingEvents());
+        assertEquals(List.of(published, CourseEventTypeEnum.OFFLINE.getCode()),
+                sink.getEvents().stream().map(CourseEvent::getEventType).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testUnavailableSinkPostponesWithoutChargingAttempts() {
+        CourseBase course = createTestCourse("事件课程7");
+        courseEventService.record(course, CourseEventTypeEnum.PUBLISHED);
+        courseEventService.record(course, CourseEventTypeEnum.OFFLINE);
+
+        // 投递目标不可用的次数超过 max-attempts，事件也不停放
+        InMemoryCourseEventSink sink = (InMemoryCourseEventSink) courseEventSink;
+        sink.setUnavailable(true);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, courseEventService.relayPendingEvents());
+        }
+        List<CourseEventOutbox> postponed = outboxRepository.findAll().stream()
+                .filter(e -> e.getCourseId().equals(course.getId()))
+                .collect(Collectors.toList());
+        assertEquals(2, postponed.size());
+        for (CourseEventOutbox outbox : postponed) {
+            assertEquals(0, outbox.getAttempts());
+            assertFalse(outbox.getParked());
+            assertNotNull(outbox.getNextAttemptTime());
+            assertNotNull(outbox.getLastError());
+        }
+
+        // 恢复后按顺序投递
+        sink.setUnavailable(false);
+        assertEquals(2, courseEventService.relayPendingEvents());
+        assertEquals(List.of(CourseEventTypeEnum.PUBLISHED.getCode(), CourseEventTypeEnum.OFFLINE.getCode()),
+                sink.getEvents().stream().map(CourseEvent::getEventType).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testEventPayloadContainsStatus() {
+        CourseBase course = createTestCourse("事件课程3");
+        courseEventService.record(course, CourseEventTypeEnum.OFFLINE);
+        courseEventService.relayPendingEvents();
+
+        CourseEvent event = ((InMemoryCourseEventSink) courseEventSink).getEvents().get(0);
+        assertEquals(TEST_ORG_ID, event.getOrganizationId());
+        assertNotNull(event.getEventId());
+        assertTrue(event.getPayload().contains("\"status\":\"202001\""));
+    }
+}
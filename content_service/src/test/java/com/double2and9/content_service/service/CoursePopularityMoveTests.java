@@ -0,0 +1,121 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantContext;
+import com.double2and9.content_service.common.shard.TenantDirectory;
+import com.double2and9.content_service.common.shard.TenantShardRoutingDataSource;
+import com.double2and9.content_service.config.CoursePopularityProperties;
+import com.double2and9.content_service.entity.CourseCatalog;
+import com.double2and9.content_service.repository.CourseCatalogRepository;
+import com.double2and9.content_service.repository.CoursePopularityRepository;
+import com.double2and9.content_service.service.impl.CoursePopularityServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 机构迁移中的课程热度写入：两个H2内存库代替两个分片，仓库用mock代替，
+ * 按分片查询课程目录时只返回所在分片机构的课程；累加增量时查询node表，记录写入落在哪个分片
+ */
+public class CoursePopularityMoveTests {
+
+    private static final Long ORG_DEFAULT = 1L;
+    private static final Long ORG_SHARD1 = 2L;
+
+    private TenantDirectory tenantDirectory;
+    private CoursePopularityService coursePopularityService;
+    private final List<String> writes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("default", h2("default"));
+        dataSources.put("shard1", h2("shard1"));
+        ShardRegistry shardRegistry = new ShardRegistry("default", dataSources, Map.of("default", 0, "shard1", 1));
+        new JdbcTemplate(dataSources.get("default")).execute("create table tenant_shard (organization_id bigint primary key, "
+                + "shard varchar(64) not null, status varchar(16) not null, target_shard varchar(64), "
+                + "version bigint not null, update_time timestamp not null)");
+        tenantDirectory = new TenantDirectory(dataSources.get("default"), "default", 0);
+        assertTrue(tenantDirectory.assign(ORG_SHARD1, "shard1"));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new TenantShardRoutingDataSource(shardRegistry, tenantDirectory));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        List<CourseCatalog> catalogs = List.of(catalog(1L, ORG_DEFAULT), catalog(2L, ORG_SHARD1));
+        CourseCatalogRepository courseCatalogRepository = mock(CourseCatalogRepository.class);
+        when(courseCatalogRepository.findAllById(any())).thenAnswer(invocation -> {
+            String shard = TenantContext.currentShard();
+            return catalogs.stream()
+                    .filter(course -> shard.equals(tenantDirectory.placement(course.getOrganizationId()).shard()))
+                    .toList();
+        });
+        CoursePopularityRepository coursePopularityRepository = mock(CoursePopularityRepository.class);
+        when(coursePopularityRepository.increment(anyLong(), anyLong(), anyLong(), anyLong(), any(Date.class)))
+                .thenAnswer(invocation -> {
+                    writes.add(jdbcTemplate.queryForObject("select name from node", String.class)
+                            + ":" + invocation.getArgument(0) + ":" + invocation.getArgument(2));
+                    return 1;
+                });
+
+        CoursePopularityProperties properties = new CoursePopularityProperties();
+        properties.setRedisEnabled(false);
+        coursePopularityService = new CoursePopularityServiceImpl(coursePopularityRepository, courseCatalogRepository,
+                new StaticListableBeanFactory(Map.of("shardRegistry", shardRegistry)).getBeanProvider(ShardRegistry.class),
+                mock(StringRedisTemplate.class), properties, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testFlush_KeepsIncrementsOfMovingTenantInMemory() {
+        // 迁移复制期间写入原分片的增量会在切换分片后丢失，必须留在内存中
+        assertTrue(tenantDirectory.markMoving(tenantDirectory.load(ORG_SHARD1), "default"));
+        coursePopularityService.recordView(1L);
+        coursePopularityService.recordView(2L);
+        coursePopularityService.recordView(2L);
+
+        assertEquals(1, coursePopularityService.flush());
+        assertEquals(List.of("default:1:1"), writes);
+
+        // 迁移结束后连同之后的增量一起写到机构所在的分片
+        tenantDirectory.abortMove(tenantDirectory.load(ORG_SHARD1));
+        coursePopularityService.recordView(2L);
+        assertEquals(1, coursePopularityService.flush());
+        assertEquals(List.of("default:1:1", "shard1:2:3"), writes);
+    }
+
+    private static CourseCatalog catalog(Long courseId, Long organizationId) {
+        CourseCatalog catalog = new CourseCatalog();
+        catalog.setCourseId(courseId);
+        catalog.setOrganizationId(organizationId);
+        return catalog;
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(32))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
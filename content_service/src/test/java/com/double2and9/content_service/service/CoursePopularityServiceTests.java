@@ -0,0 +1,172 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 写入间隔设得很长，由测试直接调用 flush，增量在测试事务中写入、随事务回滚
+ */
+@SpringBootTest(properties = {
+        "content.popularity.flush-interval-ms=3600000",
+        "content.popularity.redis-enabled=false"
+})
+@Transactional
+@Rollback
+class CoursePopularityServiceTests {
+
+    private static final Long TEST_ORG_ID = 67890L;
+
+    @Autowired
+    private CoursePopularityService coursePopularityService;
+
+    @Autowired
+    private CourseBaseService courseBaseService;
+
+    @Autowired
+    private TeachplanService teachplanService;
+
+    @Autowired
+    private CourseTeacherService courseTeacherService;
+
+    @Test
+    void testConcurrentCountsAreFlushedAsAggregates() throws Exception {
+        Long hot = publishedCourse("热门课程");
+        Long warm = publishedCourse("普通课程");
+        Long draft = createCourse("未发布课程");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        coursePopularityService.recordView(hot);
+                    }
+                    for (int i = 0; i < 25; i++) {
+                        coursePopularityService.recordView(warm);
+                        coursePopularityService.recordEnrollment(warm);
+                        coursePopularityService.recordView(draft);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 写入前的累计值包含内存中的增量
+        assertEquals(4000L, coursePopularityService.getPopularity(hot).getViewCount());
+
+        // 未发布的课程不写入
+        assertEquals(2, coursePopularityService.flush());
+        assertEquals(0, coursePopularityService.flush());
+        CoursePopularityDTO hotPopularity = coursePopularityService.getPopularity(hot);
+        assertEquals(4000L, hotPopularity.getViewCount());
+        assertEquals(0L, hotPopularity.getEnrollCount());
+        assertEquals(TEST_ORG_ID, hotPopularity.getOrganizationId());
+        CoursePopularityDTO warmPopularity = coursePopularityService.getPopularity(warm);
+        assertEquals(100L, warmPopularity.getViewCount());
+        assertEquals(100L, warmPopularity.getEnrollCount());
+        assertThrows(ContentException.class, () -> coursePopularityService.getPopularity(draft));
+
+        // 再次写入时累加
+        coursePopularityService.recordView(warm);
+        coursePopularityService.flush();
+        assertEquals(101L, coursePopularityService.getPopularity(warm).getViewCount());
+
+        // 热度：4000 次浏览高于 101 次浏览加 100 次报名（折算 1000 次浏览）
+        List<CourseTrendingDTO> trending = coursePopularityService.trending(10);
+        assertEquals(List.of(hot, warm), trending.stream().map(CourseTrendingDTO::getCourseId)
+                .filter(id -> Set.of(hot, warm).contains(id)).collect(Collectors.toList()));
+        assertEquals("热门课程", trending.get(0).getName());
+    }
+
+    @Test
+    void testOfflineCoursesLeaveTrending() {
+        Long courseId = publishedCourse("即将下架的课程");
+        // 发布后还没有浏览，热度为0
+        assertEquals(0L, coursePopularityService.getPopularity(courseId).getViewCount());
+
+        coursePopularityService.recordView(courseId);
+        coursePopularityService.flush();
+        assertTrue(trendingIds().contains(courseId));
+
+        courseBaseService.offlineCourse(courseId);
+        assertFalse(trendingIds().contains(courseId));
+
+        ContentException exception = assertThrows(ContentException.class,
+                () -> coursePopularityService.getPopularity(Long.MAX_VALUE));
+        assertEquals(ContentErrorCode.COURSE_NOT_EXISTS, exception.getErrorCode());
+    }
+
+    private List<Long> trendingIds() {
+        return coursePopularityService.trending(50).stream()
+                .map(CourseTrendingDTO::getCourseId).collect(Collectors.toList());
+    }
+
+    private Long publishedCourse(String name) {
+        Long courseId = createCourse(name);
+        courseBaseService.submitForAudit(courseId);
+        CourseAuditDTO auditDTO = new CourseAuditDTO();
+        auditDTO.setCourseId(courseId);
+        auditDTO.setAuditStatus("202303");
+        courseBaseService.auditCourse(auditDTO);
+        courseBaseService.publishCourse(courseId);
+        return courseId;
+    }
+
+    private Long createCourse(String name) {
+        AddCourseDTO courseDTO = new AddCourseDTO();
+        courseDTO.setName(name);
+        courseDTO.setBrief("课程热度测试课程");
+        courseDTO.setMt(1L);
+        courseDTO.setSt(2L);
+        courseDTO.setCharge("201001");
+        courseDTO.setPrice(BigDecimal.ZERO);
+        courseDTO.setValid(true);
+        courseDTO.setOrganizationId(TEST_ORG_ID);
+        Long courseId = courseBaseService.createCourse(courseDTO);
+
+        SaveTeachplanDTO chapterDTO = new SaveTeachplanDTO();
+        chapterDTO.setCourseId(courseId);
+        chapterDTO.setParentId(0L);
+        chapterDTO.setLevel(1);
+        chapterDTO.setName("第一章");
+        chapterDTO.setOrderBy(1);
+        teachplanService.saveTeachplan(chapterDTO);
+
+        SaveTeachplanDTO sectionDTO = new SaveTeachplanDTO();
+        sectionDTO.setCourseId(courseId);
+        sectionDTO.setParentId(chapterDTO.getId());
+        sectionDTO.setLevel(2);
+        sectionDTO.setName("第一节");
+        sectionDTO.setOrderBy(1);
+        teachplanService.saveTeachplan(sectionDTO);
+
+        SaveCourseTeacherDTO teacherDTO = new SaveCourseTeacherDTO();
+        teacherDTO.setOrganizationId(TEST_ORG_ID);
+        teacherDTO.setName("课程热度教师");
+        teacherDTO.setCourseIds(Set.of(courseId));
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+        return courseId;
+    }
+}
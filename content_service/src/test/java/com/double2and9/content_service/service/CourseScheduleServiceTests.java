@@ -0,0 +1,116 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.CourseScheduleDTO;
+import com.double2and9.content_service.entity.CourseSchedule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 定时任务由后台线程领取和执行，看不到测试事务中未提交的数据，这里不使用 @Transactional，
+ * 只用不存在的课程ID验证领取、分批执行、失败原因、重新设置和取消
+ */
+@SpringBootTest(properties = {
+        "content.course-schedule.poll-interval-ms=200",
+        "content.course-schedule.tick-ms=50",
+        "content.course-schedule.fire-batch-size=2"
+})
+class CourseScheduleServiceTests {
+
+    private static final Long TEST_ORG_ID = 4321L;
+
+    @Autowired
+    private CourseScheduleService courseScheduleService;
+
+    @Test
+    void testDueSchedulesFireInBatches() throws InterruptedException {
+        Date fireTime = new Date(System.currentTimeMillis() + 500);
+        List<Long> courseIds = missingCourseIds(1000, 5);
+        for (Long courseId : courseIds) {
+            CourseScheduleDTO scheduled = courseScheduleService.schedule(TEST_ORG_ID, courseId,
+                    CourseSchedule.PUBLISH, fireTime);
+            assertEquals(CourseSchedule.PENDING, scheduled.getStatus());
+        }
+
+        Map<Long, CourseScheduleDTO> finished = awaitFinished(courseIds);
+        for (CourseScheduleDTO schedule : finished.values()) {
+            assertEquals(CourseSchedule.FAILED, schedule.getStatus());
+            assertEquals(ContentErrorCode.COURSE_NOT_EXISTS.getCode(), schedule.getErrorCode());
+            assertFalse(schedule.getUpdateTime().before(fireTime));
+        }
+    }
+
+    @Test
+    void testRescheduleAndCancel() {
+        Long courseId = missingCourseIds(2000, 1).get(0);
+        Date later = new Date(System.currentTimeMillis() + 3_600_000);
+        CourseScheduleDTO first = courseScheduleService.schedule(TEST_ORG_ID, courseId, CourseSchedule.OFFLINE, later);
+
+        // 同一课程同一操作复用原来的定时任务
+        Date evenLater = new Date(later.getTime() + 60_000);
+        CourseScheduleDTO rescheduled = courseScheduleService.schedule(TEST_ORG_ID, courseId,
+                CourseSchedule.OFFLINE, evenLater);
+        assertEquals(first.getId(), rescheduled.getId());
+        assertEquals(evenLater.getTime(), rescheduled.getFireTime().getTime());
+
+        CourseScheduleDTO cancelled = courseScheduleService.cancel(first.getId());
+        assertEquals(CourseSchedule.CANCELLED, cancelled.getStatus());
+        // 再次取消不变
+        assertEquals(CourseSchedule.CANCELLED, courseScheduleService.cancel(first.getId()).getStatus());
+
+        // 取消后可以重新设置
+        assertEquals(CourseSchedule.PENDING, courseScheduleService.schedule(TEST_ORG_ID, courseId,
+                CourseSchedule.OFFLINE, later).getStatus());
+        courseScheduleService.cancel(first.getId());
+    }
+
+    @Test
+    void testInvalidRequests() {
+        ContentException pastTime = assertThrows(ContentException.class, () -> courseScheduleService.schedule(
+                TEST_ORG_ID, 1L, CourseSchedule.PUBLISH, new Date(System.currentTimeMillis() - 1000)));
+        assertEquals(ContentErrorCode.COURSE_SCHEDULE_TIME_INVALID, pastTime.getErrorCode());
+
+        ContentException missing = assertThrows(ContentException.class,
+                () -> courseScheduleService.cancel(Long.MAX_VALUE));
+        assertEquals(ContentErrorCode.COURSE_SCHEDULE_NOT_EXISTS, missing.getErrorCode());
+
+        // 领取批次不匹配的记录不会执行
+        assertTrue(courseScheduleService.startFiring("not-a-token", List.of(Long.MAX_VALUE)).isEmpty());
+    }
+
+    private Map<Long, CourseScheduleDTO> awaitFinished(List<Long> courseIds) throws InterruptedException {
+        Set<String> finished = Set.of(CourseSchedule.DONE, CourseSchedule.FAILED);
+        for (int i = 0; i < 100; i++) {
+            Map<Long, CourseScheduleDTO> schedules = courseScheduleService.listSchedules(TEST_ORG_ID).stream()
+                    .filter(schedule -> courseIds.contains(schedule.getCourseId()))
+                    .collect(Collectors.toMap(CourseScheduleDTO::getCourseId, Function.identity()));
+            if (schedules.size() == courseIds.size()
+                    && schedules.values().stream().allMatch(schedule -> finished.contains(schedule.getStatus()))) {
+                return schedules;
+            }
+            Thread.sleep(100);
+        }
+        fail("定时任务未在10秒内执行");
+        return null;
+    }
+
+    private static List<Long> missingCourseIds(int offset, int count) {
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            courseIds.add(Long.MAX_VALUE - offset - i);
+        }
+        return courseIds;
+    }
+}
@@ -3,7 +3,9 @@ package com.double2and9.content_service.service;
 import com.double2and9.content_service.common.exception.ContentException;
 import com.double2and9.content_service.dto.AddCourseDTO;
 import com.double2and9.content_service.dto.CourseBaseDTO;
+import com.double2and9.content_service.dto.CourseTeacherBatchDTO;
 import com.double2and9.content_service.dto.CourseTeacherDTO;
+import com.double2and9.content_service.dto.CourseTeacherSyncResultDTO;
 import com.double2and9.content_service.dto.SaveCourseTeacherDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -118,6 +120,128 @@ public class CourseTeacherServiceTests {
         assertEquals(TEST_ORG_ID, teachers.get(0).getOrganizationId());
     }
 
+    @Test
+    @Transactional
+    public void testListByOrganizationId_CourseIdsAndCacheEviction() {
+        AddCourseDTO courseDTO = new AddCourseDTO();
+        courseDTO.setName("测试课程2");
+        courseDTO.setBrief("这是另一个测试课程");
+        courseDTO.setMt(1L);
+        courseDTO.setSt(2L);
+        courseDTO.setCharge("201001");
+        courseDTO.setPrice(BigDecimal.ZERO);
+        courseDTO.setValid(true);
+        courseDTO.setOrganizationId(TEST_ORG_ID);
+        Long secondCourseId = courseBaseService.createCourse(courseDTO);
+
+        SaveCourseTeacherDTO teacherDTO = new SaveCourseTeacherDTO();
+        teacherDTO.setOrganizationId(TEST_ORG_ID);
+        teacherDTO.setName("目录教师");
+        teacherDTO.setPosition("讲师");
+        teacherDTO.setCourseIds(Set.of(courseId, secondCourseId));
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+
+        // 一个教师多门课程合并为一条记录
+        CourseTeacherDTO teacher = findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "目录教师");
+        assertEquals(Set.of(courseId, secondCourseId), teacher.getCourseIds());
+        assertEquals(Set.of(courseId, secondCourseId),
+                findByName(courseTeacherService.listByCourseId(secondCourseId), "目录教师").getCourseIds());
+
+        // 保存后目录缓存失效
+        teacherDTO.setId(teacher.getId());
+        teacherDTO.setPosition("高级讲师");
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+        assertEquals("高级讲师",
+                findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "目录教师").getPosition());
+
+        // 调用方修改返回值不影响缓存
+        teacher.getCourseIds().clear();
+        assertEquals(Set.of(courseId, secondCourseId),
+                findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "目录教师").getCourseIds());
+
+        // 解除关联后目录缓存失效
+        courseTeacherService.deleteCourseTeacher(secondCourseId, teacher.getId());
+        assertEquals(Set.of(courseId),
+                findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "目录教师").getCourseIds());
+
+        // 删除课程后目录缓存失效
+        Long thirdCourseId = createCourse("测试课程3");
+        teacherDTO.setCourseIds(Set.of(courseId, thirdCourseId));
+        courseTeacherService.saveCourseTeacher(teacherDTO);
+        assertEquals(Set.of(courseId, thirdCourseId),
+                findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "目录教师").getCourseIds());
+        courseBaseService.deleteCourse(thirdCourseId);
+        assertEquals(Set.of(courseId),
+                findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "目录教师").getCourseIds());
+    }
+
+    @Test
+    @Transactional
+    public void testSyncTeachers() {
+        Long secondCourseId = createCourse("测试课程2");
+
+        // 新建：一个教师关联一门课程
+        CourseTeacherBatchDTO batchDTO = new CourseTeacherBatchDTO();
+        batchDTO.setOrganizationId(TEST_ORG_ID);
+        batchDTO.setTeachers(List.of(syncItem(null, "同步教师", Set.of(courseId))));
+        CourseTeacherSyncResultDTO result = courseTeacherService.syncTeachers(batchDTO);
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getRelationsInserted());
+        Long teacherId = result.getTeacherIds().get(0);
+        assertNotNull(teacherId);
+
+        // 再同步相同数据：没有任何变更
+        batchDTO.setTeachers(List.of(syncItem(teacherId, "同步教师", Set.of(courseId))));
+        result = courseTeacherService.syncTeachers(batchDTO);
+        assertEquals(1, result.getUnchanged());
+        assertEquals(0, result.getRelationsInserted());
+        assertEquals(0, result.getRelationsDeleted());
+
+        // 改为另一门课程：只增删变化的关联
+        batchDTO.setTeachers(List.of(syncItem(teacherId, "同步教师", Set.of(secondCourseId))));
+        result = courseTeacherService.syncTeachers(batchDTO);
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getRelationsInserted());
+        assertEquals(1, result.getRelationsDeleted());
+        assertEquals(Set.of(secondCourseId),
+                findByName(courseTeacherService.listByOrganizationId(TEST_ORG_ID), "同步教师").getCourseIds());
+
+        // 同一批次中重复的教师
+        batchDTO.setTeachers(List.of(syncItem(teacherId, "同步教师", Set.of(courseId)),
+                syncItem(teacherId, "同步教师", Set.of(courseId))));
+        assertThrows(ContentException.class, () -> courseTeacherService.syncTeachers(batchDTO));
+    }
+
+    private Long createCourse(String name) {
+        AddCourseDTO courseDTO = new AddCourseDTO();
+        courseDTO.setName(name);
+        courseDTO.setBrief("这是另一个测试课程");
+        courseDTO.setMt(1L);
+        courseDTO.setSt(2L);
+        courseDTO.setCharge("201001");
+        courseDTO.setPrice(BigDecimal.ZERO);
+        courseDTO.setValid(true);
+        courseDTO.setOrganizationId(TEST_ORG_ID);
+        return courseBaseService.createCourse(courseDTO);
+    }
+
+    private static SaveCourseTeacherDTO syncItem(Long id, String name, Set<Long> courseIds) {
+        SaveCourseTeacherDTO item = new SaveCourseTeacherDTO();
+        item.setId(id);
+        item.setOrganizationId(TEST_ORG_ID);
+        item.setName(name);
+        item.setPosition("讲师");
+        item.setCourseIds(courseIds);
+        return item;
+    }
+
+    private static CourseTeacherDTO findByName(List<CourseTeacherDTO> teachers, String name) {
+        return teachers.stream()
+                .filter(t -> name.equals(t.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+
     @Test
     @Transactional
     public void testListCoursesByTeacherId() {
@@ -0,0 +1,122 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.dto.BatchDeleteResultDTO;
+import com.double2and9.base.dto.CommonResponse;
+import com.double2and9.content_service.client.MediaFeignClient;
+import com.double2and9.content_service.entity.MediaCleanupTask;
+import com.double2and9.content_service.repository.MediaCleanupTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 清理任务在独立事务中提交，这里不使用@Transactional回滚，测试结束后手动清理
+ */
+@SpringBootTest(properties = "content.media-cleanup.enabled=false")
+public class MediaCleanupServiceTests {
+
+    @Autowired
+    private MediaCleanupService mediaCleanupService;
+
+    @Autowired
+    private MediaCleanupTaskRepository taskRepository;
+
+    @MockBean
+    private MediaFeignClient mediaFeignClient;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    private MediaCleanupTask createTask(String url) {
+        MediaCleanupTask task = new MediaCleanupTask();
+        task.setUrl(url);
+        task.setCourseId(1L);
+        task.setStatus("PENDING");
+        task.setNextAttemptTime(new Date(System.currentTimeMillis() - 1000));
+        return taskRepository.save(task);
+    }
+
+    @Test
+    void testProcessDueTasks_Success() {
+        MediaCleanupTask task = createTask("/media/course/logo/a.jpg");
+
+        BatchDeleteResultDTO result = new BatchDeleteResultDTO();
+        result.setDeletedUrls(List.of("/media/course/logo/a.jpg"));
+        when(mediaFeignClient.deleteMediaFiles(anyList())).thenReturn(CommonResponse.success(result));
+
+        assertEquals(1, mediaCleanupService.processDueTasks());
+
+        MediaCleanupTask updated = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("DONE", updated.getStatus());
+    }
+
+    @Test
+    void testProcessDueTasks_FailureBacksOff() {
+        MediaCleanupTask task = createTask("/media/course/logo/b.jpg");
+
+        when(mediaFeignClient.deleteMediaFiles(anyList()))
+                .thenReturn(CommonResponse.error("100407", "媒体服务不可用"));
+
+        assertEquals(1, mediaCleanupService.processDueTasks());
+
+        MediaCleanupTask updated = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("PENDING", updated.getStatus());
+        assertEquals(1, updated.getAttempts());
+        assertTrue(updated.getNextAttemptTime().after(new Date()));
+        // 退避期内不会再次处理
+        assertEquals(0, mediaCleanupService.processDueTasks());
+    }
+
+    @Test
+    void testProcessDueTasks_ClaimedTaskNotProcessedByOtherNode() {
+        MediaCleanupTask task = createTask("/media/course/logo/c.jpg");
+
+        // 媒体服务调用期间另一个节点处理到期任务，已领取的任务不会被重复处理
+        AtomicInteger concurrent = new AtomicInteger(-1);
+        BatchDeleteResultDTO result = new BatchDeleteResultDTO();
+        result.setDeletedUrls(List.of("/media/course/logo/c.jpg"));
+        when(mediaFeignClient.deleteMediaFiles(anyList())).thenAnswer(invocation -> {
+            concurrent.set(mediaCleanupService.processDueTasks());
+            return CommonResponse.success(result);
+        });
+
+        assertEquals(1, mediaCleanupService.processDueTasks());
+        assertEquals(0, concurrent.get());
+        verify(mediaFeignClient, times(1)).deleteMediaFiles(anyList());
+
+        MediaCleanupTask updated = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("DONE", updated.getStatus());
+        assertEquals(1, updated.getAttempts());
+        assertNull(updated.getClaimToken());
+    }
+
+    @Test
+    void testProcessDueTasks_ExpiredLeaseReclaimed() {
+        MediaCleanupTask task = createTask("/media/course/logo/d.jpg");
+        // 上一个领取的节点失联，租约已到期
+        task.setClaimToken("lost-node");
+        task.setLeaseUntil(new Date(System.currentTimeMillis() - 1000));
+        taskRepository.save(task);
+
+        BatchDeleteResultDTO result = new BatchDeleteResultDTO();
+        result.setDeletedUrls(List.of("/media/course/logo/d.jpg"));
+        when(mediaFeignClient.deleteMediaFiles(anyList())).thenReturn(CommonResponse.success(result));
+
+        assertEquals(1, mediaCleanupService.processDueTasks());
+        assertEquals("DONE", taskRepository.findById(task.getId()).orElseThrow().getStatus());
+    }
+}
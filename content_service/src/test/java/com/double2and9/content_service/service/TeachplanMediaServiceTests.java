@@ -0,0 +1,157 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.dto.TeachplanMediaBatchDTO;
+import com.double2and9.content_service.dto.TeachplanMediaDTO;
+import com.double2and9.content_service.entity.CourseBase;
+import com.double2and9.content_service.entity.MediaFile;
+import com.double2and9.content_service.entity.Teachplan;
+import com.double2and9.content_service.repository.CourseBaseRepository;
+import com.double2and9.content_service.repository.MediaFileRepository;
+import com.double2and9.content_service.repository.TeachplanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class TeachplanMediaServiceTests {
+
+    private static final Long TEST_ORG_ID = 1234L;
+
+    @Autowired
+    private TeachplanMediaService teachplanMediaService;
+
+    @Autowired
+    private CourseBaseRepository courseBaseRepository;
+
+    @Autowired
+    private TeachplanRepository teachplanRepository;
+
+    @Autowired
+    private MediaFileRepository mediaFileRepository;
+
+    private Long courseId;
+    private final List<Long> sectionIds = new ArrayList<>();
+    private final List<String> mediaIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        CourseBase courseBase = new CourseBase();
+        courseBase.setName("测试课程");
+        courseBase.setOrganizationId(TEST_ORG_ID);
+        courseBase = courseBaseRepository.save(courseBase);
+        courseId = courseBase.getId();
+
+        for (int i = 1; i <= 3; i++) {
+            Teachplan section = new Teachplan();
+            section.setName("第" + i + "节");
+            section.setParentId(0L);
+            section.setLevel(2);
+            section.setOrderBy(i);
+            section.setCourseBase(courseBase);
+            section.setCreateTime(new Date());
+            section.setUpdateTime(new Date());
+            sectionIds.add(teachplanRepository.save(section).getId());
+
+            MediaFile mediaFile = new MediaFile();
+            mediaFile.setMediaFileId("batch-media-" + i);
+            mediaFile.setOrganizationId(TEST_ORG_ID);
+            mediaFile.setFileName("视频" + i + ".mp4");
+            mediaFile.setMediaType("VIDEO");
+            mediaIds.add(mediaFileRepository.save(mediaFile).getMediaFileId());
+        }
+    }
+
+    @Test
+    public void testAssociateMediaBatch() {
+        TeachplanMediaBatchDTO batchDTO = batch(0, 1, 2);
+        // 重复的配对只处理一次
+        batchDTO.getItems().add(item(0));
+
+        assertEquals(3, teachplanMediaService.associateMediaBatch(batchDTO));
+        // 已存在的绑定跳过
+        assertEquals(0, teachplanMediaService.associateMediaBatch(batch(0, 1)));
+
+        List<TeachplanMediaDTO> courseMedia = teachplanMediaService.getMediaByCourseId(courseId);
+        assertEquals(3, courseMedia.size());
+        assertEquals(sectionIds.get(0), courseMedia.get(0).getTeachplanId());
+        assertEquals("视频1.mp4", courseMedia.get(0).getMediaFileName());
+        assertEquals(1, teachplanMediaService.getMediaByTeachplanId(sectionIds.get(2)).size());
+    }
+
+    @Test
+    public void testAssociateMediaBatch_MissingMedia() {
+        TeachplanMediaBatchDTO batchDTO = batch(0);
+        TeachplanMediaDTO missing = item(1);
+        missing.setMediaId("not-exists");
+        batchDTO.getItems().add(missing);
+
+        ContentException exception = assertThrows(ContentException.class,
+                () -> teachplanMediaService.associateMediaBatch(batchDTO));
+        assertEquals(ContentErrorCode.MEDIA_NOT_EXISTS, exception.getErrorCode());
+        assertTrue(teachplanMediaService.getMediaByCourseId(courseId).isEmpty());
+    }
+
+    @Test
+    public void testAssociateMediaBatch_MediaOfOtherOrganization() {
+        MediaFile foreign = new MediaFile();
+        foreign.setMediaFileId("batch-media-foreign");
+        foreign.setOrganizationId(TEST_ORG_ID + 1);
+        foreign.setFileName("其他机构.mp4");
+        foreign.setMediaType("VIDEO");
+        mediaFileRepository.save(foreign);
+
+        TeachplanMediaBatchDTO batchDTO = batch(0);
+        TeachplanMediaDTO other = item(1);
+        other.setMediaId(foreign.getMediaFileId());
+        batchDTO.getItems().add(other);
+
+        ContentException exception = assertThrows(ContentException.class,
+                () -> teachplanMediaService.associateMediaBatch(batchDTO));
+        assertEquals(ContentErrorCode.MEDIA_ORG_NOT_MATCH, exception.getErrorCode());
+        assertTrue(exception.getMessage().contains(foreign.getMediaFileId()));
+        assertTrue(teachplanMediaService.getMediaByCourseId(courseId).isEmpty());
+    }
+
+    @Test
+    public void testDissociateMediaBatch() {
+        teachplanMediaService.associateMediaBatch(batch(0, 1, 2));
+
+        // 交叉组合（第1节-视频2）不存在，不会被删除
+        TeachplanMediaBatchDTO batchDTO = batch(0, 1);
+        TeachplanMediaDTO cross = item(0);
+        cross.setMediaId(mediaIds.get(1));
+        batchDTO.getItems().add(cross);
+
+        assertEquals(2, teachplanMediaService.dissociateMediaBatch(batchDTO));
+        List<TeachplanMediaDTO> remaining = teachplanMediaService.getMediaByCourseId(courseId);
+        assertEquals(1, remaining.size());
+        assertEquals(mediaIds.get(2), remaining.get(0).getMediaId());
+    }
+
+    private TeachplanMediaBatchDTO batch(int... indexes) {
+        TeachplanMediaBatchDTO batchDTO = new TeachplanMediaBatchDTO();
+        batchDTO.setItems(new ArrayList<>());
+        for (int index : indexes) {
+            batchDTO.getItems().add(item(index));
+        }
+        return batchDTO;
+    }
+
+    private TeachplanMediaDTO item(int index) {
+        TeachplanMediaDTO dto = new TeachplanMediaDTO();
+        dto.setTeachplanId(sectionIds.get(index));
+        dto.setMediaId(mediaIds.get(index));
+        return dto;
+    }
+}
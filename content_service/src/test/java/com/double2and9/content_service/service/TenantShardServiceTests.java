@@ -0,0 +1,256 @@
+package com.double2and9.content_service.service;
+
+import com.double2and9.base.enums.ContentErrorCode;
+import com.double2and9.content_service.common.exception.ContentException;
+import com.double2and9.content_service.common.shard.ShardRegistry;
+import com.double2and9.content_service.common.shard.TenantDirectory;
+import com.double2and9.content_service.config.ShardingProperties;
+import com.double2and9.content_service.dto.TenantShardDTO;
+import com.double2and9.content_service.service.impl.TenantShardServiceImpl;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 机构迁移，两个按Flyway脚本建表的H2内存库代替两个分片
+ */
+public class TenantShardServiceTests {
+
+    private static final Long ORG_ID = 1234L;
+    private static final Long OTHER_ORG_ID = 5678L;
+
+    private DataSource defaultShard;
+    private DataSource shard1;
+    private TenantDirectory tenantDirectory;
+    private TenantShardService tenantShardService;
+
+    @BeforeEach
+    void setUp() {
+        defaultShard = h2("default");
+        shard1 = h2("shard1");
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("default", defaultShard);
+        dataSources.put("shard1", shard1);
+        ShardRegistry shardRegistry = new ShardRegistry("default", dataSources, Map.of("default", 0, "shard1", 1));
+        tenantDirectory = new TenantDirectory(defaultShard, "default", 0);
+        ShardingProperties properties = new ShardingProperties();
+        properties.setMoveBatchSize(2);
+        tenantShardService = new TenantShardServiceImpl(shardRegistry, tenantDirectory, properties);
+
+        insertTenant(defaultShard, ORG_ID, 1);
+        insertTenant(defaultShard, OTHER_ORG_ID, 100);
+    }
+
+    @Test
+    void testMove_CopiesTenantAndSwitchesDirectory() {
+        // 标记迁移后立即返回，之后在后台执行
+        assertEquals("MOVING", tenantShardService.move(ORG_ID, "shard1").getStatus());
+        TenantShardDTO result = awaitMoveFinished(ORG_ID);
+
+        assertEquals("shard1", result.getShard());
+        assertEquals("ACTIVE", result.getStatus());
+        assertEquals(3L, result.getRowCounts().get("teachplan"));
+        assertEquals("shard1", tenantDirectory.load(ORG_ID).shard());
+
+        // 主键原样保留，原分片只剩其他机构的数据
+        JdbcTemplate target = new JdbcTemplate(shard1);
+        assertEquals(ORG_ID, target.queryForObject("select organization_id from course_base where id = 1", Long.class));
+        assertEquals(1, target.queryForObject("select count(*) from teachplan_media where teachplan_id = 3", Integer.class));
+        // 切换分片后在后台删除原分片数据
+        JdbcTemplate source = new JdbcTemplate(defaultShard);
+        awaitSourceCleared(source, ORG_ID);
+        assertEquals(1, source.queryForObject("select count(*) from course_base where organization_id = ?",
+                Integer.class, OTHER_ORG_ID));
+        assertEquals(1, source.queryForObject("select count(*) from media_files", Integer.class));
+
+        TenantShardDTO placement = tenantShardService.getPlacement(ORG_ID);
+        assertEquals(result.getRowCounts(), placement.getRowCounts());
+    }
+
+    @Test
+    void testMove_WaitsForPendingEventsAndCleanupTasks() throws InterruptedException {
+        JdbcTemplate source = new JdbcTemplate(defaultShard);
+        insertOutbox(source, 1L, ORG_ID, false);
+        source.update("insert into media_cleanup_task (id, url, course_id, organization_id, status, attempts, "
+                + "next_attempt_time, create_time, update_time) values (1, '/logo.png', 1, ?, 'PENDING', 0, now(), now(), now())",
+                ORG_ID);
+
+        tenantShardService.move(ORG_ID, "shard1");
+        // 原分片的中继、清理任务处理完之前不切换分片
+        Thread.sleep(500);
+        assertEquals(TenantDirectory.Status.MOVING, tenantDirectory.load(ORG_ID).status());
+        assertEquals("default", tenantDirectory.load(ORG_ID).shard());
+
+        source.update("update course_event_outbox set published = true where id = 1");
+        source.update("update media_cleanup_task set status = 'DONE' where id = 1");
+        assertEquals("shard1", awaitMoveFinished(ORG_ID).getShard());
+
+        // 两张表不随机构复制，已处理的记录留在原分片
+        JdbcTemplate target = new JdbcTemplate(shard1);
+        assertEquals(0, target.queryForObject("select count(*) from course_event_outbox", Integer.class));
+        assertEquals(0, target.queryForObject("select count(*) from media_cleanup_task", Integer.class));
+        awaitSourceCleared(source, ORG_ID);
+        assertEquals(1, source.queryForObject("select count(*) from course_event_outbox", Integer.class));
+    }
+
+    @Test
+    void testMove_ParkedEventFailsMove() {
+        insertOutbox(new JdbcTemplate(defaultShard), 1L, ORG_ID, true);
+
+        tenantShardService.move(ORG_ID, "shard1");
+        awaitMoveFinished(ORG_ID);
+
+        // 停放的事件不会自动投递，迁移直接失败，重新投递后再迁移
+        TenantDirectory.Placement placement = tenantDirectory.load(ORG_ID);
+        assertEquals("default", placement.shard());
+        assertEquals(TenantDirectory.Status.ACTIVE, placement.status());
+        assertEquals(0, new JdbcTemplate(shard1).queryForObject("select count(*) from course_base", Integer.class));
+    }
+
+    @Test
+    void testMove_FailureRestoresSourceShard() {
+        // 目标分片上有主键冲突的其他机构课程，复制course_base时失败
+        new JdbcTemplate(shard1).update("insert into course_base (id, name, organization_id) values (1, 'x', 9999)");
+
+        tenantShardService.move(ORG_ID, "shard1");
+        awaitMoveFinished(ORG_ID);
+
+        TenantDirectory.Placement placement = tenantDirectory.load(ORG_ID);
+        assertEquals("default", placement.shard());
+        assertEquals(TenantDirectory.Status.ACTIVE, placement.status());
+        assertEquals(3, new JdbcTemplate(defaultShard).queryForObject(
+                "select count(*) from teachplan where course_id = 1", Integer.class));
+        assertEquals(0, new JdbcTemplate(shard1).queryForObject(
+                "select count(*) from media_files", Integer.class));
+    }
+
+    @Test
+    void testRecoverStaleMoves_RollsBackMoveOfLostNode() {
+        // 执行节点在复制到一半时崩溃：目录停留在MOVING，目标分片上有部分数据
+        assertTrue(tenantDirectory.markMoving(tenantDirectory.load(ORG_ID), "shard1"));
+        new JdbcTemplate(shard1).update("insert into course_base (id, name, organization_id) values (1, 'x', ?)", ORG_ID);
+
+        // 租约内不回滚
+        assertEquals(0, tenantShardService.recoverStaleMoves());
+        assertEquals(TenantDirectory.Status.MOVING, tenantDirectory.load(ORG_ID).status());
+
+        new JdbcTemplate(defaultShard).update("update tenant_shard set update_time = ? where organization_id = ?",
+                new Date(System.currentTimeMillis() - new ShardingProperties().getMoveLeaseMs() - 1000), ORG_ID);
+        assertEquals(1, tenantShardService.recoverStaleMoves());
+
+        TenantDirectory.Placement placement = tenantDirectory.load(ORG_ID);
+        assertEquals("default", placement.shard());
+        assertEquals(TenantDirectory.Status.ACTIVE, placement.status());
+        assertEquals(0, new JdbcTemplate(shard1).queryForObject("select count(*) from course_base", Integer.class));
+        // 失联节点恢复后不能再切换目录
+        assertFalse(tenantDirectory.renewMove(new TenantDirectory.Placement(ORG_ID, "default",
+                TenantDirectory.Status.MOVING, "shard1", placement.version() - 1)));
+    }
+
+    @Test
+    void testSyncReferenceData_CopiesCategoriesToOtherShards() {
+        new JdbcTemplate(defaultShard).update("insert into course_category (id, name, level) values (1, '后端开发', 1)");
+        new JdbcTemplate(shard1).update("insert into course_category (id, name, level) values (2, '已删除', 1)");
+
+        assertEquals(1, tenantShardService.syncReferenceData());
+
+        assertEquals(List.of("后端开发"), new JdbcTemplate(shard1).queryForList(
+                "select name from course_category", String.class));
+    }
+
+    @Test
+    void testMove_SameShardOrUnknownShardRejected() {
+        assertEquals(ContentErrorCode.TENANT_MOVE_FAILED, assertThrows(ContentException.class,
+                () -> tenantShardService.move(ORG_ID, "default")).getErrorCode());
+        assertEquals(ContentErrorCode.SHARD_NOT_EXISTS, assertThrows(ContentException.class,
+                () -> tenantShardService.move(ORG_ID, "shard9")).getErrorCode());
+    }
+
+    @Test
+    void testAssign_OnlyForTenantWithoutData() {
+        assertEquals("shard1", tenantShardService.assign(42L, "shard1").getShard());
+        assertEquals(ContentErrorCode.TENANT_ALREADY_PLACED, assertThrows(ContentException.class,
+                () -> tenantShardService.assign(42L, "default")).getErrorCode());
+        assertEquals(ContentErrorCode.TENANT_ALREADY_PLACED, assertThrows(ContentException.class,
+                () -> tenantShardService.assign(ORG_ID, "shard1")).getErrorCode());
+    }
+
+    /**
+     * 等待后台迁移结束（成功或回滚）
+     */
+    private static void awaitSourceCleared(JdbcTemplate source, Long organizationId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (source.queryForObject("select count(*) from course_base where organization_id = ?",
+                Integer.class, organizationId) > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "原分片数据没有在时限内删除");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    private TenantShardDTO awaitMoveFinished(Long organizationId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (tenantDirectory.load(organizationId).status() == TenantDirectory.Status.MOVING) {
+            assertTrue(System.currentTimeMillis() < deadline, "迁移没有在时限内结束");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+        return tenantShardService.getPlacement(organizationId);
+    }
+
+    /**
+     * 一门课程（营销、教师、3个课程计划）和一个绑定到小节的媒资，主键从 base 开始
+     */
+    private static void insertTenant(DataSource dataSource, Long organizationId, long base) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String mediaId = "m" + organizationId;
+        jdbcTemplate.update("insert into course_base (id, name, organization_id, create_time, update_time) "
+                + "values (?, 'course', ?, now(), now())", base, organizationId);
+        jdbcTemplate.update("insert into course_market (id, charge, price) values (?, '201001', 0)", base);
+        jdbcTemplate.update("insert into course_teacher (id, organization_id, name, create_time, update_time) "
+                + "values (?, ?, 'teacher', now(), now())", base, organizationId);
+        jdbcTemplate.update("insert into course_teacher_relation (course_id, teacher_id) values (?, ?)", base, base);
+        jdbcTemplate.update("insert into media_files (media_file_id, organization_id, create_time, update_time) "
+                + "values (?, ?, now(), now())", mediaId, organizationId);
+        jdbcTemplate.update("insert into teachplan (id, name, level, course_id) values (?, 'chapter', 1, ?)",
+                base, base);
+        jdbcTemplate.update("insert into teachplan (id, name, parent_id, level, course_id) values (?, 'section', ?, 2, ?)",
+                base + 1, base, base);
+        jdbcTemplate.update("insert into teachplan (id, name, parent_id, level, course_id) values (?, 'section', ?, 2, ?)",
+                base + 2, base, base);
+        jdbcTemplate.update("insert into teachplan_media (id, teachplan_id, media_id, create_time, update_time) "
+                + "values (?, ?, ?, now(), now())", base, base + 2, mediaId);
+    }
+
+    private static void insertOutbox(JdbcTemplate jdbcTemplate, Long id, Long organizationId, boolean parked) {
+        jdbcTemplate.update("insert into course_event_outbox (id, event_id, event_type, course_id, organization_id, "
+                        + "published, attempts, parked, create_time) values (?, ?, 'COURSE_PUBLISHED', 1, ?, false, 0, ?, now())",
+                id, UUID.randomUUID().toString(), organizationId, parked);
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        return dataSource;
+    }
+}
@@ -0,0 +1,108 @@
+package com.double2and9.loadtest;
+
+import com.double2and9.loadtest.traffic.Scenario;
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 压测参数
+ * 通过系统属性传入，例如 -Dloadtest.concurrency=32 -Dloadtest.mix=browse=60,preview=30,authoring=10
+ */
+@Data
+public class LoadTestOptions {
+
+    private static final String PREFIX = "loadtest.";
+
+    /**
+     * 正式采样时长（秒）
+     */
+    private int durationSeconds = 60;
+
+    /**
+     * 预热时长（秒），预热期间的请求不计入结果
+     */
+    private int warmupSeconds = 15;
+
+    /**
+     * 并发虚拟用户数，每个用户串行发请求（闭环模型）
+     */
+    private int concurrency = 16;
+
+    /**
+     * 每个虚拟用户两次请求之间的思考时间（毫秒）
+     */
+    private long thinkTimeMs = 0;
+
+    /**
+     * 预置的课程数，每门课3章、每章4节
+     */
+    private int courses = 100;
+
+    /**
+     * 课程分布的机构数
+     */
+    private int organizations = 10;
+
+    /**
+     * 流量配比，权重之和不要求为100
+     */
+    private Map<Scenario, Integer> mix = parseMix("browse=50,preview=30,authoring=15,logo=5");
+
+    /**
+     * 每条Redis命令注入的延迟（毫秒），用于模拟生产环境的网络往返
+     */
+    private long redisLatencyMs = 0;
+
+    /**
+     * 每个对象存储请求注入的延迟（毫秒）
+     */
+    private long s3LatencyMs = 0;
+
+    /**
+     * 结果目录，JSON报告按时间命名
+     */
+    private String resultDir = "loadtest/results";
+
+    public static LoadTestOptions fromSystemProperties() {
+        LoadTestOptions options = new LoadTestOptions();
+        options.setDurationSeconds(intProperty("duration", options.getDurationSeconds()));
+        options.setWarmupSeconds(intProperty("warmup", options.getWarmupSeconds()));
+        options.setConcurrency(intProperty("concurrency", options.getConcurrency()));
+        options.setThinkTimeMs(intProperty("think-time-ms", (int) options.getThinkTimeMs()));
+        options.setCourses(intProperty("courses", options.getCourses()));
+        options.setOrganizations(intProperty("organizations", options.getOrganizations()));
+        options.setRedisLatencyMs(intProperty("redis-latency-ms", (int) options.getRedisLatencyMs()));
+        options.setS3LatencyMs(intProperty("s3-latency-ms", (int) options.getS3LatencyMs()));
+        options.setResultDir(System.getProperty(PREFIX + "result-dir", options.getResultDir()));
+        String mix = System.getProperty(PREFIX + "mix");
+        if (mix != null) {
+            options.setMix(parseMix(mix));
+        }
+        return options;
+    }
+
+    /**
+     * 解析流量配比，格式为 场景=权重,场景=权重，未列出的场景权重为0
+     */
+    static Map<Scenario, Integer> parseMix(String text) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("流量配比格式错误：" + part);
+            }
+            mix.put(Scenario.of(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("流量配比的权重之和必须大于0：" + text);
+        }
+        return mix;
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(PREFIX + name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,139 @@
+package com.double2and9.loadtest;
+
+import com.double2and9.loadtest.traffic.LatencyRecorder;
+import com.double2and9.loadtest.traffic.Scenario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测报告
+ * 每个操作一行，另按场景和全部请求汇总；吞吐量按实际采样时长计算。
+ */
+@Data
+public class LoadTestReport {
+
+    private LoadTestOptions options;
+    private double measuredSeconds;
+    private List<Row> operations = new ArrayList<>();
+    private List<Row> scenarios = new ArrayList<>();
+    private Row total;
+
+    public static LoadTestReport of(LoadTestOptions options, LatencyRecorder recorder, long measuredNanos) {
+        LoadTestReport report = new LoadTestReport();
+        report.setOptions(options);
+        report.setMeasuredSeconds(measuredNanos / 1e9);
+
+        Map<Scenario, List<long[]>> byScenario = new EnumMap<>(Scenario.class);
+        Map<Scenario, Integer> errorsByScenario = new EnumMap<>(Scenario.class);
+        List<long[]> all = new ArrayList<>();
+        int allErrors = 0;
+        for (LatencyRecorder.Samples samples : recorder.snapshot().values()) {
+            long[] sorted = samples.sorted();
+            report.getOperations().add(Row.of(samples.getScenario().getKey() + ":" + samples.getOperation(),
+                    sorted, samples.getErrors(), report.getMeasuredSeconds()));
+            byScenario.computeIfAbsent(samples.getScenario(), s -> new ArrayList<>()).add(sorted);
+            errorsByScenario.merge(samples.getScenario(), samples.getErrors(), Integer::sum);
+            all.add(sorted);
+            allErrors += samples.getErrors();
+        }
+        byScenario.forEach((scenario, parts) -> report.getScenarios().add(Row.of(
+                scenario.getKey() + "（" + scenario.getDesc() + "）", merge(parts),
+                errorsByScenario.get(scenario), report.getMeasuredSeconds())));
+        report.setTotal(Row.of("total", merge(all), allErrors, report.getMeasuredSeconds()));
+        return report;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n压测结果：并发%d，采样%.1f秒，流量配比%s%n", options.getConcurrency(), measuredSeconds,
+                options.getMix());
+        String header = String.format("%-34s %9s %7s %9s %9s %9s %9s %9s",
+                "操作", "请求数", "错误", "吞吐/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+        out.println(header);
+        operations.forEach(row -> out.println(row.format()));
+        out.println();
+        scenarios.forEach(row -> out.println(row.format()));
+        out.println(total.format());
+    }
+
+    /**
+     * 写入JSON结果文件，文件名包含时间，便于不同版本之间对比
+     */
+    public File write(String directory) throws IOException {
+        File dir = new File(directory);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建结果目录：" + dir.getAbsolutePath());
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File file = new File(dir, "loadtest-" + timestamp + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, this);
+        return file;
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        long[] merged = new long[parts.stream().mapToInt(p -> p.length).sum()];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * 一行统计，延迟单位为毫秒
+     */
+    @Data
+    public static class Row {
+
+        private String name;
+        private long count;
+        private long errors;
+        private double throughput;
+        private double p50;
+        private double p95;
+        private double p99;
+        private double max;
+
+        static Row of(String name, long[] sortedNanos, long errors, double seconds) {
+            Row row = new Row();
+            row.setName(name);
+            row.setCount(sortedNanos.length);
+            row.setErrors(errors);
+            row.setThroughput(seconds > 0 ? sortedNanos.length / seconds : 0);
+            row.setP50(percentile(sortedNanos, 0.50));
+            row.setP95(percentile(sortedNanos, 0.95));
+            row.setP99(percentile(sortedNanos, 0.99));
+            row.setMax(sortedNanos.length == 0 ? 0 : sortedNanos[sortedNanos.length - 1] / 1e6);
+            return row;
+        }
+
+        /**
+         * 最近秩法，与LatencyTracker一致
+         */
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        String format() {
+            return String.format("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f",
+                    name, count, errors, throughput, p50, p95, p99, max);
+        }
+    }
+}
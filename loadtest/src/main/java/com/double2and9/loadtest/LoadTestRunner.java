@@ -0,0 +1,122 @@
+package com.double2and9.loadtest;
+
+import com.double2and9.Media_Main;
+import com.double2and9.content_service.ContentServiceApplication;
+import com.double2and9.loadtest.standin.RedisStandIn;
+import com.double2and9.loadtest.standin.S3StandIn;
+import com.double2and9.loadtest.traffic.CourseFixture;
+import com.double2and9.loadtest.traffic.LatencyRecorder;
+import com.double2and9.loadtest.traffic.ServiceClient;
+import com.double2and9.loadtest.traffic.TrafficDriver;
+import com.double2and9.media.MediaLoadTestApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * 端到端压测入口
+ * 在同一个JVM里启动Redis替身、S3替身、media服务和content服务（H2 MySQL模式），
+ * 通过HTTP预置数据后按配比施加混合流量，输出各操作的p50/p95/p99延迟和吞吐量。
+ * 全程只监听回环地址，不需要外部网络、Docker或Consul。
+ *
+ * 用法：java [-Dloadtest.xxx=...] -jar loadtest/target/loadtest.jar
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        Path storage = Files.createTempDirectory("loadtest-s3");
+
+        ConfigurableApplicationContext media = null;
+        ConfigurableApplicationContext content = null;
+        try (RedisStandIn redis = new RedisStandIn(options.getRedisLatencyMs());
+             S3StandIn s3 = new S3StandIn(storage, options.getS3LatencyMs(), 32)) {
+            int mediaPort = freePort();
+            int contentPort = freePort();
+            List<String> shared = List.of(
+                    "--spring.profiles.active=loadtest",
+                    "--logging.config=classpath:loadtest/logback.xml",
+                    "--loadtest.redis-port=" + redis.getPort(),
+                    "--loadtest.s3-endpoint=" + s3.getEndpoint(),
+                    "--loadtest.media-port=" + mediaPort,
+                    "--loadtest.content-port=" + contentPort);
+
+            media = start(MediaLoadTestApplication.class, Media_Main.class, "loadtest/media.yml", shared);
+            content = start(ContentServiceApplication.class, ContentServiceApplication.class,
+                    "loadtest/content.yml", shared);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            ServiceClient client = new ServiceClient(recorder,
+                    "http://127.0.0.1:" + contentPort, "http://127.0.0.1:" + mediaPort);
+            CourseFixture fixture = CourseFixture.seed(client, options.getCourses(), options.getOrganizations(),
+                    options.getConcurrency());
+
+            TrafficDriver driver = new TrafficDriver(client, fixture, recorder, options.getMix());
+            long measuredNanos = driver.run(options.getConcurrency(), options.getWarmupSeconds(),
+                    options.getDurationSeconds(), options.getThinkTimeMs());
+
+            LoadTestReport report = LoadTestReport.of(options, recorder, measuredNanos);
+            report.print(System.out);
+            File result = report.write(options.getResultDir());
+            System.out.println("\n结果文件：" + result.getAbsolutePath());
+        } finally {
+            if (content != null) {
+                content.close();
+            }
+            if (media != null) {
+                media.close();
+            }
+            FileSystemUtils.deleteRecursively(storage);
+        }
+    }
+
+    /**
+     * 启动一个服务
+     * 两个服务的jar里都有application.yml，按类路径名称加载只会拿到其中一个，
+     * 这里按服务主类所在的jar定位它自己的application.yml，再叠加压测配置。
+     *
+     * @param applicationClass 启动类
+     * @param ownerClass       服务jar中的任意类，用于定位该jar内的application.yml
+     * @param overrideConfig   压测覆盖配置，优先级高于服务自带配置
+     */
+    private static ConfigurableApplicationContext start(Class<?> applicationClass, Class<?> ownerClass,
+                                                        String overrideConfig, List<String> sharedArgs)
+            throws IOException {
+        List<String> args = new ArrayList<>(sharedArgs);
+        args.add("--spring.config.location=" + bundledConfig(ownerClass) + ",classpath:" + overrideConfig);
+        return new SpringApplicationBuilder(applicationClass).run(args.toArray(String[]::new));
+    }
+
+    private static String bundledConfig(Class<?> ownerClass) throws IOException {
+        String codeSource = ownerClass.getProtectionDomain().getCodeSource().getLocation().toString();
+        // 目录形式以"/"结尾，嵌套jar形式以"!/"结尾，去掉后作为前缀匹配
+        String owner = codeSource.replaceAll("!?/$", "");
+        Enumeration<URL> candidates = LoadTestRunner.class.getClassLoader().getResources("application.yml");
+        while (candidates.hasMoreElements()) {
+            String url = candidates.nextElement().toString();
+            if (url.contains(owner)) {
+                return url;
+            }
+        }
+        throw new IllegalStateException("找不到" + ownerClass.getSimpleName() + "所在模块的application.yml：" + codeSource);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,638 @@
+package com.double2and9.loadtest.standin;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis替身
+ * 只实现两个服务实际用到的命令，数据放在内存里：
+ * 字符串（GET/SET/DEL/EXISTS/INCR/过期相关），哈希（HINCRBY/HGET/HGETALL，课程热度计数，不支持过期）。
+ * 不检查键的类型，同名的字符串和哈希互不影响。
+ * 支持 HELLO 3 切换到RESP3（回复仍使用RESP2的类型，RESP3客户端同样能解析），以及默认模式的
+ * CLIENT TRACKING（可带NOLOOP）：记录开启跟踪的连接读过的键，键被写入、删除、过期或清库时推送 invalidate，
+ * 推送后不再跟踪该键，与Redis一致；media的本地缓存因此在压测中真实生效。
+ * 每个连接一个线程，与Redis单线程模型不同，只用于压测时替代外部依赖，不用于评估Redis本身。
+ */
+@Slf4j
+public class RedisStandIn implements Closeable {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Long>> hashes = new ConcurrentHashMap<>();
+    /**
+     * 跟踪表：键 → 读过该键、开启了跟踪的连接
+     */
+    private final Map<String, Set<Connection>> trackedKeys = new ConcurrentHashMap<>();
+    private final Set<Connection> trackingConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connectionIds = new AtomicLong();
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "redis-standin");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long latencyMs;
+    private final ServerSocket serverSocket;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param latencyMs 每条命令额外注入的延迟，用于模拟跨机房访问，0表示不注入
+     */
+    public RedisStandIn(long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptLoop);
+        log.info("Redis替身已启动，端口：{}", getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int size() {
+        return data.size() + hashes.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Redis替身接受连接失败：{}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Connection connection = null;
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            connection = new Connection(connectionIds.incrementAndGet(), out);
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            while (running) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                if (latencyMs > 0) {
+                    TimeUnit.MILLISECONDS.sleep(latencyMs);
+                }
+                reply.reset();
+                boolean quit = execute(command, connection, reply);
+                // 客户端可能流水线发送多条命令，缓冲区读空后再刷出
+                connection.write(reply, quit || in.available() == 0);
+                if (quit) {
+                    return;
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            // 客户端断开
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Redis替身连接异常：{}", e.getMessage());
+        } finally {
+            if (connection != null) {
+                connection.close();
+                trackingConnections.remove(connection);
+            }
+        }
+    }
+
+    /**
+     * 执行一条命令，回复写入 out，推送给其他连接的失效通知直接写到对应连接
+     *
+     * @return 是否需要关闭连接
+     */
+    private boolean execute(List<byte[]> command, Connection connection, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "PING" -> {
+                if (command.size() > 1) {
+                    writeBulk(out, command.get(1));
+                } else {
+                    writeSimple(out, "PONG");
+                }
+            }
+            case "HELLO" -> hello(command, connection, out);
+            case "CLIENT" -> client(command, connection, out);
+            case "SELECT" -> writeSimple(out, "OK");
+            case "FLUSHDB", "FLUSHALL" -> {
+                data.clear();
+                hashes.clear();
+                invalidateAll();
+                writeSimple(out, "OK");
+            }
+            case "QUIT" -> {
+                writeSimple(out, "OK");
+                return true;
+            }
+            case "INFO" -> writeBulk(out, "# Server\r\nredis_version:7.0.0\r\nredis_mode:standalone\r\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            case "DBSIZE" -> writeInteger(out, size());
+            case "GET" -> {
+                String key = text(command.get(1));
+                track(connection, key);
+                writeBulk(out, value(key));
+            }
+            case "MGET" -> {
+                List<byte[]> values = new ArrayList<>();
+                for (int i = 1; i < command.size(); i++) {
+                    String key = text(command.get(i));
+                    track(connection, key);
+                    values.add(value(key));
+                }
+                writeArray(out, values);
+            }
+            case "SET" -> set(command, connection, out);
+            case "SETNX" -> {
+                String key = text(command.get(1));
+                boolean applied = putIfAbsent(key, command.get(2), 0);
+                if (applied) {
+                    invalidate(key, connection);
+                }
+                writeInteger(out, applied ? 1 : 0);
+            }
+            case "SETEX" -> {
+                String key = text(command.get(1));
+                data.put(key, new Entry(command.get(3), expireAt(command.get(2), 1000)));
+                invalidate(key, connection);
+                writeSimple(out, "OK");
+            }
+            case "PSETEX" -> {
+                String key = text(command.get(1));
+                data.put(key, new Entry(command.get(3), expireAt(command.get(2), 1)));
+                invalidate(key, connection);
+                writeSimple(out, "OK");
+            }
+            case "DEL", "UNLINK" -> {
+                int removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    String key = text(command.get(i));
+                    Entry entry = data.remove(key);
+                    if (entry != null && !entry.isExpired()) {
+                        removed++;
+                    }
+                    if (hashes.remove(key) != null) {
+                        removed++;
+                    }
+                    invalidate(key, connection);
+                }
+                writeInteger(out, removed);
+            }
+            case "EXISTS" -> {
+                int count = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    String key = text(command.get(i));
+                    track(connection, key);
+                    if (value(key) != null || hashes.containsKey(key)) {
+                        count++;
+                    }
+                }
+                writeInteger(out, count);
+            }
+            case "EXPIRE" -> writeInteger(out,
+                    expire(text(command.get(1)), expireAt(command.get(2), 1000), connection));
+            case "PEXPIRE" -> writeInteger(out,
+                    expire(text(command.get(1)), expireAt(command.get(2), 1), connection));
+            case "PERSIST" -> writeInteger(out, expire(text(command.get(1)), 0, connection));
+            case "TTL" -> writeInteger(out, ttl(text(command.get(1)), 1000));
+            case "PTTL" -> writeInteger(out, ttl(text(command.get(1)), 1));
+            case "INCR" -> writeInteger(out, increment(text(command.get(1)), 1, connection));
+            case "DECR" -> writeInteger(out, increment(text(command.get(1)), -1, connection));
+            case "INCRBY" -> writeInteger(out, increment(text(command.get(1)), Long.parseLong(text(command.get(2))),
+                    connection));
+            case "HINCRBY" -> {
+                String key = text(command.get(1));
+                long value = incrementField(key, text(command.get(2)), Long.parseLong(text(command.get(3))));
+                invalidate(key, connection);
+                writeInteger(out, value);
+            }
+            case "HGET" -> {
+                String key = text(command.get(1));
+                track(connection, key);
+                Long value = hashes.getOrDefault(key, Map.of()).get(text(command.get(2)));
+                writeBulk(out, value == null ? null : String.valueOf(value).getBytes(StandardCharsets.US_ASCII));
+            }
+            case "HGETALL" -> {
+                String key = text(command.get(1));
+                track(connection, key);
+                List<byte[]> values = new ArrayList<>();
+                hashes.getOrDefault(key, Map.of()).forEach((field, value) -> {
+                    values.add(field.getBytes(StandardCharsets.ISO_8859_1));
+                    values.add(String.valueOf(value).getBytes(StandardCharsets.US_ASCII));
+                });
+                writeArray(out, values);
+            }
+            default -> writeError(out, "ERR unknown command '" + name + "'");
+        }
+        return false;
+    }
+
+    /**
+     * HELLO [protover [AUTH username password] [SETNAME clientname]]，只处理协议版本，其余选项忽略
+     */
+    private void hello(List<byte[]> command, Connection connection, OutputStream out) throws IOException {
+        if (command.size() > 1) {
+            String version = text(command.get(1));
+            if (!"2".equals(version) && !"3".equals(version)) {
+                writeError(out, "NOPROTO unsupported protocol version");
+                return;
+            }
+            connection.resp3 = "3".equals(version);
+        }
+        // RESP3回复Map，RESP2回复键值交替的数组
+        out.write((connection.resp3 ? "%" : "*").getBytes(StandardCharsets.US_ASCII));
+        out.write(String.valueOf(connection.resp3 ? 7 : 14).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        writeBulk(out, "server".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "redis".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "version".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "7.0.0".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "proto".getBytes(StandardCharsets.US_ASCII));
+        writeInteger(out, connection.resp3 ? 3 : 2);
+        writeBulk(out, "id".getBytes(StandardCharsets.US_ASCII));
+        writeInteger(out, connection.id);
+        writeBulk(out, "mode".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "standalone".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "role".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "master".getBytes(StandardCharsets.US_ASCII));
+        writeBulk(out, "modules".getBytes(StandardCharsets.US_ASCII));
+        writeArray(out, List.of());
+    }
+
+    /**
+     * CLIENT TRACKING ON|OFF [NOLOOP]、CLIENT ID，其他子命令（SETNAME、SETINFO等）直接返回OK
+     */
+    private void client(List<byte[]> command, Connection connection, OutputStream out) throws IOException {
+        String subcommand = command.size() > 1 ? text(command.get(1)).toUpperCase(Locale.ROOT) : "";
+        switch (subcommand) {
+            case "ID" -> writeInteger(out, connection.id);
+            case "TRACKING" -> {
+                boolean on = command.size() > 2 && "ON".equalsIgnoreCase(text(command.get(2)));
+                if (on && !connection.resp3) {
+                    // 不支持REDIRECT，RESP2连接收不到推送
+                    writeError(out, "ERR client tracking in the stand-in needs RESP3");
+                    return;
+                }
+                boolean noloop = false;
+                for (int i = 3; i < command.size(); i++) {
+                    String option = text(command.get(i)).toUpperCase(Locale.ROOT);
+                    if ("NOLOOP".equals(option)) {
+                        noloop = true;
+                    } else {
+                        writeError(out, "ERR tracking option " + option + " is not supported by the stand-in");
+                        return;
+                    }
+                }
+                connection.noloop = noloop;
+                connection.tracking = on;
+                if (on) {
+                    trackingConnections.add(connection);
+                } else {
+                    trackingConnections.remove(connection);
+                }
+                writeSimple(out, "OK");
+            }
+            default -> writeSimple(out, "OK");
+        }
+    }
+
+    /**
+     * 开启跟踪的连接读取键前登记，读取之后的写入一定会通知到
+     */
+    private void track(Connection connection, String key) {
+        if (connection.tracking) {
+            trackedKeys.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+    }
+
+    /**
+     * 键被修改：通知读过该键的连接（NOLOOP的连接不通知自己的写入），之后不再跟踪该键
+     *
+     * @param writer 执行写入的连接，键过期时为null
+     */
+    private void invalidate(String key, Connection writer) {
+        Set<Connection> readers = trackedKeys.remove(key);
+        if (readers == null) {
+            return;
+        }
+        byte[] message = invalidateMessage(key.getBytes(StandardCharsets.ISO_8859_1));
+        for (Connection reader : readers) {
+            if (reader.tracking && !(reader == writer && reader.noloop)) {
+                reader.push(message);
+            }
+        }
+    }
+
+    /**
+     * 清库：不带键的 invalidate，客户端清空全部本地缓存
+     */
+    private void invalidateAll() {
+        trackedKeys.clear();
+        byte[] message = invalidateMessage(null);
+        trackingConnections.forEach(connection -> connection.push(message));
+    }
+
+    /**
+     * RESP3推送：>2 invalidate [键] 或 >2 invalidate _
+     */
+    private static byte[] invalidateMessage(byte[] key) {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        try {
+            message.write(">2".getBytes(StandardCharsets.US_ASCII));
+            message.write(CRLF);
+            writeBulk(message, "invalidate".getBytes(StandardCharsets.US_ASCII));
+            if (key == null) {
+                message.write('_');
+                message.write(CRLF);
+            } else {
+                writeArray(message, List.of(key));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return message.toByteArray();
+    }
+
+    /**
+     * SET key value [NX|XX] [EX seconds|PX milliseconds|KEEPTTL]
+     */
+    private void set(List<byte[]> command, Connection connection, OutputStream out) throws IOException {
+        String key = text(command.get(1));
+        byte[] value = command.get(2);
+        long expireAt = 0;
+        boolean nx = false;
+        boolean xx = false;
+        boolean keepTtl = false;
+        for (int i = 3; i < command.size(); i++) {
+            switch (text(command.get(i)).toUpperCase(Locale.ROOT)) {
+                case "NX" -> nx = true;
+                case "XX" -> xx = true;
+                case "KEEPTTL" -> keepTtl = true;
+                case "EX" -> expireAt = expireAt(command.get(++i), 1000);
+                case "PX" -> expireAt = expireAt(command.get(++i), 1);
+                default -> {
+                    writeError(out, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+        boolean applied;
+        if (nx) {
+            applied = putIfAbsent(key, value, expireAt);
+        } else {
+            long ttl = expireAt;
+            boolean mustExist = xx;
+            boolean keep = keepTtl;
+            Entry updated = data.compute(key, (k, old) -> {
+                boolean exists = old != null && !old.isExpired();
+                if (mustExist && !exists) {
+                    return null;
+                }
+                return new Entry(value, keep && exists ? old.expireAt : ttl);
+            });
+            applied = updated != null && updated.value == value;
+        }
+        if (applied) {
+            invalidate(key, connection);
+            writeSimple(out, "OK");
+        } else {
+            writeBulk(out, null);
+        }
+    }
+
+    private boolean putIfAbsent(String key, byte[] value, long expireAt) {
+        Entry created = new Entry(value, expireAt);
+        Entry result = data.compute(key, (k, old) -> old == null || old.isExpired() ? created : old);
+        return result == created;
+    }
+
+    private byte[] value(String key) {
+        Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            if (data.remove(key, entry)) {
+                invalidate(key, null);
+            }
+            return null;
+        }
+        return entry.value;
+    }
+
+    private int expire(String key, long expireAt, Connection writer) {
+        Entry updated = data.computeIfPresent(key,
+                (k, old) -> old.isExpired() ? null : new Entry(old.value, expireAt));
+        invalidate(key, writer);
+        return updated == null ? 0 : 1;
+    }
+
+    private long ttl(String key, long unitMillis) {
+        Entry entry = data.get(key);
+        if (entry == null || entry.isExpired()) {
+            return -2;
+        }
+        if (entry.expireAt == 0) {
+            return -1;
+        }
+        return (entry.expireAt - System.currentTimeMillis()) / unitMillis;
+    }
+
+    private long increment(String key, long delta, Connection writer) {
+        Entry updated = data.compute(key, (k, old) -> {
+            long current = old == null || old.isExpired() ? 0 : Long.parseLong(text(old.value));
+            return new Entry(String.valueOf(current + delta).getBytes(StandardCharsets.US_ASCII),
+                    old == null ? 0 : old.expireAt);
+        });
+        invalidate(key, writer);
+        return Long.parseLong(text(updated.value));
+    }
+
+    private long incrementField(String key, String field, long delta) {
+        return hashes.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).merge(field, delta, Long::sum);
+    }
+
+    private static long expireAt(byte[] amount, long unitMillis) {
+        return System.currentTimeMillis() + Long.parseLong(text(amount)) * unitMillis;
+    }
+
+    /**
+     * 读取一条RESP数组格式的命令，连接关闭时返回null
+     */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("不支持的命令格式：" + (char) type);
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("命令参数必须是Bulk String");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] part = in.readNBytes(length);
+            if (part.length < length || in.read() != '\r' || in.read() != '\n') {
+                throw new EOFException();
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    /**
+     * 键按ISO-8859-1解码，保证任意字节都能无损往返
+     */
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writeSimple(OutputStream out, String message) throws IOException {
+        out.write('+');
+        out.write(message.getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write('-');
+        out.write(message.getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write(':');
+        out.write(String.valueOf(value).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1".getBytes(StandardCharsets.US_ASCII));
+            out.write(CRLF);
+            return;
+        }
+        out.write('$');
+        out.write(String.valueOf(value.length).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    private static void writeArray(OutputStream out, List<byte[]> values) throws IOException {
+        out.write('*');
+        out.write(String.valueOf(values.size()).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        for (byte[] value : values) {
+            writeBulk(out, value);
+        }
+    }
+
+    /**
+     * 一个客户端连接：自己的回复和其他连接触发的推送都写到同一个输出流，写入时加锁
+     */
+    private static final class Connection {
+
+        private final long id;
+        private final OutputStream out;
+        private volatile boolean resp3;
+        private volatile boolean tracking;
+        private volatile boolean noloop;
+        private boolean closed;
+
+        Connection(long id, OutputStream out) {
+            this.id = id;
+            this.out = out;
+        }
+
+        synchronized void write(ByteArrayOutputStream reply, boolean flush) throws IOException {
+            reply.writeTo(out);
+            if (flush) {
+                out.flush();
+            }
+        }
+
+        /**
+         * 推送立即刷出；连接已断开时丢弃
+         */
+        synchronized void push(byte[] message) {
+            if (closed) {
+                return;
+            }
+            try {
+                out.write(message);
+                out.flush();
+            } catch (IOException e) {
+                closed = true;
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            tracking = false;
+        }
+    }
+
+    /**
+     * @param expireAt 过期时间戳（毫秒），0表示永不过期
+     */
+    private record Entry(byte[] value, long expireAt) {
+
+        boolean isExpired() {
+            return expireAt != 0 && System.currentTimeMillis() >= expireAt;
+        }
+    }
+}
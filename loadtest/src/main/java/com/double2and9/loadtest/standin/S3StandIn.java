@@ -0,0 +1,345 @@
+package com.double2and9.loadtest.standin;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * MinIO替身
+ * 用JDK自带的HttpServer实现S3的路径风格接口子集，对象保存在本地目录下：
+ * 桶位置查询、PUT/GET/HEAD/DELETE对象、批量删除（POST ?delete）和ListObjectsV2。
+ * 不校验签名，ETag为对象内容的MD5。
+ */
+@Slf4j
+public class S3StandIn implements Closeable {
+
+    private static final String S3_NAMESPACE = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>", Pattern.DOTALL);
+
+    private final Path root;
+    private final long latencyMs;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param root      对象存储根目录，每个桶一个子目录
+     * @param latencyMs 每个请求额外注入的延迟，0表示不注入
+     */
+    public S3StandIn(Path root, long latencyMs, int threads) throws IOException {
+        this.root = root;
+        this.latencyMs = latencyMs;
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "s3-standin");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("S3替身已启动，端口：{}，目录：{}", getPort(), root);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getEndpoint() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (latencyMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMs);
+            }
+            // getPath()已完成百分号解码，且不会把'+'当作空格
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String trimmed = path.startsWith("/") ? path.substring(1) : path;
+            int slash = trimmed.indexOf('/');
+            String bucket = slash < 0 ? trimmed : trimmed.substring(0, slash);
+            String key = slash < 0 ? "" : trimmed.substring(slash + 1);
+            String method = exchange.getRequestMethod();
+            if (!"PUT".equals(method) && !"POST".equals(method)) {
+                drainRequest(exchange);
+            }
+
+            if (bucket.isEmpty()) {
+                sendError(exchange, 400, "InvalidRequest", "缺少桶名", "");
+            } else if (key.isEmpty()) {
+                handleBucket(exchange, method, bucket, query);
+            } else {
+                handleObject(exchange, method, bucket, key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("S3替身处理请求失败：{}", e.getMessage());
+            sendError(exchange, 500, "InternalError", e.getMessage(), "");
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String method, String bucket, Map<String, String> query)
+            throws IOException {
+        Path bucketDir = root.resolve(bucket);
+        switch (method) {
+            case "GET" -> {
+                if (query.containsKey("location")) {
+                    sendXml(exchange, 200, "<LocationConstraint xmlns=\"" + S3_NAMESPACE + "\"></LocationConstraint>");
+                } else {
+                    listObjects(exchange, bucket, bucketDir, query);
+                }
+            }
+            case "HEAD" -> sendEmpty(exchange, Files.isDirectory(bucketDir) ? 200 : 404);
+            case "PUT" -> {
+                drainRequest(exchange);
+                Files.createDirectories(bucketDir);
+                sendEmpty(exchange, 200);
+            }
+            case "POST" -> {
+                if (!query.containsKey("delete")) {
+                    sendError(exchange, 501, "NotImplemented", "不支持的桶操作", bucket);
+                    return;
+                }
+                deleteObjects(exchange, bucket);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", "不支持的方法", bucket);
+        }
+    }
+
+    private void handleObject(HttpExchange exchange, String method, String bucket, String key) throws Exception {
+        Path file = resolve(bucket, key);
+        switch (method) {
+            case "PUT" -> putObject(exchange, file);
+            case "GET", "HEAD" -> {
+                if (!Files.isRegularFile(file)) {
+                    sendError(exchange, 404, "NoSuchKey", "对象不存在", "/" + bucket + "/" + key);
+                    return;
+                }
+                Headers headers = exchange.getResponseHeaders();
+                headers.set("ETag", "\"" + Files.readString(etagFile(file)) + "\"");
+                headers.set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME
+                        .format(Files.getLastModifiedTime(file).toInstant().atZone(ZoneOffset.UTC)));
+                headers.set("Content-Type", "application/octet-stream");
+                long size = Files.size(file);
+                if ("HEAD".equals(method)) {
+                    headers.set("Content-Length", String.valueOf(size));
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, size);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    Files.copy(file, out);
+                }
+            }
+            case "DELETE" -> {
+                deleteObject(file);
+                sendEmpty(exchange, 204);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", "不支持的方法", key);
+        }
+    }
+
+    private void putObject(HttpExchange exchange, Path file) throws IOException, NoSuchAlgorithmException {
+        Files.createDirectories(file.getParent());
+        // 先写临时文件再原子替换，避免并发读到半个对象
+        Path temp = Files.createTempFile(file.getParent(), ".upload", ".tmp");
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        try (InputStream in = new DigestInputStream(exchange.getRequestBody(), md5)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        String etag = HexFormat.of().formatHex(md5.digest());
+        Files.writeString(etagFile(file), etag);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        exchange.getResponseHeaders().set("ETag", "\"" + etag + "\"");
+        sendEmpty(exchange, 200);
+    }
+
+    private void deleteObjects(HttpExchange exchange, String bucket) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        boolean quiet = body.contains("<Quiet>true</Quiet>");
+        StringBuilder xml = new StringBuilder("<DeleteResult xmlns=\"" + S3_NAMESPACE + "\">");
+        Matcher matcher = DELETE_KEY.matcher(body);
+        while (matcher.find()) {
+            String key = unescapeXml(matcher.group(1));
+            deleteObject(resolve(bucket, key));
+            if (!quiet) {
+                xml.append("<Deleted><Key>").append(escapeXml(key)).append("</Key></Deleted>");
+            }
+        }
+        xml.append("</DeleteResult>");
+        sendXml(exchange, 200, xml.toString());
+    }
+
+    private void listObjects(HttpExchange exchange, String bucket, Path bucketDir, Map<String, String> query)
+            throws IOException {
+        String prefix = query.getOrDefault("prefix", "");
+        // 续页令牌直接使用上一页最后一个键
+        String startAfter = query.getOrDefault("continuation-token", query.getOrDefault("start-after", ""));
+        int maxKeys = Integer.parseInt(query.getOrDefault("max-keys", "1000"));
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(bucketDir)) {
+            try (Stream<Path> walk = Files.walk(bucketDir)) {
+                walk.filter(Files::isRegularFile)
+                        .filter(p -> !isInternalFile(p))
+                        .filter(p -> keyOf(bucketDir, p).startsWith(prefix))
+                        .filter(p -> keyOf(bucketDir, p).compareTo(startAfter) > 0)
+                        .sorted(Comparator.comparing(p -> keyOf(bucketDir, p)))
+                        .forEach(files::add);
+            }
+        }
+        boolean truncated = files.size() > maxKeys;
+        List<Path> page = truncated ? files.subList(0, maxKeys) : files;
+
+        StringBuilder xml = new StringBuilder("<ListBucketResult xmlns=\"" + S3_NAMESPACE + "\">")
+                .append("<Name>").append(escapeXml(bucket)).append("</Name>")
+                .append("<Prefix>").append(escapeXml(prefix)).append("</Prefix>")
+                .append("<KeyCount>").append(page.size()).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        for (Path file : page) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            xml.append("<Contents>")
+                    .append("<Key>").append(escapeXml(keyOf(bucketDir, file))).append("</Key>")
+                    .append("<LastModified>").append(attributes.lastModifiedTime().toInstant()).append("</LastModified>")
+                    .append("<ETag>\"").append(Files.readString(etagFile(file))).append("\"</ETag>")
+                    .append("<Size>").append(attributes.size()).append("</Size>")
+                    .append("<StorageClass>STANDARD</StorageClass>")
+                    .append("</Contents>");
+        }
+        if (truncated) {
+            String last = keyOf(bucketDir, page.get(page.size() - 1));
+            xml.append("<NextContinuationToken>").append(escapeXml(last)).append("</NextContinuationToken>");
+        }
+        xml.append("</ListBucketResult>");
+        sendXml(exchange, 200, xml.toString());
+    }
+
+    private Path resolve(String bucket, String key) {
+        Path bucketDir = root.resolve(bucket).normalize();
+        Path file = bucketDir.resolve(key).normalize();
+        if (!file.startsWith(bucketDir)) {
+            throw new IllegalArgumentException("非法的对象键：" + key);
+        }
+        return file;
+    }
+
+    private static void deleteObject(Path file) throws IOException {
+        try {
+            Files.delete(file);
+            Files.deleteIfExists(etagFile(file));
+        } catch (NoSuchFileException e) {
+            // S3删除不存在的对象同样返回成功
+        }
+    }
+
+    private static Path etagFile(Path file) {
+        return file.resolveSibling("." + file.getFileName() + ".etag");
+    }
+
+    private static boolean isInternalFile(Path file) {
+        return file.getFileName().toString().startsWith(".");
+    }
+
+    private static String keyOf(Path bucketDir, Path file) {
+        return bucketDir.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * 读完请求体
+     * 无响应体的应答（HEAD、204）在发送响应头时就结束交换，此时请求体未读到EOF，
+     * JDK的HttpServer会直接关闭连接，客户端复用该连接时会出现Broken pipe。
+     */
+    private static void drainRequest(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String message, String resource)
+            throws IOException {
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, status);
+            return;
+        }
+        sendXml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + escapeXml(String.valueOf(message))
+                + "</Message><Resource>" + escapeXml(resource) + "</Resource><RequestId>"
+                + Instant.now().toEpochMilli() + "</RequestId><HostId>s3-standin</HostId></Error>");
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String unescapeXml(String text) {
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
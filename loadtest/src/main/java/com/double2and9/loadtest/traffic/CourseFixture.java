@@ -0,0 +1,121 @@
+package com.double2and9.loadtest.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测前通过content接口预置的课程数据
+ * 分类数据由 loadtest/content-seed.sql 写入：一级分类1~6，每个一级分类下5个二级分类（id为 一级id*100+序号）。
+ */
+@Slf4j
+public class CourseFixture {
+
+    static final int ROOT_CATEGORIES = 6;
+    static final int CHILDREN_PER_ROOT = 5;
+    private static final int CHAPTERS = 3;
+    private static final int SECTIONS_PER_CHAPTER = 4;
+
+    private final List<CourseRef> courses;
+    private final int organizations;
+
+    private CourseFixture(List<CourseRef> courses, int organizations) {
+        this.courses = courses;
+        this.organizations = organizations;
+    }
+
+    /**
+     * 并行创建课程及其课程计划，任何一步失败都直接终止压测
+     */
+    public static CourseFixture seed(ServiceClient client, int courseCount, int organizations, int parallelism)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<CourseRef>> futures = new ArrayList<>(courseCount);
+            for (int i = 0; i < courseCount; i++) {
+                long organizationId = i % organizations + 1;
+                int seq = i;
+                futures.add(executor.submit(() -> createCourse(client, seq, organizationId, true)));
+            }
+            List<CourseRef> courses = new ArrayList<>(courseCount);
+            for (Future<CourseRef> future : futures) {
+                courses.add(future.get());
+            }
+            log.info("预置课程完成，课程数：{}，机构数：{}", courses.size(), organizations);
+            return new CourseFixture(Collections.unmodifiableList(courses), organizations);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 新建课程，withTeachplan为true时同时创建3章12节的课程计划
+     */
+    static CourseRef createCourse(ServiceClient client, int seq, long organizationId, boolean withTeachplan) {
+        Random random = ThreadLocalRandom.current();
+        long mt = random.nextInt(ROOT_CATEGORIES) + 1;
+        long st = mt * 100 + random.nextInt(CHILDREN_PER_ROOT) + 1;
+        CourseRef course = new CourseRef(organizationId, mt, st, "压测课程-" + seq);
+
+        Long courseId = requireId(client, client.postContent(Scenario.AUTHORING, "course.create", "/course",
+                course.toAddCourse()), "创建课程");
+        course.setId(courseId);
+        if (!withTeachplan) {
+            return course;
+        }
+        for (int c = 1; c <= CHAPTERS; c++) {
+            Long chapterId = requireId(client, client.postContent(Scenario.AUTHORING, "teachplan.save", "/teachplan",
+                    teachplan(courseId, null, "第" + c + "章", 0L, 1)), "创建章节");
+            for (int s = 1; s <= SECTIONS_PER_CHAPTER; s++) {
+                Long sectionId = requireId(client, client.postContent(Scenario.AUTHORING, "teachplan.save", "/teachplan",
+                        teachplan(courseId, null, "第" + c + "章第" + s + "节", chapterId, 2)), "创建小节");
+                course.getSections().add(new long[]{sectionId, chapterId});
+            }
+        }
+        return course;
+    }
+
+    static Map<String, Object> teachplan(Long courseId, Long id, String name, Long parentId, int level) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("courseId", courseId);
+        body.put("name", name);
+        body.put("parentId", parentId);
+        body.put("level", level);
+        return body;
+    }
+
+    private static Long requireId(ServiceClient client, HttpResponse<String> response, String action) {
+        if (!ServiceClient.isSuccess(response)) {
+            throw new IllegalStateException(action + "失败：" + (response == null ? "无响应" : response.body()));
+        }
+        JsonNode data = client.data(response);
+        if (data == null || !data.canConvertToLong()) {
+            throw new IllegalStateException(action + "未返回ID：" + response.body());
+        }
+        return data.asLong();
+    }
+
+    public CourseRef randomCourse(Random random) {
+        return courses.get(random.nextInt(courses.size()));
+    }
+
+    public long randomOrganization(Random random) {
+        return random.nextInt(organizations) + 1;
+    }
+
+    public int size() {
+        return courses.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.double2and9.loadtest.traffic;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测中使用的课程信息
+ * 修改课程接口需要完整的课程字段，这里保存一份客户端视角的副本。
+ */
+@Getter
+public class CourseRef {
+
+    @Setter
+    private Long id;
+    private final long organizationId;
+    private final long mt;
+    private final long st;
+    private final String name;
+
+    /**
+     * 小节ID及其所属章节ID，预置完成后只读
+     */
+    private final List<long[]> sections = new ArrayList<>();
+
+    @Setter
+    private volatile String logo;
+
+    CourseRef(long organizationId, long mt, long st, String name) {
+        this.organizationId = organizationId;
+        this.mt = mt;
+        this.st = st;
+        this.name = name;
+    }
+
+    Map<String, Object> toAddCourse() {
+        Map<String, Object> body = baseFields();
+        body.put("organizationId", organizationId);
+        return body;
+    }
+
+    Map<String, Object> toEditCourse(String brief) {
+        Map<String, Object> body = baseFields();
+        body.put("id", id);
+        body.put("brief", brief);
+        return body;
+    }
+
+    private Map<String, Object> baseFields() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", name);
+        body.put("brief", name + "的课程简介");
+        body.put("logo", logo);
+        body.put("mt", mt);
+        body.put("st", st);
+        body.put("charge", "201001");
+        body.put("price", 0);
+        body.put("valid", true);
+        return body;
+    }
+}
@@ -0,0 +1,101 @@
+package com.double2and9.loadtest.traffic;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按操作记录请求延迟
+ * 保留全部样本后再排序求分位数，压测时长在分钟级，样本量可以接受，结果也不会有直方图分桶误差。
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> operations = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    /**
+     * 预热结束后开始记录
+     */
+    public void start() {
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    /**
+     * @param scenario     所属场景
+     * @param operation    操作名，例如 course.list
+     * @param elapsedNanos 请求耗时
+     * @param success      是否成功（2xx或304）
+     */
+    public void record(Scenario scenario, String operation, long elapsedNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        operations.computeIfAbsent(scenario.getKey() + ":" + operation, key -> new Samples(scenario, operation))
+                .add(elapsedNanos, success);
+    }
+
+    /**
+     * 按“场景:操作”排序的统计快照
+     */
+    public Map<String, Samples> snapshot() {
+        return new TreeMap<>(operations);
+    }
+
+    /**
+     * 单个操作的样本
+     */
+    public static class Samples {
+
+        private final Scenario scenario;
+        private final String operation;
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        Samples(Scenario scenario, String operation) {
+            this.scenario = scenario;
+            this.operation = operation;
+        }
+
+        synchronized void add(long elapsedNanos, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsedNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized int getErrors() {
+            return errors;
+        }
+
+        /**
+         * 排序后的样本副本（纳秒）
+         */
+        public synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
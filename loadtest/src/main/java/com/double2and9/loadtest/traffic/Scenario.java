@@ -0,0 +1,47 @@
+package com.double2and9.loadtest.traffic;
+
+import lombok.Getter;
+
+/**
+ * 流量场景
+ */
+@Getter
+public enum Scenario {
+
+    /**
+     * 学员浏览课程目录：课程分页列表、分类树
+     */
+    CATALOG_BROWSE("browse", "浏览目录"),
+
+    /**
+     * 学员查看课程：课程预览、课程计划树，部分请求携带If-None-Match
+     */
+    PREVIEW("preview", "课程预览"),
+
+    /**
+     * 机构编辑课程：新建/修改/删除课程、新增小节
+     */
+    AUTHORING("authoring", "课程编辑"),
+
+    /**
+     * 机构上传课程封面并回写到课程
+     */
+    LOGO_UPLOAD("logo", "封面上传");
+
+    private final String key;
+    private final String desc;
+
+    Scenario(String key, String desc) {
+        this.key = key;
+        this.desc = desc;
+    }
+
+    public static Scenario of(String key) {
+        for (Scenario scenario : values()) {
+            if (scenario.key.equalsIgnoreCase(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("未知的流量场景：" + key);
+    }
+}
@@ -0,0 +1,154 @@
+package com.double2and9.loadtest.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 压测HTTP客户端
+ * 每个请求计时并写入LatencyRecorder；网络异常记为失败并返回null，由调用方决定是否继续。
+ */
+public class ServiceClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpClient http;
+    private final LatencyRecorder recorder;
+    private final String contentBaseUrl;
+    private final String mediaBaseUrl;
+
+    public ServiceClient(LatencyRecorder recorder, String contentBaseUrl, String mediaBaseUrl) {
+        this.recorder = recorder;
+        this.contentBaseUrl = contentBaseUrl;
+        this.mediaBaseUrl = mediaBaseUrl;
+        // 服务端未开启h2c，固定HTTP/1.1，避免每个连接先尝试升级
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public HttpResponse<String> getContent(Scenario scenario, String operation, String path, String ifNoneMatch) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(contentBaseUrl + path)).GET();
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        return send(scenario, operation, builder);
+    }
+
+    public HttpResponse<String> postContent(Scenario scenario, String operation, String path, Object body) {
+        return send(scenario, operation, HttpRequest.newBuilder(URI.create(contentBaseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body))));
+    }
+
+    public HttpResponse<String> putContent(Scenario scenario, String operation, String path, Object body) {
+        return send(scenario, operation, HttpRequest.newBuilder(URI.create(contentBaseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(body))));
+    }
+
+    public HttpResponse<String> deleteContent(Scenario scenario, String operation, String path) {
+        return send(scenario, operation, HttpRequest.newBuilder(URI.create(contentBaseUrl + path)).DELETE());
+    }
+
+    /**
+     * 以multipart/form-data上传单个文件到media服务
+     */
+    public HttpResponse<String> uploadMedia(Scenario scenario, String operation, String path,
+                                            String fileName, String contentType, byte[] file) {
+        String boundary = "----loadtest" + UUID.randomUUID().toString().replace("-", "");
+        ByteArrayOutputStream body = new ByteArrayOutputStream(file.length + 256);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n";
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(file);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return send(scenario, operation, HttpRequest.newBuilder(URI.create(mediaBaseUrl + path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+    }
+
+    /**
+     * 读取响应体中的data字段，响应为空或无法解析时返回null
+     */
+    public JsonNode data(HttpResponse<String> response) {
+        if (response == null || response.body() == null || response.body().isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode data = OBJECT_MAPPER.readTree(response.body()).get("data");
+            return data == null || data.isNull() ? null : data;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpResponse<String> send(Scenario scenario, String operation, HttpRequest.Builder builder) {
+        HttpRequest request = builder.timeout(REQUEST_TIMEOUT).build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(scenario, operation, System.nanoTime() - start, isSuccess(response));
+            return response;
+        } catch (IOException e) {
+            recorder.record(scenario, operation, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * 两个服务的业务异常都以HTTP 200返回，需要再看响应体：
+     * content的ContentResponse以code=0表示成功，media的CommonResponse以success=true表示成功
+     */
+    public static boolean isSuccess(HttpResponse<String> response) {
+        if (response == null) {
+            return false;
+        }
+        int status = response.statusCode();
+        if (status == 304) {
+            return true;
+        }
+        if (status < 200 || status >= 300) {
+            return false;
+        }
+        String body = response.body();
+        if (body == null || body.isEmpty()) {
+            return true;
+        }
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(body);
+            JsonNode code = root.get("code");
+            if (code != null && code.isInt()) {
+                return code.asInt() == 0;
+            }
+            JsonNode success = root.get("success");
+            return success == null || success.asBoolean();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("请求体序列化失败", e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.double2and9.loadtest.traffic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 混合流量驱动
+ * 闭环模型：每个虚拟用户按配比随机选择场景，串行发送请求，可选思考时间。
+ * 闭环模型下服务变慢时发压也会变慢（协调遗漏），分位数应结合吞吐量一起看。
+ */
+@Slf4j
+public class TrafficDriver {
+
+    /**
+     * 每个虚拟用户最多保留的自建课程数，超过后先删除最早的一门
+     */
+    private static final int MAX_OWN_COURSES = 2;
+
+    private final ServiceClient client;
+    private final CourseFixture fixture;
+    private final LatencyRecorder recorder;
+    private final Scenario[] weightedScenarios;
+    private final List<byte[]> logoImages;
+    private final AtomicInteger courseSeq = new AtomicInteger(100_000);
+
+    private volatile boolean running;
+
+    public TrafficDriver(ServiceClient client, CourseFixture fixture, LatencyRecorder recorder,
+                         Map<Scenario, Integer> mix) {
+        this.client = client;
+        this.fixture = fixture;
+        this.recorder = recorder;
+        this.weightedScenarios = expand(mix);
+        // 三种尺寸的随机像素PNG，约12KB、56KB、225KB，覆盖常见封面大小
+        this.logoImages = List.of(png(64, 64), png(136, 136), png(274, 274));
+    }
+
+    /**
+     * 预热后开始计时采样
+     *
+     * @return 实际采样时长（纳秒）
+     */
+    public long run(int concurrency, int warmupSeconds, int durationSeconds, long thinkTimeMs)
+            throws InterruptedException {
+        running = true;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "loadtest-user");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> userLoop(thinkTimeMs));
+        }
+
+        log.info("预热{}秒，并发用户数：{}", warmupSeconds, concurrency);
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        recorder.start();
+        long start = System.nanoTime();
+        log.info("开始采样，时长{}秒", durationSeconds);
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        recorder.stop();
+        long elapsed = System.nanoTime() - start;
+
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return elapsed;
+    }
+
+    private void userLoop(long thinkTimeMs) {
+        UserState user = new UserState();
+        Random random = ThreadLocalRandom.current();
+        while (running) {
+            Scenario scenario = weightedScenarios[random.nextInt(weightedScenarios.length)];
+            try {
+                switch (scenario) {
+                    case CATALOG_BROWSE -> browse(random);
+                    case PREVIEW -> preview(random, user);
+                    case AUTHORING -> author(random, user);
+                    case LOGO_UPLOAD -> uploadLogo(random);
+                }
+                if (thinkTimeMs > 0) {
+                    TimeUnit.MILLISECONDS.sleep(thinkTimeMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("虚拟用户执行{}场景异常：{}", scenario.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 目录浏览：分页列表（一半按机构过滤）、分类树、课程详情
+     */
+    private void browse(Random random) {
+        int dice = random.nextInt(100);
+        if (dice < 60) {
+            String path = "/course/list?pageNo=" + (random.nextInt(3) + 1) + "&pageSize=10";
+            if (random.nextBoolean()) {
+                path += "&organizationId=" + fixture.randomOrganization(random);
+            }
+            client.getContent(Scenario.CATALOG_BROWSE, "course.list", path, null);
+        } else if (dice < 85) {
+            client.getContent(Scenario.CATALOG_BROWSE, "category.tree", "/course/category/tree", null);
+        } else {
+            client.getContent(Scenario.CATALOG_BROWSE, "course.detail",
+                    "/course/" + fixture.randomCourse(random).getId(), null);
+        }
+    }
+
+    /**
+     * 课程预览与课程计划树，回访用户携带上次的ETag
+     */
+    private void preview(Random random, UserState user) {
+        CourseRef course = fixture.randomCourse(random);
+        boolean treeOnly = random.nextInt(100) < 40;
+        String path = treeOnly ? "/teachplan/tree/" + course.getId() : "/course/preview/" + course.getId();
+        String operation = treeOnly ? "teachplan.tree" : "course.preview";
+        String cached = random.nextBoolean() ? user.etags.get(path) : null;
+        HttpResponse<String> response = client.getContent(Scenario.PREVIEW,
+                cached != null ? operation + ".revalidate" : operation, path, cached);
+        if (response != null) {
+            response.headers().firstValue("ETag").ifPresent(etag -> user.etags.put(path, etag));
+        }
+    }
+
+    /**
+     * 课程编辑：修改课程、重命名小节、新增小节、新建/删除课程
+     */
+    private void author(Random random, UserState user) {
+        int dice = random.nextInt(100);
+        CourseRef course = fixture.randomCourse(random);
+        if (dice < 35) {
+            client.putContent(Scenario.AUTHORING, "course.update", "/course",
+                    course.toEditCourse("课程简介修订于" + System.currentTimeMillis()));
+        } else if (dice < 70) {
+            long[] section = course.getSections().get(random.nextInt(course.getSections().size()));
+            client.postContent(Scenario.AUTHORING, "teachplan.save", "/teachplan",
+                    CourseFixture.teachplan(course.getId(), section[0], "小节-" + random.nextInt(1000), section[1], 2));
+        } else if (dice < 80) {
+            long[] section = course.getSections().get(random.nextInt(course.getSections().size()));
+            client.postContent(Scenario.AUTHORING, "teachplan.save", "/teachplan",
+                    CourseFixture.teachplan(course.getId(), null, "新增小节", section[1], 2));
+        } else if (user.ownCourses.size() < MAX_OWN_COURSES) {
+            try {
+                user.ownCourses.add(CourseFixture.createCourse(client, courseSeq.incrementAndGet(),
+                        fixture.randomOrganization(random), false));
+            } catch (IllegalStateException e) {
+                // 失败已计入统计
+            }
+        } else {
+            CourseRef own = user.ownCourses.poll();
+            client.deleteContent(Scenario.AUTHORING, "course.delete", "/course/" + own.getId());
+        }
+    }
+
+    /**
+     * 上传封面到media，再把返回的URL写回课程
+     */
+    private void uploadLogo(Random random) {
+        CourseRef course = fixture.randomCourse(random);
+        byte[] image = logoImages.get(random.nextInt(logoImages.size()));
+        HttpResponse<String> response = client.uploadMedia(Scenario.LOGO_UPLOAD, "media.upload",
+                "/media/files/course/" + course.getId() + "/logo?organizationId=" + course.getOrganizationId(),
+                "logo.png", "image/png", image);
+        JsonNode data = client.data(response);
+        if (data == null || !data.hasNonNull("url")) {
+            return;
+        }
+        course.setLogo(data.get("url").asText());
+        client.putContent(Scenario.LOGO_UPLOAD, "course.update", "/course",
+                course.toEditCourse(course.getName() + "的课程简介"));
+    }
+
+    private static Scenario[] expand(Map<Scenario, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Scenario[] expanded = new Scenario[total];
+        int index = 0;
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                expanded[index++] = entry.getKey();
+            }
+        }
+        return expanded;
+    }
+
+    private static byte[] png(int width, int height) {
+        Random random = new Random(width);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 虚拟用户自身的状态
+     */
+    private static class UserState {
+
+        private final Map<String, String> etags = new HashMap<>();
+        private final Deque<CourseRef> ownCourses = new ArrayDeque<>();
+    }
+}
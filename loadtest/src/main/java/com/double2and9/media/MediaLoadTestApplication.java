@@ -0,0 +1,14 @@
+package com.double2and9.media;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 压测用的media启动类
+ * Media_Main位于com.double2and9包下，会扫描到同一JVM中content服务的Bean，
+ * 这里把扫描范围限定在com.double2and9.media，其余配置与Media_Main一致。
+ */
+@SpringBootApplication
+@EnableScheduling
+public class MediaLoadTestApplication {
+}
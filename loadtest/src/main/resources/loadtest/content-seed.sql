@@ -0,0 +1,38 @@
+-- 压测用课程分类：一级分类1~6，二级分类id为 一级id*100+序号
+INSERT INTO course_category (id, name, parent_id, level, create_time, update_time) VALUES
+(1, '后端开发', 0, 1, NOW(), NOW()),
+(2, '前端开发', 0, 1, NOW(), NOW()),
+(3, '移动开发', 0, 1, NOW(), NOW()),
+(4, '数据科学', 0, 1, NOW(), NOW()),
+(5, '云计算', 0, 1, NOW(), NOW()),
+(6, '产品设计', 0, 1, NOW(), NOW()),
+(101, 'Java开发', 1, 2, NOW(), NOW()),
+(102, 'Go开发', 1, 2, NOW(), NOW()),
+(103, 'Python开发', 1, 2, NOW(), NOW()),
+(104, '微服务', 1, 2, NOW(), NOW()),
+(105, '数据库', 1, 2, NOW(), NOW()),
+(201, 'Vue开发', 2, 2, NOW(), NOW()),
+(202, 'React开发', 2, 2, NOW(), NOW()),
+(203, '小程序', 2, 2, NOW(), NOW()),
+(204, '工程化', 2, 2, NOW(), NOW()),
+(205, '可视化', 2, 2, NOW(), NOW()),
+(301, 'Android', 3, 2, NOW(), NOW()),
+(302, 'iOS', 3, 2, NOW(), NOW()),
+(303, 'Flutter', 3, 2, NOW(), NOW()),
+(304, '鸿蒙', 3, 2, NOW(), NOW()),
+(305, '跨平台', 3, 2, NOW(), NOW()),
+(401, '机器学习', 4, 2, NOW(), NOW()),
+(402, '数据分析', 4, 2, NOW(), NOW()),
+(403, '大数据', 4, 2, NOW(), NOW()),
+(404, '深度学习', 4, 2, NOW(), NOW()),
+(405, '数据挖掘', 4, 2, NOW(), NOW()),
+(501, '容器', 5, 2, NOW(), NOW()),
+(502, 'Kubernetes', 5, 2, NOW(), NOW()),
+(503, 'DevOps', 5, 2, NOW(), NOW()),
+(504, '云原生', 5, 2, NOW(), NOW()),
+(505, '运维', 5, 2, NOW(), NOW()),
+(601, '交互设计', 6, 2, NOW(), NOW()),
+(602, 'UI设计', 6, 2, NOW(), NOW()),
+(603, '产品经理', 6, 2, NOW(), NOW()),
+(604, '用户研究', 6, 2, NOW(), NOW()),
+(605, '原型设计', 6, 2, NOW(), NOW());
@@ -0,0 +1,72 @@
+package com.double2and9.loadtest.standin;
+
+import com.double2and9.content_service.cache.RedisCourseCacheStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在Redis替身上验证课程缓存的Redis存储：二进制值原样读写、PX过期、批量删除
+ */
+class RedisCourseCacheStoreTests {
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCourseCacheStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new RedisStandIn(0);
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", redis.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        store = new RedisCourseCacheStore(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void testBinaryValueRoundTrip() {
+        // 编码后的缓存条目不是合法的UTF-8，不能经过字符串序列化
+        byte[] value = {0, 1, (byte) 0xff, (byte) 0xfe, '\r', '\n', 0x7f};
+        store.set("content:course-cache:course:1", value, 60_000);
+        assertArrayEquals(value, store.get("content:course-cache:course:1"));
+        assertNull(store.get("content:course-cache:course:2"));
+    }
+
+    @Test
+    void testExpiresAfterTtl() throws Exception {
+        store.set("content:course-cache:preview:1", new byte[]{1}, 100);
+        assertNotNull(store.get("content:course-cache:preview:1"));
+        Thread.sleep(300);
+        assertNull(store.get("content:course-cache:preview:1"));
+    }
+
+    @Test
+    void testDeleteMultipleKeys() {
+        store.set("content:course-cache:course:1", new byte[]{1}, 60_000);
+        store.set("content:course-cache:preview:1", new byte[]{2}, 60_000);
+        store.set("content:course-cache:course:2", new byte[]{3}, 60_000);
+
+        store.delete(List.of("content:course-cache:course:1", "content:course-cache:preview:1",
+                "content:course-cache:course:3"));
+
+        assertNull(store.get("content:course-cache:course:1"));
+        assertNull(store.get("content:course-cache:preview:1"));
+        assertArrayEquals(new byte[]{3}, store.get("content:course-cache:course:2"));
+    }
+}
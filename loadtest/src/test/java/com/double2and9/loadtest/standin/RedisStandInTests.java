@@ -0,0 +1,112 @@
+package com.double2and9.loadtest.standin;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在Redis替身上验证课程热度使用的哈希命令：流水线中的HINCRBY、HGET/HGETALL读回、DEL删除；
+ * 以及media本地缓存使用的RESP3客户端缓存跟踪
+ */
+class RedisStandInTests {
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new RedisStandIn(0);
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", redis.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void testHashIncrementInPipeline() {
+        byte[] key = "content:popularity:views".getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hIncrBy(key, "1".getBytes(StandardCharsets.UTF_8), 3);
+            connection.hashCommands().hIncrBy(key, "2".getBytes(StandardCharsets.UTF_8), 1);
+            connection.hashCommands().hIncrBy(key, "1".getBytes(StandardCharsets.UTF_8), 2);
+            return null;
+        });
+
+        assertEquals("5", redisTemplate.<String, String>opsForHash().get("content:popularity:views", "1"));
+        assertEquals(Map.of("1", "5", "2", "1"),
+                redisTemplate.<String, String>opsForHash().entries("content:popularity:views"));
+        assertNull(redisTemplate.<String, String>opsForHash().get("content:popularity:views", "3"));
+
+        assertTrue(redisTemplate.delete("content:popularity:views"));
+        assertTrue(redisTemplate.<String, String>opsForHash().entries("content:popularity:views").isEmpty());
+    }
+
+    @Test
+    void testClientTrackingPushesInvalidate() throws Exception {
+        RedisClient client = RedisClient.create(RedisURI.create("127.0.0.1", redis.getPort()));
+        try (StatefulRedisConnection<String, String> tracked = client.connect(StringCodec.UTF8)) {
+            List<Object> invalidated = new CopyOnWriteArrayList<>();
+            tracked.addListener((PushMessage message) -> {
+                if ("invalidate".equals(message.getType())) {
+                    invalidated.add(message.getContent(StringCodec.UTF8::decodeKey).get(1));
+                }
+            });
+            tracked.sync().clientTracking(TrackingArgs.Builder.enabled().noloop());
+
+            redisTemplate.opsForValue().set("media:file:1", "v1");
+            assertEquals("v1", tracked.sync().get("media:file:1"));
+
+            // 本连接自己的写入不通知（NOLOOP），其他连接写入读过的键时推送失效通知
+            tracked.sync().setex("media:file:2", 60, "v2");
+            redisTemplate.opsForValue().set("media:file:1", "v1-updated");
+            waitFor(() -> !invalidated.isEmpty());
+            assertEquals(List.of(List.of("media:file:1")), invalidated);
+
+            // 推送后不再跟踪，再次写入不重复通知；清库时推送不带键的通知
+            redisTemplate.delete("media:file:1");
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.serverCommands().flushDb();
+                return null;
+            });
+            waitFor(() -> invalidated.size() == 2);
+            assertNull(invalidated.get(1));
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
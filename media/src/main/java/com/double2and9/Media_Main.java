@@ -2,9 +2,11 @@ package com.double2and9;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class Media_Main {
     public static void main(String[] args) {
         SpringApplication.run(Media_Main.class, args);
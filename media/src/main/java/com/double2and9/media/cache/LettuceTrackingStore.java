@@ -0,0 +1,163 @@
+package com.double2and9.media.cache;
+
+import com.double2and9.base.log.LogRateLimiter;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 基于Lettuce专用连接的缓存存储，使用RESP3协议开启 CLIENT TRACKING（NOLOOP，本连接自己的写入不通知自己）
+ * 服务端推送的 invalidate 消息转给 {@link #onInvalidate} 注册的回调；连接断开时服务端的跟踪状态随之丢失，
+ * 通知全部失效并在下次使用时重新开启跟踪。
+ * 跟踪未生效（连接断开、Redis低于6不支持RESP3）时读写改用连接池中的RedisTemplate，只是不能使用本地缓存；
+ * 删除始终走RedisTemplate。专用连接断开期间命令直接失败（客户端配置 REJECT_COMMANDS），不会阻塞到超时。
+ */
+@Slf4j
+public class LettuceTrackingStore implements MediaFileCacheStore, DisposableBean {
+
+    private static final String INVALIDATE = "invalidate";
+    private static final LogRateLimiter TRACKING_ERROR_LOG_LIMITER = new LogRateLimiter(Duration.ofMinutes(1));
+
+    private final RedisClient client;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long retryIntervalMs;
+    private final Object lock = new Object();
+
+    private volatile StatefulRedisConnection<String, String> connection;
+    private volatile boolean tracking;
+    private volatile long nextAttemptAt;
+    /**
+     * 连接断开次数，开启跟踪期间断开过则不能标记为已跟踪
+     */
+    private volatile long disconnects;
+    private volatile Consumer<Collection<String>> listener = keys -> {
+    };
+
+    public LettuceTrackingStore(RedisClient client, RedisTemplate<String, String> redisTemplate,
+                                long retryIntervalMs) {
+        this.client = client;
+        this.redisTemplate = redisTemplate;
+        this.retryIntervalMs = retryIntervalMs;
+    }
+
+    @Override
+    public String get(String key) {
+        StatefulRedisConnection<String, String> current = connection;
+        if (tracking && current != null) {
+            return current.sync().get(key);
+        }
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, long ttlSeconds) {
+        StatefulRedisConnection<String, String> current = connection;
+        if (tracking && current != null) {
+            current.sync().setex(key, ttlSeconds, value);
+        } else {
+            redisTemplate.opsForValue().set(key, value, ttlSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Override
+    public boolean isTracking() {
+        if (!tracking && System.currentTimeMillis() >= nextAttemptAt) {
+            enableTracking();
+        }
+        return tracking;
+    }
+
+    @Override
+    public void onInvalidate(Consumer<Collection<String>> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void destroy() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null) {
+            current.close();
+        }
+        client.shutdown();
+    }
+
+    private void enableTracking() {
+        synchronized (lock) {
+            if (tracking || System.currentTimeMillis() < nextAttemptAt) {
+                return;
+            }
+            long before = disconnects;
+            try {
+                connection().sync().clientTracking(TrackingArgs.Builder.enabled().noloop());
+                // 开启跟踪前读到的键没有被跟踪，本地缓存里的内容不能再用
+                listener.accept(null);
+                tracking = disconnects == before;
+                log.info("媒资元数据缓存已开启Redis客户端缓存跟踪");
+            } catch (RuntimeException e) {
+                nextAttemptAt = System.currentTimeMillis() + retryIntervalMs;
+                if (TRACKING_ERROR_LOG_LIMITER.tryAcquire()) {
+                    log.warn("开启Redis客户端缓存跟踪失败，暂不使用本地缓存，{}毫秒后重试：{}",
+                            retryIntervalMs, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private StatefulRedisConnection<String, String> connection() {
+        if (connection == null) {
+            StatefulRedisConnection<String, String> created = client.connect(StringCodec.UTF8);
+            created.addListener(this::onPush);
+            created.addListener(new RedisConnectionStateListener() {
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                    onDisconnected();
+                }
+            });
+            connection = created;
+        }
+        return connection;
+    }
+
+    private void onPush(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+            // FLUSHDB、FLUSHALL 或服务端跟踪表已满时不带键
+            listener.accept(null);
+            return;
+        }
+        List<String> invalidated = new ArrayList<>(keys.size());
+        keys.forEach(key -> invalidated.add(String.valueOf(key)));
+        listener.accept(invalidated);
+    }
+
+    private void onDisconnected() {
+        disconnects++;
+        tracking = false;
+        listener.accept(null);
+        log.warn("媒资元数据缓存的Redis跟踪连接断开，本地缓存已清空，重连后重新开启跟踪");
+    }
+}
@@ -0,0 +1,221 @@
+package com.double2and9.media.cache;
+
+import com.double2and9.base.log.LogRateLimiter;
+import com.double2and9.media.config.MediaFileCacheProperties;
+import com.double2and9.media.entity.MediaFile;
+import com.double2and9.media.repository.MediaFileRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按媒资文件ID（MD5）查询媒资记录的两级缓存：本地缓存 → Redis → 数据库
+ * <ul>
+ *     <li>本地缓存容量有限，按W-TinyLFU淘汰；只在Redis客户端缓存跟踪生效时使用，
+ *     其他节点修改或删除记录后由Redis推送失效通知删除本地副本</li>
+ *     <li>Redis中保存记录的JSON，不存在的记录保存空标记，短时间内重复的去重检查不再查询数据库</li>
+ *     <li>每次返回新反序列化的对象，调用方可以修改后保存</li>
+ * </ul>
+ * 修改或删除媒资记录后调用 {@link #evict}；查询期间收到过失效通知或本节点删除过缓存时，查询结果不写入缓存。
+ * Redis不可用时直接查询数据库。
+ */
+@Slf4j
+@Component
+public class MediaFileCache {
+
+    private static final String NOT_FOUND = "";
+    private static final LogRateLimiter STORE_ERROR_LOG_LIMITER = new LogRateLimiter(Duration.ofSeconds(10));
+
+    private final MediaFileCacheStore store;
+    private final MediaFileRepository mediaFileRepository;
+    private final ObjectMapper objectMapper;
+    private final MediaFileCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, String> near;
+    /**
+     * 失效次数，查询前后不一致说明期间有键失效，结果不写入缓存
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public MediaFileCache(MediaFileCacheStore store,
+                          MediaFileRepository mediaFileRepository,
+                          ObjectMapper objectMapper,
+                          MediaFileCacheProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.store = store;
+        this.mediaFileRepository = mediaFileRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.near = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getNearMaxSize())
+                .expireAfter(new Expiry<String, String>() {
+                    @Override
+                    public long expireAfterCreate(String key, String value, long currentTime) {
+                        return nearTtlNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, String value, long currentTime, long currentDuration) {
+                        return nearTtlNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, String value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .<String, String>build(), "media.file.near");
+        store.onInvalidate(this::invalidateLocal);
+    }
+
+    /**
+     * 按媒资文件ID查询记录
+     */
+    public Optional<MediaFile> findByMediaFileId(String mediaFileId) {
+        if (!properties.isEnabled()) {
+            return mediaFileRepository.findByMediaFileId(mediaFileId);
+        }
+        String key = key(mediaFileId);
+        boolean tracking = store.isTracking();
+        if (tracking) {
+            String cached = near.getIfPresent(key);
+            if (cached != null) {
+                count("near");
+                return decode(cached, mediaFileId);
+            }
+        }
+
+        long stamp = invalidations.get();
+        String value;
+        try {
+            value = store.get(key);
+        } catch (RuntimeException e) {
+            logStoreError("读取", e);
+            count("database");
+            return mediaFileRepository.findByMediaFileId(mediaFileId);
+        }
+        if (value != null) {
+            count("redis");
+            putNear(key, value, tracking, stamp);
+            return decode(value, mediaFileId);
+        }
+
+        // 回源结果只写Redis不进本地缓存：写入会让服务端不再跟踪该键（写入方自己也一样），
+        // 本地副本收不到之后的失效通知；下次读取命中Redis时重新跟踪并写入本地缓存
+        count("database");
+        Optional<MediaFile> mediaFile = mediaFileRepository.findByMediaFileId(mediaFileId);
+        value = mediaFile.isPresent() ? encode(mediaFile.get()) : NOT_FOUND;
+        if (value != null && invalidations.get() == stamp) {
+            try {
+                store.set(key, value, mediaFile.isPresent()
+                        ? properties.getTtlSeconds() : properties.getNegativeTtlSeconds());
+            } catch (RuntimeException e) {
+                logStoreError("写入", e);
+            }
+        }
+        return mediaFile;
+    }
+
+    /**
+     * 删除媒资记录的缓存，记录修改或删除后调用；其他节点的本地缓存由失效通知删除
+     */
+    public void evict(String mediaFileId) {
+        evict(List.of(mediaFileId));
+    }
+
+    public void evict(Collection<String> mediaFileIds) {
+        if (!properties.isEnabled() || mediaFileIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = mediaFileIds.stream().map(this::key).toList();
+        invalidateLocal(keys);
+        try {
+            store.delete(keys);
+        } catch (RuntimeException e) {
+            // 删除失败时旧数据最多保留一个过期时间
+            log.error("删除媒资元数据缓存失败，媒资文件ID：{}", mediaFileIds, e);
+        }
+    }
+
+    private void invalidateLocal(Collection<String> keys) {
+        invalidations.incrementAndGet();
+        if (keys == null) {
+            near.invalidateAll();
+        } else {
+            near.invalidateAll(keys);
+        }
+        meterRegistry.counter("media.file.cache.invalidations", "scope", keys == null ? "all" : "keys").increment();
+    }
+
+    /**
+     * 跟踪生效且查询期间没有键失效时才写入本地缓存；写入后再次检查，与同时到达的失效通知不会留下旧值
+     */
+    private void putNear(String key, String value, boolean tracking, long stamp) {
+        if (!tracking || invalidations.get() != stamp) {
+            return;
+        }
+        near.put(key, value);
+        if (invalidations.get() != stamp) {
+            near.invalidate(key);
+        }
+    }
+
+    /**
+     * 本地副本不比Redis中的键活得更久：“不存在”标记按 negative-ttl-seconds，其余不超过 ttl-seconds
+     */
+    private long nearTtlNanos(String value) {
+        long redisTtl = NOT_FOUND.equals(value) ? properties.getNegativeTtlSeconds() : properties.getTtlSeconds();
+        return TimeUnit.SECONDS.toNanos(Math.min(properties.getNearExpireSeconds(), redisTtl));
+    }
+
+    private Optional<MediaFile> decode(String value, String mediaFileId) {
+        if (NOT_FOUND.equals(value)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(value, MediaFile.class));
+        } catch (JsonProcessingException e) {
+            log.warn("媒资元数据缓存解码失败，改为查询数据库，媒资文件ID：{}，原因：{}", mediaFileId, e.getMessage());
+            return mediaFileRepository.findByMediaFileId(mediaFileId);
+        }
+    }
+
+    private String encode(MediaFile mediaFile) {
+        try {
+            return objectMapper.writeValueAsString(mediaFile);
+        } catch (JsonProcessingException e) {
+            log.warn("媒资元数据缓存编码失败，媒资文件ID：{}，原因：{}", mediaFile.getMediaFileId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void logStoreError(String operation, RuntimeException e) {
+        if (STORE_ERROR_LOG_LIMITER.tryAcquire()) {
+            log.warn("{}媒资元数据缓存失败，直接查询数据库，期间省略{}条：{}", operation,
+                    STORE_ERROR_LOG_LIMITER.takeSuppressed(), e.getMessage());
+        }
+    }
+
+    private void count(String source) {
+        meterRegistry.counter("media.file.cache.requests", "source", source).increment();
+    }
+
+    private String key(String mediaFileId) {
+        return properties.getKeyPrefix() + ":" + mediaFileId;
+    }
+}
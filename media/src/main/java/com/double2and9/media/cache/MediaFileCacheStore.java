@@ -0,0 +1,30 @@
+package com.double2and9.media.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * 媒资元数据缓存的远端存储
+ * 开启客户端缓存跟踪时，服务端记住本连接读过的键，键被修改或删除后推送失效通知
+ */
+public interface MediaFileCacheStore {
+
+    /**
+     * 读取键的值，不存在时返回null；跟踪生效时服务端开始跟踪该键
+     */
+    String get(String key);
+
+    void set(String key, String value, long ttlSeconds);
+
+    void delete(Collection<String> keys);
+
+    /**
+     * 跟踪是否生效，生效期间才能使用本地缓存；未生效时尝试重新开启
+     */
+    boolean isTracking();
+
+    /**
+     * 注册失效通知的回调，参数为失效的键，null表示全部失效（连接断开、FLUSHALL等）
+     */
+    void onInvalidate(Consumer<Collection<String>> listener);
+}
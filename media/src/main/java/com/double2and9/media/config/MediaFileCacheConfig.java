@@ -0,0 +1,72 @@
+package com.double2and9.media.config;
+
+import com.double2and9.base.metrics.MeteredRedisTemplate;
+import com.double2and9.base.metrics.RedisCommandMetrics;
+import com.double2and9.media.cache.LettuceTrackingStore;
+import com.double2and9.media.cache.MediaFileCacheStore;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * 媒资元数据缓存的Redis连接
+ * 客户端缓存跟踪的失效通知通过RESP3推送，需要Redis 6以上；
+ * 使用与RedisTemplate相同的地址和事件循环，但单独建一个不进连接池的连接，跟踪状态绑定在这个连接上；
+ * 删除和跟踪未生效时的读写走连接池，值为原样字符串
+ */
+@Configuration
+public class MediaFileCacheConfig {
+
+    @Bean
+    public MediaFileCacheStore mediaFileCacheStore(LettuceConnectionFactory connectionFactory,
+                                                   ClientResources clientResources,
+                                                   MediaFileCacheProperties properties,
+                                                   MeterRegistry meterRegistry,
+                                                   ObjectProvider<Tracer> tracer) {
+        if (properties.isEnabled()
+                && (connectionFactory.isClusterAware() || connectionFactory.isRedisSentinelAware())) {
+            throw new IllegalStateException("媒资元数据缓存只支持单机Redis，请设置 media.file-cache.enabled=false");
+        }
+        RedisStandaloneConfiguration standalone = connectionFactory.getStandaloneConfiguration();
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(standalone.getHostName())
+                .withPort(standalone.getPort())
+                .withDatabase(standalone.getDatabase())
+                .withSsl(connectionFactory.isUseSsl())
+                .withTimeout(Duration.ofMillis(connectionFactory.getTimeout()));
+        standalone.getPassword().toOptional().ifPresent(password -> {
+            if (standalone.getUsername() != null) {
+                uri.withAuthentication(standalone.getUsername(), password);
+            } else {
+                uri.withPassword(password);
+            }
+        });
+
+        RedisClient client = RedisClient.create(clientResources, uri.build());
+        client.setOptions(ClientOptions.builder()
+                .protocolVersion(ProtocolVersion.RESP3)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+
+        RedisTemplate<String, String> template = new MeteredRedisTemplate<>(
+                new RedisCommandMetrics(meterRegistry, tracer.getIfAvailable(() -> Tracer.NOOP)));
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(StringRedisSerializer.UTF_8);
+        template.afterPropertiesSet();
+        return new LettuceTrackingStore(client, template, properties.getRetryIntervalMs());
+    }
+}
@@ -0,0 +1,49 @@
+package com.double2and9.media.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 媒资元数据缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "media.file-cache")
+public class MediaFileCacheProperties {
+
+    /**
+     * 是否启用缓存，关闭后直接查询数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * Redis键前缀，完整的键为 {keyPrefix}:{mediaFileId}
+     */
+    private String keyPrefix = "media:file";
+
+    /**
+     * 本地缓存最多保存的记录数，超出后按W-TinyLFU淘汰
+     */
+    private long nearMaxSize = 10000;
+
+    /**
+     * 本地缓存写入后的过期时间（秒），正常由Redis失效通知删除，这里只兜底漏掉的通知；不超过对应Redis键的过期时间
+     */
+    private long nearExpireSeconds = 600;
+
+    /**
+     * Redis中记录的过期时间（秒）
+     */
+    private long ttlSeconds = 3600;
+
+    /**
+     * Redis中“记录不存在”标记的过期时间（秒）
+     */
+    private long negativeTtlSeconds = 60;
+
+    /**
+     * 连接断开或开启跟踪失败后，重试的最小间隔（毫秒）
+     */
+    private long retryIntervalMs = 5000;
+}
@@ -1,7 +1,11 @@
 package com.double2and9.media.config;
 
+import com.double2and9.media.metrics.MeteredMinioClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
 import io.minio.MinioClient;
 import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,10 +20,11 @@ public class MinioConfig {
     private String bucketName;
 
     @Bean
-    public MinioClient minioClient() {
-        return MinioClient.builder()
+    public MinioClient minioClient(MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer) {
+        MinioClient client = MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
                 .build();
+        return new MeteredMinioClient(client, meterRegistry, tracer.getIfAvailable(() -> Tracer.NOOP));
     }
 } 
\ No newline at end of file
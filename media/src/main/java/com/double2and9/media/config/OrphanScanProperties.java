@@ -0,0 +1,47 @@
+package com.double2and9.media.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 孤儿文件扫描配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "media.orphan-scan")
+public class OrphanScanProperties {
+
+    /**
+     * 是否启用定时扫描
+     */
+    private boolean enabled = true;
+
+    /**
+     * 只扫描这些前缀，这些目录下的对象都应有media_file记录（临时图片目录不在其中）
+     */
+    private List<String> prefixes = Arrays.asList("course/logo/", "files/");
+
+    /**
+     * 宽限期（小时），新上传但尚未落库的对象不会被当作孤儿
+     */
+    private long gracePeriodHours = 24;
+
+    /**
+     * 每批核对的对象数量
+     */
+    private int batchSize = 500;
+
+    /**
+     * 每轮最多核对的记录数量（记录→对象方向）
+     */
+    private int rowCheckLimit = 1000;
+
+    /**
+     * 只记录不删除
+     */
+    private boolean dryRun = false;
+}
@@ -1,5 +1,10 @@
 package com.double2and9.media.config;
 
+import com.double2and9.base.metrics.MeteredRedisTemplate;
+import com.double2and9.base.metrics.RedisCommandMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -11,8 +16,12 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 public class RedisConfig {
     
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       MeterRegistry meterRegistry,
+                                                       ObjectProvider<Tracer> tracer) {
+        // 每条命令记录 redis.commands 指标，链路中的命令另外生成span
+        RedisTemplate<String, Object> template = new MeteredRedisTemplate<>(
+                new RedisCommandMetrics(meterRegistry, tracer.getIfAvailable(() -> Tracer.NOOP)));
         template.setConnectionFactory(connectionFactory);
         
         // 使用GenericJackson2JsonRedisSerializer替代Jackson2JsonRedisSerializer
@@ -1,11 +1,14 @@
 package com.double2and9.media.controller;
 
+import com.double2and9.base.dto.BatchDeleteResultDTO;
 import com.double2and9.base.dto.CommonResponse;
 import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.media.service.ImageService;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * 图片管理控制器
  * 处理图片上传、删除等操作
@@ -49,4 +52,16 @@ public class ImageController {
         imageService.deleteMediaFile(url);
         return CommonResponse.success(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量删除媒体文件
+     * 幂等操作，供内容服务的后台清理任务调用
+     *
+     * @param urls 文件URL列表
+     * @return 删除结果，包含失败的URL
+     */
+    @PostMapping("/batch-delete")
+    public CommonResponse<BatchDeleteResultDTO> deleteMediaFiles(@RequestBody List<String> urls) {
+        return CommonResponse.success(imageService.deleteMediaFiles(urls));
+    }
+}
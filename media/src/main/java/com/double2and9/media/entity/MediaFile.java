@@ -8,15 +8,21 @@ import java.util.Date;
 
 /**
  * 媒资文件实体
+ * url 列过长只能建前缀索引，JPA注解无法表达，见 db/migration/V2__query_indexes.sql
  */
 @Data
 @ToString
 @Entity
-@Table(name = "media_file")
+@Table(name = "media_file", indexes = {
+        @Index(name = "idx_media_file_file_path", columnList = "file_path"),
+        @Index(name = "idx_media_file_status", columnList = "status"),
+        @Index(name = "idx_media_file_media_type", columnList = "media_type")
+})
 public class MediaFile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "media_file_seq")
+    @SequenceGenerator(name = "media_file_seq", sequenceName = "media_file_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "organization_id")
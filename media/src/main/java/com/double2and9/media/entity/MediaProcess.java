@@ -16,7 +16,8 @@ import java.util.Date;
 public class MediaProcess {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "media_process_seq")
+    @SequenceGenerator(name = "media_process_seq", sequenceName = "media_process_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "file_id", length = 120)
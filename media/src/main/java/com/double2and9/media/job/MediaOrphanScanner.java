@@ -0,0 +1,167 @@
+package com.double2and9.media.job;
+
+import com.double2and9.base.enums.MediaStatusEnum;
+import com.double2and9.media.cache.MediaFileCache;
+import com.double2and9.media.config.OrphanScanProperties;
+import com.double2and9.media.entity.MediaFile;
+import com.double2and9.media.repository.MediaFileRepository;
+import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 孤儿文件扫描任务
+ * 对象→记录：分批列举存储桶对象，批量核对media_file，超过宽限期且无记录的对象批量删除；
+ * 记录→对象：按ID游标分批检查记录对应的对象是否存在，缺失的记录标记为MISSING
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "media.orphan-scan.enabled", havingValue = "true", matchIfMissing = true)
+public class MediaOrphanScanner {
+
+    private final MinioClient minioClient;
+    private final MediaFileRepository mediaFileRepository;
+    private final OrphanScanProperties properties;
+    private final MediaFileCache mediaFileCache;
+
+    /**
+     * 记录→对象方向的游标，按前缀保存上次检查到的记录ID
+     */
+    private final Map<String, Long> rowCursor = new ConcurrentHashMap<>();
+
+    @Value("${minio.bucket-name}")
+    private String bucketName;
+
+    public MediaOrphanScanner(MinioClient minioClient,
+                              MediaFileRepository mediaFileRepository,
+                              OrphanScanProperties properties,
+                              MediaFileCache mediaFileCache) {
+        this.minioClient = minioClient;
+        this.mediaFileRepository = mediaFileRepository;
+        this.properties = properties;
+        this.mediaFileCache = mediaFileCache;
+    }
+
+    @Scheduled(cron = "${media.orphan-scan.cron:0 0 4 * * ?}")
+    public void scan() {
+        for (String prefix : properties.getPrefixes()) {
+            try {
+                int orphans = scanOrphanObjects(prefix);
+                int missing = scanMissingObjects(prefix);
+                log.info("孤儿文件扫描完成，前缀：{}，孤儿对象：{}，缺失对象的记录：{}", prefix, orphans, missing);
+            } catch (Exception e) {
+                log.error("孤儿文件扫描失败，前缀：{}", prefix, e);
+            }
+        }
+    }
+
+    /**
+     * 对象→记录方向核对
+     *
+     * @return 发现的孤儿对象数量
+     */
+    int scanOrphanObjects(String prefix) throws Exception {
+        ZonedDateTime cutoff = ZonedDateTime.now().minusHours(properties.getGracePeriodHours());
+        Iterable<Result<Item>> items = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .prefix(prefix)
+                        .recursive(true)
+                        .build());
+
+        int orphans = 0;
+        List<Item> batch = new ArrayList<>(properties.getBatchSize());
+        for (Result<Item> result : items) {
+            Item item = result.get();
+            if (item.isDir() || item.lastModified() == null || item.lastModified().isAfter(cutoff)) {
+                continue;
+            }
+            batch.add(item);
+            if (batch.size() >= properties.getBatchSize()) {
+                orphans += reconcileBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            orphans += reconcileBatch(batch);
+        }
+        return orphans;
+    }
+
+    private int reconcileBatch(List<Item> batch) throws Exception {
+        List<String> names = batch.stream().map(Item::objectName).collect(Collectors.toList());
+        Set<String> known = new HashSet<>(mediaFileRepository.findExistingFilePaths(names));
+        List<DeleteObject> orphans = names.stream()
+                .filter(name -> !known.contains(name))
+                .map(DeleteObject::new)
+                .collect(Collectors.toList());
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        if (properties.isDryRun()) {
+            log.info("发现孤儿对象（未删除）：{}", orphans.size());
+            return orphans.size();
+        }
+        for (Result<DeleteError> error : minioClient.removeObjects(
+                RemoveObjectsArgs.builder().bucket(bucketName).objects(orphans).build())) {
+            DeleteError deleteError = error.get();
+            log.warn("删除孤儿对象失败：{}，原因：{}", deleteError.objectName(), deleteError.message());
+        }
+        return orphans.size();
+    }
+
+    /**
+     * 记录→对象方向核对，每轮最多检查rowCheckLimit条记录，游标循环推进
+     *
+     * @return 标记为缺失的记录数量
+     */
+    int scanMissingObjects(String prefix) throws Exception {
+        long afterId = rowCursor.getOrDefault(prefix, 0L);
+        List<MediaFile> rows = mediaFileRepository.findByFilePathPrefixAfterId(
+                prefix, afterId, PageRequest.of(0, properties.getRowCheckLimit()));
+        if (rows.isEmpty()) {
+            rowCursor.remove(prefix);
+            return 0;
+        }
+
+        List<MediaFile> missing = new ArrayList<>();
+        for (MediaFile row : rows) {
+            if (MediaStatusEnum.MISSING.getCode().equals(row.getStatus())) {
+                continue;
+            }
+            try {
+                minioClient.statObject(StatObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(row.getFilePath())
+                        .build());
+            } catch (ErrorResponseException e) {
+                if ("NoSuchKey".equals(e.errorResponse().code())) {
+                    row.setStatus(MediaStatusEnum.MISSING.getCode());
+                    missing.add(row);
+                } else {
+                    throw e;
+                }
+            }
+        }
+        if (!missing.isEmpty() && !properties.isDryRun()) {
+            mediaFileRepository.saveAll(missing);
+            mediaFileCache.evict(missing.stream()
+                    .map(MediaFile::getMediaFileId).filter(Objects::nonNull).toList());
+        }
+        rowCursor.put(prefix, rows.get(rows.size() - 1).getId());
+        return missing.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.double2and9.media.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.minio.CopyObjectArgs;
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.errors.InsufficientDataException;
+import io.minio.errors.InternalException;
+import io.minio.errors.InvalidResponseException;
+import io.minio.errors.ServerException;
+import io.minio.errors.XmlParserException;
+import io.minio.messages.DeleteError;
+
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 带指标的MinioClient
+ * 每次调用记录 minio.requests 计时，标签为 operation、bucket、outcome（success/error）；
+ * 上传字节数记录在 minio.bytes 分布中，不作为标签，避免时间序列随对象大小增长。
+ * listObjects 按页懒加载，调用方可能只遍历一部分，不计时。
+ * 当前线程处于某条链路中时，每次调用另外生成一个"minio 操作名"的客户端span，带桶名和对象名。
+ */
+public class MeteredMinioClient extends MinioClient {
+
+    public static final String METRIC_NAME = "minio.requests";
+
+    private final MeterRegistry registry;
+    private final Tracer tracer;
+
+    public MeteredMinioClient(MinioClient client, MeterRegistry registry, Tracer tracer) {
+        super(client);
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public ObjectWriteResponse putObject(PutObjectArgs args) throws ErrorResponseException,
+            InsufficientDataException, InternalException, InvalidKeyException, InvalidResponseException,
+            IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        ObjectWriteResponse response = timed("putObject", args.bucket(), args.object(), () -> super.putObject(args));
+        if (args.objectSize() >= 0) {
+            DistributionSummary.builder("minio.bytes")
+                    .description("MinIO上传的字节数")
+                    .baseUnit("bytes")
+                    .tag("operation", "putObject")
+                    .tag("bucket", args.bucket())
+                    .register(registry)
+                    .record(args.objectSize());
+        }
+        return response;
+    }
+
+    @Override
+    public ObjectWriteResponse copyObject(CopyObjectArgs args) throws ErrorResponseException,
+            InsufficientDataException, InternalException, InvalidKeyException, InvalidResponseException,
+            IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        return timed("copyObject", args.bucket(), args.object(), () -> super.copyObject(args));
+    }
+
+    @Override
+    public StatObjectResponse statObject(StatObjectArgs args) throws ErrorResponseException,
+            InsufficientDataException, InternalException, InvalidKeyException, InvalidResponseException,
+            IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        return timed("statObject", args.bucket(), args.object(), () -> super.statObject(args));
+    }
+
+    @Override
+    public void removeObject(RemoveObjectArgs args) throws ErrorResponseException,
+            InsufficientDataException, InternalException, InvalidKeyException, InvalidResponseException,
+            IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        timed("removeObject", args.bucket(), args.object(), () -> {
+            super.removeObject(args);
+            return null;
+        });
+    }
+
+    /**
+     * 原方法返回懒加载的结果，遍历时才真正发出请求；这里在计时范围内遍历完，返回已物化的结果
+     */
+    @Override
+    public Iterable<Result<DeleteError>> removeObjects(RemoveObjectsArgs args) {
+        Span span = startSpan("removeObjects", args.bucket(), null);
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            List<Result<DeleteError>> results = new ArrayList<>();
+            for (Result<DeleteError> result : super.removeObjects(args)) {
+                results.add(result);
+            }
+            return results;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            if (span != null) {
+                span.error(e);
+            }
+            throw e;
+        } finally {
+            sample.stop(timer("removeObjects", args.bucket(), outcome));
+            if (span != null) {
+                span.end();
+            }
+        }
+    }
+
+    private <T> T timed(String operation, String bucket, String object, MinioCall<T> call)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        Span span = startSpan(operation, bucket, object);
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return call.execute();
+        } catch (Exception e) {
+            outcome = "error";
+            if (span != null) {
+                span.error(e);
+            }
+            throw e;
+        } finally {
+            sample.stop(timer(operation, bucket, outcome));
+            if (span != null) {
+                span.end();
+            }
+        }
+    }
+
+    /**
+     * 只在已有链路中创建span，链路之外的调用（如孤儿扫描）不单独开启链路
+     */
+    private Span startSpan(String operation, String bucket, String object) {
+        if (tracer.currentSpan() == null) {
+            return null;
+        }
+        Span.Builder builder = tracer.spanBuilder()
+                .name("minio " + operation)
+                .kind(Span.Kind.CLIENT)
+                .remoteServiceName("minio")
+                .tag("minio.operation", operation)
+                .tag("minio.bucket", bucket);
+        if (object != null) {
+            builder.tag("minio.object", object);
+        }
+        return builder.start();
+    }
+
+    private Timer timer(String operation, String bucket, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("MinIO请求耗时")
+                .tag("operation", operation)
+                .tag("bucket", bucket)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    private interface MinioCall<T> {
+        T execute() throws ErrorResponseException, InsufficientDataException, InternalException,
+                InvalidKeyException, InvalidResponseException, IOException, NoSuchAlgorithmException,
+                ServerException, XmlParserException;
+    }
+}
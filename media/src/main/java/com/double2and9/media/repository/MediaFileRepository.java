@@ -1,11 +1,14 @@
 package com.double2and9.media.repository;
 
+import com.double2and9.base.queryplan.AllowFullScan;
 import com.double2and9.media.entity.MediaFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +48,7 @@ public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
      * @param filename 文件名
      * @return 文件列表
      */
+    @AllowFullScan("LIKE '%关键字%' 无法使用索引")
     @Query("SELECT m FROM MediaFile m WHERE m.fileName LIKE %:filename%")
     List<MediaFile> findByFileNameLike(@Param("filename") String filename);
 
@@ -64,5 +68,28 @@ public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
     /**
      * 根据文件名模糊查询
      */
+    @AllowFullScan("LIKE '%关键字%' 无法使用索引")
     List<MediaFile> findByFileNameContaining(String fileName);
+
+    /**
+     * 根据URL批量查询
+     */
+    List<MediaFile> findByUrlIn(Collection<String> urls);
+
+    /**
+     * 查询给定存储路径中在库内有记录的路径
+     *
+     * @param filePaths 存储路径列表
+     * @return 存在记录的存储路径
+     */
+    @Query("SELECT m.filePath FROM MediaFile m WHERE m.filePath IN :filePaths")
+    List<String> findExistingFilePaths(@Param("filePaths") Collection<String> filePaths);
+
+    /**
+     * 按ID游标分页查询指定前缀下的文件记录
+     */
+    @Query("SELECT m FROM MediaFile m WHERE m.id > :afterId AND m.filePath LIKE CONCAT(:prefix, '%') ORDER BY m.id ASC")
+    List<MediaFile> findByFilePathPrefixAfterId(@Param("prefix") String prefix,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
 }
\ No newline at end of file
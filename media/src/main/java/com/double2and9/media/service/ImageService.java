@@ -1,10 +1,13 @@
 package com.double2and9.media.service;
 
+import com.double2and9.base.dto.BatchDeleteResultDTO;
 import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.media.dto.UploadFileDTO;
 import com.double2and9.media.entity.MediaFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * 媒资文件服务
  */
@@ -63,4 +66,10 @@ public interface ImageService {
      */
     void deleteMediaFile(String url);
 
+    /**
+     * 批量删除媒体文件（幂等，文件不存在视为删除成功）
+     * @param urls 文件URL列表
+     * @return 删除结果
+     */
+    BatchDeleteResultDTO deleteMediaFiles(List<String> urls);
 }
\ No newline at end of file
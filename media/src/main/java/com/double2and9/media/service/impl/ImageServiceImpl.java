@@ -1,8 +1,10 @@
 package com.double2and9.media.service.impl;
 
+import com.double2and9.base.dto.BatchDeleteResultDTO;
 import com.double2and9.base.dto.MediaFileDTO;
 import com.double2and9.base.enums.MediaErrorCode;
 import com.double2and9.base.enums.MediaStatusEnum;
+import com.double2and9.media.cache.MediaFileCache;
 import com.double2and9.media.common.exception.MediaException;
 import com.double2and9.media.dto.TempFileDTO;
 import com.double2and9.media.dto.UploadFileDTO;
@@ -13,6 +15,10 @@ import com.double2and9.media.utils.FileTypeUtils;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -20,8 +26,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -38,6 +51,7 @@ public class ImageServiceImpl implements ImageService {
     private final MediaFileRepository mediaFileRepository;
     private final ModelMapper modelMapper;
     private final FileTypeUtils fileTypeUtils;
+    private final MediaFileCache mediaFileCache;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
@@ -46,12 +60,14 @@ public class ImageServiceImpl implements ImageService {
             MinioClient minioClient,
             MediaFileRepository mediaFileRepository,
             ModelMapper modelMapper,
-            FileTypeUtils fileTypeUtils) {
+            FileTypeUtils fileTypeUtils,
+            MediaFileCache mediaFileCache) {
         this.redisTemplate = redisTemplate;
         this.minioClient = minioClient;
         this.mediaFileRepository = mediaFileRepository;
         this.modelMapper = modelMapper;
         this.fileTypeUtils = fileTypeUtils;
+        this.mediaFileCache = mediaFileCache;
     }
 
     @Override
@@ -99,8 +115,8 @@ public class ImageServiceImpl implements ImageService {
      */
     public MediaFile uploadFile(UploadFileDTO uploadFileDTO) {
         try {
-            // 1. 先检查文件是否已存在
-            Optional<MediaFile> existingFile = mediaFileRepository.findByMediaFileId(uploadFileDTO.getFileMd5());
+            // 1. 先检查文件是否已存在（走缓存，去重检查大多命中本地缓存）
+            Optional<MediaFile> existingFile = mediaFileCache.findByMediaFileId(uploadFileDTO.getFileMd5());
             if (existingFile.isPresent()) {
                 return existingFile.get();
             }
@@ -133,8 +149,10 @@ public class ImageServiceImpl implements ImageService {
             mediaFile.setBucket(bucketName);
             mediaFile.setUrl("/" + bucketName + "/" + objectName); // 设置访问URL
 
-            // 5. 保存到数据库
-            return mediaFileRepository.save(mediaFile);
+            // 5. 保存到数据库，删除“不存在”的缓存标记
+            MediaFile saved = mediaFileRepository.save(mediaFile);
+            mediaFileCache.evict(saved.getMediaFileId());
+            return saved;
         } catch (Exception e) {
             log.error("文件上传失败", e);
             throw new MediaException(MediaErrorCode.FILE_UPLOAD_FAILED);
@@ -149,7 +167,7 @@ public class ImageServiceImpl implements ImageService {
      * @return 存在的媒体文件实体，不存在返回null
      */
     public MediaFile checkFile(String fileMd5) {
-        return mediaFileRepository.findByMediaFileId(fileMd5)
+        return mediaFileCache.findByMediaFileId(fileMd5)
                 .orElse(null);
     }
 
@@ -178,6 +196,7 @@ public class ImageServiceImpl implements ImageService {
 
             // 2. 再从数据库删除记录
             mediaFileRepository.delete(mediaFile.get());
+            mediaFileCache.evict(fileId);
             return true;
         } catch (Exception e) {
             log.error("文件删除失败", e);
@@ -390,6 +409,7 @@ public class ImageServiceImpl implements ImageService {
             }
 
             mediaFileRepository.save(mediaFile);
+            mediaFileCache.evict(mediaFileId);
 
             return modelMapper.map(mediaFile, MediaFileDTO.class);
         } catch (Exception e) {
@@ -426,6 +446,9 @@ public class ImageServiceImpl implements ImageService {
 
             // 4. 删除数据库记录
             mediaFileRepository.delete(mediaFile);
+            if (mediaFile.getMediaFileId() != null) {
+                mediaFileCache.evict(mediaFile.getMediaFileId());
+            }
 
             log.info("删除媒体文件成功：{}", url);
         } catch (MediaException e) {
@@ -436,6 +459,79 @@ public class ImageServiceImpl implements ImageService {
         }
     }
 
+    /**
+     * 批量删除媒体文件
+     * 一次removeObjects请求删除MinIO对象，再批量删除数据库记录；
+     * 记录不存在的URL按URL推导对象路径继续删除，保证重试安全
+     *
+     * @param urls 文件URL列表
+     * @return 删除结果，失败的URL可由调用方重试
+     */
+    @Override
+    public BatchDeleteResultDTO deleteMediaFiles(List<String> urls) {
+        BatchDeleteResultDTO result = new BatchDeleteResultDTO();
+        if (urls == null || urls.isEmpty()) {
+            return result;
+        }
+
+        // 1. 批量查询记录，建立对象路径与URL的映射
+        Map<String, MediaFile> filesByUrl = new LinkedHashMap<>();
+        mediaFileRepository.findByUrlIn(new HashSet<>(urls))
+                .forEach(file -> filesByUrl.put(file.getUrl(), file));
+        Map<String, String> urlByObject = new LinkedHashMap<>();
+        for (String url : urls) {
+            MediaFile file = filesByUrl.get(url);
+            String objectName = file != null && file.getFilePath() != null
+                    ? file.getFilePath()
+                    : url.substring(url.indexOf("/", 1) + 1);
+            urlByObject.put(objectName, url);
+        }
+
+        // 2. 批量删除MinIO对象，结果是惰性的，必须遍历才会真正执行
+        Set<String> failedObjects = new HashSet<>();
+        try {
+            List<DeleteObject> objects = new ArrayList<>();
+            urlByObject.keySet().forEach(name -> objects.add(new DeleteObject(name)));
+            Iterable<Result<DeleteError>> errors = minioClient.removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .objects(objects)
+                            .build());
+            for (Result<DeleteError> error : errors) {
+                DeleteError deleteError = error.get();
+                log.warn("删除MinIO对象失败：{}，原因：{}", deleteError.objectName(), deleteError.message());
+                failedObjects.add(deleteError.objectName());
+            }
+        } catch (Exception e) {
+            log.error("批量删除MinIO对象失败，数量：{}", urlByObject.size(), e);
+            result.getFailedUrls().addAll(urls);
+            return result;
+        }
+
+        // 3. 批量删除已成功删除对象的数据库记录
+        List<MediaFile> deletedFiles = new ArrayList<>();
+        urlByObject.forEach((objectName, url) -> {
+            if (failedObjects.contains(objectName)) {
+                result.getFailedUrls().add(url);
+            } else {
+                result.getDeletedUrls().add(url);
+                MediaFile file = filesByUrl.get(url);
+                if (file != null) {
+                    deletedFiles.add(file);
+                }
+            }
+        });
+        if (!deletedFiles.isEmpty()) {
+            mediaFileRepository.deleteAllInBatch(deletedFiles);
+            mediaFileCache.evict(deletedFiles.stream()
+                    .map(MediaFile::getMediaFileId).filter(Objects::nonNull).toList());
+        }
+
+        log.info("批量删除媒体文件完成，成功：{}，失败：{}",
+                result.getDeletedUrls().size(), result.getFailedUrls().size());
+        return result;
+    }
+
     /**
      * 生成课程封面文件的唯一ID（机构ID+课程ID+文件名MD5）
      */
@@ -0,0 +1,50 @@
+-- 媒资服务基线表结构，与此前 ddl-auto 按实体生成的结构一致
+-- 与内容服务共用一个库，库非空时Flyway以版本0建立基线后仍会执行本脚本，
+-- 因此只用 CREATE TABLE IF NOT EXISTS，约束写在建表语句内，已存在的表原样保留
+
+CREATE TABLE IF NOT EXISTS media_file (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    media_file_id   VARCHAR(120),
+    file_name       VARCHAR(255),
+    media_type      VARCHAR(12),
+    purpose         VARCHAR(32),
+    bucket          VARCHAR(255),
+    file_path       VARCHAR(512),
+    url             VARCHAR(1024),
+    file_size       BIGINT,
+    mime_type       VARCHAR(128),
+    status          VARCHAR(12),
+    organization_id BIGINT,
+    create_time     DATETIME(6),
+    update_time     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKq8qx01tyimelie165s518kf9w UNIQUE (media_file_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS media_process (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    file_id     VARCHAR(120),
+    file_name   VARCHAR(255),
+    bucket      VARCHAR(255),
+    file_path   VARCHAR(512),
+    url         VARCHAR(1024),
+    status      VARCHAR(12),
+    error_msg   VARCHAR(1024),
+    create_time DATETIME(6),
+    finish_time DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS media_process_history (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    file_id     VARCHAR(120),
+    file_name   VARCHAR(255),
+    bucket      VARCHAR(255),
+    file_path   VARCHAR(512),
+    url         VARCHAR(1024),
+    status      VARCHAR(12),
+    error_msg   VARCHAR(1024),
+    create_time DATETIME(6),
+    finish_time DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
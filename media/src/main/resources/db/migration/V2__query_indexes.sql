@@ -0,0 +1,12 @@
+-- 仓库查询所需的索引，除url外索引名与实体 @Table(indexes) 一致
+
+-- findByUrl、findByUrlIn
+-- url最长1024字符，utf8mb4下超过InnoDB索引键3072字节的上限，只索引前255个字符；
+-- 前缀索引仍能用于等值查找，JPA注解无法表达前缀长度，因此只在迁移脚本中创建
+CREATE INDEX idx_media_file_url ON media_file (url(255));
+-- findExistingFilePaths、findByFilePathPrefixAfterId（前缀LIKE可走范围扫描）
+CREATE INDEX idx_media_file_file_path ON media_file (file_path);
+-- findByStatus
+CREATE INDEX idx_media_file_status ON media_file (status);
+-- findByMediaType
+CREATE INDEX idx_media_file_media_type ON media_file (media_type);
@@ -0,0 +1,15 @@
+-- 媒资文件、处理任务、处理历史的主键由自增改为序列号段预分配（allocationSize = 50），与内容服务相同
+-- MySQL没有序列，Hibernate用单行单列的表模拟序列，这里建表并按现有最大ID设置序列的下一个值。
+-- pooled优化器取到值v后使用 (v-49, v] 这一段，因此下一个值设为 MAX(id) + 50
+
+CREATE TABLE IF NOT EXISTS media_file_seq (next_val BIGINT);
+DELETE FROM media_file_seq;
+INSERT INTO media_file_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM media_file;
+
+CREATE TABLE IF NOT EXISTS media_process_seq (next_val BIGINT);
+DELETE FROM media_process_seq;
+INSERT INTO media_process_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM media_process;
+
+CREATE TABLE IF NOT EXISTS media_process_history_seq (next_val BIGINT);
+DELETE FROM media_process_history_seq;
+INSERT INTO media_process_history_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM media_process_history;
@@ -0,0 +1,215 @@
+package com.double2and9.media.cache;
+
+import com.double2and9.media.config.MediaFileCacheProperties;
+import com.double2and9.media.entity.MediaFile;
+import com.double2and9.media.repository.MediaFileRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MediaFileCacheTests {
+
+    private static final String MD5 = "5d41402abc4b2a76b9719d911017c592";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MediaFileRepository repository;
+    private FakeTrackingStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private MediaFileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MediaFileRepository.class);
+        store = new FakeTrackingStore();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new MediaFileCache(store, repository, objectMapper, new MediaFileCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void testRepeatedLookupsServedFromNearCache() {
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("a.mp4")));
+
+        MediaFile first = cache.findByMediaFileId(MD5).orElseThrow();
+        MediaFile second = cache.findByMediaFileId(MD5).orElseThrow();
+        cache.findByMediaFileId(MD5);
+
+        assertEquals("a.mp4", second.getFileName());
+        // 每次返回新对象，调用方修改不影响缓存
+        assertNotSame(first, second);
+        verify(repository, times(1)).findByMediaFileId(MD5);
+        // 回源后写入Redis不进本地缓存，第二次命中Redis后才进入本地缓存
+        assertEquals(2, store.gets);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "media.file.near").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testInvalidationPushedByServerDropsNearCopy() throws Exception {
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("a.mp4")));
+        cache.findByMediaFileId(MD5);
+
+        // 其他节点修改记录并删除/覆盖Redis中的键
+        store.externalWrite("media:file:" + MD5, objectMapper.writeValueAsString(mediaFile("b.mp4")));
+
+        assertEquals("b.mp4", cache.findByMediaFileId(MD5).orElseThrow().getFileName());
+        assertEquals("b.mp4", cache.findByMediaFileId(MD5).orElseThrow().getFileName());
+        assertEquals(2, store.gets);
+        verify(repository, times(1)).findByMediaFileId(MD5);
+    }
+
+    @Test
+    void testMissingRecordCachedUntilEvicted() {
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.empty());
+        assertTrue(cache.findByMediaFileId(MD5).isEmpty());
+        assertTrue(cache.findByMediaFileId(MD5).isEmpty());
+        verify(repository, times(1)).findByMediaFileId(MD5);
+
+        // 上传后删除“不存在”标记
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("a.mp4")));
+        cache.evict(MD5);
+        assertEquals("a.mp4", cache.findByMediaFileId(MD5).orElseThrow().getFileName());
+    }
+
+    @Test
+    void testMissingMarkerSeesUploadOnOtherNode() throws Exception {
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.empty());
+        assertTrue(cache.findByMediaFileId(MD5).isEmpty());
+        assertTrue(cache.findByMediaFileId(MD5).isEmpty());
+        assertTrue(cache.findByMediaFileId(MD5).isEmpty());
+
+        // 其他节点上传后删除“不存在”标记，本节点收到失效通知
+        store.externalWrite("media:file:" + MD5, null);
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("a.mp4")));
+        assertEquals("a.mp4", cache.findByMediaFileId(MD5).orElseThrow().getFileName());
+    }
+
+    @Test
+    void testInvalidationDuringLookupIsNotCachedLocally() throws Exception {
+        String key = "media:file:" + MD5;
+        store.data.put(key, objectMapper.writeValueAsString(mediaFile("a.mp4")));
+        // 读取返回后、写入本地缓存前收到失效通知
+        store.afterGet = () -> store.externalWrite(key, null);
+
+        assertEquals("a.mp4", cache.findByMediaFileId(MD5).orElseThrow().getFileName());
+        store.afterGet = null;
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("b.mp4")));
+        assertEquals("b.mp4", cache.findByMediaFileId(MD5).orElseThrow().getFileName());
+    }
+
+    @Test
+    void testNearCacheUnusedWithoutTracking() {
+        store.tracking = false;
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("a.mp4")));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cache.findByMediaFileId(MD5).isPresent());
+        }
+        assertEquals(3, store.gets);
+        verify(repository, times(1)).findByMediaFileId(MD5);
+    }
+
+    @Test
+    void testStoreFailureFallsBackToDatabase() {
+        store.failing = true;
+        when(repository.findByMediaFileId(MD5)).thenReturn(Optional.of(mediaFile("a.mp4")));
+        assertTrue(cache.findByMediaFileId(MD5).isPresent());
+        assertTrue(cache.findByMediaFileId(MD5).isPresent());
+        verify(repository, times(2)).findByMediaFileId(MD5);
+        cache.evict(MD5);
+    }
+
+    private static MediaFile mediaFile(String fileName) {
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setId(1L);
+        mediaFile.setMediaFileId(MD5);
+        mediaFile.setFileName(fileName);
+        mediaFile.setMediaType("VIDEO");
+        mediaFile.setFilePath("files/" + MD5 + ".mp4");
+        mediaFile.setFileSize(1024L);
+        return mediaFile;
+    }
+
+    /**
+     * 模拟开启 CLIENT TRACKING NOLOOP 的连接：记住读过的键，其他客户端修改这些键时推送失效通知；
+     * 键被修改后（不论由谁修改）不再跟踪，需要重新读取
+     */
+    private static class FakeTrackingStore implements MediaFileCacheStore {
+
+        final Map<String, String> data = new ConcurrentHashMap<>();
+        final Set<String> tracked = ConcurrentHashMap.newKeySet();
+        volatile boolean tracking = true;
+        volatile boolean failing;
+        volatile Runnable afterGet;
+        int gets;
+        Consumer<Collection<String>> listener;
+
+        @Override
+        public String get(String key) {
+            if (failing) {
+                throw new IllegalStateException("连接失败");
+            }
+            gets++;
+            if (tracking) {
+                tracked.add(key);
+            }
+            String value = data.get(key);
+            if (afterGet != null) {
+                afterGet.run();
+            }
+            return value;
+        }
+
+        @Override
+        public void set(String key, String value, long ttlSeconds) {
+            if (failing) {
+                throw new IllegalStateException("连接失败");
+            }
+            // 写入的键不再被跟踪，写入方自己也一样；NOLOOP 只是不给写入方发通知
+            data.put(key, value);
+            tracked.remove(key);
+        }
+
+        @Override
+        public void delete(Collection<String> keys) {
+            if (failing) {
+                throw new IllegalStateException("连接失败");
+            }
+            keys.forEach(key -> {
+                data.remove(key);
+                tracked.remove(key);
+            });
+        }
+
+        @Override
+        public boolean isTracking() {
+            return tracking;
+        }
+
+        @Override
+        public void onInvalidate(Consumer<Collection<String>> listener) {
+            this.listener = listener;
+        }
+
+        void externalWrite(String key, String value) {
+            if (value == null) {
+                data.remove(key);
+            } else {
+                data.put(key, value);
+            }
+            if (tracked.remove(key)) {
+                listener.accept(List.of(key));
+            }
+        }
+    }
+}